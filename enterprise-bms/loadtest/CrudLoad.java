@@ -0,0 +1,172 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Closed-loop load on the transport and fuel CRUD endpoints. Each worker repeats
+// create -> get -> update -> page -> delete for a transport, then for a fuel fill, as fast as the
+// server answers. Run by crud-load.sh; standalone:
+//   java loadtest/CrudLoad.java <baseUrl> <token> <vehicleId> <threads> <warmupSeconds> <seconds>
+public class CrudLoad {
+    private static final Pattern ID = Pattern.compile("\"id\":(\\d+)");
+    private static final String[] OPS = {"create", "get", "update", "page", "delete"};
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final String baseUrl;
+    private final String token;
+    private final long vehicleId;
+    private final AtomicBoolean measuring = new AtomicBoolean();
+    private final AtomicBoolean running = new AtomicBoolean(true);
+
+    CrudLoad(String baseUrl, String token, long vehicleId) {
+        this.baseUrl = baseUrl;
+        this.token = token;
+        this.vehicleId = vehicleId;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args[0];
+        String token = args[1];
+        long vehicleId = Long.parseLong(args[2]);
+        int threads = Integer.parseInt(args[3]);
+        int warmupSeconds = Integer.parseInt(args[4]);
+        int seconds = Integer.parseInt(args[5]);
+
+        CrudLoad load = new CrudLoad(baseUrl, token, vehicleId);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<Stats>> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            workers.add(pool.submit(load::work));
+        }
+        Thread.sleep(warmupSeconds * 1000L);
+        load.measuring.set(true);
+        Thread.sleep(seconds * 1000L);
+        load.measuring.set(false);
+        load.running.set(false);
+        Stats total = new Stats();
+        for (Future<Stats> worker : workers) {
+            total.add(worker.get());
+        }
+        pool.shutdown();
+        total.print(seconds);
+    }
+
+    private Stats work() {
+        Stats stats = new Stats();
+        int n = 0;
+        while (running.get()) {
+            n++;
+            String day = LocalDate.of(2024, 1, 1).plusDays(n % 365).toString();
+            cycle(stats, "transports", "transport", "{\"clientName\":\"Load Client\",\"startingPoint\":\"Colombo\","
+                    + "\"destination\":\"Kandy\",\"loadingDate\":\"" + day + "\",\"ownVehicleId\":" + vehicleId
+                    + ",\"distanceKm\":115,\"agreedAmount\":25000,\"advanceReceived\":0,\"balanceReceived\":0,"
+                    + "\"heldUp\":0,\"paymentStatus\":1,\"tripStatus\":1}",
+                    "\"tripStatus\":1", "\"tripStatus\":2");
+            cycle(stats, "fuel", "fuel", "{\"fuelDate\":\"" + day + "\",\"vehicleId\":" + vehicleId
+                    + ",\"fuelQuantity\":50,\"totalCost\":18000,\"notes\":\"load\"}",
+                    "\"notes\":\"load\"", "\"notes\":\"load updated\"");
+        }
+        return stats;
+    }
+
+    private void cycle(Stats stats, String path, String kind, String body, String from, String to) {
+        String created = call(stats, kind, 0, HttpRequest.newBuilder(uri("/" + path))
+                .POST(HttpRequest.BodyPublishers.ofString(body)));
+        Matcher id = created == null ? null : ID.matcher(created);
+        if (id == null || !id.find()) {
+            return;
+        }
+        String item = "/" + path + "/" + id.group(1);
+        call(stats, kind, 1, HttpRequest.newBuilder(uri(item)).GET());
+        call(stats, kind, 2, HttpRequest.newBuilder(uri(item))
+                .PUT(HttpRequest.BodyPublishers.ofString(body.replace(from, to))));
+        call(stats, kind, 3, HttpRequest.newBuilder(uri("/" + path + "/page?size=50")).GET());
+        call(stats, kind, 4, HttpRequest.newBuilder(uri(item)).DELETE());
+    }
+
+    // Response body, or null on an error status or failure
+    private String call(Stats stats, String kind, int op, HttpRequest.Builder request) {
+        long start = System.nanoTime();
+        String body = null;
+        try {
+            HttpResponse<String> response = client.send(request
+                    .header("Authorization", "Bearer " + token)
+                    .header("Content-Type", "application/json")
+                    .timeout(Duration.ofSeconds(30))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() < 300) {
+                body = response.body();
+            }
+        } catch (Exception e) {
+            // counted as an error below
+        }
+        if (measuring.get()) {
+            stats.record(kind.equals("fuel") ? OPS.length + op : op, System.nanoTime() - start, body != null);
+        }
+        return body;
+    }
+
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+
+    private static class Stats {
+        private final List<List<Long>> latencies = new ArrayList<>();
+        private final long[] errors = new long[OPS.length * 2];
+
+        Stats() {
+            for (int i = 0; i < OPS.length * 2; i++) {
+                latencies.add(new ArrayList<>());
+            }
+        }
+
+        void record(int op, long nanos, boolean ok) {
+            if (ok) {
+                latencies.get(op).add(nanos);
+            } else {
+                errors[op]++;
+            }
+        }
+
+        void add(Stats other) {
+            for (int i = 0; i < latencies.size(); i++) {
+                latencies.get(i).addAll(other.latencies.get(i));
+                errors[i] += other.errors[i];
+            }
+        }
+
+        void print(int seconds) {
+            long requests = 0;
+            long failed = 0;
+            System.out.printf("%-18s %8s %8s %8s %8s%n", "request", "req/s", "p50 ms", "p99 ms", "errors");
+            for (int i = 0; i < latencies.size(); i++) {
+                long[] sorted = latencies.get(i).stream().mapToLong(Long::longValue).toArray();
+                Arrays.sort(sorted);
+                requests += sorted.length;
+                failed += errors[i];
+                String name = (i < OPS.length ? "transport " : "fuel ") + OPS[i % OPS.length];
+                System.out.printf("%-18s %8.1f %8.1f %8.1f %8d%n", name, sorted.length / (double) seconds,
+                        percentile(sorted, 0.50), percentile(sorted, 0.99), errors[i]);
+            }
+            System.out.printf("%-18s %8.1f %8s %8s %8d%n", "total", requests / (double) seconds, "", "", failed);
+        }
+
+        private static double percentile(long[] sorted, double p) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            return sorted[(int) Math.min(sorted.length - 1, Math.floor(p * sorted.length))] / 1_000_000.0;
+        }
+    }
+}
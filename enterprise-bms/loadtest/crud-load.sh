@@ -0,0 +1,68 @@
+#!/usr/bin/env bash
+# Throughput of the transport and fuel CRUD endpoints with the default settings and with the
+# production profile, against the same MySQL database. Results are printed per run; see README.md.
+#
+#   loadtest/crud-load.sh                      (from enterprise-bms/)
+#
+# Environment (defaults in brackets):
+#   DB_URL       [jdbc:mysql://localhost:3308/kasthuri_backend?createDatabaseIfNotExist=true&rewriteBatchedStatements=true&useCursorFetch=true]
+#   DB_USER      [root]    DB_PASSWORD []
+#   THREADS      [16]      concurrent clients
+#   WARMUP       [30]      seconds of load before measuring
+#   DURATION     [60]      measured seconds
+#   PROFILES     ["default production"]
+#   PORT         [8089]
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+DB_URL=${DB_URL:-"jdbc:mysql://localhost:3308/kasthuri_backend?createDatabaseIfNotExist=true&rewriteBatchedStatements=true&useCursorFetch=true"}
+DB_USER=${DB_USER:-root}
+DB_PASSWORD=${DB_PASSWORD:-}
+THREADS=${THREADS:-16}
+WARMUP=${WARMUP:-30}
+DURATION=${DURATION:-60}
+PROFILES=${PROFILES:-"default production"}
+PORT=${PORT:-8089}
+BASE="http://localhost:$PORT/api/v1.0"
+EMAIL=loadtest@example.com
+PASSWORD=loadtest
+
+export MAIL_USERNAME=${MAIL_USERNAME:-loadtest} MAIL_PASSWORD=${MAIL_PASSWORD:-loadtest} MAIL_FROM=${MAIL_FROM:-loadtest@localhost}
+
+mvn -q -B package -DskipTests
+JAR=$(ls target/enterprise-bms-*.jar | grep -v plain | head -1)
+mkdir -p target/loadtest
+
+for profile in $PROFILES; do
+    log=target/loadtest/app-$profile.log
+    echo "== profile: $profile ($THREADS clients, ${WARMUP}s warm-up, ${DURATION}s measured)"
+    java -jar "$JAR" --spring.profiles.active="$profile" --server.port="$PORT" \
+        --spring.datasource.url="$DB_URL" --spring.datasource.username="$DB_USER" \
+        --spring.datasource.password="$DB_PASSWORD" > "$log" 2>&1 &
+    app=$!
+    trap 'kill $app 2>/dev/null || true' EXIT
+    until curl -sf "$BASE/health" > /dev/null; do
+        kill -0 $app 2>/dev/null || { echo "application failed to start, see $log"; exit 1; }
+        sleep 1
+    done
+
+    # Same user and vehicle for every run; registering again fails harmlessly once they exist
+    curl -s -o /dev/null -H 'Content-Type: application/json' -X POST "$BASE/register" \
+        -d "{\"username\":\"loadtest\",\"password\":\"$PASSWORD\",\"role\":\"admin\",\"email\":\"$EMAIL\"}"
+    token=$(curl -sf -H 'Content-Type: application/json' -X POST "$BASE/login" \
+        -d "{\"email\":\"$EMAIL\",\"password\":\"$PASSWORD\"}" | jq -r .token)
+    vehicle=$(curl -sf -H "Authorization: Bearer $token" "$BASE/own-vehicles" \
+        | jq -r '[.[] | select(.regNumber == "LOAD-1")][0].id // empty')
+    if [ -z "$vehicle" ]; then
+        vehicle=$(curl -sf -H "Authorization: Bearer $token" -H 'Content-Type: application/json' \
+            -X POST "$BASE/own-vehicles" \
+            -d '{"regNumber":"LOAD-1","type":"Lorry","status":"Available","currentMileage":0}' | jq -r .id)
+    fi
+
+    java loadtest/CrudLoad.java "$BASE" "$token" "$vehicle" "$THREADS" "$WARMUP" "$DURATION" \
+        | tee target/loadtest/result-$profile.txt
+
+    kill $app
+    wait $app 2>/dev/null || true
+    trap - EXIT
+done
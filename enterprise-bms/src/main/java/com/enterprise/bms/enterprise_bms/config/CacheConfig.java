@@ -0,0 +1,37 @@
+package com.enterprise.bms.enterprise_bms.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+
+// Application caches for reference-data lists (Caffeine, see spring.cache.* in application.properties).
+// Entity lookups by id go through the Hibernate second-level cache instead (see application.conf).
+// The caching advice runs outside @Transactional so evictions happen after the write has committed.
+@Configuration
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
+public class CacheConfig {
+
+    public static final String OWN_VEHICLES = "ownVehicles";
+    public static final String DRIVERS = "drivers";
+    public static final String EX_VEHICLES = "exVehicles";
+    // Authenticated principals by email (see AppUserDetailsService). Its hit count under
+    // cache.gets is the number of tbl_users lookups the JWT filter did not have to make.
+    public static final String PRINCIPALS = "principals";
+
+    // Principals get a shorter TTL than the shared spec so a change made outside UserService
+    // (e.g. directly in the database) still reaches running sessions within a minute.
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> principalCacheCustomizer() {
+        return cacheManager -> cacheManager.registerCustomCache(PRINCIPALS, Caffeine.newBuilder()
+                .maximumSize(1000)
+                .expireAfterWrite(Duration.ofSeconds(60))
+                .recordStats()
+                .build());
+    }
+}
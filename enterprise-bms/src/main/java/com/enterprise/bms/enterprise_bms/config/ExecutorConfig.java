@@ -0,0 +1,86 @@
+package com.enterprise.bms.enterprise_bms.config;
+
+import com.enterprise.bms.enterprise_bms.service.MonthlyPackService;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+@EnableScheduling
+public class ExecutorConfig {
+
+    // Spring MVC runs StreamingResponseBody downloads (invoice PDFs and exports, /excel/download,
+    // the monthly pack) on the bean with this name. Declaring the executors below makes Spring Boot
+    // skip its own, and MVC would fall back to a new thread per download; this keeps them bounded.
+    // A download waits in the queue while all threads are busy streaming.
+    @Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    public ThreadPoolTaskExecutor applicationTaskExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(8);
+        executor.setMaxPoolSize(8);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("download-");
+        executor.initialize();
+        return executor;
+    }
+
+    // Bounded pool for CPU-bound document rendering (bulk invoice export).
+    // When the queue is full the submitting thread renders the document itself.
+    @Bean
+    public ThreadPoolTaskExecutor pdfRenderExecutor() {
+        int threads = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("pdf-render-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    // Background report jobs (see ReportJobService). Kept small so long exports cannot take
+    // database connections and CPU away from request threads; a full queue rejects new jobs.
+    @Bean
+    public ThreadPoolTaskExecutor reportJobExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(20);
+        executor.setThreadNamePrefix("report-job-");
+        executor.initialize();
+        return executor;
+    }
+
+    // History imports (see ImportJobService). One at a time: batches insert thousands of rows and
+    // update the same rollup rows, so parallel imports would only contend; a full queue rejects new jobs.
+    @Bean
+    public ThreadPoolTaskExecutor importJobExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(10);
+        executor.setThreadNamePrefix("import-job-");
+        executor.initialize();
+        return executor;
+    }
+
+    // Module queries of the monthly pack workbook (see MonthlyPackService). Each running query holds a
+    // database connection on a cursor for its whole run, so the pool stays well below the connection
+    // pool (10 by default); a pack runs its eight queries four at a time. The queue holds every query
+    // of the packs MonthlyPackService admits at once, so an admitted pack is never rejected.
+    @Bean
+    public ThreadPoolTaskExecutor monthlyPackExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.setMaxPoolSize(4);
+        executor.setQueueCapacity(MonthlyPackService.MAX_CONCURRENT_PACKS * MonthlyPackService.MODULE_SHEETS);
+        executor.setThreadNamePrefix("monthly-pack-");
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,13 @@
+package com.enterprise.bms.enterprise_bms.config;
+
+import com.enterprise.bms.enterprise_bms.repository.FilteringJpaRepository;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+@Configuration
+@EnableJpaRepositories(
+        basePackages = "com.enterprise.bms.enterprise_bms.repository",
+        repositoryBaseClass = FilteringJpaRepository.class
+)
+public class JpaConfig {
+}
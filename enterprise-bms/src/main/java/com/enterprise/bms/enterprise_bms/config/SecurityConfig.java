@@ -2,6 +2,7 @@ package com.enterprise.bms.enterprise_bms.config;
 
 import com.enterprise.bms.enterprise_bms.security.JwtRequestFilter;
 import com.enterprise.bms.enterprise_bms.service.AppUserDetailsService;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -34,6 +35,8 @@ public class SecurityConfig {
          httpSecurity.cors(Customizer.withDefaults())
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(auth->auth.requestMatchers("/status","/health","/register","/login","/forgot-password", "/reset-password").permitAll()
+                        // Streamed downloads finish on an async dispatch; the request was already authorized
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .anyRequest().authenticated())
                         .sessionManagement(session-> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                         .addFilterBefore(jwtRequestFilter, UsernamePasswordAuthenticationFilter.class);
@@ -1,6 +1,7 @@
 package com.enterprise.bms.enterprise_bms.controller;
 
 import com.enterprise.bms.enterprise_bms.dto.AdvanceDTO;
+import com.enterprise.bms.enterprise_bms.dto.PageResponse;
 import com.enterprise.bms.enterprise_bms.service.AdvanceService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -29,6 +30,17 @@ public class AdvanceController {
         return ResponseEntity.ok(advanceService.getFilteredAdvances(recipientType, recipientId, month));
     }
 
+    // Paged list (?size=&cursor=)
+    @GetMapping("/page")
+    public ResponseEntity<PageResponse<AdvanceDTO>> getAdvancePage(
+            @RequestParam(required = false) String recipientType,
+            @RequestParam(required = false) Long recipientId,
+            @RequestParam(required = false) String month,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String cursor) {
+        return ResponseEntity.ok(advanceService.getAdvancePage(recipientType, recipientId, month, size, cursor));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<AdvanceDTO> getAdvanceById(@PathVariable Long id) {
         AdvanceDTO advance = advanceService.getAdvanceById(id);
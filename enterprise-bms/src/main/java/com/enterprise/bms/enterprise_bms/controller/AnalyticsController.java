@@ -0,0 +1,43 @@
+package com.enterprise.bms.enterprise_bms.controller;
+
+import com.enterprise.bms.enterprise_bms.dto.VehicleAnalyticsDTO;
+import com.enterprise.bms.enterprise_bms.service.VehicleAnalyticsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/analytics")
+public class AnalyticsController {
+    private final VehicleAnalyticsService vehicleAnalyticsService;
+
+    // Profit, cost per km and fuel efficiency of every own vehicle, per month and for the range
+    // Optional range: ?from=YYYY-MM&to=YYYY-MM (defaults to the current year)
+    @GetMapping("/vehicles")
+    public ResponseEntity<List<VehicleAnalyticsDTO>> getVehicleAnalytics(
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to) {
+        try {
+            YearMonth start;
+            YearMonth end;
+            if ((from == null || from.isEmpty()) && (to == null || to.isEmpty())) {
+                start = YearMonth.now().withMonth(1);
+                end = start.withMonth(12);
+            } else {
+                start = from != null && !from.isEmpty() ? YearMonth.parse(from) : YearMonth.parse(to).withMonth(1);
+                end = to != null && !to.isEmpty() ? YearMonth.parse(to) : start.withMonth(12);
+            }
+            return ResponseEntity.ok(vehicleAnalyticsService.getFleetAnalytics(start, end));
+        } catch (DateTimeParseException e) {
+            throw new RuntimeException("Invalid month format. Use YYYY-MM");
+        }
+    }
+}
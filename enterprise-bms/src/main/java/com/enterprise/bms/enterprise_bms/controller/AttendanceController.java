@@ -1,6 +1,7 @@
 package com.enterprise.bms.enterprise_bms.controller;
 
 import com.enterprise.bms.enterprise_bms.dto.AttendanceDTO;
+import com.enterprise.bms.enterprise_bms.dto.PageResponse;
 import com.enterprise.bms.enterprise_bms.service.AttendanceService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -30,6 +31,17 @@ public class AttendanceController {
         return ResponseEntity.ok(attendanceService.getFilteredAttendances(recipientType, recipientId, month));
     }
 
+    // Paged list (?size=&cursor=)
+    @GetMapping("/page")
+    public ResponseEntity<PageResponse<AttendanceDTO>> getAttendancePage(
+            @RequestParam(required = false) String recipientType,
+            @RequestParam(required = false) Long recipientId,
+            @RequestParam(required = false) String month,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String cursor) {
+        return ResponseEntity.ok(attendanceService.getAttendancePage(recipientType, recipientId, month, size, cursor));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<AttendanceDTO> getAttendanceById(@PathVariable Long id) {
         AttendanceDTO attendance = attendanceService.getAttendanceById(id);
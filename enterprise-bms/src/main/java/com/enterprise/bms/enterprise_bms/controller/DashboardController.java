@@ -5,17 +5,42 @@ import com.enterprise.bms.enterprise_bms.service.DashboardService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/dashboard")
 public class DashboardController {
     private final DashboardService dashboardService;
 
+    // Optional range: ?from=YYYY-MM&to=YYYY-MM (defaults to the current year)
     @GetMapping
-    public ResponseEntity<DashboardDTO> getDashboardData() {
-        return ResponseEntity.ok(dashboardService.getDashboardData());
+    public ResponseEntity<DashboardDTO> getDashboardData(
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to) {
+        if ((from == null || from.isEmpty()) && (to == null || to.isEmpty())) {
+            return ResponseEntity.ok(dashboardService.getDashboardData());
+        }
+        try {
+            YearMonth start = from != null && !from.isEmpty() ? YearMonth.parse(from) : YearMonth.parse(to).withMonth(1);
+            YearMonth end = to != null && !to.isEmpty() ? YearMonth.parse(to) : start.withMonth(12);
+            return ResponseEntity.ok(dashboardService.getDashboardData(start, end));
+        } catch (DateTimeParseException e) {
+            throw new RuntimeException("Invalid month format. Use YYYY-MM");
+        }
+    }
+
+    // Recompute the monthly financial rollup from the source tables
+    @PostMapping("/rebuild-financials")
+    public ResponseEntity<Map<String, Object>> rebuildFinancials() {
+        int rows = dashboardService.rebuildFinancials();
+        return ResponseEntity.ok(Map.of("message", "Monthly financials rebuilt", "rows", rows));
     }
-}
\ No newline at end of file
+}
@@ -1,6 +1,7 @@
 package com.enterprise.bms.enterprise_bms.controller;
 
 import com.enterprise.bms.enterprise_bms.dto.ExVehiclesDTO;
+import com.enterprise.bms.enterprise_bms.dto.PageResponse;
 import com.enterprise.bms.enterprise_bms.service.ExVehicleService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -30,6 +31,16 @@ public class ExVehiclesController {
         return ResponseEntity.ok(exVehicleService.getFilteredExVehicles(regNumber, month));
     }
 
+    // Paged list (?size=&cursor=)
+    @GetMapping("/page")
+    public ResponseEntity<PageResponse<ExVehiclesDTO>> getVehiclePage(
+            @RequestParam(required = false) String regNumber,
+            @RequestParam(required = false) String month,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String cursor) {
+        return ResponseEntity.ok(exVehicleService.getExVehiclePage(regNumber, month, size, cursor));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<ExVehiclesDTO> getVehicleById(@PathVariable Long id) {
         ExVehiclesDTO vehicle = exVehicleService.getExVehicleById(id);
@@ -1,8 +1,7 @@
 package com.enterprise.bms.enterprise_bms.controller;
+import com.enterprise.bms.enterprise_bms.report.ReportFormat;
 import com.enterprise.bms.enterprise_bms.service.*;
 import lombok.RequiredArgsConstructor;
-import org.springframework.core.io.InputStreamResource;
-import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -10,7 +9,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
-import java.io.ByteArrayInputStream;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/excel")
@@ -23,128 +22,88 @@ public class ExcelController {
     private final ExVehicleService exVehicleService;
     private final FuelService fuelService;
     private final TireMaintenanceService tireMaintenanceService;
+    private final MonthlyPackService monthlyPackService;
     @GetMapping("/download/maintenance")
-    public ResponseEntity<Resource> downloadMaintenanceExcel(
+    public ResponseEntity<StreamingResponseBody> downloadMaintenanceExcel(
             @RequestParam(required = false) Long vehicleId,
-            @RequestParam(required = false) String month) {
-        try {
-            ByteArrayInputStream inputStream = maintenanceService.generateMaintenanceExcelReport(vehicleId, month);
-            InputStreamResource resource = new InputStreamResource(inputStream);
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=maintenance_details.xlsx")
-                    .contentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
-                    .body(resource);
-        } catch (Exception e) {
-            throw new RuntimeException("Error generating maintenance Excel report", e);
-        }
+            @RequestParam(required = false) String month,
+            @RequestParam(required = false) String format) {
+        ReportFormat reportFormat = ReportFormat.fromParam(format);
+        return reportResponse("maintenance_details", reportFormat, out -> maintenanceService.writeMaintenanceReport(vehicleId, month, reportFormat, out));
     }
     @GetMapping("/download/transport")
-    public ResponseEntity<Resource> downloadTransportExcel(
+    public ResponseEntity<StreamingResponseBody> downloadTransportExcel(
             @RequestParam(required = false) Long vehicleId,
-            @RequestParam(required = false) String month) {
-        try {
-            ByteArrayInputStream inputStream = transportService.generateTransportExcelReport(vehicleId, month);
-            InputStreamResource resource = new InputStreamResource(inputStream);
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=transport_details.xlsx")
-                    .contentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
-                    .body(resource);
-        } catch (Exception e) {
-            throw new RuntimeException("Error generating transport Excel report", e);
-        }
+            @RequestParam(required = false) String month,
+            @RequestParam(required = false) String format) {
+        ReportFormat reportFormat = ReportFormat.fromParam(format);
+        return reportResponse("transport_details", reportFormat, out -> transportService.writeTransportReport(vehicleId, month, reportFormat, out));
     }
     @GetMapping("/download/attendance")
-    public ResponseEntity<Resource> downloadAttendanceExcel(
+    public ResponseEntity<StreamingResponseBody> downloadAttendanceExcel(
             @RequestParam(required = false) String recipientType,
             @RequestParam(required = false) Long recipientId,
-            @RequestParam(required = false) String month) {
-        try {
-            ByteArrayInputStream inputStream = attendanceService.generateAttendanceExcelReport(recipientType, recipientId, month);
-            InputStreamResource resource = new InputStreamResource(inputStream);
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=attendance_details.xlsx")
-                    .contentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
-                    .body(resource);
-        } catch (Exception e) {
-            throw new RuntimeException("Error generating attendance Excel report", e);
-        }
+            @RequestParam(required = false) String month,
+            @RequestParam(required = false) String format) {
+        ReportFormat reportFormat = ReportFormat.fromParam(format);
+        return reportResponse("attendance_details", reportFormat, out -> attendanceService.writeAttendanceReport(recipientType, recipientId, month, reportFormat, out));
     }
     @GetMapping("/download/payments")
-    public ResponseEntity<Resource> downloadPaymentsExcel(
+    public ResponseEntity<StreamingResponseBody> downloadPaymentsExcel(
             @RequestParam(required = false) String recipientType,
             @RequestParam(required = false) Long recipientId,
-            @RequestParam(required = false) String month) {
-        try {
-            ByteArrayInputStream inputStream = paymentService.generatePaymentsExcelReport(recipientType, recipientId, month);
-            InputStreamResource resource = new InputStreamResource(inputStream);
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=payments_details.xlsx")
-                    .contentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
-                    .body(resource);
-        } catch (Exception e) {
-            throw new RuntimeException("Error generating payments Excel report", e);
-        }
+            @RequestParam(required = false) String month,
+            @RequestParam(required = false) String format) {
+        ReportFormat reportFormat = ReportFormat.fromParam(format);
+        return reportResponse("payments_details", reportFormat, out -> paymentService.writePaymentsReport(recipientType, recipientId, month, reportFormat, out));
     }
     @GetMapping("/download/advances")
-    public ResponseEntity<Resource> downloadAdvancesExcel(
+    public ResponseEntity<StreamingResponseBody> downloadAdvancesExcel(
             @RequestParam(required = false) String recipientType,
             @RequestParam(required = false) Long recipientId,
-            @RequestParam(required = false) String month) {
-        try {
-            ByteArrayInputStream inputStream = advanceService.generateAdvancesExcelReport(recipientType, recipientId, month);
-            InputStreamResource resource = new InputStreamResource(inputStream);
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=advances_details.xlsx")
-                    .contentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
-                    .body(resource);
-        } catch (Exception e) {
-            throw new RuntimeException("Error generating advances Excel report", e);
-        }
+            @RequestParam(required = false) String month,
+            @RequestParam(required = false) String format) {
+        ReportFormat reportFormat = ReportFormat.fromParam(format);
+        return reportResponse("advances_details", reportFormat, out -> advanceService.writeAdvancesReport(recipientType, recipientId, month, reportFormat, out));
     }
     @GetMapping("/download/ex-vehicles")
-    public ResponseEntity<Resource> downloadExVehiclesExcel(
+    public ResponseEntity<StreamingResponseBody> downloadExVehiclesExcel(
             @RequestParam(required = false) String regNumber,
-            @RequestParam(required = false) String month) {
-        try {
-            ByteArrayInputStream inputStream = exVehicleService.generateExVehiclesExcelReport(regNumber, month);
-            InputStreamResource resource = new InputStreamResource(inputStream);
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=ex_vehicles_details.xlsx")
-                    .contentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
-                    .body(resource);
-        } catch (Exception e) {
-            throw new RuntimeException("Error generating ex vehicles Excel report", e);
-        }
+            @RequestParam(required = false) String month,
+            @RequestParam(required = false) String format) {
+        ReportFormat reportFormat = ReportFormat.fromParam(format);
+        return reportResponse("ex_vehicles_details", reportFormat, out -> exVehicleService.writeExVehiclesReport(regNumber, month, reportFormat, out));
     }
 
     @GetMapping("/download/fuel")
-    public ResponseEntity<Resource> downloadFuelExcel(
+    public ResponseEntity<StreamingResponseBody> downloadFuelExcel(
             @RequestParam(required = false) String regNumber,
-            @RequestParam(required = false) String month) {
-        try {
-            ByteArrayInputStream inputStream = fuelService.generateFuelExcelReport(regNumber, month);
-            InputStreamResource resource = new InputStreamResource(inputStream);
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=fuel_details.xlsx")
-                    .contentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
-                    .body(resource);
-        } catch (Exception e) {
-            throw new RuntimeException("Error generating fuel Excel report", e);
-        }
+            @RequestParam(required = false) String month,
+            @RequestParam(required = false) String format) {
+        ReportFormat reportFormat = ReportFormat.fromParam(format);
+        return reportResponse("fuel_details", reportFormat, out -> fuelService.writeFuelReport(regNumber, month, reportFormat, out));
     }
     @GetMapping("/download/tire-maintenance")
-    public ResponseEntity<Resource> downloadTireMaintenanceExcel(
+    public ResponseEntity<StreamingResponseBody> downloadTireMaintenanceExcel(
             @RequestParam(required = false) Long vehicleId,
-            @RequestParam(required = false) String month) {
-        try {
-            ByteArrayInputStream inputStream = tireMaintenanceService.generateTireMaintenanceExcelReport(vehicleId, month);
-            InputStreamResource resource = new InputStreamResource(inputStream);
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=tire_maintenance_details.xlsx")
-                    .contentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
-                    .body(resource);
-        } catch (Exception e) {
-            throw new RuntimeException("Error generating tire maintenance Excel report", e);
-        }
+            @RequestParam(required = false) String month,
+            @RequestParam(required = false) String format) {
+        ReportFormat reportFormat = ReportFormat.fromParam(format);
+        return reportResponse("tire_maintenance_details", reportFormat, out -> tireMaintenanceService.writeTireMaintenanceReport(vehicleId, month, reportFormat, out));
     }
-}
\ No newline at end of file
+
+    // Month-end pack: P&L summary plus one sheet per module (month=YYYY-MM)
+    @GetMapping("/download/monthly-pack")
+    public ResponseEntity<StreamingResponseBody> downloadMonthlyPack(@RequestParam String month) {
+        StreamingResponseBody body = monthlyPackService.streamMonthlyPack(month);
+        return reportResponse("monthly_pack_" + month, ReportFormat.XLSX, body);
+    }
+
+    // Writes the report straight to the response instead of buffering it
+    private ResponseEntity<StreamingResponseBody> reportResponse(String baseName, ReportFormat format, StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + baseName + "." + format.getExtension())
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .body(body);
+    }
+}
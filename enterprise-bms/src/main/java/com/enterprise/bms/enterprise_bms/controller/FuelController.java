@@ -1,6 +1,9 @@
 package com.enterprise.bms.enterprise_bms.controller;
 
 import com.enterprise.bms.enterprise_bms.dto.FuelDTO;
+import com.enterprise.bms.enterprise_bms.dto.FuelEfficiencyDTO;
+import com.enterprise.bms.enterprise_bms.dto.PageResponse;
+import com.enterprise.bms.enterprise_bms.service.FuelEfficiencyService;
 import com.enterprise.bms.enterprise_bms.service.FuelService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -9,6 +12,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequiredArgsConstructor
@@ -16,6 +20,7 @@ import java.util.List;
 public class FuelController {
 
     private final FuelService fuelService;
+    private final FuelEfficiencyService fuelEfficiencyService;
 
     @PostMapping
     public ResponseEntity<FuelDTO> createFuel(@RequestBody FuelDTO dto) {
@@ -30,6 +35,16 @@ public class FuelController {
         return ResponseEntity.ok(fuelService.getFilteredFuels(vehicleId, month));
     }
 
+    // Paged list (?size=&cursor=)
+    @GetMapping("/page")
+    public ResponseEntity<PageResponse<FuelDTO>> getFuelPage(
+            @RequestParam(required = false) Long vehicleId,
+            @RequestParam(required = false) String month,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String cursor) {
+        return ResponseEntity.ok(fuelService.getFuelPage(vehicleId, month, size, cursor));
+    }
+
     @GetMapping("/by-regnumber")
     public ResponseEntity<List<FuelDTO>> getFuelsByRegNumberAndMonth(
             @RequestParam(required = false) String regNumber,
@@ -63,4 +78,20 @@ public class FuelController {
         BigDecimal totalCost = fuelService.getTotalFuelCostForVehicle(vehicleId, month);
         return ResponseEntity.ok(totalCost);
     }
-}
\ No newline at end of file
+
+    // km/L and cost/km per fill with anomaly flags (?vehicleId=&from=YYYY-MM&to=YYYY-MM)
+    @GetMapping("/efficiency")
+    public ResponseEntity<List<FuelEfficiencyDTO>> getFuelEfficiency(
+            @RequestParam Long vehicleId,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to) {
+        return ResponseEntity.ok(fuelEfficiencyService.getSeries(vehicleId, from, to));
+    }
+
+    // Recompute the stored efficiency of every fill from the odometer readings
+    @PostMapping("/efficiency/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildFuelEfficiency() {
+        int fills = fuelEfficiencyService.rebuild();
+        return ResponseEntity.ok(Map.of("message", "Fuel efficiency rebuilt", "fills", fills));
+    }
+}
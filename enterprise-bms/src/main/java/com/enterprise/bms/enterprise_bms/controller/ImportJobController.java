@@ -0,0 +1,59 @@
+package com.enterprise.bms.enterprise_bms.controller;
+
+import com.enterprise.bms.enterprise_bms.dto.ImportJobDTO;
+import com.enterprise.bms.enterprise_bms.dto.ImportResultDTO;
+import com.enterprise.bms.enterprise_bms.service.ImportJobService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/imports/jobs")
+public class ImportJobController {
+
+    private final ImportJobService importJobService;
+
+    // Queue a history import (multipart: "recordType" = fuel | maintenance | tire-maintenance, "file" = .xlsx or .csv).
+    // Columns are those of the matching /excel/download report; vehicles are matched by reg number.
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ImportJobDTO> submitJob(@RequestParam String recordType,
+                                                  @RequestParam("file") MultipartFile file) throws IOException {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(importJobService.submitJob(recordType, file));
+    }
+
+    // The current user's most recent jobs
+    @GetMapping
+    public ResponseEntity<List<ImportJobDTO>> getMyJobs() {
+        return ResponseEntity.ok(importJobService.getMyJobs());
+    }
+
+    // Status, committed row counts and checkpoint
+    @GetMapping("/{id}")
+    public ResponseEntity<ImportJobDTO> getJob(@PathVariable Long id) {
+        return ResponseEntity.ok(importJobService.getJob(id));
+    }
+
+    @GetMapping("/{id}/errors")
+    public ResponseEntity<List<ImportResultDTO.RowError>> getErrors(@PathVariable Long id) {
+        return ResponseEntity.ok(importJobService.getErrors(id));
+    }
+
+    // Continue a failed job after its last committed batch
+    @PostMapping("/{id}/resume")
+    public ResponseEntity<ImportJobDTO> resumeJob(@PathVariable Long id) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(importJobService.resumeJob(id));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteJob(@PathVariable Long id) {
+        importJobService.deleteJob(id);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -2,17 +2,19 @@
 package com.enterprise.bms.enterprise_bms.controller;
 
 import com.enterprise.bms.enterprise_bms.dto.InvoiceDTO;
+import com.enterprise.bms.enterprise_bms.entity.InvoiceEntity;
+import com.enterprise.bms.enterprise_bms.service.InvoiceExportService;
 import com.enterprise.bms.enterprise_bms.service.InvoiceService;
 import lombok.RequiredArgsConstructor;
-import org.springframework.core.io.InputStreamResource;
-import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.ByteArrayInputStream;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 
 @RestController
@@ -21,11 +23,13 @@ import java.util.List;
 public class InvoiceController {
 
     private final InvoiceService invoiceService;
+    private final InvoiceExportService invoiceExportService;
 
     // Get all invoices
+    // ?includeItems=false returns invoice headers only
     @GetMapping
-    public ResponseEntity<List<InvoiceDTO>> getAllInvoices() {
-        return ResponseEntity.ok(invoiceService.getAllInvoices());
+    public ResponseEntity<List<InvoiceDTO>> getAllInvoices(@RequestParam(defaultValue = "true") boolean includeItems) {
+        return ResponseEntity.ok(invoiceService.getAllInvoices(includeItems));
     }
 
     // Create invoice (body: { "transportIds": [1,2], "createdByUserId": 1 })
@@ -41,13 +45,46 @@ public class InvoiceController {
     }
 
     @GetMapping("/{id}/pdf")
-    public ResponseEntity<Resource> downloadInvoicePdf(@PathVariable Long id) {
-        ByteArrayInputStream inputStream = invoiceService.generateInvoicePdf(id);
-        InputStreamResource resource = new InputStreamResource(inputStream);
+    public ResponseEntity<StreamingResponseBody> downloadInvoicePdf(@PathVariable Long id) {
+        StreamingResponseBody body = invoiceService.streamInvoicePdf(id);
         return ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=invoice_" + id + ".pdf")
                 .contentType(MediaType.APPLICATION_PDF)
-                .body(resource);
+                .body(body);
+    }
+
+    // Bulk PDF export: ?ids=1,2,3 or ?clientName=&from=YYYY-MM-DD&to=YYYY-MM-DD
+    // format=zip (one PDF per invoice, default) or format=pdf (one merged PDF)
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportInvoicePdfs(
+            @RequestParam(required = false) List<Long> ids,
+            @RequestParam(required = false) String clientName,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(defaultValue = "zip") String format) {
+        LocalDate fromDate;
+        LocalDate toDate;
+        try {
+            fromDate = from != null && !from.isEmpty() ? LocalDate.parse(from) : null;
+            toDate = to != null && !to.isEmpty() ? LocalDate.parse(to) : null;
+        } catch (DateTimeParseException e) {
+            throw new RuntimeException("Invalid date format. Use YYYY-MM-DD");
+        }
+        if (!"zip".equalsIgnoreCase(format) && !"pdf".equalsIgnoreCase(format)) {
+            throw new RuntimeException("Invalid format. Use zip or pdf");
+        }
+        String client = clientName != null && !clientName.isEmpty() ? clientName : null;
+        List<InvoiceEntity> invoices = invoiceExportService.findInvoices(ids, client, fromDate, toDate);
+        if ("pdf".equalsIgnoreCase(format)) {
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=invoices.pdf")
+                    .contentType(MediaType.APPLICATION_PDF)
+                    .body(invoiceExportService.streamMergedPdf(invoices));
+        }
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=invoices.zip")
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .body(invoiceExportService.streamZip(invoices));
     }
 
     // New: Update invoice status
@@ -1,6 +1,7 @@
 // Updated MaintenanceController.java
 package com.enterprise.bms.enterprise_bms.controller;
 import com.enterprise.bms.enterprise_bms.dto.MaintenanceDTO;
+import com.enterprise.bms.enterprise_bms.dto.PageResponse;
 import com.enterprise.bms.enterprise_bms.service.MaintenanceService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -20,6 +21,15 @@ public class MaintenanceController {
         List<MaintenanceDTO> records = maintenanceService.getFilteredMaintenanceRecords(vehicleId, month);
         return ResponseEntity.ok(records);
     }
+    // Paged list (?size=&cursor=)
+    @GetMapping("/page")
+    public ResponseEntity<PageResponse<MaintenanceDTO>> getMaintenancePage(
+            @RequestParam(required = false) Long vehicleId,
+            @RequestParam(required = false) String month,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String cursor) {
+        return ResponseEntity.ok(maintenanceService.getMaintenancePage(vehicleId, month, size, cursor));
+    }
     // 2. Get by Vehicle ID (legacy, but can keep or redirect to filtered)
     @GetMapping("/vehicle/{vehicleId}")
     public ResponseEntity<List<MaintenanceDTO>> getByVehicle(@PathVariable Long vehicleId) {
@@ -1,6 +1,7 @@
 package com.enterprise.bms.enterprise_bms.controller;
 
 import com.enterprise.bms.enterprise_bms.dto.PaymentsDTO;
+import com.enterprise.bms.enterprise_bms.dto.PageResponse;
 import com.enterprise.bms.enterprise_bms.service.PaymentService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -30,6 +31,17 @@ public class PaymentController {
         return ResponseEntity.ok(paymentService.getFilteredPayments(recipientType, recipientId, month));
     }
 
+    // Paged list (?size=&cursor=)
+    @GetMapping("/page")
+    public ResponseEntity<PageResponse<PaymentsDTO>> getPaymentPage(
+            @RequestParam(required = false) String recipientType,
+            @RequestParam(required = false) Long recipientId,
+            @RequestParam(required = false) String month,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String cursor) {
+        return ResponseEntity.ok(paymentService.getPaymentPage(recipientType, recipientId, month, size, cursor));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<PaymentsDTO> getPaymentById(@PathVariable Long id) {
         PaymentsDTO payment = paymentService.getPaymentById(id);
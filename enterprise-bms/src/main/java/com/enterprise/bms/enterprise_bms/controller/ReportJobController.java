@@ -0,0 +1,58 @@
+package com.enterprise.bms.enterprise_bms.controller;
+
+import com.enterprise.bms.enterprise_bms.dto.ReportJobDTO;
+import com.enterprise.bms.enterprise_bms.report.ReportFormat;
+import com.enterprise.bms.enterprise_bms.service.ReportJobService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/reports/jobs")
+public class ReportJobController {
+
+    private final ReportJobService reportJobService;
+
+    // Queue a report (body: { "reportType": "fuel", "format": "xlsx", "regNumber": "AB-1234", "month": "2025-01" })
+    // Filters are the same as the matching /excel/download endpoint
+    @PostMapping
+    public ResponseEntity<ReportJobDTO> submitJob(@RequestBody ReportJobDTO request) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(reportJobService.submitJob(request));
+    }
+
+    // The current user's most recent jobs
+    @GetMapping
+    public ResponseEntity<List<ReportJobDTO>> getMyJobs() {
+        return ResponseEntity.ok(reportJobService.getMyJobs());
+    }
+
+    // Status and rows written so far
+    @GetMapping("/{id}")
+    public ResponseEntity<ReportJobDTO> getJob(@PathVariable Long id) {
+        return ResponseEntity.ok(reportJobService.getJob(id));
+    }
+
+    @GetMapping("/{id}/download")
+    public ResponseEntity<Resource> downloadReport(@PathVariable Long id) {
+        ReportJobDTO job = reportJobService.getJob(id);
+        Resource file = new FileSystemResource(reportJobService.getArtifact(id));
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + reportJobService.getArtifactFileName(job))
+                .contentType(MediaType.parseMediaType(ReportFormat.fromParam(job.getFormat()).getContentType()))
+                .body(file);
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteJob(@PathVariable Long id) {
+        reportJobService.deleteJob(id);
+        return ResponseEntity.noContent().build();
+    }
+}
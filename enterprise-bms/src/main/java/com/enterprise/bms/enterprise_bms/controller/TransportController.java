@@ -1,11 +1,17 @@
 // Updated TransportController.java - Add invoiceStatus parameter
 package com.enterprise.bms.enterprise_bms.controller;
+import com.enterprise.bms.enterprise_bms.dto.ImportResultDTO;
 import com.enterprise.bms.enterprise_bms.dto.TransportDTO;
+import com.enterprise.bms.enterprise_bms.dto.PageResponse;
 import com.enterprise.bms.enterprise_bms.service.TransportService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 @RestController
 @RequiredArgsConstructor
@@ -17,6 +23,18 @@ public class TransportController {
         TransportDTO saved = transportService.saveTransport(dto);
         return ResponseEntity.status(HttpStatus.CREATED).body(saved);
     }
+    // Bulk create; invalid rows are reported in the result and skipped
+    @PostMapping("/import")
+    public ResponseEntity<ImportResultDTO> importTransports(@RequestBody List<TransportDTO> dtos) {
+        return ResponseEntity.ok(transportService.importTransports(dtos));
+    }
+    // Same as /import from an .xlsx or .csv upload (multipart field "file")
+    @PostMapping(value = "/import/file", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ImportResultDTO> importTransportFile(@RequestParam("file") MultipartFile file) throws IOException {
+        try (InputStream in = file.getInputStream()) {
+            return ResponseEntity.ok(transportService.importTransports(file.getOriginalFilename(), in));
+        }
+    }
     @GetMapping
     public ResponseEntity<List<TransportDTO>> getFilteredTransports(
             @RequestParam(required = false) Long ownVehicleId,
@@ -25,6 +43,17 @@ public class TransportController {
             @RequestParam(required = false) String invoiceStatus) { // Add invoiceStatus parameter
         return ResponseEntity.ok(transportService.getFilteredTransports(ownVehicleId, externalVehicleId, month, invoiceStatus));
     }
+    // Paged list: ?size=(default 50, max 200)&cursor=<nextCursor from the previous page>
+    @GetMapping("/page")
+    public ResponseEntity<PageResponse<TransportDTO>> getTransportPage(
+            @RequestParam(required = false) Long ownVehicleId,
+            @RequestParam(required = false) Long externalVehicleId,
+            @RequestParam(required = false) String month,
+            @RequestParam(required = false) String invoiceStatus,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String cursor) {
+        return ResponseEntity.ok(transportService.getTransportPage(ownVehicleId, externalVehicleId, month, invoiceStatus, size, cursor));
+    }
     @GetMapping("/{id}")
     public ResponseEntity<TransportDTO> getTransportById(@PathVariable Long id) {
         TransportDTO transport = transportService.getTransportById(id);
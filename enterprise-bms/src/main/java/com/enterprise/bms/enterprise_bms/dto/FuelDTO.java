@@ -22,6 +22,9 @@ public class FuelDTO {
     private BigDecimal fuelQuantity;
     private BigDecimal totalCost;
     private String notes;
+    private BigDecimal distanceKm; // read-only, since the previous fill
+    private BigDecimal kmPerLitre; // read-only
+    private BigDecimal costPerKm; // read-only
     private Boolean isDelete;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
@@ -0,0 +1,27 @@
+package com.enterprise.bms.enterprise_bms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// One fill of a vehicle's fuel efficiency series
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class FuelEfficiencyDTO {
+    private Long fuelId;
+    private LocalDate fuelDate;
+    private BigDecimal odometerReading;
+    private BigDecimal fuelQuantity;
+    private BigDecimal totalCost;
+    private BigDecimal distanceKm;
+    private BigDecimal kmPerLitre;
+    private BigDecimal costPerKm;
+    private BigDecimal baselineKmPerLitre; // average of the preceding fills, null until there are enough
+    private String anomaly; // EFFICIENCY_DROP, ODOMETER_NOT_INCREASING or null
+}
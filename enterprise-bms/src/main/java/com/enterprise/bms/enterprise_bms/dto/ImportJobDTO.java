@@ -0,0 +1,28 @@
+package com.enterprise.bms.enterprise_bms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ImportJobDTO {
+    private Long id;
+    private String recordType;
+    private String format;
+    private String fileName;
+    private String status;
+    private Long rowsRead;
+    private Long rowsImported;
+    private Long rowsFailed;
+    private Integer checkpointRow;
+    private String errorMessage;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+}
@@ -0,0 +1,27 @@
+package com.enterprise.bms.enterprise_bms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Outcome of a bulk import: valid rows are inserted, the others listed with the reason
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ImportResultDTO {
+    private Integer totalRows;
+    private Integer importedRows;
+    private List<RowError> errors;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class RowError {
+        private Integer row; // file row (header is row 1) or 1-based array index
+        private String message;
+    }
+}
@@ -0,0 +1,19 @@
+package com.enterprise.bms.enterprise_bms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+// One row of a GROUP BY year/month aggregate
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class MonthlyTotal {
+    private Integer year;
+    private Integer month;
+    private BigDecimal amount;
+}
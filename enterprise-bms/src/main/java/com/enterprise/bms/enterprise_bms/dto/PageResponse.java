@@ -0,0 +1,20 @@
+package com.enterprise.bms.enterprise_bms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// One page of a keyset-paged list; pass nextCursor back as ?cursor= to get the following page
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class PageResponse<T> {
+    private List<T> items;
+    private Integer size;
+    private Boolean hasMore;
+    private String nextCursor; // null on the last page
+}
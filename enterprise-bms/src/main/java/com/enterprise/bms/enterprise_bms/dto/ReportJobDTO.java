@@ -0,0 +1,30 @@
+package com.enterprise.bms.enterprise_bms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ReportJobDTO {
+    private Long id;
+    private String reportType;
+    private String format;
+    private Long vehicleId;
+    private String regNumber;
+    private String recipientType;
+    private Long recipientId;
+    private String month;
+    private String status;
+    private Long rowsWritten;
+    private Long fileSize;
+    private String errorMessage;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+}
@@ -0,0 +1,19 @@
+package com.enterprise.bms.enterprise_bms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class VehicleAnalyticsDTO {
+    private Long vehicleId;
+    private String regNumber;
+    private VehicleMetricsDTO total;
+    private List<VehicleMetricsDTO> months;
+}
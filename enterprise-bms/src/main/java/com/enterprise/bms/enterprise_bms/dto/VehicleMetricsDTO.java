@@ -0,0 +1,28 @@
+package com.enterprise.bms.enterprise_bms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+// Revenue against running costs of one vehicle, for one month or the whole range
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class VehicleMetricsDTO {
+    private String month; // YYYY-MM, null for the range total
+    private BigDecimal revenue;
+    private BigDecimal distanceKm;
+    private BigDecimal fuelCost;
+    private BigDecimal fuelQuantity;
+    private BigDecimal maintenanceCost;
+    private BigDecimal tireCost;
+    private BigDecimal totalCost;
+    private BigDecimal profit;
+    private BigDecimal marginPercent; // null without revenue
+    private BigDecimal costPerKm; // null without distance
+    private BigDecimal kmPerLitre; // odometer distance between fill-ups over the litres filled, null without two readings
+}
@@ -0,0 +1,26 @@
+package com.enterprise.bms.enterprise_bms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+// One row of a GROUP BY vehicle/year/month aggregate; quantity is the second summed column
+// (distance for transports, litres for fuel) and null where the query has none
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class VehicleMonthlyTotal {
+    private Long vehicleId;
+    private Integer year;
+    private Integer month;
+    private BigDecimal amount;
+    private BigDecimal quantity;
+
+    public VehicleMonthlyTotal(Long vehicleId, Integer year, Integer month, BigDecimal amount) {
+        this(vehicleId, year, month, amount, null);
+    }
+}
@@ -13,7 +13,13 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "tbl_advances")
+@Table(
+        name = "tbl_advances",
+        indexes = {
+                @Index(name = "IDX_advances_active_recipient_date", columnList = "is_delete, recipient_type, recipient_id, advance_date"),
+                @Index(name = "IDX_advances_active_date", columnList = "is_delete, advance_date")
+        }
+)
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -14,7 +14,13 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 
 @Entity
-@Table(name = "tbl_attendance")
+@Table(
+        name = "tbl_attendance",
+        indexes = {
+                @Index(name = "IDX_attendance_active_recipient_date", columnList = "is_delete, recipient_type, recipient_id, attendance_date"),
+                @Index(name = "IDX_attendance_active_date", columnList = "is_delete, attendance_date")
+        }
+)
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
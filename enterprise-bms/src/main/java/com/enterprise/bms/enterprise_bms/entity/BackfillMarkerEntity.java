@@ -0,0 +1,26 @@
+package com.enterprise.bms.enterprise_bms.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// One row per one-time data backfill that has completed, so it is not run again on the next start
+@Entity
+@Table(name = "tbl_backfill_markers")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BackfillMarkerEntity {
+
+    @Id
+    @Column(name = "name", length = 100)
+    private String name;
+
+    @Column(name = "completed_at", nullable = false)
+    private LocalDateTime completedAt;
+}
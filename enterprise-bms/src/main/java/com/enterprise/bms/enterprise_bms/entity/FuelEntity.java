@@ -11,7 +11,13 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "tbl_fuel")
+@Table(
+        name = "tbl_fuel",
+        indexes = {
+                @Index(name = "IDX_fuel_active_fuel_date", columnList = "is_delete, fuel_date, vehicle_id"),
+                @Index(name = "IDX_fuel_vehicle_fuel_date", columnList = "vehicle_id, is_delete, fuel_date, odometer_reading")
+        }
+)
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -52,6 +58,16 @@ public class FuelEntity {
     @Column(length = 500)
     private String notes;
 
+    // Derived from the previous fill of the same vehicle (see FuelEfficiencyService)
+    @Column(name = "distance_km", precision = 10, scale = 2)
+    private BigDecimal distanceKm; // odometer delta, null for a vehicle's first fill
+
+    @Column(name = "km_per_litre", precision = 8, scale = 2)
+    private BigDecimal kmPerLitre;
+
+    @Column(name = "cost_per_km", precision = 10, scale = 2)
+    private BigDecimal costPerKm;
+
     @Column(name = "is_delete")
     private Boolean isDelete = false;
 
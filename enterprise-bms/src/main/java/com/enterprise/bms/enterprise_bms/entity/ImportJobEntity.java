@@ -0,0 +1,64 @@
+package com.enterprise.bms.enterprise_bms.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "tbl_import_jobs")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ImportJobEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "record_type", nullable = false, length = 30)
+    private String recordType; // fuel, maintenance, tire-maintenance
+
+    @Column(name = "format", nullable = false, length = 10)
+    private String format; // xlsx, csv
+
+    @Column(name = "file_name", length = 255)
+    private String fileName; // as uploaded
+
+    @Column(name = "status", nullable = false, length = 20)
+    private String status; // QUEUED, RUNNING, COMPLETED, FAILED
+
+    // Committed so far; updated in the same transaction as each batch
+    @Column(name = "rows_read", nullable = false)
+    private Long rowsRead;
+
+    @Column(name = "rows_imported", nullable = false)
+    private Long rowsImported;
+
+    @Column(name = "rows_failed", nullable = false)
+    private Long rowsFailed;
+
+    @Column(name = "checkpoint_row")
+    private Integer checkpointRow; // last file row of the last committed batch; a resume starts after it
+
+    @Column(name = "error_message", length = 500)
+    private String errorMessage;
+
+    @Column(name = "requested_by", nullable = false, length = 100)
+    private String requestedBy; // email of the requesting user
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+}
@@ -0,0 +1,35 @@
+package com.enterprise.bms.enterprise_bms.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// A rejected row of an import job, saved with the batch it belongs to
+@Entity
+@Table(
+        name = "tbl_import_job_errors",
+        indexes = {
+                @Index(name = "IDX_import_job_error_job_row", columnList = "job_id, file_row")
+        }
+)
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ImportJobErrorEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "job_id", nullable = false)
+    private Long jobId;
+
+    @Column(name = "file_row", nullable = false)
+    private Integer rowNumber;
+
+    @Column(name = "message", length = 500)
+    private String message;
+}
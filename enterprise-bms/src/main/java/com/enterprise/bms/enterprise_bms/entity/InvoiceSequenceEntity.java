@@ -0,0 +1,25 @@
+package com.enterprise.bms.enterprise_bms.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Per-year invoice number counter; the row is locked while an invoice is being created
+@Entity
+@Table(name = "tbl_invoice_sequences")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class InvoiceSequenceEntity {
+
+    @Id
+    @Column(name = "seq_year")
+    private Integer seqYear;
+
+    // Next number to hand out for this year
+    @Column(name = "next_value", nullable = false)
+    private Integer nextValue;
+}
@@ -0,0 +1,55 @@
+package com.enterprise.bms.enterprise_bms.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Running per-month total for one income/expense category, kept in step with the source tables
+@Entity
+@Table(
+        name = "tbl_monthly_financials",
+        uniqueConstraints = @UniqueConstraint(
+                name = "UK_monthly_financials_period_category",
+                columnNames = {"period_year", "period_month", "category"}
+        )
+)
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class MonthlyFinancialEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "period_year", nullable = false)
+    private Integer periodYear;
+
+    @Column(name = "period_month", nullable = false)
+    private Integer periodMonth;
+
+    /**
+     * Category:
+     * INCOME      = completed transports (agreed amount)
+     * FUEL        = fuel total cost
+     * MAINTENANCE = maintenance total price
+     * TIRE        = tire maintenance total price
+     * PAYMENT     = payments (base amount - deductions)
+     * EX_VEHICLE  = external vehicle hire rate
+     */
+    @Column(name = "category", nullable = false, length = 20)
+    private String category;
+
+    @Column(name = "amount", nullable = false, precision = 14, scale = 2)
+    @Builder.Default
+    private BigDecimal amount = BigDecimal.ZERO;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
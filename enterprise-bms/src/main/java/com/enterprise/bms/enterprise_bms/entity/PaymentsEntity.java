@@ -10,7 +10,13 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 @Entity
-@Table(name = "tbl_payments")
+@Table(
+        name = "tbl_payments",
+        indexes = {
+                @Index(name = "IDX_payments_active_recipient_period", columnList = "is_delete, recipient_type, recipient_id, period_year, period_month"),
+                @Index(name = "IDX_payments_active_period", columnList = "is_delete, period_year, period_month")
+        }
+)
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -0,0 +1,70 @@
+package com.enterprise.bms.enterprise_bms.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "tbl_report_jobs")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ReportJobEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "report_type", nullable = false, length = 30)
+    private String reportType; // transport, fuel, maintenance, ... (same names as /excel/download)
+
+    @Column(name = "format", nullable = false, length = 10)
+    private String format; // xlsx, csv, ndjson
+
+    // Report filters, passed through to the write*Report method
+    @Column(name = "vehicle_id")
+    private Long vehicleId;
+
+    @Column(name = "reg_number", length = 50)
+    private String regNumber;
+
+    @Column(name = "recipient_type", length = 20)
+    private String recipientType;
+
+    @Column(name = "recipient_id")
+    private Long recipientId;
+
+    @Column(name = "report_month", length = 7)
+    private String month;
+
+    @Column(name = "status", nullable = false, length = 20)
+    private String status; // QUEUED, RUNNING, COMPLETED, FAILED
+
+    @Column(name = "rows_written")
+    private Long rowsWritten;
+
+    @Column(name = "file_size")
+    private Long fileSize;
+
+    @Column(name = "error_message", length = 500)
+    private String errorMessage;
+
+    @Column(name = "requested_by", nullable = false, length = 100)
+    private String requestedBy; // email of the requesting user
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+}
@@ -13,7 +13,13 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "tbl_tire_maintenance")
+@Table(
+        name = "tbl_tire_maintenance",
+        indexes = {
+                @Index(name = "IDX_tire_maintenance_active_date", columnList = "is_delete, date, vehicle_id"),
+                @Index(name = "IDX_tire_maintenance_vehicle_date", columnList = "vehicle_id, is_delete, date")
+        }
+)
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
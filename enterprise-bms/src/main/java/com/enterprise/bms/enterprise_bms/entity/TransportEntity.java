@@ -9,7 +9,13 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 @Entity
-@Table(name = "tbl_transports")
+@Table(
+        name = "tbl_transports",
+        indexes = {
+                @Index(name = "IDX_transport_active_loading_date", columnList = "is_delete, loading_date, own_vehicle_id"),
+                @Index(name = "IDX_transport_own_vehicle_loading_date", columnList = "own_vehicle_id, is_delete, loading_date")
+        }
+)
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -0,0 +1,115 @@
+package com.enterprise.bms.enterprise_bms.report;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// RFC 4180 CSV as written by CsvReportWriter: quoted fields may contain commas, doubled quotes
+// and line breaks; CRLF or LF line endings; a leading UTF-8 BOM is ignored.
+public class CsvReportReader implements ReportRowReader {
+    private final Reader reader;
+    private final Map<String, String> headers;
+    // Column key per CSV field position, null for fields that are not in the definition
+    private final String[] keys;
+    // Reused field buffer
+    private final StringBuilder field = new StringBuilder(64);
+    private int lineNumber;
+    private boolean endOfInput;
+
+    public <T> CsvReportReader(ReportDefinition<T> definition, InputStream in) throws IOException {
+        this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 16 * 1024);
+        this.headers = ReportColumns.headersByKey(definition);
+        reader.mark(1);
+        if (reader.read() != '\uFEFF') {
+            reader.reset();
+        }
+        List<String> header = readRecord();
+        if (header == null) {
+            throw new RuntimeException("The file is empty");
+        }
+        keys = ReportColumns.keysFor(definition, header);
+    }
+
+    @Override
+    public ReportRow readRow() throws IOException {
+        List<String> record;
+        while ((record = readRecord()) != null) {
+            Map<String, String> values = new HashMap<>();
+            for (int i = 0; i < record.size() && i < keys.length; i++) {
+                String value = record.get(i).trim();
+                if (keys[i] != null && !value.isEmpty()) {
+                    values.put(keys[i], value);
+                }
+            }
+            if (!values.isEmpty()) {
+                return new ReportRow(lineNumber, values, headers);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    // Fields of the next record, or null at the end of the input
+    private List<String> readRecord() throws IOException {
+        if (endOfInput) {
+            return null;
+        }
+        lineNumber++;
+        List<String> fields = new ArrayList<>();
+        field.setLength(0);
+        boolean quoted = false;
+        int c = reader.read();
+        if (c == -1) {
+            endOfInput = true;
+            return null;
+        }
+        for (; ; c = reader.read()) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new RuntimeException("Unterminated quoted field on line " + lineNumber);
+                }
+                if (c == '"') {
+                    reader.mark(1);
+                    if (reader.read() == '"') {
+                        field.append('"');
+                    } else {
+                        reader.reset();
+                        quoted = false;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                if (c == '\r') {
+                    reader.mark(1);
+                    if (reader.read() != '\n') {
+                        reader.reset();
+                    }
+                }
+                if (c == -1) {
+                    endOfInput = true;
+                }
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+        }
+    }
+}
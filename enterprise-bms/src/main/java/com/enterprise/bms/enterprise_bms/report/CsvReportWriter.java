@@ -0,0 +1,84 @@
+package com.enterprise.bms.enterprise_bms.report;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+// RFC 4180 CSV: header line, CRLF line breaks, fields quoted only when they contain a comma,
+// quote or line break (quotes doubled). Nulls are empty fields.
+public class CsvReportWriter<T> implements ReportRowWriter<T> {
+    private final List<ReportColumn<T>> columns;
+    private final Writer writer;
+    // Reused for fields that may need quoting
+    private final StringBuilder field = new StringBuilder(64);
+
+    public CsvReportWriter(ReportDefinition<T> definition, OutputStream out) throws IOException {
+        this.columns = definition.getColumns();
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 16 * 1024);
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeText(columns.get(i).getHeader());
+        }
+        writer.write("\r\n");
+    }
+
+    @Override
+    public void writeRow(T row) throws IOException {
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            ReportColumn<T> column = columns.get(i);
+            Object value = column.valueOf(row);
+            if (value == null) {
+                continue;
+            }
+            if (column.getType() == ReportColumn.Type.TEXT) {
+                writeText(value.toString());
+            } else {
+                // Numbers, dates and times never contain characters that need quoting
+                ReportFieldEncoder.append(writer, column.getType(), value);
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    @Override
+    public void finish() throws IOException {
+        writer.flush();
+    }
+
+    private void writeText(String text) throws IOException {
+        if (!needsQuoting(text)) {
+            writer.write(text);
+            return;
+        }
+        field.setLength(0);
+        field.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"') {
+                field.append('"');
+            }
+            field.append(c);
+        }
+        field.append('"');
+        writer.append(field);
+    }
+
+    private boolean needsQuoting(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,229 @@
+package com.enterprise.bms.enterprise_bms.report;
+
+import org.apache.poi.UnsupportedFileFormatException;
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.xml.sax.SAXException;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+// First sheet of an .xlsx upload, pulled row by row from the sheet XML (XSSFReader + StAX), so
+// only the shared strings and styles are held in memory, never the sheet. Numeric cells are read
+// in plain notation (1.0 becomes 1), date-formatted cells as yyyy-MM-dd (or yyyy-MM-ddTHH:mm:ss
+// when they carry a time), formulas by their cached result; text cells as written, so exported
+// dates round-trip unchanged.
+public class ExcelReportReader implements ReportRowReader {
+    private static final XMLInputFactory XML_INPUT = newXmlInputFactory();
+
+    private final OPCPackage pkg;
+    private final ReadOnlySharedStringsTable strings;
+    private final StylesTable styles;
+    private final InputStream sheet;
+    private final XMLStreamReader xml;
+    private final Map<String, String> headers;
+    private final String[] keys;
+    // Reused for the text of one cell
+    private final StringBuilder value = new StringBuilder(64);
+    private int rowNumber;
+
+    public <T> ExcelReportReader(ReportDefinition<T> definition, InputStream in) throws IOException {
+        this(definition, open(in));
+    }
+
+    // Reads the file in place instead of buffering the whole package
+    public <T> ExcelReportReader(ReportDefinition<T> definition, Path file) throws IOException {
+        this(definition, open(file));
+    }
+
+    private <T> ExcelReportReader(ReportDefinition<T> definition, OPCPackage pkg) throws IOException {
+        this.pkg = pkg;
+        this.headers = ReportColumns.headersByKey(definition);
+        try {
+            XSSFReader reader = new XSSFReader(pkg);
+            strings = new ReadOnlySharedStringsTable(pkg, false);
+            styles = reader.getStylesTable();
+            Iterator<InputStream> sheets = reader.getSheetsData();
+            if (!sheets.hasNext()) {
+                throw new RuntimeException("The file is empty");
+            }
+            sheet = sheets.next();
+            xml = XML_INPUT.createXMLStreamReader(sheet);
+            List<String> header = readCells();
+            if (header == null) {
+                throw new RuntimeException("The file is empty");
+            }
+            keys = ReportColumns.keysFor(definition, header);
+        } catch (OpenXML4JException | SAXException | XMLStreamException e) {
+            pkg.revert();
+            throw new RuntimeException("Not a valid .xlsx file");
+        } catch (RuntimeException e) {
+            pkg.revert();
+            throw e;
+        }
+    }
+
+    @Override
+    public ReportRow readRow() throws IOException {
+        try {
+            List<String> cells;
+            while ((cells = readCells()) != null) {
+                Map<String, String> values = new HashMap<>();
+                for (int i = 0; i < cells.size() && i < keys.length; i++) {
+                    String cell = cells.get(i);
+                    if (keys[i] != null && cell != null && !cell.isEmpty()) {
+                        values.put(keys[i], cell);
+                    }
+                }
+                if (!values.isEmpty()) {
+                    return new ReportRow(rowNumber, values, headers);
+                }
+            }
+            return null;
+        } catch (XMLStreamException e) {
+            throw new IOException("Could not read row after " + rowNumber, e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            xml.close();
+        } catch (XMLStreamException ignored) {
+            // The stream is closed below
+        }
+        sheet.close();
+        pkg.revert();
+    }
+
+    // Cell text of the next <row> by column index (gaps are null), or null after the last row
+    private List<String> readCells() throws XMLStreamException {
+        boolean inRow = false;
+        while (!inRow && xml.hasNext()) {
+            inRow = xml.next() == XMLStreamConstants.START_ELEMENT && "row".equals(xml.getLocalName());
+        }
+        if (!inRow) {
+            return null;
+        }
+        String rowRef = xml.getAttributeValue(null, "r");
+        rowNumber = rowRef != null ? Integer.parseInt(rowRef) : rowNumber + 1;
+        List<String> cells = new ArrayList<>();
+        while (xml.hasNext()) {
+            int event = xml.next();
+            if (event == XMLStreamConstants.END_ELEMENT && "row".equals(xml.getLocalName())) {
+                break;
+            }
+            if (event == XMLStreamConstants.START_ELEMENT && "c".equals(xml.getLocalName())) {
+                String ref = xml.getAttributeValue(null, "r");
+                int column = ref != null ? columnIndex(ref) : cells.size();
+                String type = xml.getAttributeValue(null, "t");
+                String style = xml.getAttributeValue(null, "s");
+                String text = textOf(type, style, readCellValue());
+                while (cells.size() <= column) {
+                    cells.add(null);
+                }
+                cells.set(column, text);
+            }
+        }
+        return cells;
+    }
+
+    // Raw text of <v> (or of the <t> runs of an inline string) up to </c>; null for an empty cell
+    private String readCellValue() throws XMLStreamException {
+        value.setLength(0);
+        boolean found = false;
+        boolean inText = false;
+        while (xml.hasNext()) {
+            int event = xml.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                String name = xml.getLocalName();
+                inText = "v".equals(name) || "t".equals(name);
+                found |= inText;
+            } else if ((event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA) && inText) {
+                value.append(xml.getText());
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                inText = false;
+                if ("c".equals(xml.getLocalName())) {
+                    break;
+                }
+            }
+        }
+        return found ? value.toString() : null;
+    }
+
+    private String textOf(String type, String style, String raw) {
+        if (raw == null) {
+            return null;
+        }
+        return switch (type != null ? type : "n") {
+            case "s" -> strings.getItemAt(Integer.parseInt(raw)).getString().trim();
+            case "inlineStr", "str" -> raw.trim();
+            case "b" -> Boolean.toString("1".equals(raw));
+            case "e" -> null;
+            default -> {
+                if (style != null && isDateStyle(Integer.parseInt(style))) {
+                    LocalDateTime date = DateUtil.getLocalDateTime(Double.parseDouble(raw));
+                    yield date.toLocalTime().toSecondOfDay() == 0 ? date.toLocalDate().toString() : date.toString();
+                }
+                yield new BigDecimal(raw).stripTrailingZeros().toPlainString();
+            }
+        };
+    }
+
+    private boolean isDateStyle(int styleIndex) {
+        XSSFCellStyle style = styles.getStyleAt(styleIndex);
+        return style != null && DateUtil.isADateFormat(style.getDataFormat(), style.getDataFormatString());
+    }
+
+    // "AB12" -> 27
+    private static int columnIndex(String ref) {
+        int column = 0;
+        for (int i = 0; i < ref.length() && Character.isLetter(ref.charAt(i)); i++) {
+            column = column * 26 + (ref.charAt(i) - 'A' + 1);
+        }
+        return column - 1;
+    }
+
+    private static OPCPackage open(InputStream in) throws IOException {
+        try {
+            return OPCPackage.open(in);
+        } catch (InvalidFormatException | UnsupportedFileFormatException e) {
+            throw new RuntimeException("Not a valid .xlsx file");
+        }
+    }
+
+    private static OPCPackage open(Path file) {
+        try {
+            return OPCPackage.open(file.toFile(), PackageAccess.READ);
+        } catch (InvalidFormatException | UnsupportedFileFormatException e) {
+            throw new RuntimeException("Not a valid .xlsx file");
+        }
+    }
+
+    // Sheet XML never needs a DTD; refusing them rules out entity expansion from uploads
+    private static XMLInputFactory newXmlInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+}
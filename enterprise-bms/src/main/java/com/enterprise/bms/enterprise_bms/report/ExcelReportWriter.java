@@ -0,0 +1,37 @@
+package com.enterprise.bms.enterprise_bms.report;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+// Single-sheet .xlsx report (see ExcelWorkbookWriter and ExcelSheetWriter)
+public class ExcelReportWriter<T> implements ReportRowWriter<T> {
+    private final OutputStream out;
+    private final ExcelWorkbookWriter workbook;
+    private final ExcelSheetWriter<T> sheet;
+
+    public ExcelReportWriter(ReportDefinition<T> definition, OutputStream out) {
+        this.out = out;
+        this.workbook = new ExcelWorkbookWriter();
+        this.sheet = workbook.addSheet(definition);
+    }
+
+    @Override
+    public void writeRow(T row) throws IOException {
+        sheet.writeRow(row);
+    }
+
+    @Override
+    public void writeTotal(int labelColumn, String label, Number total) {
+        sheet.writeTotal(labelColumn, label, total);
+    }
+
+    @Override
+    public void finish() throws IOException {
+        workbook.write(out);
+    }
+
+    @Override
+    public void close() throws IOException {
+        workbook.close();
+    }
+}
@@ -0,0 +1,92 @@
+package com.enterprise.bms.enterprise_bms.report;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+
+import java.io.IOException;
+import java.util.List;
+
+// One sheet of an ExcelWorkbookWriter. Column widths are taken from the header and the first
+// window of rows instead of autoSizeColumn, which would re-read every row.
+public class ExcelSheetWriter<T> implements ReportRowWriter<T> {
+    private static final int MAX_COLUMN_CHARS = 50;
+
+    private final SXSSFSheet sheet;
+    private final CellStyle boldStyle;
+    private final List<ReportColumn<T>> columns;
+    private final int[] columnChars;
+    // Reused to format dates and times
+    private final StringBuilder text = new StringBuilder(32);
+    private int rowNum;
+
+    ExcelSheetWriter(SXSSFSheet sheet, CellStyle boldStyle, ReportDefinition<T> definition) {
+        this.sheet = sheet;
+        this.boldStyle = boldStyle;
+        this.columns = definition.getColumns();
+        columnChars = new int[columns.size()];
+
+        Row headerRow = sheet.createRow(rowNum++);
+        for (int i = 0; i < columns.size(); i++) {
+            Cell cell = headerRow.createCell(i);
+            cell.setCellValue(columns.get(i).getHeader());
+            cell.setCellStyle(boldStyle);
+            columnChars[i] = columns.get(i).getHeader().length();
+        }
+    }
+
+    // Numbers become numeric cells, everything else text; nulls are left blank
+    @Override
+    public void writeRow(T row) throws IOException {
+        boolean sample = rowNum <= ExcelWorkbookWriter.ROW_WINDOW;
+        Row sheetRow = sheet.createRow(rowNum++);
+        for (int i = 0; i < columns.size(); i++) {
+            ReportColumn<T> column = columns.get(i);
+            Object value = column.valueOf(row);
+            if (value == null) {
+                continue;
+            }
+            Cell cell = sheetRow.createCell(i);
+            int chars;
+            if (column.getType() == ReportColumn.Type.NUMBER) {
+                double number = ((Number) value).doubleValue();
+                cell.setCellValue(number);
+                chars = sample ? Double.toString(number).length() : 0;
+            } else if (column.getType() == ReportColumn.Type.TEXT) {
+                String string = value.toString();
+                cell.setCellValue(string);
+                chars = string.length();
+            } else {
+                text.setLength(0);
+                ReportFieldEncoder.append(text, column.getType(), value);
+                cell.setCellValue(text.toString());
+                chars = text.length();
+            }
+            if (sample) {
+                columnChars[i] = Math.max(columnChars[i], chars);
+            }
+        }
+    }
+
+    @Override
+    public void writeTotal(int labelColumn, String label, Number total) {
+        // One blank row above the total
+        rowNum++;
+        Row row = sheet.createRow(rowNum++);
+        Cell labelCell = row.createCell(labelColumn);
+        labelCell.setCellValue(label);
+        labelCell.setCellStyle(boldStyle);
+        Cell totalCell = row.createCell(labelColumn + 1);
+        totalCell.setCellValue(total.doubleValue());
+        totalCell.setCellStyle(boldStyle);
+    }
+
+    // Applies the column widths; the workbook writes the sheet
+    @Override
+    public void finish() {
+        for (int i = 0; i < columnChars.length; i++) {
+            sheet.setColumnWidth(i, Math.min(columnChars[i] + 2, MAX_COLUMN_CHARS) * 256);
+        }
+    }
+}
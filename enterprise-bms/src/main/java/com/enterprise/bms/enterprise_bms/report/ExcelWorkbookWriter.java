@@ -0,0 +1,52 @@
+package com.enterprise.bms.enterprise_bms.report;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+// Streaming .xlsx workbook with one ExcelSheetWriter per sheet.
+// Only the last ROW_WINDOW rows of each sheet are kept in memory (older rows go to a compressed
+// temp file). Not thread-safe: all sheets must be written from one thread.
+public class ExcelWorkbookWriter implements Closeable {
+    static final int ROW_WINDOW = 100;
+
+    private final SXSSFWorkbook workbook;
+    private final CellStyle boldStyle;
+    private final List<ExcelSheetWriter<?>> sheets = new ArrayList<>();
+
+    public ExcelWorkbookWriter() {
+        workbook = new SXSSFWorkbook(ROW_WINDOW);
+        workbook.setCompressTempFiles(true);
+        Font boldFont = workbook.createFont();
+        boldFont.setBold(true);
+        boldStyle = workbook.createCellStyle();
+        boldStyle.setFont(boldFont);
+    }
+
+    // Sheets appear in the order they are added; rows can be written to them in any interleaving
+    public <T> ExcelSheetWriter<T> addSheet(ReportDefinition<T> definition) {
+        ExcelSheetWriter<T> sheet = new ExcelSheetWriter<>(workbook.createSheet(definition.getSheetName()), boldStyle, definition);
+        sheets.add(sheet);
+        return sheet;
+    }
+
+    public void write(OutputStream out) throws IOException {
+        for (ExcelSheetWriter<?> sheet : sheets) {
+            sheet.finish();
+        }
+        workbook.write(out);
+    }
+
+    @Override
+    public void close() throws IOException {
+        // Deletes the temp files holding the flushed rows
+        workbook.dispose();
+        workbook.close();
+    }
+}
@@ -0,0 +1,82 @@
+package com.enterprise.bms.enterprise_bms.report;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+// Newline-delimited JSON: one object per row keyed by ReportColumn.key. Numbers are JSON numbers,
+// dates and times ISO strings, nulls JSON null.
+public class NdjsonReportWriter<T> implements ReportRowWriter<T> {
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final List<ReportColumn<T>> columns;
+    private final Writer writer;
+
+    public NdjsonReportWriter(ReportDefinition<T> definition, OutputStream out) {
+        this.columns = definition.getColumns();
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 16 * 1024);
+    }
+
+    @Override
+    public void writeRow(T row) throws IOException {
+        writer.write('{');
+        for (int i = 0; i < columns.size(); i++) {
+            ReportColumn<T> column = columns.get(i);
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeString(column.getKey());
+            writer.write(':');
+            Object value = column.valueOf(row);
+            if (value == null) {
+                writer.write("null");
+            } else if (column.getType() == ReportColumn.Type.NUMBER) {
+                ReportFieldEncoder.appendNumber(writer, (Number) value);
+            } else if (column.getType() == ReportColumn.Type.TEXT) {
+                writeString(value.toString());
+            } else {
+                writer.write('"');
+                ReportFieldEncoder.append(writer, column.getType(), value);
+                writer.write('"');
+            }
+        }
+        writer.write("}\n");
+    }
+
+    @Override
+    public void finish() throws IOException {
+        writer.flush();
+    }
+
+    // JSON string with the mandatory escapes; plain runs are written without copying
+    private void writeString(String text) throws IOException {
+        writer.write('"');
+        int start = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= 0x20 && c != '"' && c != '\\') {
+                continue;
+            }
+            writer.write(text, start, i - start);
+            switch (c) {
+                case '"' -> writer.write("\\\"");
+                case '\\' -> writer.write("\\\\");
+                case '\n' -> writer.write("\\n");
+                case '\r' -> writer.write("\\r");
+                case '\t' -> writer.write("\\t");
+                default -> {
+                    writer.write("\\u00");
+                    writer.write(HEX[c >> 4]);
+                    writer.write(HEX[c & 0xF]);
+                }
+            }
+            start = i + 1;
+        }
+        writer.write(text, start, text.length() - start);
+        writer.write('"');
+    }
+}
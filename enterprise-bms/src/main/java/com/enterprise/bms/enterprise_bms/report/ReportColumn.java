@@ -0,0 +1,28 @@
+package com.enterprise.bms.enterprise_bms.report;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.function.Function;
+
+// One report column: the spreadsheet/CSV header, the NDJSON field name and how to read the value from a row
+@Getter
+@AllArgsConstructor
+public class ReportColumn<T> {
+    public enum Type {
+        TEXT,       // String (or anything rendered with toString)
+        NUMBER,     // BigDecimal, Integer, Long
+        DATE,       // LocalDate, yyyy-MM-dd
+        TIME,       // LocalTime, HH:mm
+        DATE_TIME   // LocalDateTime, yyyy-MM-ddTHH:mm:ss
+    }
+
+    private final String header;
+    private final String key;
+    private final Type type;
+    private final Function<T, ?> value;
+
+    public Object valueOf(T row) {
+        return value.apply(row);
+    }
+}
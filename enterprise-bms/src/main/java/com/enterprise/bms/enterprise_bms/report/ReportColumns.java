@@ -0,0 +1,40 @@
+package com.enterprise.bms.enterprise_bms.report;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Header matching shared by the report readers
+final class ReportColumns {
+
+    private ReportColumns() {
+    }
+
+    static <T> Map<String, String> headersByKey(ReportDefinition<T> definition) {
+        Map<String, String> headers = new HashMap<>();
+        for (ReportColumn<T> column : definition.getColumns()) {
+            headers.put(column.getKey(), column.getHeader());
+        }
+        return headers;
+    }
+
+    // Column key for each header cell (matched case-insensitively on header or key), null if unknown
+    static <T> String[] keysFor(ReportDefinition<T> definition, List<String> header) {
+        Map<String, String> lookup = new HashMap<>();
+        for (ReportColumn<T> column : definition.getColumns()) {
+            lookup.put(column.getHeader().toLowerCase(), column.getKey());
+            lookup.put(column.getKey().toLowerCase(), column.getKey());
+        }
+        String[] keys = new String[header.size()];
+        boolean any = false;
+        for (int i = 0; i < keys.length; i++) {
+            String cell = header.get(i);
+            keys[i] = cell != null ? lookup.get(cell.trim().toLowerCase()) : null;
+            any |= keys[i] != null;
+        }
+        if (!any) {
+            throw new RuntimeException("The header row does not match any " + definition.getSheetName() + " column");
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,69 @@
+package com.enterprise.bms.enterprise_bms.report;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+// Column set of a report, declared once per module and shared by every ReportFormat
+public class ReportDefinition<T> {
+    private final String sheetName;
+    private final List<ReportColumn<T>> columns;
+
+    private ReportDefinition(String sheetName, List<ReportColumn<T>> columns) {
+        this.sheetName = sheetName;
+        this.columns = List.copyOf(columns);
+    }
+
+    public static <T> Builder<T> builder(String sheetName) {
+        return new Builder<>(sheetName);
+    }
+
+    public String getSheetName() {
+        return sheetName;
+    }
+
+    public List<ReportColumn<T>> getColumns() {
+        return columns;
+    }
+
+    public static class Builder<T> {
+        private final String sheetName;
+        private final List<ReportColumn<T>> columns = new ArrayList<>();
+
+        private Builder(String sheetName) {
+            this.sheetName = sheetName;
+        }
+
+        public Builder<T> text(String header, String key, Function<T, ?> value) {
+            return column(header, key, ReportColumn.Type.TEXT, value);
+        }
+
+        public Builder<T> number(String header, String key, Function<T, ? extends Number> value) {
+            return column(header, key, ReportColumn.Type.NUMBER, value);
+        }
+
+        public Builder<T> date(String header, String key, Function<T, LocalDate> value) {
+            return column(header, key, ReportColumn.Type.DATE, value);
+        }
+
+        public Builder<T> time(String header, String key, Function<T, LocalTime> value) {
+            return column(header, key, ReportColumn.Type.TIME, value);
+        }
+
+        public Builder<T> dateTime(String header, String key, Function<T, LocalDateTime> value) {
+            return column(header, key, ReportColumn.Type.DATE_TIME, value);
+        }
+
+        private Builder<T> column(String header, String key, ReportColumn.Type type, Function<T, ?> value) {
+            columns.add(new ReportColumn<>(header, key, type, value));
+            return this;
+        }
+
+        public ReportDefinition<T> build() {
+            return new ReportDefinition<>(sheetName, columns);
+        }
+    }
+}
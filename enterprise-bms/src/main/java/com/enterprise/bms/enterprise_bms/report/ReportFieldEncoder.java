@@ -0,0 +1,71 @@
+package com.enterprise.bms.enterprise_bms.report;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+// Formats report values straight into the output: dates and times are written digit by digit
+// (no DateTimeFormatter, no intermediate String) and BigDecimal in plain notation.
+// The same text is used by every format, so XLSX, CSV and NDJSON exports agree.
+public final class ReportFieldEncoder {
+
+    private ReportFieldEncoder() {
+    }
+
+    // Appends a non-null value of the given column type
+    public static void append(Appendable out, ReportColumn.Type type, Object value) throws IOException {
+        switch (type) {
+            case NUMBER -> appendNumber(out, (Number) value);
+            case DATE -> appendDate(out, (LocalDate) value);
+            case TIME -> appendTime(out, (LocalTime) value);
+            case DATE_TIME -> appendDateTime(out, (LocalDateTime) value);
+            default -> out.append(value.toString());
+        }
+    }
+
+    public static void appendNumber(Appendable out, Number value) throws IOException {
+        if (value instanceof BigDecimal) {
+            out.append(((BigDecimal) value).toPlainString());
+        } else {
+            out.append(value.toString());
+        }
+    }
+
+    // yyyy-MM-dd
+    public static void appendDate(Appendable out, LocalDate date) throws IOException {
+        appendDigits(out, date.getYear(), 4);
+        out.append('-');
+        appendDigits(out, date.getMonthValue(), 2);
+        out.append('-');
+        appendDigits(out, date.getDayOfMonth(), 2);
+    }
+
+    // HH:mm
+    public static void appendTime(Appendable out, LocalTime time) throws IOException {
+        appendDigits(out, time.getHour(), 2);
+        out.append(':');
+        appendDigits(out, time.getMinute(), 2);
+    }
+
+    // yyyy-MM-ddTHH:mm:ss (fractional seconds are dropped)
+    public static void appendDateTime(Appendable out, LocalDateTime dateTime) throws IOException {
+        appendDate(out, dateTime.toLocalDate());
+        out.append('T');
+        appendTime(out, dateTime.toLocalTime());
+        out.append(':');
+        appendDigits(out, dateTime.getSecond(), 2);
+    }
+
+    // Zero-padded to width; years outside 0..9999 fall back to toString
+    private static void appendDigits(Appendable out, int value, int width) throws IOException {
+        if (value < 0 || (width == 4 && value > 9999)) {
+            out.append(Integer.toString(value));
+            return;
+        }
+        for (int divisor = width == 4 ? 1000 : 10; divisor > 0; divisor /= 10) {
+            out.append((char) ('0' + (value / divisor) % 10));
+        }
+    }
+}
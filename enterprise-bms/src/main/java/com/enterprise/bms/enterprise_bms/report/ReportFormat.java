@@ -0,0 +1,78 @@
+package com.enterprise.bms.enterprise_bms.report;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public enum ReportFormat {
+    XLSX("xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"),
+    CSV("csv", "text/csv; charset=UTF-8"),
+    NDJSON("ndjson", "application/x-ndjson");
+
+    private final String extension;
+    private final String contentType;
+
+    ReportFormat(String extension, String contentType) {
+        this.extension = extension;
+        this.contentType = contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    // Request parameter value (xlsx, csv, ndjson); null or empty means XLSX
+    public static ReportFormat fromParam(String format) {
+        if (format == null || format.isEmpty()) {
+            return XLSX;
+        }
+        for (ReportFormat value : values()) {
+            if (value.extension.equalsIgnoreCase(format)) {
+                return value;
+            }
+        }
+        throw new RuntimeException("Invalid format. Use xlsx, csv or ndjson");
+    }
+
+    // Uploaded file by its extension (report.xlsx, report.csv, ...)
+    public static ReportFormat fromFileName(String fileName) {
+        int dot = fileName != null ? fileName.lastIndexOf('.') : -1;
+        if (dot < 0) {
+            throw new RuntimeException("Upload an .xlsx or .csv file");
+        }
+        return fromParam(fileName.substring(dot + 1));
+    }
+
+    public <T> ReportRowWriter<T> open(ReportDefinition<T> definition, OutputStream out) throws IOException {
+        ReportRowWriter<T> writer = switch (this) {
+            case CSV -> new CsvReportWriter<>(definition, out);
+            case NDJSON -> new NdjsonReportWriter<>(definition, out);
+            case XLSX -> new ExcelReportWriter<>(definition, out);
+        };
+        return ReportProgress.track(writer);
+    }
+
+    // Imports accept the spreadsheet and CSV layouts
+    public <T> ReportRowReader openReader(ReportDefinition<T> definition, InputStream in) throws IOException {
+        return switch (this) {
+            case CSV -> new CsvReportReader(definition, in);
+            case XLSX -> new ExcelReportReader(definition, in);
+            case NDJSON -> throw new RuntimeException("Upload an .xlsx or .csv file");
+        };
+    }
+
+    // Same for a file already on disk (spreadsheets are then read in place)
+    public <T> ReportRowReader openReader(ReportDefinition<T> definition, Path file) throws IOException {
+        return switch (this) {
+            case CSV -> new CsvReportReader(definition, Files.newInputStream(file));
+            case XLSX -> new ExcelReportReader(definition, file);
+            case NDJSON -> throw new RuntimeException("Upload an .xlsx or .csv file");
+        };
+    }
+}
@@ -0,0 +1,51 @@
+package com.enterprise.bms.enterprise_bms.report;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Row counter for the report being written on the current thread. A background report job binds a
+// counter before calling a write*Report method, and every writer opened through ReportFormat.open
+// on that thread adds to it, so the job can be polled while the rows are still streaming.
+public final class ReportProgress {
+    private static final ThreadLocal<AtomicLong> CURRENT = new ThreadLocal<>();
+
+    private ReportProgress() {
+    }
+
+    public static void bind(AtomicLong rowsWritten) {
+        CURRENT.set(rowsWritten);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    static <T> ReportRowWriter<T> track(ReportRowWriter<T> writer) {
+        AtomicLong rowsWritten = CURRENT.get();
+        if (rowsWritten == null) {
+            return writer;
+        }
+        return new ReportRowWriter<>() {
+            @Override
+            public void writeRow(T row) throws IOException {
+                writer.writeRow(row);
+                rowsWritten.incrementAndGet();
+            }
+
+            @Override
+            public void writeTotal(int labelColumn, String label, Number total) throws IOException {
+                writer.writeTotal(labelColumn, label, total);
+            }
+
+            @Override
+            public void finish() throws IOException {
+                writer.finish();
+            }
+
+            @Override
+            public void close() throws IOException {
+                writer.close();
+            }
+        };
+    }
+}
@@ -0,0 +1,75 @@
+package com.enterprise.bms.enterprise_bms.report;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+// One uploaded row: the cell text by ReportColumn key (blank cells are absent) and its
+// 1-based row number in the file, header included. The typed getters throw RuntimeException
+// naming the column, which callers report against the row.
+public class ReportRow {
+    private final int rowNumber;
+    private final Map<String, String> values;
+    private final Map<String, String> headers;
+
+    ReportRow(int rowNumber, Map<String, String> values, Map<String, String> headers) {
+        this.rowNumber = rowNumber;
+        this.values = values;
+        this.headers = headers;
+    }
+
+    public int getRowNumber() {
+        return rowNumber;
+    }
+
+    public String getText(String key) {
+        return values.get(key);
+    }
+
+    public BigDecimal getDecimal(String key) {
+        String text = values.get(key);
+        if (text == null) {
+            return null;
+        }
+        try {
+            return new BigDecimal(text);
+        } catch (NumberFormatException e) {
+            throw invalid(key, text);
+        }
+    }
+
+    public Long getLong(String key) {
+        BigDecimal value = getDecimal(key);
+        try {
+            return value != null ? value.longValueExact() : null;
+        } catch (ArithmeticException e) {
+            throw invalid(key, values.get(key));
+        }
+    }
+
+    public Integer getInteger(String key) {
+        BigDecimal value = getDecimal(key);
+        try {
+            return value != null ? value.intValueExact() : null;
+        } catch (ArithmeticException e) {
+            throw invalid(key, values.get(key));
+        }
+    }
+
+    // yyyy-MM-dd
+    public LocalDate getDate(String key) {
+        String text = values.get(key);
+        if (text == null) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(text);
+        } catch (RuntimeException e) {
+            throw invalid(key, text);
+        }
+    }
+
+    private RuntimeException invalid(String key, String text) {
+        return new RuntimeException("Invalid " + headers.getOrDefault(key, key) + ": " + text);
+    }
+}
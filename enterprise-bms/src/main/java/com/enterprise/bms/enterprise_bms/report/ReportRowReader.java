@@ -0,0 +1,17 @@
+package com.enterprise.bms.enterprise_bms.report;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+// Reads rows back from an uploaded ReportFormat file. The first row is the header; columns are
+// matched to the ReportDefinition by header or key, so an exported report can be edited and
+// uploaded again. Unknown columns are ignored, blank rows skipped.
+public interface ReportRowReader extends Closeable {
+
+    // Next row, or null after the last one
+    ReportRow readRow() throws IOException;
+
+    @Override
+    default void close() throws IOException {
+    }
+}
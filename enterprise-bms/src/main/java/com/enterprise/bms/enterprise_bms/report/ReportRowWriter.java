@@ -0,0 +1,51 @@
+package com.enterprise.bms.enterprise_bms.report;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+// Writes report rows in one ReportFormat. Rows go out as they are written; finish() completes
+// the document. close() releases resources but leaves the target stream open.
+public interface ReportRowWriter<T> extends Closeable {
+
+    void writeRow(T row) throws IOException;
+
+    // Summary line (label, then the total in the next column). Only the spreadsheet shows it;
+    // CSV and NDJSON stay one record per line.
+    default void writeTotal(int labelColumn, String label, Number total) throws IOException {
+    }
+
+    // Maps and writes each streamed entity, then hands it to release (the service's
+    // EntityManager::detach) so a long export keeps at most one fetch batch in the persistence
+    // context. Returns the number of rows written.
+    default <E> long writeEntities(Stream<E> entities, Function<? super E, ? extends T> mapper,
+                                   Consumer<? super E> release) throws IOException {
+        return writeEntities(entities, mapper, release, row -> {
+        });
+    }
+
+    // As above, also passing each written row to onRow (per-report totals)
+    default <E> long writeEntities(Stream<E> entities, Function<? super E, ? extends T> mapper,
+                                   Consumer<? super E> release, Consumer<? super T> onRow) throws IOException {
+        long written = 0;
+        Iterator<E> rows = entities.iterator();
+        while (rows.hasNext()) {
+            E entity = rows.next();
+            T row = mapper.apply(entity);
+            release.accept(entity);
+            writeRow(row);
+            onRow.accept(row);
+            written++;
+        }
+        return written;
+    }
+
+    void finish() throws IOException;
+
+    @Override
+    default void close() throws IOException {
+    }
+}
@@ -1,15 +1,20 @@
 package com.enterprise.bms.enterprise_bms.repository;
 
 import com.enterprise.bms.enterprise_bms.entity.AdvanceEntity;
-import org.springframework.data.jpa.repository.JpaRepository;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface AdvanceRepository extends JpaRepository<AdvanceEntity, Long> {
+public interface AdvanceRepository extends FilteringRepository<AdvanceEntity, Long> {
     @Query("SELECT a FROM AdvanceEntity a WHERE a.isDelete = false")
     List<AdvanceEntity> findAllByIsDeleteFalse();
 
@@ -29,18 +34,50 @@ public interface AdvanceRepository extends JpaRepository<AdvanceEntity, Long> {
             @Param("endDate") LocalDate endDate
     );
 
-    @Query("SELECT a FROM AdvanceEntity a WHERE a.isDelete = false " +
-            "AND (:recipientType IS NULL OR a.recipientType = :recipientType) " +
-            "AND (:recipientId IS NULL OR a.recipientId = :recipientId) " +
-            "AND (:startDate IS NULL OR a.advanceDate >= :startDate) " +
-            "AND (:endDate IS NULL OR a.advanceDate <= :endDate) " +
-            "ORDER BY a.advanceDate DESC")
-    List<AdvanceEntity> findFiltered(
-            @Param("recipientType") String recipientType,
-            @Param("recipientId") Long recipientId,
-            @Param("startDate") LocalDate startDate,
-            @Param("endDate") LocalDate endDate
-    );
+    Sort FILTER_SORT = Sort.by(Sort.Order.desc("advanceDate"));
+    Sort PAGE_SORT = Sort.by(Sort.Order.desc("advanceDate"), Sort.Order.desc("id"));
+
+    default List<AdvanceEntity> findFiltered(String recipientType, Long recipientId, LocalDate startDate, LocalDate endDate) {
+        return findAll(filter(recipientType, recipientId, startDate, endDate), FILTER_SORT);
+    }
+
+    // Report export: read through a cursor (see FilteringRepository.streamAll)
+    default Stream<AdvanceEntity> streamFiltered(String recipientType, Long recipientId, LocalDate startDate, LocalDate endDate) {
+        return streamAll(filter(recipientType, recipientId, startDate, endDate), FILTER_SORT);
+    }
+
+    // Keyset page: rows strictly after (afterDate, afterId) in (advanceDate DESC, id DESC) order
+    default List<AdvanceEntity> findFilteredPage(String recipientType, Long recipientId, LocalDate startDate, LocalDate endDate,
+                                             LocalDate afterDate, Long afterId, Pageable pageable) {
+        Specification<AdvanceEntity> spec = filter(recipientType, recipientId, startDate, endDate);
+        if (afterDate != null) {
+            spec = spec.and((root, query, cb) -> cb.or(
+                    cb.lessThan(root.get("advanceDate"), afterDate),
+                    cb.and(cb.equal(root.get("advanceDate"), afterDate), cb.lessThan(root.get("id"), afterId))));
+        }
+        return findAll(spec, PAGE_SORT, pageable.getPageSize());
+    }
+
+    // Only the supplied filters become predicates, so each combination gets its own plan and index
+    private static Specification<AdvanceEntity> filter(String recipientType, Long recipientId, LocalDate startDate, LocalDate endDate) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(cb.equal(root.get("isDelete"), false));
+            if (recipientType != null) {
+                predicates.add(cb.equal(root.get("recipientType"), recipientType));
+            }
+            if (recipientId != null) {
+                predicates.add(cb.equal(root.get("recipientId"), recipientId));
+            }
+            if (startDate != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("advanceDate"), startDate));
+            }
+            if (endDate != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("advanceDate"), endDate));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
 
     @Query("SELECT a FROM AdvanceEntity a WHERE a.deductedInPaymentId = :paymentId AND a.isDelete = false")
     List<AdvanceEntity> findByDeductedInPaymentId(@Param("paymentId") Long paymentId);
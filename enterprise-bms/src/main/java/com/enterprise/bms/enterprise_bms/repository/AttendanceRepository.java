@@ -1,15 +1,20 @@
 package com.enterprise.bms.enterprise_bms.repository;
 
 import com.enterprise.bms.enterprise_bms.entity.AttendanceEntity;
-import org.springframework.data.jpa.repository.JpaRepository;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface AttendanceRepository extends JpaRepository<AttendanceEntity, Long> {
+public interface AttendanceRepository extends FilteringRepository<AttendanceEntity, Long> {
 
     @Query("SELECT a FROM AttendanceEntity a WHERE a.isDelete = false")
     List<AttendanceEntity> findAllByIsDeleteFalse();
@@ -19,16 +24,48 @@ public interface AttendanceRepository extends JpaRepository<AttendanceEntity, Lo
 
     Boolean existsByRecipientTypeAndRecipientIdAndAttendanceDate(String recipientType, Long recipientId, LocalDate attendanceDate);
 
-    @Query("SELECT a FROM AttendanceEntity a WHERE a.isDelete = false " +
-            "AND (:recipientType IS NULL OR a.recipientType = :recipientType) " +
-            "AND (:recipientId IS NULL OR a.recipientId = :recipientId) " +
-            "AND (:startDate IS NULL OR a.attendanceDate >= :startDate) " +
-            "AND (:endDate IS NULL OR a.attendanceDate <= :endDate) " +
-            "ORDER BY a.attendanceDate DESC")
-    List<AttendanceEntity> findFiltered(
-            @Param("recipientType") String recipientType,
-            @Param("recipientId") Long recipientId,
-            @Param("startDate") LocalDate startDate,
-            @Param("endDate") LocalDate endDate
-    );
-}
\ No newline at end of file
+    Sort FILTER_SORT = Sort.by(Sort.Order.desc("attendanceDate"));
+    Sort PAGE_SORT = Sort.by(Sort.Order.desc("attendanceDate"), Sort.Order.desc("id"));
+
+    default List<AttendanceEntity> findFiltered(String recipientType, Long recipientId, LocalDate startDate, LocalDate endDate) {
+        return findAll(filter(recipientType, recipientId, startDate, endDate), FILTER_SORT);
+    }
+
+    // Report export: read through a cursor (see FilteringRepository.streamAll)
+    default Stream<AttendanceEntity> streamFiltered(String recipientType, Long recipientId, LocalDate startDate, LocalDate endDate) {
+        return streamAll(filter(recipientType, recipientId, startDate, endDate), FILTER_SORT);
+    }
+
+    // Keyset page: rows strictly after (afterDate, afterId) in (attendanceDate DESC, id DESC) order
+    default List<AttendanceEntity> findFilteredPage(String recipientType, Long recipientId, LocalDate startDate, LocalDate endDate,
+                                             LocalDate afterDate, Long afterId, Pageable pageable) {
+        Specification<AttendanceEntity> spec = filter(recipientType, recipientId, startDate, endDate);
+        if (afterDate != null) {
+            spec = spec.and((root, query, cb) -> cb.or(
+                    cb.lessThan(root.get("attendanceDate"), afterDate),
+                    cb.and(cb.equal(root.get("attendanceDate"), afterDate), cb.lessThan(root.get("id"), afterId))));
+        }
+        return findAll(spec, PAGE_SORT, pageable.getPageSize());
+    }
+
+    // Only the supplied filters become predicates, so each combination gets its own plan and index
+    private static Specification<AttendanceEntity> filter(String recipientType, Long recipientId, LocalDate startDate, LocalDate endDate) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(cb.equal(root.get("isDelete"), false));
+            if (recipientType != null) {
+                predicates.add(cb.equal(root.get("recipientType"), recipientType));
+            }
+            if (recipientId != null) {
+                predicates.add(cb.equal(root.get("recipientId"), recipientId));
+            }
+            if (startDate != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("attendanceDate"), startDate));
+            }
+            if (endDate != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("attendanceDate"), endDate));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+}
@@ -0,0 +1,9 @@
+package com.enterprise.bms.enterprise_bms.repository;
+
+import com.enterprise.bms.enterprise_bms.entity.BackfillMarkerEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface BackfillMarkerRepository extends JpaRepository<BackfillMarkerEntity, String> {
+}
@@ -1,14 +1,20 @@
 package com.enterprise.bms.enterprise_bms.repository;
 
+import com.enterprise.bms.enterprise_bms.dto.MonthlyTotal;
 import com.enterprise.bms.enterprise_bms.entity.ExVehiclesEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ExVehiclesRepository extends JpaRepository<ExVehiclesEntity,Long> {
 
@@ -28,7 +34,39 @@ public interface ExVehiclesRepository extends JpaRepository<ExVehiclesEntity,Lon
                                         @Param("startDate") LocalDate startDate,
                                         @Param("endDate") LocalDate endDate);
 
+    // Report export: rows are read through a cursor, 500 at a time, as read-only entities
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT e FROM ExVehiclesEntity e WHERE e.isDelete = false " +
+            "AND (:regNumber IS NULL OR LOWER(e.regNumber) LIKE LOWER(CONCAT('%', :regNumber, '%'))) " +
+            "AND (:startDate IS NULL OR e.date >= :startDate) " +
+            "AND (:endDate IS NULL OR e.date <= :endDate)")
+    Stream<ExVehiclesEntity> streamFiltered(@Param("regNumber") String regNumber,
+                                        @Param("startDate") LocalDate startDate,
+                                        @Param("endDate") LocalDate endDate);
+
+    // Keyset page: rows strictly after (afterDate, afterId) in (date DESC, id DESC) order
+    @Query("SELECT e FROM ExVehiclesEntity e WHERE e.isDelete = false " +
+            "AND (:regNumber IS NULL OR LOWER(e.regNumber) LIKE LOWER(CONCAT('%', :regNumber, '%'))) " +
+            "AND (:startDate IS NULL OR e.date >= :startDate) " +
+            "AND (:endDate IS NULL OR e.date <= :endDate) " +
+            "AND (:afterDate IS NULL OR e.date < :afterDate OR (e.date = :afterDate AND e.id < :afterId)) " +
+            "ORDER BY e.date DESC, e.id DESC")
+    List<ExVehiclesEntity> findFilteredPage(@Param("regNumber") String regNumber,
+                                            @Param("startDate") LocalDate startDate,
+                                            @Param("endDate") LocalDate endDate,
+                                            @Param("afterDate") LocalDate afterDate,
+                                            @Param("afterId") Long afterId,
+                                            Pageable pageable);
+
     //for dashboard
     @Query("SELECT COALESCE(SUM(e.hireRate), 0) FROM ExVehiclesEntity e WHERE e.isDelete = false AND e.date >= :start AND e.date <= :end")
     BigDecimal getTotalHireCostForPeriod(@Param("start") LocalDate start, @Param("end") LocalDate end);
+
+    @Query("SELECT new com.enterprise.bms.enterprise_bms.dto.MonthlyTotal(YEAR(e.date), MONTH(e.date), COALESCE(SUM(e.hireRate), 0)) " +
+            "FROM ExVehiclesEntity e WHERE e.isDelete = false AND e.date >= :start AND e.date <= :end " +
+            "GROUP BY YEAR(e.date), MONTH(e.date)")
+    List<MonthlyTotal> getMonthlyHireCostForPeriod(@Param("start") LocalDate start, @Param("end") LocalDate end);
 }
\ No newline at end of file
@@ -0,0 +1,36 @@
+package com.enterprise.bms.enterprise_bms.repository;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.support.JpaEntityInformation;
+import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+// Repository base class for every repository (see JpaConfig). Not named FilteringRepositoryImpl so
+// Spring Data does not mistake it for a fragment implementation; plain JpaRepository interfaces
+// behave exactly as with SimpleJpaRepository.
+public class FilteringJpaRepository<T, ID> extends SimpleJpaRepository<T, ID> implements FilteringRepository<T, ID> {
+
+    public FilteringJpaRepository(JpaEntityInformation<T, ?> entityInformation, EntityManager entityManager) {
+        super(entityInformation, entityManager);
+    }
+
+    @Override
+    public List<T> findAll(Specification<T> spec, Sort sort, int limit) {
+        return getQuery(spec, sort)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public Stream<T> streamAll(Specification<T> spec, Sort sort) {
+        return getQuery(spec, sort)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, 500)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+}
@@ -0,0 +1,23 @@
+package com.enterprise.bms.enterprise_bms.repository;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.repository.NoRepositoryBean;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+// Repositories whose list filters are built as Specifications, so a query only carries the
+// predicates that were actually supplied (implemented by FilteringJpaRepository)
+@NoRepositoryBean
+public interface FilteringRepository<T, ID> extends JpaRepository<T, ID>, JpaSpecificationExecutor<T> {
+
+    // First rows in sort order, without the COUNT query a Page would run (keyset pages)
+    List<T> findAll(Specification<T> spec, Sort sort, int limit);
+
+    // Report export: rows are read through a cursor, 500 at a time, as read-only entities.
+    // The caller must close the stream inside a transaction.
+    Stream<T> streamAll(Specification<T> spec, Sort sort);
+}
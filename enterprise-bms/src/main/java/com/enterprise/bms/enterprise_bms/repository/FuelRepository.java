@@ -1,51 +1,98 @@
 package com.enterprise.bms.enterprise_bms.repository;
 
+import com.enterprise.bms.enterprise_bms.dto.MonthlyTotal;
+import com.enterprise.bms.enterprise_bms.dto.VehicleMonthlyTotal;
 import com.enterprise.bms.enterprise_bms.entity.FuelEntity;
-import org.springframework.data.jpa.repository.JpaRepository;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface FuelRepository extends JpaRepository<FuelEntity, Long> {
+public interface FuelRepository extends FilteringRepository<FuelEntity, Long>, FuelRepositoryCustom {
 
-    @Query("SELECT f FROM FuelEntity f WHERE f.isDelete = false")
+    // List queries fetch the vehicle and trip with the row, toDTO reads their regNumber/clientName
+    @Query("SELECT f FROM FuelEntity f LEFT JOIN FETCH f.vehicle LEFT JOIN FETCH f.transport WHERE f.isDelete = false")
     List<FuelEntity> findAllActive();
 
     @Query("SELECT f FROM FuelEntity f WHERE f.id = :id AND f.isDelete = false")
     Optional<FuelEntity> findByIdAndIsDeleteFalse(Long id);
 
-    @Query("SELECT f FROM FuelEntity f WHERE f.isDelete = false AND f.vehicle.id = :vehicleId")
+    @Query("SELECT f FROM FuelEntity f LEFT JOIN FETCH f.vehicle LEFT JOIN FETCH f.transport WHERE f.isDelete = false AND f.vehicle.id = :vehicleId")
     List<FuelEntity> findByVehicleId(Long vehicleId);
 
-    @Query("SELECT f FROM FuelEntity f WHERE f.isDelete = false AND f.transport.id = :tripId")
+    @Query("SELECT f FROM FuelEntity f LEFT JOIN FETCH f.vehicle LEFT JOIN FETCH f.transport WHERE f.isDelete = false AND f.transport.id = :tripId")
     List<FuelEntity> findByTripId(Long tripId);
 
-    @Query("SELECT f FROM FuelEntity f WHERE f.isDelete = false " +
-            "AND (:vehicleId IS NULL OR f.vehicle.id = :vehicleId) " +
-            "AND (:startDate IS NULL OR f.fuelDate >= :startDate) " +
-            "AND (:endDate IS NULL OR f.fuelDate <= :endDate) " +
-            "ORDER BY f.fuelDate DESC, f.createdAt DESC")
-    List<FuelEntity> findFiltered(
-            @Param("vehicleId") Long vehicleId,
-            @Param("startDate") LocalDate startDate,
-            @Param("endDate") LocalDate endDate
-    );
+    Sort FILTER_SORT = Sort.by(Sort.Order.desc("fuelDate"), Sort.Order.desc("createdAt"));
+    Sort PAGE_SORT = Sort.by(Sort.Order.desc("fuelDate"), Sort.Order.desc("id"));
 
-    @Query("SELECT f FROM FuelEntity f WHERE f.isDelete = false " +
-            "AND f.vehicle.regNumber = :regNumber " +
-            "AND (:startDate IS NULL OR f.fuelDate >= :startDate) " +
-            "AND (:endDate IS NULL OR f.fuelDate <= :endDate)")
-    List<FuelEntity> findByRegNumberAndDateRange(
-            @Param("regNumber") String regNumber,
-            @Param("startDate") LocalDate startDate,
-            @Param("endDate") LocalDate endDate
-    );
+    default List<FuelEntity> findFiltered(Long vehicleId, LocalDate startDate, LocalDate endDate) {
+        return findAll(filter(vehicleId, null, startDate, endDate), FILTER_SORT);
+    }
+
+    // Report export: read through a cursor (see FilteringRepository.streamAll)
+    default Stream<FuelEntity> streamFiltered(Long vehicleId, LocalDate startDate, LocalDate endDate) {
+        return streamAll(filter(vehicleId, null, startDate, endDate), FILTER_SORT);
+    }
+
+    // Keyset page: rows strictly after (afterDate, afterId) in (fuelDate DESC, id DESC) order
+    default List<FuelEntity> findFilteredPage(Long vehicleId, LocalDate startDate, LocalDate endDate,
+                                              LocalDate afterDate, Long afterId, Pageable pageable) {
+        Specification<FuelEntity> spec = filter(vehicleId, null, startDate, endDate);
+        if (afterDate != null) {
+            spec = spec.and((root, query, cb) -> cb.or(
+                    cb.lessThan(root.get("fuelDate"), afterDate),
+                    cb.and(cb.equal(root.get("fuelDate"), afterDate), cb.lessThan(root.get("id"), afterId))));
+        }
+        return findAll(spec, PAGE_SORT, pageable.getPageSize());
+    }
+
+    default List<FuelEntity> findByRegNumberAndDateRange(String regNumber, LocalDate startDate, LocalDate endDate) {
+        return findAll(filter(null, regNumber, startDate, endDate), Sort.unsorted());
+    }
+
+    // Report export: read through a cursor (see FilteringRepository.streamAll)
+    default Stream<FuelEntity> streamByRegNumberAndDateRange(String regNumber, LocalDate startDate, LocalDate endDate) {
+        return streamAll(filter(null, regNumber, startDate, endDate), Sort.unsorted());
+    }
+
+    // Only the supplied filters become predicates, so each combination gets its own plan and index.
+    // Like the list queries above, the vehicle and trip are fetched with the row.
+    private static Specification<FuelEntity> filter(Long vehicleId, String regNumber, LocalDate startDate, LocalDate endDate) {
+        return (root, query, cb) -> {
+            // Hibernate's fetch is also a join; filtering on it avoids a second join for regNumber
+            Join<?, ?> vehicle = (Join<?, ?>) root.fetch("vehicle", JoinType.LEFT);
+            root.fetch("transport", JoinType.LEFT);
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(cb.equal(root.get("isDelete"), false));
+            if (regNumber != null) {
+                predicates.add(cb.equal(vehicle.get("regNumber"), regNumber));
+            }
+            if (vehicleId != null) {
+                predicates.add(cb.equal(root.get("vehicle").get("id"), vehicleId));
+            }
+            if (startDate != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("fuelDate"), startDate));
+            }
+            if (endDate != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("fuelDate"), endDate));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
 
     @Query("SELECT SUM(f.totalCost) FROM FuelEntity f " +
             "WHERE f.isDelete = false AND f.vehicle.id = :vehicleId " +
@@ -58,4 +105,62 @@ public interface FuelRepository extends JpaRepository<FuelEntity, Long> {
     //for dashboard
     @Query("SELECT COALESCE(SUM(f.totalCost), 0) FROM FuelEntity f WHERE f.isDelete = false AND f.fuelDate >= :start AND f.fuelDate <= :end")
     BigDecimal getTotalFuelCostForPeriod(@Param("start") LocalDate start, @Param("end") LocalDate end);
-}
\ No newline at end of file
+
+    @Query("SELECT new com.enterprise.bms.enterprise_bms.dto.MonthlyTotal(YEAR(f.fuelDate), MONTH(f.fuelDate), COALESCE(SUM(f.totalCost), 0)) " +
+            "FROM FuelEntity f WHERE f.isDelete = false AND f.fuelDate >= :start AND f.fuelDate <= :end " +
+            "GROUP BY YEAR(f.fuelDate), MONTH(f.fuelDate)")
+    List<MonthlyTotal> getMonthlyFuelCostForPeriod(@Param("start") LocalDate start, @Param("end") LocalDate end);
+
+    // Vehicle analytics: fuel cost and litres per vehicle and month
+    @Query("SELECT new com.enterprise.bms.enterprise_bms.dto.VehicleMonthlyTotal(f.vehicle.id, YEAR(f.fuelDate), MONTH(f.fuelDate), " +
+            "COALESCE(SUM(f.totalCost), 0), COALESCE(SUM(f.fuelQuantity), 0)) " +
+            "FROM FuelEntity f WHERE f.isDelete = false AND f.fuelDate >= :start AND f.fuelDate <= :end " +
+            "GROUP BY f.vehicle.id, YEAR(f.fuelDate), MONTH(f.fuelDate)")
+    List<VehicleMonthlyTotal> getVehicleMonthlyFuelForPeriod(@Param("start") LocalDate start, @Param("end") LocalDate end);
+
+    // Vehicle analytics: distance and litres of the fills that have a km/L (see FuelEfficiencyService)
+    @Query("SELECT new com.enterprise.bms.enterprise_bms.dto.VehicleMonthlyTotal(f.vehicle.id, YEAR(f.fuelDate), MONTH(f.fuelDate), " +
+            "COALESCE(SUM(f.distanceKm), 0), COALESCE(SUM(f.fuelQuantity), 0)) " +
+            "FROM FuelEntity f WHERE f.isDelete = false AND f.kmPerLitre IS NOT NULL " +
+            "AND f.fuelDate >= :start AND f.fuelDate <= :end " +
+            "GROUP BY f.vehicle.id, YEAR(f.fuelDate), MONTH(f.fuelDate)")
+    List<VehicleMonthlyTotal> getVehicleMonthlyEfficiencyForPeriod(@Param("start") LocalDate start, @Param("end") LocalDate end);
+
+    // Fuel efficiency: fills of a vehicle are ordered by (fuelDate, odometerReading, id);
+    // fills without an odometer reading take no part
+    @Query("SELECT f FROM FuelEntity f WHERE f.isDelete = false AND f.vehicle.id = :vehicleId " +
+            "AND f.odometerReading IS NOT NULL AND f.id <> :id " +
+            "AND (f.fuelDate < :fuelDate OR (f.fuelDate = :fuelDate AND (f.odometerReading < :odometer " +
+            "OR (f.odometerReading = :odometer AND f.id < :id)))) " +
+            "ORDER BY f.fuelDate DESC, f.odometerReading DESC, f.id DESC")
+    List<FuelEntity> findPreviousFills(@Param("vehicleId") Long vehicleId, @Param("fuelDate") LocalDate fuelDate,
+                                       @Param("odometer") BigDecimal odometer, @Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT f FROM FuelEntity f WHERE f.isDelete = false AND f.vehicle.id = :vehicleId " +
+            "AND f.odometerReading IS NOT NULL AND f.id <> :id " +
+            "AND (f.fuelDate > :fuelDate OR (f.fuelDate = :fuelDate AND (f.odometerReading > :odometer " +
+            "OR (f.odometerReading = :odometer AND f.id > :id)))) " +
+            "ORDER BY f.fuelDate ASC, f.odometerReading ASC, f.id ASC")
+    List<FuelEntity> findNextFills(@Param("vehicleId") Long vehicleId, @Param("fuelDate") LocalDate fuelDate,
+                                   @Param("odometer") BigDecimal odometer, @Param("id") Long id, Pageable pageable);
+
+    // Efficiency series of one vehicle (null bounds are open)
+    @Query("SELECT f FROM FuelEntity f WHERE f.isDelete = false AND f.vehicle.id = :vehicleId " +
+            "AND f.odometerReading IS NOT NULL " +
+            "AND (:start IS NULL OR f.fuelDate >= :start) AND (:end IS NULL OR f.fuelDate <= :end) " +
+            "ORDER BY f.fuelDate ASC, f.odometerReading ASC, f.id ASC")
+    List<FuelEntity> findEfficiencySeries(@Param("vehicleId") Long vehicleId, @Param("start") LocalDate start,
+                                          @Param("end") LocalDate end);
+
+    // Latest km/L values before a series starts, for the anomaly baseline
+    @Query("SELECT f.kmPerLitre FROM FuelEntity f WHERE f.isDelete = false AND f.vehicle.id = :vehicleId " +
+            "AND f.kmPerLitre IS NOT NULL AND f.fuelDate < :start " +
+            "ORDER BY f.fuelDate DESC, f.odometerReading DESC, f.id DESC")
+    List<BigDecimal> findKmPerLitreBefore(@Param("vehicleId") Long vehicleId, @Param("start") LocalDate start, Pageable pageable);
+
+    @Query("SELECT DISTINCT f.vehicle.id FROM FuelEntity f WHERE f.isDelete = false")
+    List<Long> findVehicleIdsWithFills();
+
+    @Query("SELECT COUNT(f) FROM FuelEntity f WHERE f.distanceKm IS NOT NULL")
+    long countWithDistance();
+}
@@ -0,0 +1,11 @@
+package com.enterprise.bms.enterprise_bms.repository;
+
+import com.enterprise.bms.enterprise_bms.entity.FuelEntity;
+
+import java.util.List;
+
+public interface FuelRepositoryCustom {
+
+    // Inserts all fills with JDBC batches (ids are not written back; distance, km/L and cost/km are left empty)
+    void batchInsert(List<FuelEntity> fuel);
+}
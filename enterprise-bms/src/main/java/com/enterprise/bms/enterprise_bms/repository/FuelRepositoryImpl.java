@@ -0,0 +1,40 @@
+package com.enterprise.bms.enterprise_bms.repository;
+
+import com.enterprise.bms.enterprise_bms.entity.FuelEntity;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class FuelRepositoryImpl implements FuelRepositoryCustom {
+    private static final String INSERT_SQL = "INSERT INTO tbl_fuel " +
+            "(fuel_date, vehicle_id, trip_id, odometer_reading, fuel_quantity, total_cost, notes, is_delete, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Runs on the connection of the surrounding JPA transaction;
+    // with rewriteBatchedStatements=true MySQL receives each batch as a multi-row INSERT
+    @Override
+    public void batchInsert(List<FuelEntity> fuel) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, fuel, BATCH_SIZE, (ps, fill) -> {
+            ps.setDate(1, Date.valueOf(fill.getFuelDate()));
+            ps.setLong(2, fill.getVehicle().getId());
+            ps.setObject(3, fill.getTransport() != null ? fill.getTransport().getId() : null, Types.BIGINT);
+            ps.setBigDecimal(4, fill.getOdometerReading());
+            ps.setBigDecimal(5, fill.getFuelQuantity());
+            ps.setBigDecimal(6, fill.getTotalCost());
+            ps.setString(7, fill.getNotes());
+            ps.setBoolean(8, fill.getIsDelete());
+            ps.setTimestamp(9, now);
+            ps.setTimestamp(10, now);
+        });
+    }
+}
@@ -0,0 +1,21 @@
+package com.enterprise.bms.enterprise_bms.repository;
+
+import com.enterprise.bms.enterprise_bms.entity.ImportJobErrorEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ImportJobErrorRepository extends JpaRepository<ImportJobErrorEntity, Long> {
+
+    @Query("SELECT e FROM ImportJobErrorEntity e WHERE e.jobId = :jobId ORDER BY e.rowNumber")
+    List<ImportJobErrorEntity> findByJobId(Long jobId, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM ImportJobErrorEntity e WHERE e.jobId = :jobId")
+    int deleteByJobId(Long jobId);
+}
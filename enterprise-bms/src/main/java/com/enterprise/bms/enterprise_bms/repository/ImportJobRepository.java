@@ -0,0 +1,29 @@
+package com.enterprise.bms.enterprise_bms.repository;
+
+import com.enterprise.bms.enterprise_bms.entity.ImportJobEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ImportJobRepository extends JpaRepository<ImportJobEntity, Long> {
+
+    @Query("SELECT j FROM ImportJobEntity j WHERE j.requestedBy = :requestedBy ORDER BY j.id DESC")
+    List<ImportJobEntity> findRecentByRequestedBy(String requestedBy, Pageable pageable);
+
+    // Finished jobs whose uploads have passed the retention period
+    @Query("SELECT j FROM ImportJobEntity j WHERE j.status IN ('COMPLETED', 'FAILED') AND j.completedAt < :before")
+    List<ImportJobEntity> findFinishedBefore(LocalDateTime before);
+
+    // Jobs a previous run of the application never finished; they can be resumed from their checkpoint
+    @Modifying
+    @Query("UPDATE ImportJobEntity j SET j.status = 'FAILED', j.errorMessage = :errorMessage, j.completedAt = :completedAt " +
+            "WHERE j.status IN :statuses")
+    int failUnfinished(Collection<String> statuses, String errorMessage, LocalDateTime completedAt);
+}
@@ -3,12 +3,18 @@ package com.enterprise.bms.enterprise_bms.repository;
 
 import com.enterprise.bms.enterprise_bms.entity.InvoiceItemEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 
 @Repository
-public interface InvoiceItemRepository extends JpaRepository<InvoiceItemEntity, Long> {
+public interface InvoiceItemRepository extends JpaRepository<InvoiceItemEntity, Long>, InvoiceItemRepositoryCustom {
 
     List<InvoiceItemEntity> findByInvoiceId(Long invoiceId);
+
+    // Items of many invoices in one query (grouped by invoice in the service)
+    @Query("SELECT ii FROM InvoiceItemEntity ii WHERE ii.invoice.id IN :invoiceIds ORDER BY ii.invoice.id, ii.id")
+    List<InvoiceItemEntity> findByInvoiceIdIn(@Param("invoiceIds") List<Long> invoiceIds);
 }
\ No newline at end of file
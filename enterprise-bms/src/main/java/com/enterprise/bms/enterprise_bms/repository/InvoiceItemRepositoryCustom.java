@@ -0,0 +1,11 @@
+package com.enterprise.bms.enterprise_bms.repository;
+
+import com.enterprise.bms.enterprise_bms.entity.InvoiceItemEntity;
+
+import java.util.List;
+
+public interface InvoiceItemRepositoryCustom {
+
+    // Inserts all items with one JDBC batch (ids are not written back to the entities)
+    void batchInsert(List<InvoiceItemEntity> items);
+}
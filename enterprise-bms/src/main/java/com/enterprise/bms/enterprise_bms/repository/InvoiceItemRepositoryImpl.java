@@ -0,0 +1,39 @@
+package com.enterprise.bms.enterprise_bms.repository;
+
+import com.enterprise.bms.enterprise_bms.entity.InvoiceItemEntity;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class InvoiceItemRepositoryImpl implements InvoiceItemRepositoryCustom {
+    private static final String INSERT_SQL = "INSERT INTO tbl_invoice_items " +
+            "(invoice_id, transport_id, date, vehicle_reg_no, particulars, rate, advance, held_up, balance, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Runs on the connection of the surrounding JPA transaction;
+    // with rewriteBatchedStatements=true MySQL receives it as a multi-row INSERT
+    @Override
+    public void batchInsert(List<InvoiceItemEntity> items) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, items, items.size(), (ps, item) -> {
+            ps.setLong(1, item.getInvoice().getId());
+            ps.setLong(2, item.getTransport().getId());
+            ps.setDate(3, Date.valueOf(item.getDate()));
+            ps.setString(4, item.getVehicleRegNo());
+            ps.setString(5, item.getParticulars());
+            ps.setBigDecimal(6, item.getRate());
+            ps.setBigDecimal(7, item.getAdvance());
+            ps.setBigDecimal(8, item.getHeldUp());
+            ps.setBigDecimal(9, item.getBalance());
+            ps.setTimestamp(10, now);
+            ps.setTimestamp(11, now);
+        });
+    }
+}
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,7 +19,18 @@ public interface InvoiceRepository extends JpaRepository<InvoiceEntity, Long> {
     @Query("SELECT i FROM InvoiceEntity i WHERE i.id = :id AND i.isDeleted = false")
     Optional<InvoiceEntity> findByIdAndIsDeletedFalse(Long id);
 
-    // For generating sequential invoice_no, e.g., find max for current year
-    @Query("SELECT MAX(i.invoiceNo) FROM InvoiceEntity i WHERE i.invoiceNo LIKE CONCAT('INV-', :year, '-%')")
-    String findMaxInvoiceNoForYear(String year);
+    // Seeds the per-year invoice sequence (runs once per year, see InvoiceNumberService)
+    @Query("SELECT i.invoiceNo FROM InvoiceEntity i WHERE i.invoiceNo LIKE CONCAT('INV-', :year, '-%')")
+    List<String> findInvoiceNosForYear(String year);
+
+    // Bulk PDF export; a null filter matches every invoice
+    @Query("SELECT i FROM InvoiceEntity i WHERE i.isDeleted = false " +
+            "AND (:clientName IS NULL OR i.clientName = :clientName) " +
+            "AND (:fromDate IS NULL OR i.generationDate >= :fromDate) " +
+            "AND (:toDate IS NULL OR i.generationDate <= :toDate) " +
+            "ORDER BY i.generationDate, i.id")
+    List<InvoiceEntity> findForExport(String clientName, LocalDate fromDate, LocalDate toDate);
+
+    @Query("SELECT i FROM InvoiceEntity i WHERE i.isDeleted = false AND i.id IN :ids ORDER BY i.generationDate, i.id")
+    List<InvoiceEntity> findActiveByIdIn(List<Long> ids);
 }
\ No newline at end of file
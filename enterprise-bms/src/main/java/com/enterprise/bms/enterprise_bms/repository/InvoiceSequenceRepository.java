@@ -0,0 +1,26 @@
+package com.enterprise.bms.enterprise_bms.repository;
+
+import com.enterprise.bms.enterprise_bms.entity.InvoiceSequenceEntity;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface InvoiceSequenceRepository extends JpaRepository<InvoiceSequenceEntity, Integer> {
+
+    // SELECT ... FOR UPDATE: concurrent invoice creation for the same year waits here
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM InvoiceSequenceEntity s WHERE s.seqYear = :year")
+    Optional<InvoiceSequenceEntity> findByYearForUpdate(@Param("year") Integer year);
+
+    // Creates the year's row once; a concurrent creator of the same row is ignored
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO tbl_invoice_sequences (seq_year, next_value) VALUES (:year, :nextValue)", nativeQuery = true)
+    int insertIfAbsent(@Param("year") Integer year, @Param("nextValue") Integer nextValue);
+}
@@ -1,25 +1,33 @@
 // Updated MaintenanceRepository.java
 package com.enterprise.bms.enterprise_bms.repository;
+import com.enterprise.bms.enterprise_bms.dto.MonthlyTotal;
+import com.enterprise.bms.enterprise_bms.dto.VehicleMonthlyTotal;
 import com.enterprise.bms.enterprise_bms.entity.MaintenanceEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
-public interface MaintenanceRepository extends JpaRepository<MaintenanceEntity,Long> {
+import java.util.stream.Stream;
+public interface MaintenanceRepository extends JpaRepository<MaintenanceEntity,Long>, MaintenanceRepositoryCustom {
+    // List queries fetch ownVehicle with the row (toDTO reads its regNumber)
     // Get all active maintenance records (not deleted)
-    @Query("SELECT m FROM MaintenanceEntity m WHERE m.isDelete = false ORDER BY m.date DESC, m.createdAt DESC")
+    @Query("SELECT m FROM MaintenanceEntity m JOIN FETCH m.ownVehicle WHERE m.isDelete = false ORDER BY m.date DESC, m.createdAt DESC")
     List<MaintenanceEntity> findAllActive();
     // Get all active records for a specific vehicle
-    @Query("SELECT m FROM MaintenanceEntity m WHERE m.ownVehicle.id = :vehicleId AND m.isDelete = false")
+    @Query("SELECT m FROM MaintenanceEntity m JOIN FETCH m.ownVehicle WHERE m.ownVehicle.id = :vehicleId AND m.isDelete = false")
     List<MaintenanceEntity> findByVehicleIdAndActive(@Param("vehicleId") Long vehicleId);
     // Find by ID and not deleted
     Optional<MaintenanceEntity> findByIdAndIsDeleteFalse(Long id);
     // Filtered query
-    @Query("SELECT m FROM MaintenanceEntity m WHERE m.isDelete = false " +
+    @Query("SELECT m FROM MaintenanceEntity m JOIN FETCH m.ownVehicle WHERE m.isDelete = false " +
             "AND (:vehicleId IS NULL OR m.ownVehicle.id = :vehicleId) " +
             "AND (:startDate IS NULL OR m.date >= :startDate) " +
             "AND (:endDate IS NULL OR m.date <= :endDate) " +
@@ -30,7 +38,49 @@ public interface MaintenanceRepository extends JpaRepository<MaintenanceEntity,L
             @Param("endDate") LocalDate endDate
     );
 
+    // Report export: rows are read through a cursor, 500 at a time, as read-only entities
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT m FROM MaintenanceEntity m JOIN FETCH m.ownVehicle WHERE m.isDelete = false " +
+            "AND (:vehicleId IS NULL OR m.ownVehicle.id = :vehicleId) " +
+            "AND (:startDate IS NULL OR m.date >= :startDate) " +
+            "AND (:endDate IS NULL OR m.date <= :endDate) " +
+            "ORDER BY m.date DESC, m.createdAt DESC")
+    Stream<MaintenanceEntity> streamFiltered(
+            @Param("vehicleId") Long vehicleId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate
+    );
+    // Keyset page: rows strictly after (afterDate, afterId) in (date DESC, id DESC) order
+    @Query("SELECT m FROM MaintenanceEntity m JOIN FETCH m.ownVehicle WHERE m.isDelete = false " +
+            "AND (:vehicleId IS NULL OR m.ownVehicle.id = :vehicleId) " +
+            "AND (:startDate IS NULL OR m.date >= :startDate) " +
+            "AND (:endDate IS NULL OR m.date <= :endDate) " +
+            "AND (:afterDate IS NULL OR m.date < :afterDate OR (m.date = :afterDate AND m.id < :afterId)) " +
+            "ORDER BY m.date DESC, m.id DESC")
+    List<MaintenanceEntity> findFilteredPage(
+            @Param("vehicleId") Long vehicleId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate,
+            @Param("afterDate") LocalDate afterDate,
+            @Param("afterId") Long afterId,
+            Pageable pageable
+    );
+
     //for dashboard
     @Query("SELECT COALESCE(SUM(m.totalPrice), 0) FROM MaintenanceEntity m WHERE m.isDelete = false AND m.date >= :start AND m.date <= :end")
     BigDecimal getTotalMaintenanceCostForPeriod(@Param("start") LocalDate start, @Param("end") LocalDate end);
-}
\ No newline at end of file
+
+    @Query("SELECT new com.enterprise.bms.enterprise_bms.dto.MonthlyTotal(YEAR(m.date), MONTH(m.date), COALESCE(SUM(m.totalPrice), 0)) " +
+            "FROM MaintenanceEntity m WHERE m.isDelete = false AND m.date >= :start AND m.date <= :end " +
+            "GROUP BY YEAR(m.date), MONTH(m.date)")
+    List<MonthlyTotal> getMonthlyMaintenanceCostForPeriod(@Param("start") LocalDate start, @Param("end") LocalDate end);
+
+    // Vehicle analytics: maintenance cost per vehicle and month
+    @Query("SELECT new com.enterprise.bms.enterprise_bms.dto.VehicleMonthlyTotal(m.ownVehicle.id, YEAR(m.date), MONTH(m.date), COALESCE(SUM(m.totalPrice), 0)) " +
+            "FROM MaintenanceEntity m WHERE m.isDelete = false AND m.date >= :start AND m.date <= :end " +
+            "GROUP BY m.ownVehicle.id, YEAR(m.date), MONTH(m.date)")
+    List<VehicleMonthlyTotal> getVehicleMonthlyMaintenanceCostForPeriod(@Param("start") LocalDate start, @Param("end") LocalDate end);
+}
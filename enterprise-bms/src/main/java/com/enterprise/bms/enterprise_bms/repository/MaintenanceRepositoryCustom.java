@@ -0,0 +1,11 @@
+package com.enterprise.bms.enterprise_bms.repository;
+
+import com.enterprise.bms.enterprise_bms.entity.MaintenanceEntity;
+
+import java.util.List;
+
+public interface MaintenanceRepositoryCustom {
+
+    // Inserts all records with JDBC batches (ids are not written back to the entities)
+    void batchInsert(List<MaintenanceEntity> records);
+}
@@ -0,0 +1,39 @@
+package com.enterprise.bms.enterprise_bms.repository;
+
+import com.enterprise.bms.enterprise_bms.entity.MaintenanceEntity;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class MaintenanceRepositoryImpl implements MaintenanceRepositoryCustom {
+    private static final String INSERT_SQL = "INSERT INTO tbl_maintenance " +
+            "(vehicle_id, date, description, mileage, quantity, unit_price, total_price, is_delete, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Runs on the connection of the surrounding JPA transaction;
+    // with rewriteBatchedStatements=true MySQL receives each batch as a multi-row INSERT
+    @Override
+    public void batchInsert(List<MaintenanceEntity> records) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, records, BATCH_SIZE, (ps, record) -> {
+            ps.setLong(1, record.getOwnVehicle().getId());
+            ps.setDate(2, Date.valueOf(record.getDate()));
+            ps.setString(3, record.getDescription());
+            ps.setBigDecimal(4, record.getMileage());
+            ps.setInt(5, record.getQuantity());
+            ps.setBigDecimal(6, record.getUnitPrice());
+            ps.setBigDecimal(7, record.getTotalPrice());
+            ps.setBoolean(8, record.getIsDelete());
+            ps.setTimestamp(9, now);
+            ps.setTimestamp(10, now);
+        });
+    }
+}
@@ -0,0 +1,31 @@
+package com.enterprise.bms.enterprise_bms.repository;
+
+import com.enterprise.bms.enterprise_bms.entity.MonthlyFinancialEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Repository
+public interface MonthlyFinancialRepository extends JpaRepository<MonthlyFinancialEntity, Long> {
+
+    // Atomic upsert: creates the month/category row or adds the delta to it
+    @Modifying
+    @Query(value = "INSERT INTO tbl_monthly_financials (period_year, period_month, category, amount, updated_at) " +
+            "VALUES (:year, :month, :category, :delta, NOW()) " +
+            "ON DUPLICATE KEY UPDATE amount = amount + VALUES(amount), updated_at = VALUES(updated_at)",
+            nativeQuery = true)
+    int addToAmount(@Param("year") int year,
+                    @Param("month") int month,
+                    @Param("category") String category,
+                    @Param("delta") BigDecimal delta);
+
+    // Periods are compared as year * 100 + month so a range can span several years
+    @Query("SELECT m FROM MonthlyFinancialEntity m " +
+            "WHERE (m.periodYear * 100 + m.periodMonth) >= :startPeriod AND (m.periodYear * 100 + m.periodMonth) <= :endPeriod")
+    List<MonthlyFinancialEntity> findForPeriod(@Param("startPeriod") int startPeriod, @Param("endPeriod") int endPeriod);
+}
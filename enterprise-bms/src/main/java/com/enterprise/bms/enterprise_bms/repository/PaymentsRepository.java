@@ -1,15 +1,21 @@
 package com.enterprise.bms.enterprise_bms.repository;
 
+import com.enterprise.bms.enterprise_bms.dto.MonthlyTotal;
 import com.enterprise.bms.enterprise_bms.entity.PaymentsEntity;
-import org.springframework.data.jpa.repository.JpaRepository;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface PaymentsRepository extends JpaRepository<PaymentsEntity, Long> {
+public interface PaymentsRepository extends FilteringRepository<PaymentsEntity, Long> {
 
     @Query("SELECT p FROM PaymentsEntity p WHERE p.isDelete = false")
     List<PaymentsEntity> findAllByIsDeleteFalse();
@@ -19,20 +25,65 @@ public interface PaymentsRepository extends JpaRepository<PaymentsEntity, Long>
 
     Boolean existsByRecipientTypeAndRecipientIdAndPeriodMonthAndPeriodYear(String recipientType, Long recipientId, Integer periodMonth, Integer periodYear);
 
-    @Query("SELECT p FROM PaymentsEntity p WHERE p.isDelete = false " +
-            "AND (:recipientType IS NULL OR p.recipientType = :recipientType) " +
-            "AND (:recipientId IS NULL OR p.recipientId = :recipientId) " +
-            "AND (:periodMonth IS NULL OR p.periodMonth = :periodMonth) " +
-            "AND (:periodYear IS NULL OR p.periodYear = :periodYear) " +
-            "ORDER BY p.periodYear DESC, p.periodMonth DESC")
-    List<PaymentsEntity> findFiltered(
-            @Param("recipientType") String recipientType,
-            @Param("recipientId") Long recipientId,
-            @Param("periodMonth") Integer periodMonth,
-            @Param("periodYear") Integer periodYear
-    );
+    Sort FILTER_SORT = Sort.by(Sort.Order.desc("periodYear"), Sort.Order.desc("periodMonth"));
+    Sort PAGE_SORT = Sort.by(Sort.Order.desc("periodYear"), Sort.Order.desc("periodMonth"), Sort.Order.desc("id"));
+
+    default List<PaymentsEntity> findFiltered(String recipientType, Long recipientId, Integer periodMonth, Integer periodYear) {
+        return findAll(filter(recipientType, recipientId, periodMonth, periodYear), FILTER_SORT);
+    }
+
+    // Report export: read through a cursor (see FilteringRepository.streamAll)
+    default Stream<PaymentsEntity> streamFiltered(String recipientType, Long recipientId, Integer periodMonth, Integer periodYear) {
+        return streamAll(filter(recipientType, recipientId, periodMonth, periodYear), FILTER_SORT);
+    }
+
+    // Keyset page: rows strictly after (afterPeriod, afterId) in (periodYear DESC, periodMonth DESC, id DESC) order,
+    // where afterPeriod = year * 100 + month of the last row. Compared column by column so the
+    // (period_year, period_month) index can serve the range.
+    default List<PaymentsEntity> findFilteredPage(String recipientType, Long recipientId, Integer periodMonth, Integer periodYear,
+                                                  Integer afterPeriod, Long afterId, Pageable pageable) {
+        Specification<PaymentsEntity> spec = filter(recipientType, recipientId, periodMonth, periodYear);
+        if (afterPeriod != null) {
+            int afterYear = afterPeriod / 100;
+            int afterMonth = afterPeriod % 100;
+            spec = spec.and((root, query, cb) -> cb.or(
+                    cb.lessThan(root.get("periodYear"), afterYear),
+                    cb.and(cb.equal(root.get("periodYear"), afterYear), cb.lessThan(root.get("periodMonth"), afterMonth)),
+                    cb.and(cb.equal(root.get("periodYear"), afterYear), cb.equal(root.get("periodMonth"), afterMonth),
+                            cb.lessThan(root.get("id"), afterId))));
+        }
+        return findAll(spec, PAGE_SORT, pageable.getPageSize());
+    }
+
+    // Only the supplied filters become predicates, so each combination gets its own plan and index
+    private static Specification<PaymentsEntity> filter(String recipientType, Long recipientId, Integer periodMonth, Integer periodYear) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(cb.equal(root.get("isDelete"), false));
+            if (recipientType != null) {
+                predicates.add(cb.equal(root.get("recipientType"), recipientType));
+            }
+            if (recipientId != null) {
+                predicates.add(cb.equal(root.get("recipientId"), recipientId));
+            }
+            if (periodMonth != null) {
+                predicates.add(cb.equal(root.get("periodMonth"), periodMonth));
+            }
+            if (periodYear != null) {
+                predicates.add(cb.equal(root.get("periodYear"), periodYear));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
 
     //for dashboard
     @Query("SELECT COALESCE(SUM(p.baseAmount - COALESCE(p.deductions, 0)), 0) FROM PaymentsEntity p WHERE p.isDelete = false AND p.periodYear = :year AND p.periodMonth = :month")
     BigDecimal getTotalPaymentsForPeriod(@Param("year") int year, @Param("month") int month);
+
+    // Periods are compared as year * 100 + month so a range can span several years
+    @Query("SELECT new com.enterprise.bms.enterprise_bms.dto.MonthlyTotal(p.periodYear, p.periodMonth, COALESCE(SUM(p.baseAmount - COALESCE(p.deductions, 0)), 0)) " +
+            "FROM PaymentsEntity p WHERE p.isDelete = false " +
+            "AND (p.periodYear * 100 + p.periodMonth) >= :startPeriod AND (p.periodYear * 100 + p.periodMonth) <= :endPeriod " +
+            "GROUP BY p.periodYear, p.periodMonth")
+    List<MonthlyTotal> getMonthlyPaymentsForPeriod(@Param("startPeriod") int startPeriod, @Param("endPeriod") int endPeriod);
 }
\ No newline at end of file
@@ -1,30 +1,37 @@
 package com.enterprise.bms.enterprise_bms.repository;
 
+import com.enterprise.bms.enterprise_bms.dto.MonthlyTotal;
+import com.enterprise.bms.enterprise_bms.dto.VehicleMonthlyTotal;
 import com.enterprise.bms.enterprise_bms.entity.TireMaintenanceEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface TireMaintenanceRepository extends JpaRepository<TireMaintenanceEntity, Long> {
+public interface TireMaintenanceRepository extends JpaRepository<TireMaintenanceEntity, Long>, TireMaintenanceRepositoryCustom {
 
+    // List queries fetch ownVehicle with the row (toDTO reads its regNumber)
     // Get all active tire maintenance records (not deleted)
-    @Query("SELECT t FROM TireMaintenanceEntity t WHERE t.isDelete = false ORDER BY t.date DESC, t.createdAt DESC")
+    @Query("SELECT t FROM TireMaintenanceEntity t JOIN FETCH t.ownVehicle WHERE t.isDelete = false ORDER BY t.date DESC, t.createdAt DESC")
     List<TireMaintenanceEntity> findAllActive();
 
     // Get all active records for a specific vehicle
-    @Query("SELECT t FROM TireMaintenanceEntity t WHERE t.ownVehicle.id = :vehicleId AND t.isDelete = false")
+    @Query("SELECT t FROM TireMaintenanceEntity t JOIN FETCH t.ownVehicle WHERE t.ownVehicle.id = :vehicleId AND t.isDelete = false")
     List<TireMaintenanceEntity> findByVehicleIdAndActive(@Param("vehicleId") Long vehicleId);
 
     // Find by ID and not deleted
     Optional<TireMaintenanceEntity> findByIdAndIsDeleteFalse(Long id);
 
     // Filtered query
-    @Query("SELECT t FROM TireMaintenanceEntity t WHERE t.isDelete = false " +
+    @Query("SELECT t FROM TireMaintenanceEntity t JOIN FETCH t.ownVehicle WHERE t.isDelete = false " +
             "AND (:vehicleId IS NULL OR t.ownVehicle.id = :vehicleId) " +
             "AND (:startDate IS NULL OR t.date >= :startDate) " +
             "AND (:endDate IS NULL OR t.date <= :endDate) " +
@@ -35,7 +42,34 @@ public interface TireMaintenanceRepository extends JpaRepository<TireMaintenance
             @Param("endDate") LocalDate endDate
     );
 
+    // Report export: rows are read through a cursor, 500 at a time, as read-only entities
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t FROM TireMaintenanceEntity t JOIN FETCH t.ownVehicle WHERE t.isDelete = false " +
+            "AND (:vehicleId IS NULL OR t.ownVehicle.id = :vehicleId) " +
+            "AND (:startDate IS NULL OR t.date >= :startDate) " +
+            "AND (:endDate IS NULL OR t.date <= :endDate) " +
+            "ORDER BY t.date DESC, t.createdAt DESC")
+    Stream<TireMaintenanceEntity> streamFiltered(
+            @Param("vehicleId") Long vehicleId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate
+    );
+
     //for dashboard
     @Query("SELECT COALESCE(SUM(t.totalPrice), 0) FROM TireMaintenanceEntity t WHERE t.isDelete = false AND t.date >= :start AND t.date <= :end")
     BigDecimal getTotalTireMaintenanceCostForPeriod(@Param("start") LocalDate start, @Param("end") LocalDate end);
-}
\ No newline at end of file
+
+    @Query("SELECT new com.enterprise.bms.enterprise_bms.dto.MonthlyTotal(YEAR(t.date), MONTH(t.date), COALESCE(SUM(t.totalPrice), 0)) " +
+            "FROM TireMaintenanceEntity t WHERE t.isDelete = false AND t.date >= :start AND t.date <= :end " +
+            "GROUP BY YEAR(t.date), MONTH(t.date)")
+    List<MonthlyTotal> getMonthlyTireMaintenanceCostForPeriod(@Param("start") LocalDate start, @Param("end") LocalDate end);
+
+    // Vehicle analytics: tire cost per vehicle and month
+    @Query("SELECT new com.enterprise.bms.enterprise_bms.dto.VehicleMonthlyTotal(t.ownVehicle.id, YEAR(t.date), MONTH(t.date), COALESCE(SUM(t.totalPrice), 0)) " +
+            "FROM TireMaintenanceEntity t WHERE t.isDelete = false AND t.date >= :start AND t.date <= :end " +
+            "GROUP BY t.ownVehicle.id, YEAR(t.date), MONTH(t.date)")
+    List<VehicleMonthlyTotal> getVehicleMonthlyTireCostForPeriod(@Param("start") LocalDate start, @Param("end") LocalDate end);
+}
@@ -0,0 +1,44 @@
+package com.enterprise.bms.enterprise_bms.repository;
+
+import com.enterprise.bms.enterprise_bms.entity.TireMaintenanceEntity;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class TireMaintenanceRepositoryImpl implements TireMaintenanceRepositoryCustom {
+    private static final String INSERT_SQL = "INSERT INTO tbl_tire_maintenance " +
+            "(vehicle_id, position, date, tire_brand, tire_size, serial_number, description, mileage, quantity, " +
+            "unit_price, total_price, is_delete, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Runs on the connection of the surrounding JPA transaction;
+    // with rewriteBatchedStatements=true MySQL receives each batch as a multi-row INSERT
+    @Override
+    public void batchInsert(List<TireMaintenanceEntity> records) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, records, BATCH_SIZE, (ps, record) -> {
+            ps.setLong(1, record.getOwnVehicle().getId());
+            ps.setString(2, record.getPosition());
+            ps.setDate(3, Date.valueOf(record.getDate()));
+            ps.setString(4, record.getTireBrand());
+            ps.setString(5, record.getTireSize());
+            ps.setString(6, record.getSerialNumber());
+            ps.setString(7, record.getDescription());
+            ps.setBigDecimal(8, record.getMileage());
+            ps.setInt(9, record.getQuantity());
+            ps.setBigDecimal(10, record.getUnitPrice());
+            ps.setBigDecimal(11, record.getTotalPrice());
+            ps.setBoolean(12, record.getIsDelete());
+            ps.setTimestamp(13, now);
+            ps.setTimestamp(14, now);
+        });
+    }
+}
@@ -1,38 +1,115 @@
 // Updated TransportRepository.java - Add invoiceStatus parameter
 package com.enterprise.bms.enterprise_bms.repository;
+import com.enterprise.bms.enterprise_bms.dto.MonthlyTotal;
+import com.enterprise.bms.enterprise_bms.dto.VehicleMonthlyTotal;
 import com.enterprise.bms.enterprise_bms.entity.TransportEntity;
-import org.springframework.data.jpa.repository.JpaRepository;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 @Repository
-public interface TransportRepository extends JpaRepository<TransportEntity, Long> {
+public interface TransportRepository extends FilteringRepository<TransportEntity, Long>, TransportRepositoryCustom {
     @Query("SELECT t FROM TransportEntity t WHERE t.isDeleted = false")
     List<TransportEntity> findAllActive();
     @Query("SELECT t FROM TransportEntity t WHERE t.id = :id AND t.isDeleted = false")
     Optional<TransportEntity> findByIdAndIsDeletedFalse(Long id);
+    // Transports with both vehicles loaded in the same statement (invoice items read their regNumber)
+    @Query("SELECT t FROM TransportEntity t LEFT JOIN FETCH t.ownVehicle LEFT JOIN FETCH t.externalVehicle WHERE t.id IN :ids")
+    List<TransportEntity> findAllByIdWithVehicles(@Param("ids") List<Long> ids);
+    // Set-based invoice linking; only rows not yet invoiced are touched, so the count shows concurrent invoicing
+    @Modifying
+    @Query("UPDATE TransportEntity t SET t.invoiceId = :invoiceId, t.invoiceStatus = 'Invoiced', t.updatedAt = :now " +
+            "WHERE t.id IN :ids AND t.invoiceId IS NULL")
+    int markInvoiced(@Param("ids") List<Long> ids, @Param("invoiceId") Long invoiceId, @Param("now") LocalDateTime now);
+    @Modifying
+    @Query("UPDATE TransportEntity t SET t.invoiceId = NULL, t.invoiceStatus = 'Not Invoiced', t.updatedAt = :now " +
+            "WHERE t.invoiceId = :invoiceId")
+    int clearInvoice(@Param("invoiceId") Long invoiceId, @Param("now") LocalDateTime now);
     boolean existsByClientNameAndLoadingDateAndIsDeletedFalse(String clientName, LocalDate loadingDate);
-    @Query("SELECT t FROM TransportEntity t WHERE t.isDeleted = false " +
-            "AND (:ownVehicleId IS NULL OR t.ownVehicle.id = :ownVehicleId) " +
-            "AND (:externalVehicleId IS NULL OR t.externalVehicle.id = :externalVehicleId) " +
-            "AND (:startDate IS NULL OR t.loadingDate >= :startDate) " +
-            "AND (:endDate IS NULL OR t.loadingDate <= :endDate) " +
-            "AND (:invoiceStatus IS NULL OR " +
-            " (:invoiceStatus = 'Not Invoiced' AND (t.invoiceStatus IS NULL OR t.invoiceStatus = 'Not Invoiced')) OR " +
-            " (:invoiceStatus = 'Invoiced' AND t.invoiceStatus IN ('Invoiced', 'Paid'))) " +
-            "ORDER BY t.loadingDate DESC, t.createdAt DESC")
-    List<TransportEntity> findFiltered(
-            @Param("ownVehicleId") Long ownVehicleId,
-            @Param("externalVehicleId") Long externalVehicleId,
-            @Param("startDate") LocalDate startDate,
-            @Param("endDate") LocalDate endDate,
-            @Param("invoiceStatus") String invoiceStatus
-    );
+    Sort FILTER_SORT = Sort.by(Sort.Order.desc("loadingDate"), Sort.Order.desc("createdAt"));
+    Sort PAGE_SORT = Sort.by(Sort.Order.desc("loadingDate"), Sort.Order.desc("id"));
+
+    default List<TransportEntity> findFiltered(Long ownVehicleId, Long externalVehicleId, LocalDate startDate,
+                                               LocalDate endDate, String invoiceStatus) {
+        return findAll(filter(ownVehicleId, externalVehicleId, startDate, endDate, invoiceStatus), FILTER_SORT);
+    }
+
+    // Report export: read through a cursor (see FilteringRepository.streamAll)
+    default Stream<TransportEntity> streamFiltered(Long ownVehicleId, Long externalVehicleId, LocalDate startDate,
+                                                   LocalDate endDate, String invoiceStatus) {
+        return streamAll(filter(ownVehicleId, externalVehicleId, startDate, endDate, invoiceStatus), FILTER_SORT);
+    }
+
+    // Keyset page: rows strictly after (afterDate, afterId) in (loadingDate DESC, id DESC) order
+    default List<TransportEntity> findFilteredPage(Long ownVehicleId, Long externalVehicleId, LocalDate startDate,
+                                                   LocalDate endDate, String invoiceStatus,
+                                                   LocalDate afterDate, Long afterId, Pageable pageable) {
+        Specification<TransportEntity> spec = filter(ownVehicleId, externalVehicleId, startDate, endDate, invoiceStatus);
+        if (afterDate != null) {
+            spec = spec.and((root, query, cb) -> cb.or(
+                    cb.lessThan(root.get("loadingDate"), afterDate),
+                    cb.and(cb.equal(root.get("loadingDate"), afterDate), cb.lessThan(root.get("id"), afterId))));
+        }
+        return findAll(spec, PAGE_SORT, pageable.getPageSize());
+    }
+
+    // Only the supplied filters become predicates, so each combination gets its own plan and index
+    private static Specification<TransportEntity> filter(Long ownVehicleId, Long externalVehicleId, LocalDate startDate,
+                                                         LocalDate endDate, String invoiceStatus) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(cb.equal(root.get("isDeleted"), false));
+            if (ownVehicleId != null) {
+                predicates.add(cb.equal(root.get("ownVehicle").get("id"), ownVehicleId));
+            }
+            if (externalVehicleId != null) {
+                predicates.add(cb.equal(root.get("externalVehicle").get("id"), externalVehicleId));
+            }
+            if (startDate != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("loadingDate"), startDate));
+            }
+            if (endDate != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("loadingDate"), endDate));
+            }
+            if (invoiceStatus != null) {
+                if (invoiceStatus.equals("Not Invoiced")) {
+                    predicates.add(cb.or(cb.isNull(root.get("invoiceStatus")),
+                            cb.equal(root.get("invoiceStatus"), "Not Invoiced")));
+                } else if (invoiceStatus.equals("Invoiced")) {
+                    predicates.add(root.get("invoiceStatus").in("Invoiced", "Paid"));
+                } else {
+                    // Any other status matches no rows
+                    predicates.add(cb.disjunction());
+                }
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
     //for dashboard
     @Query("SELECT COALESCE(SUM(t.agreedAmount), 0) FROM TransportEntity t WHERE t.isDeleted = false AND t.tripStatus = 2 AND t.loadingDate >= :start AND t.loadingDate <= :end")
     BigDecimal getSumAgreedAmountCompleted(@Param("start") LocalDate start, @Param("end") LocalDate end);
-}
\ No newline at end of file
+    @Query("SELECT new com.enterprise.bms.enterprise_bms.dto.MonthlyTotal(YEAR(t.loadingDate), MONTH(t.loadingDate), COALESCE(SUM(t.agreedAmount), 0)) " +
+            "FROM TransportEntity t WHERE t.isDeleted = false AND t.tripStatus = 2 AND t.loadingDate >= :start AND t.loadingDate <= :end " +
+            "GROUP BY YEAR(t.loadingDate), MONTH(t.loadingDate)")
+    List<MonthlyTotal> getMonthlySumAgreedAmountCompleted(@Param("start") LocalDate start, @Param("end") LocalDate end);
+
+    // Vehicle analytics: revenue and distance of completed own-vehicle trips per vehicle and month
+    @Query("SELECT new com.enterprise.bms.enterprise_bms.dto.VehicleMonthlyTotal(t.ownVehicle.id, YEAR(t.loadingDate), MONTH(t.loadingDate), " +
+            "COALESCE(SUM(t.agreedAmount), 0), COALESCE(SUM(t.distanceKm), 0)) " +
+            "FROM TransportEntity t WHERE t.isDeleted = false AND t.tripStatus = 2 AND t.ownVehicle IS NOT NULL " +
+            "AND t.loadingDate >= :start AND t.loadingDate <= :end " +
+            "GROUP BY t.ownVehicle.id, YEAR(t.loadingDate), MONTH(t.loadingDate)")
+    List<VehicleMonthlyTotal> getVehicleMonthlyRevenueForPeriod(@Param("start") LocalDate start, @Param("end") LocalDate end);
+}
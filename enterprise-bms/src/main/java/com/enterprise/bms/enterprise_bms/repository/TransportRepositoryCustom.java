@@ -0,0 +1,11 @@
+package com.enterprise.bms.enterprise_bms.repository;
+
+import com.enterprise.bms.enterprise_bms.entity.TransportEntity;
+
+import java.util.List;
+
+public interface TransportRepositoryCustom {
+
+    // Inserts all transports with JDBC batches (ids are not written back to the entities)
+    void batchInsert(List<TransportEntity> transports);
+}
@@ -0,0 +1,52 @@
+package com.enterprise.bms.enterprise_bms.repository;
+
+import com.enterprise.bms.enterprise_bms.entity.TransportEntity;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class TransportRepositoryImpl implements TransportRepositoryCustom {
+    private static final String INSERT_SQL = "INSERT INTO tbl_transports " +
+            "(client_name, description, starting_point, destination, loading_date, unloading_date, " +
+            "own_vehicle_id, ext_hire_id, internal_driver_id, distance_km, agreed_amount, advance_received, " +
+            "balance_received, held_up, payment_status, trip_status, is_delete, invoice_status, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Runs on the connection of the surrounding JPA transaction;
+    // with rewriteBatchedStatements=true MySQL receives each batch as a multi-row INSERT
+    @Override
+    public void batchInsert(List<TransportEntity> transports) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, transports, BATCH_SIZE, (ps, transport) -> {
+            ps.setString(1, transport.getClientName());
+            ps.setString(2, transport.getDescription());
+            ps.setString(3, transport.getStartingPoint());
+            ps.setString(4, transport.getDestination());
+            ps.setDate(5, Date.valueOf(transport.getLoadingDate()));
+            ps.setDate(6, transport.getUnloadingDate() != null ? Date.valueOf(transport.getUnloadingDate()) : null);
+            ps.setObject(7, transport.getOwnVehicle() != null ? transport.getOwnVehicle().getId() : null, Types.BIGINT);
+            ps.setObject(8, transport.getExternalVehicle() != null ? transport.getExternalVehicle().getId() : null, Types.BIGINT);
+            ps.setObject(9, transport.getInternalDriver() != null ? transport.getInternalDriver().getId() : null, Types.BIGINT);
+            ps.setBigDecimal(10, transport.getDistanceKm());
+            ps.setBigDecimal(11, transport.getAgreedAmount());
+            ps.setBigDecimal(12, transport.getAdvanceReceived());
+            ps.setBigDecimal(13, transport.getBalanceReceived());
+            ps.setBigDecimal(14, transport.getHeldUp());
+            ps.setInt(15, transport.getPaymentStatus());
+            ps.setInt(16, transport.getTripStatus());
+            ps.setBoolean(17, transport.getIsDeleted());
+            ps.setString(18, transport.getInvoiceStatus());
+            ps.setTimestamp(19, now);
+            ps.setTimestamp(20, now);
+        });
+    }
+}
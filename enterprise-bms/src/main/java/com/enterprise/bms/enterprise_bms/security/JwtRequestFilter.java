@@ -1,6 +1,7 @@
 package com.enterprise.bms.enterprise_bms.security;
 
 import com.enterprise.bms.enterprise_bms.utill.JwtUtil;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -28,12 +29,14 @@ public class JwtRequestFilter extends OncePerRequestFilter {
                                     FilterChain filterChain) throws ServletException, IOException {
         final String authHeader = request.getHeader("Authorization");
         String email = null;
-        String jwt = null;
+        Claims claims = null;
 
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            jwt = authHeader.substring(7);
+            String jwt = authHeader.substring(7);
             try {
-                email = jwtUtil.extractUsername(jwt);
+                // Single parse: signature and expiry are verified here, the claims are reused below
+                claims = jwtUtil.parseToken(jwt);
+                email = claims.getSubject();
             } catch (Exception e) {
                 logger.error("Error extracting username from JWT", e);
             }
@@ -43,7 +46,8 @@ public class JwtRequestFilter extends OncePerRequestFilter {
             try {
                 UserDetails userDetails = this.userDetailsService.loadUserByUsername(email);
 
-                if (jwtUtil.isTokenValid(jwt, userDetails)) {
+                // Deactivated accounts (UserEntity.isActive = false) are not authenticated
+                if (userDetails.isEnabled() && jwtUtil.isTokenValid(claims, userDetails)) {
                     UsernamePasswordAuthenticationToken authToken =
                             new UsernamePasswordAuthenticationToken(
                                     userDetails, null, userDetails.getAuthorities()
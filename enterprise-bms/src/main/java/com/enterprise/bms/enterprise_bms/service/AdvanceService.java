@@ -3,25 +3,44 @@ package com.enterprise.bms.enterprise_bms.service;
 import com.enterprise.bms.enterprise_bms.dto.AdvanceDTO;
 import com.enterprise.bms.enterprise_bms.entity.AdvanceEntity;
 import com.enterprise.bms.enterprise_bms.repository.AdvanceRepository;
+import com.enterprise.bms.enterprise_bms.dto.PageResponse;
+import com.enterprise.bms.enterprise_bms.utill.PageCursor;
+import com.enterprise.bms.enterprise_bms.report.ReportDefinition;
+import com.enterprise.bms.enterprise_bms.report.ReportFormat;
+import com.enterprise.bms.enterprise_bms.report.ReportRowWriter;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.YearMonth;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class AdvanceService {
+    public static final ReportDefinition<AdvanceDTO> ADVANCES_REPORT = ReportDefinition.<AdvanceDTO>builder("Advances Records")
+            .number("ID", "id", AdvanceDTO::getId)
+            .text("Recipient Type", "recipientType", AdvanceDTO::getRecipientType)
+            .number("Recipient ID", "recipientId", AdvanceDTO::getRecipientId)
+            .number("Amount", "amount", AdvanceDTO::getAmount)
+            .date("Advance Date", "advanceDate", AdvanceDTO::getAdvanceDate)
+            .text("Notes", "notes", AdvanceDTO::getNotes)
+            .number("Created By", "createdBy", AdvanceDTO::getCreatedBy)
+            .text("Status", "status", AdvanceDTO::getStatus)
+            .number("Deducted In Payment ID", "deductedInPaymentId", AdvanceDTO::getDeductedInPaymentId)
+            .dateTime("Created At", "createdAt", AdvanceDTO::getCreatedAt)
+            .dateTime("Updated At", "updatedAt", AdvanceDTO::getUpdatedAt)
+            .build();
+
     private final AdvanceRepository advanceRepository;
+    private final EntityManager entityManager;
 
     public AdvanceDTO saveAdvance(AdvanceDTO dto) {
         validateAdvanceDTO(dto);
@@ -67,6 +86,28 @@ public class AdvanceService {
         return entities.stream().map(this::toDTO).collect(Collectors.toList());
     }
 
+    // Paged variant, keyset on (advanceDate, id)
+    public PageResponse<AdvanceDTO> getAdvancePage(String recipientType, Long recipientId, String month,
+                                                   Integer size, String cursor) {
+        LocalDate startDate = null;
+        LocalDate endDate = null;
+        if (month != null && !month.isEmpty()) {
+            try {
+                YearMonth yearMonth = YearMonth.parse(month);
+                startDate = yearMonth.atDay(1);
+                endDate = yearMonth.atEndOfMonth();
+            } catch (Exception e) {
+                throw new RuntimeException("Invalid month format. Use YYYY-MM");
+            }
+        }
+        int pageSize = PageCursor.pageSize(size);
+        PageCursor after = PageCursor.decode(cursor);
+        List<AdvanceEntity> entities = advanceRepository.findFilteredPage(recipientType, recipientId, startDate, endDate,
+                after != null ? after.dateKey() : null, after != null ? after.getId() : null,
+                PageCursor.limit(pageSize));
+        return PageCursor.toPage(entities, pageSize, this::toDTO, e -> PageCursor.encode(e.getAdvanceDate(), e.getId()));
+    }
+
     // Helper: Get total pending advances for a period
     public BigDecimal getTotalPendingAdvances(String recipientType, Long recipientId, Integer periodMonth, Integer periodYear) {
         LocalDate startDate = LocalDate.of(periodYear, periodMonth, 1);
@@ -157,46 +198,31 @@ public class AdvanceService {
                 .build();
     }
 
-    public ByteArrayInputStream generateAdvancesExcelReport(String recipientType, Long recipientId, String month) {
-        List<AdvanceDTO> records = getFilteredAdvances(recipientType, recipientId, month);
-        try (Workbook workbook = new XSSFWorkbook()) {
-            Sheet sheet = workbook.createSheet("Advances Records");
-            Row headerRow = sheet.createRow(0);
-            String[] columns = {"ID", "Recipient Type", "Recipient ID", "Amount", "Advance Date", "Notes",
-                    "Created By", "Status", "Deducted In Payment ID", "Created At", "Updated At"};
-            CellStyle headerStyle = workbook.createCellStyle();
-            Font headerFont = workbook.createFont();
-            headerFont.setBold(true);
-            headerStyle.setFont(headerFont);
-            for (int i = 0; i < columns.length; i++) {
-                Cell cell = headerRow.createCell(i);
-                cell.setCellValue(columns[i]);
-                cell.setCellStyle(headerStyle);
-            }
-            int rowNum = 1;
-            DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-            for (AdvanceDTO dto : records) {
-                Row row = sheet.createRow(rowNum++);
-                row.createCell(0).setCellValue(dto.getId() != null ? dto.getId() : 0);
-                row.createCell(1).setCellValue(dto.getRecipientType() != null ? dto.getRecipientType() : "");
-                row.createCell(2).setCellValue(dto.getRecipientId() != null ? dto.getRecipientId() : 0);
-                row.createCell(3).setCellValue(dto.getAmount() != null ? dto.getAmount().doubleValue() : 0.0);
-                row.createCell(4).setCellValue(dto.getAdvanceDate() != null ? dto.getAdvanceDate().format(dateFormatter) : "");
-                row.createCell(5).setCellValue(dto.getNotes() != null ? dto.getNotes() : "");
-                row.createCell(6).setCellValue(dto.getCreatedBy() != null ? dto.getCreatedBy() : 0);
-                row.createCell(7).setCellValue(dto.getStatus() != null ? dto.getStatus() : "");
-                row.createCell(8).setCellValue(dto.getDeductedInPaymentId() != null ? dto.getDeductedInPaymentId() : 0);
-                row.createCell(9).setCellValue(dto.getCreatedAt() != null ? dto.getCreatedAt().toString() : "");
-                row.createCell(10).setCellValue(dto.getUpdatedAt() != null ? dto.getUpdatedAt().toString() : "");
-            }
-            for (int i = 0; i < columns.length; i++) {
-                sheet.autoSizeColumn(i);
+    // Report export (XLSX, CSV or NDJSON), columns in ADVANCES_REPORT
+    @Transactional(readOnly = true)
+    public void writeAdvancesReport(String recipientType, Long recipientId, String month, ReportFormat format, OutputStream out) throws IOException {
+        try (ReportRowWriter<AdvanceDTO> writer = format.open(ADVANCES_REPORT, out)) {
+            exportAdvancesRows(recipientType, recipientId, month, writer);
+            writer.finish();
+        }
+    }
+
+    // Report rows for the filters, written to the caller's writer (single report or monthly pack)
+    @Transactional(readOnly = true)
+    public void exportAdvancesRows(String recipientType, Long recipientId, String month, ReportRowWriter<AdvanceDTO> writer) throws IOException {
+        LocalDate startDate = null;
+        LocalDate endDate = null;
+        if (month != null && !month.isEmpty()) {
+            try {
+                YearMonth yearMonth = YearMonth.parse(month);
+                startDate = yearMonth.atDay(1);
+                endDate = yearMonth.atEndOfMonth();
+            } catch (Exception e) {
+                throw new RuntimeException("Invalid month format. Use YYYY-MM");
             }
-            ByteArrayOutputStream out = new ByteArrayOutputStream();
-            workbook.write(out);
-            return new ByteArrayInputStream(out.toByteArray());
-        } catch (IOException e) {
-            throw new RuntimeException("Error generating Excel report", e);
+        }
+        try (Stream<AdvanceEntity> entities = advanceRepository.streamFiltered(recipientType, recipientId, startDate, endDate)) {
+            writer.writeEntities(entities, this::toDTO, entityManager::detach);
         }
     }
-}
\ No newline at end of file
+}
@@ -1,30 +1,46 @@
 package com.enterprise.bms.enterprise_bms.service;
 
+import com.enterprise.bms.enterprise_bms.config.CacheConfig;
 import com.enterprise.bms.enterprise_bms.entity.UserEntity;
 import com.enterprise.bms.enterprise_bms.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
-import java.util.Collections;
-
 @Service
 @RequiredArgsConstructor
 public class AppUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final CacheManager cacheManager;
 
+    // Called by JwtRequestFilter on every authenticated request. The principals cache holds an
+    // immutable snapshot rather than the UserDetails itself, because Spring Security erases the
+    // password on the returned principal after a login. UserService evicts it on user writes.
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        UserEntity existingUser = userRepository.findByEmail(email)
-                .orElseThrow(()->new UsernameNotFoundException("Profile not found with email:"+email));
+        Cache principals = cacheManager.getCache(CacheConfig.PRINCIPALS);
+        PrincipalSnapshot snapshot = principals.get(email, PrincipalSnapshot.class);
+        if (snapshot == null) {
+            UserEntity existingUser = userRepository.findByEmail(email)
+                    .orElseThrow(()->new UsernameNotFoundException("Profile not found with email:"+email));
+            snapshot = new PrincipalSnapshot(existingUser.getEmail(), existingUser.getPassword(),
+                    existingUser.getRole(), !Boolean.FALSE.equals(existingUser.getIsActive()));
+            principals.put(email, snapshot);
+        }
         return User.builder()
-                .username(existingUser.getEmail())
-                .password(existingUser.getPassword())
-                .authorities("ROLE_" + existingUser.getRole())
+                .username(snapshot.email())
+                .password(snapshot.password())
+                .authorities("ROLE_" + snapshot.role())
+                .disabled(!snapshot.active())
                 .build();
     }
+
+    private record PrincipalSnapshot(String email, String password, String role, boolean active) {
+    }
 }
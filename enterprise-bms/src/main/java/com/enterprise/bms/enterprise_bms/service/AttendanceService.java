@@ -3,28 +3,48 @@ package com.enterprise.bms.enterprise_bms.service;
 import com.enterprise.bms.enterprise_bms.dto.AttendanceDTO;
 import com.enterprise.bms.enterprise_bms.entity.AttendanceEntity;
 import com.enterprise.bms.enterprise_bms.repository.AttendanceRepository;
+import com.enterprise.bms.enterprise_bms.dto.PageResponse;
+import com.enterprise.bms.enterprise_bms.utill.PageCursor;
+import com.enterprise.bms.enterprise_bms.report.ReportDefinition;
+import com.enterprise.bms.enterprise_bms.report.ReportFormat;
+import com.enterprise.bms.enterprise_bms.report.ReportRowWriter;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class AttendanceService {
 
+    public static final ReportDefinition<AttendanceDTO> ATTENDANCE_REPORT = ReportDefinition.<AttendanceDTO>builder("Attendance Records")
+            .number("ID", "id", AttendanceDTO::getId)
+            .text("Recipient Type", "recipientType", AttendanceDTO::getRecipientType)
+            .number("Recipient ID", "recipientId", AttendanceDTO::getRecipientId)
+            .date("Attendance Date", "attendanceDate", AttendanceDTO::getAttendanceDate)
+            .text("Status", "status", AttendanceDTO::getStatus)
+            .time("Check In Time", "checkInTime", AttendanceDTO::getCheckInTime)
+            .time("Check Out Time", "checkOutTime", AttendanceDTO::getCheckOutTime)
+            .number("Total Hours", "totalHours", AttendanceDTO::getTotalHours)
+            .text("Notes", "notes", AttendanceDTO::getNotes)
+            .number("Created By", "createdBy", AttendanceDTO::getCreatedBy)
+            .dateTime("Created At", "createdAt", AttendanceDTO::getCreatedAt)
+            .dateTime("Updated At", "updatedAt", AttendanceDTO::getUpdatedAt)
+            .build();
+
     private final AttendanceRepository attendanceRepository;
+    private final EntityManager entityManager;
 
     public AttendanceDTO saveAttendance(AttendanceDTO dto) {
         validateAttendanceDTO(dto);
@@ -76,6 +96,28 @@ public class AttendanceService {
         return entities.stream().map(this::toDTO).collect(Collectors.toList());
     }
 
+    // Paged variant, keyset on (attendanceDate, id)
+    public PageResponse<AttendanceDTO> getAttendancePage(String recipientType, Long recipientId, String month,
+                                                         Integer size, String cursor) {
+        LocalDate startDate = null;
+        LocalDate endDate = null;
+        if (month != null && !month.isEmpty()) {
+            try {
+                LocalDate monthStart = LocalDate.parse(month + "-01");
+                startDate = monthStart;
+                endDate = monthStart.withDayOfMonth(monthStart.lengthOfMonth());
+            } catch (Exception e) {
+                throw new RuntimeException("Invalid month format. Use YYYY-MM");
+            }
+        }
+        int pageSize = PageCursor.pageSize(size);
+        PageCursor after = PageCursor.decode(cursor);
+        List<AttendanceEntity> entities = attendanceRepository.findFilteredPage(recipientType, recipientId, startDate, endDate,
+                after != null ? after.dateKey() : null, after != null ? after.getId() : null,
+                PageCursor.limit(pageSize));
+        return PageCursor.toPage(entities, pageSize, this::toDTO, e -> PageCursor.encode(e.getAttendanceDate(), e.getId()));
+    }
+
     private void validateAttendanceDTO(AttendanceDTO dto) {
         if (dto.getRecipientType() == null || (!dto.getRecipientType().equals("Driver") && !dto.getRecipientType().equals("User"))) {
             throw new RuntimeException("Invalid recipient type! Must be 'Driver' or 'User'");
@@ -148,48 +190,31 @@ public class AttendanceService {
                 .build();
     }
 
-    public ByteArrayInputStream generateAttendanceExcelReport(String recipientType, Long recipientId, String month) {
-        List<AttendanceDTO> records = getFilteredAttendances(recipientType, recipientId, month);
-        try (Workbook workbook = new XSSFWorkbook()) {
-            Sheet sheet = workbook.createSheet("Attendance Records");
-            Row headerRow = sheet.createRow(0);
-            String[] columns = {"ID", "Recipient Type", "Recipient ID", "Attendance Date", "Status", "Check In Time", "Check Out Time",
-                    "Total Hours", "Notes", "Created By", "Created At", "Updated At"};
-            CellStyle headerStyle = workbook.createCellStyle();
-            Font headerFont = workbook.createFont();
-            headerFont.setBold(true);
-            headerStyle.setFont(headerFont);
-            for (int i = 0; i < columns.length; i++) {
-                Cell cell = headerRow.createCell(i);
-                cell.setCellValue(columns[i]);
-                cell.setCellStyle(headerStyle);
-            }
-            int rowNum = 1;
-            DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-            DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm");
-            for (AttendanceDTO dto : records) {
-                Row row = sheet.createRow(rowNum++);
-                row.createCell(0).setCellValue(dto.getId() != null ? dto.getId() : 0);
-                row.createCell(1).setCellValue(dto.getRecipientType() != null ? dto.getRecipientType() : "");
-                row.createCell(2).setCellValue(dto.getRecipientId() != null ? dto.getRecipientId() : 0);
-                row.createCell(3).setCellValue(dto.getAttendanceDate() != null ? dto.getAttendanceDate().format(dateFormatter) : "");
-                row.createCell(4).setCellValue(dto.getStatus() != null ? dto.getStatus() : "");
-                row.createCell(5).setCellValue(dto.getCheckInTime() != null ? dto.getCheckInTime().format(timeFormatter) : "");
-                row.createCell(6).setCellValue(dto.getCheckOutTime() != null ? dto.getCheckOutTime().format(timeFormatter) : "");
-                row.createCell(7).setCellValue(dto.getTotalHours() != null ? dto.getTotalHours().doubleValue() : 0.0);
-                row.createCell(8).setCellValue(dto.getNotes() != null ? dto.getNotes() : "");
-                row.createCell(9).setCellValue(dto.getCreatedBy() != null ? dto.getCreatedBy() : 0);
-                row.createCell(10).setCellValue(dto.getCreatedAt() != null ? dto.getCreatedAt().toString() : "");
-                row.createCell(11).setCellValue(dto.getUpdatedAt() != null ? dto.getUpdatedAt().toString() : "");
-            }
-            for (int i = 0; i < columns.length; i++) {
-                sheet.autoSizeColumn(i);
+    // Report export (XLSX, CSV or NDJSON), columns in ATTENDANCE_REPORT
+    @Transactional(readOnly = true)
+    public void writeAttendanceReport(String recipientType, Long recipientId, String month, ReportFormat format, OutputStream out) throws IOException {
+        try (ReportRowWriter<AttendanceDTO> writer = format.open(ATTENDANCE_REPORT, out)) {
+            exportAttendanceRows(recipientType, recipientId, month, writer);
+            writer.finish();
+        }
+    }
+
+    // Report rows for the filters, written to the caller's writer (single report or monthly pack)
+    @Transactional(readOnly = true)
+    public void exportAttendanceRows(String recipientType, Long recipientId, String month, ReportRowWriter<AttendanceDTO> writer) throws IOException {
+        LocalDate startDate = null;
+        LocalDate endDate = null;
+        if (month != null && !month.isEmpty()) {
+            try {
+                LocalDate monthStart = LocalDate.parse(month + "-01");
+                startDate = monthStart;
+                endDate = monthStart.withDayOfMonth(monthStart.lengthOfMonth());
+            } catch (Exception e) {
+                throw new RuntimeException("Invalid month format. Use YYYY-MM");
             }
-            ByteArrayOutputStream out = new ByteArrayOutputStream();
-            workbook.write(out);
-            return new ByteArrayInputStream(out.toByteArray());
-        } catch (IOException e) {
-            throw new RuntimeException("Error generating Excel report", e);
+        }
+        try (Stream<AttendanceEntity> entities = attendanceRepository.streamFiltered(recipientType, recipientId, startDate, endDate)) {
+            writer.writeEntities(entities, this::toDTO, entityManager::detach);
         }
     }
-}
\ No newline at end of file
+}
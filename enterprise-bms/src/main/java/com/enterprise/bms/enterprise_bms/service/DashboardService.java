@@ -2,79 +2,102 @@ package com.enterprise.bms.enterprise_bms.service;
 
 import com.enterprise.bms.enterprise_bms.dto.DashboardDTO;
 import com.enterprise.bms.enterprise_bms.dto.MonthlyData;
+import com.enterprise.bms.enterprise_bms.entity.MonthlyFinancialEntity;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
-import java.time.LocalDate;
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
 public class DashboardService {
-    private final TransportService transportService;
-    private final FuelService fuelService;
-    private final MaintenanceService maintenanceService;
-    private final TireMaintenanceService tireMaintenanceService;
-    private final PaymentService paymentService;
-    private final ExVehicleService exVehicleService;
+    private final MonthlyFinancialService monthlyFinancialService;
 
+    // Current calendar year, summary cards for the current month
     public DashboardDTO getDashboardData() {
-        LocalDate now = LocalDate.now();
-        int currentYear = now.getYear();
-        int currentMonth = now.getMonthValue();
-        YearMonth currentYM = YearMonth.of(currentYear, currentMonth);
-        LocalDate monthStart = currentYM.atDay(1);
-        LocalDate monthEnd = currentYM.atEndOfMonth();
-
-        // Calculate current month totals
-        BigDecimal income = transportService.getTotalIncomeForPeriod(monthStart, monthEnd);
-        BigDecimal fuelExp = fuelService.getTotalFuelCostForPeriod(monthStart, monthEnd);
-        BigDecimal maintExp = maintenanceService.getTotalMaintenanceCostForPeriod(monthStart, monthEnd);
-        BigDecimal tireExp = tireMaintenanceService.getTotalTireMaintenanceCostForPeriod(monthStart, monthEnd);
-        BigDecimal paymentExp = paymentService.getTotalPaymentsForPeriod(currentYear, currentMonth);
-        BigDecimal exVehExp = exVehicleService.getTotalHireCostForPeriod(monthStart, monthEnd);
-
-        BigDecimal totalExpense = fuelExp.add(maintExp).add(tireExp).add(paymentExp).add(exVehExp);
+        YearMonth currentYM = YearMonth.now();
+        return getDashboardData(YearMonth.of(currentYM.getYear(), 1), YearMonth.of(currentYM.getYear(), 12));
+    }
+
+    // Any month range (may span several years). Reads the precomputed monthly rollup
+    // (one row per month and category) instead of scanning the source tables.
+    public DashboardDTO getDashboardData(YearMonth from, YearMonth to) {
+        if (from.isAfter(to)) {
+            throw new RuntimeException("Start month must not be after end month");
+        }
+        Map<String, Map<YearMonth, BigDecimal>> byCategory = toCategoryMap(monthlyFinancialService.getForPeriod(from, to));
+
+        Map<YearMonth, BigDecimal> incomes = monthsFor(byCategory, MonthlyFinancialService.INCOME);
+        Map<YearMonth, BigDecimal> fuel = monthsFor(byCategory, MonthlyFinancialService.FUEL);
+        Map<YearMonth, BigDecimal> maintenance = monthsFor(byCategory, MonthlyFinancialService.MAINTENANCE);
+        Map<YearMonth, BigDecimal> tire = monthsFor(byCategory, MonthlyFinancialService.TIRE);
+        Map<YearMonth, BigDecimal> payments = monthsFor(byCategory, MonthlyFinancialService.PAYMENT);
+        Map<YearMonth, BigDecimal> exVehicles = monthsFor(byCategory, MonthlyFinancialService.EX_VEHICLE);
+
+        // Summary cards show the current month when it is in range, otherwise the last month of the range
+        YearMonth currentYM = YearMonth.now();
+        YearMonth summaryMonth = (currentYM.isBefore(from) || currentYM.isAfter(to)) ? to : currentYM;
+
+        BigDecimal income = amountFor(incomes, summaryMonth);
+        BigDecimal maintExp = amountFor(maintenance, summaryMonth);
+        BigDecimal tireExp = amountFor(tire, summaryMonth);
+        BigDecimal totalExpense = amountFor(fuel, summaryMonth).add(maintExp).add(tireExp)
+                .add(amountFor(payments, summaryMonth)).add(amountFor(exVehicles, summaryMonth));
         BigDecimal totalMaintenance = maintExp.add(tireExp);
         BigDecimal netProfit = income.subtract(totalExpense);
 
         // Monthly data for charts
         List<MonthlyData> monthlyIncomes = new ArrayList<>();
         List<MonthlyData> monthlyExpenses = new ArrayList<>();
-        DateTimeFormatter monthFormatter = DateTimeFormatter.ofPattern("MMM"); // e.g., "Jan"
+        // e.g., "Jan", or "Jan 2025" when the range covers more than one year
+        DateTimeFormatter monthFormatter = DateTimeFormatter.ofPattern(
+                from.getYear() == to.getYear() ? "MMM" : "MMM yyyy");
 
-        for (int m = 1; m <= 12; m++) {
-            YearMonth ym = YearMonth.of(currentYear, m);
-            LocalDate start = ym.atDay(1);
-            LocalDate end = ym.atEndOfMonth();
+        for (YearMonth ym = from; !ym.isAfter(to); ym = ym.plusMonths(1)) {
             String monthName = ym.format(monthFormatter);
+            BigDecimal monthlyExpense = amountFor(fuel, ym).add(amountFor(maintenance, ym)).add(amountFor(tire, ym))
+                    .add(amountFor(payments, ym)).add(amountFor(exVehicles, ym));
 
-            // Income for month
-            BigDecimal monthlyIncome = transportService.getTotalIncomeForPeriod(start, end);
-
-            // Expenses for month
-            BigDecimal mFuel = fuelService.getTotalFuelCostForPeriod(start, end);
-            BigDecimal mMaint = maintenanceService.getTotalMaintenanceCostForPeriod(start, end);
-            BigDecimal mTire = tireMaintenanceService.getTotalTireMaintenanceCostForPeriod(start, end);
-            BigDecimal mPayment = paymentService.getTotalPaymentsForPeriod(currentYear, m);
-            BigDecimal mExVeh = exVehicleService.getTotalHireCostForPeriod(start, end);
-            BigDecimal monthlyExpense = mFuel.add(mMaint).add(mTire).add(mPayment).add(mExVeh);
-
-            monthlyIncomes.add(MonthlyData.builder().month(monthName).amount(monthlyIncome).build());
+            monthlyIncomes.add(MonthlyData.builder().month(monthName).amount(amountFor(incomes, ym)).build());
             monthlyExpenses.add(MonthlyData.builder().month(monthName).amount(monthlyExpense).build());
         }
 
         return DashboardDTO.builder()
-                .totalIncome(income != null ? income : BigDecimal.ZERO)
-                .totalExpense(totalExpense != null ? totalExpense : BigDecimal.ZERO)
-                .totalMaintenanceCost(totalMaintenance != null ? totalMaintenance : BigDecimal.ZERO)
-                .netProfit(netProfit != null ? netProfit : BigDecimal.ZERO)
+                .totalIncome(income)
+                .totalExpense(totalExpense)
+                .totalMaintenanceCost(totalMaintenance)
+                .netProfit(netProfit)
                 .monthlyIncomes(monthlyIncomes)
                 .monthlyExpenses(monthlyExpenses)
                 .build();
     }
-}
\ No newline at end of file
+
+    // Rebuild the rollup from the source tables
+    public int rebuildFinancials() {
+        return monthlyFinancialService.rebuild();
+    }
+
+    private Map<String, Map<YearMonth, BigDecimal>> toCategoryMap(List<MonthlyFinancialEntity> rows) {
+        Map<String, Map<YearMonth, BigDecimal>> byCategory = new HashMap<>();
+        for (MonthlyFinancialEntity row : rows) {
+            byCategory.computeIfAbsent(row.getCategory(), k -> new HashMap<>())
+                    .merge(YearMonth.of(row.getPeriodYear(), row.getPeriodMonth()),
+                            row.getAmount() != null ? row.getAmount() : BigDecimal.ZERO, BigDecimal::add);
+        }
+        return byCategory;
+    }
+
+    private Map<YearMonth, BigDecimal> monthsFor(Map<String, Map<YearMonth, BigDecimal>> byCategory, String category) {
+        return byCategory.getOrDefault(category, Map.of());
+    }
+
+    private BigDecimal amountFor(Map<YearMonth, BigDecimal> byMonth, YearMonth month) {
+        return byMonth.getOrDefault(month, BigDecimal.ZERO);
+    }
+}
@@ -1,9 +1,12 @@
 package com.enterprise.bms.enterprise_bms.service;
 
+import com.enterprise.bms.enterprise_bms.config.CacheConfig;
 import com.enterprise.bms.enterprise_bms.dto.DriversDTO;
 import com.enterprise.bms.enterprise_bms.entity.DriversEntity;
 import com.enterprise.bms.enterprise_bms.repository.DriversRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -16,6 +19,7 @@ public class DriverService {
     private final DriversRepository driversRepository;
 
     //save driver
+    @CacheEvict(cacheNames = CacheConfig.DRIVERS, allEntries = true)
     public DriversDTO saveDriver(DriversDTO driversDTO) {
         if (driversRepository.existsByLicenseNumber(driversDTO.getLicenseNumber())) {
             throw new RuntimeException("Driver with this license number already exists!");
@@ -25,7 +29,8 @@ public class DriverService {
         return toDTO(newDriver);
     }
 
-    // Get all active drivers (is_delete == false)
+    // Get all active drivers (is_delete == false); cached, evicted by every write below
+    @Cacheable(CacheConfig.DRIVERS)
     public List<DriversDTO> getDrivers() {
         List<DriversEntity> activeDrivers = driversRepository.findAllByIsDeleteFalse();
         return activeDrivers.stream()
@@ -34,6 +39,7 @@ public class DriverService {
     }
 
 // Update driver with uniqueness checks if fields changed
+    @CacheEvict(cacheNames = CacheConfig.DRIVERS, allEntries = true)
     public DriversDTO updateDriver(Long driverId, DriversDTO dto) {
         DriversEntity existingDriver = driversRepository.findById(driverId)
                 .orElseThrow(() -> new RuntimeException("Driver Not Found!"));
@@ -66,6 +72,7 @@ public class DriverService {
     }
 
     // Soft delete driver by setting isDelete to true
+    @CacheEvict(cacheNames = CacheConfig.DRIVERS, allEntries = true)
     public void deleteDriver(Long driverId) {
         DriversEntity existingDriver = driversRepository.findById(driverId)
                 .orElseThrow(() -> new RuntimeException("Driver Not Found!"));
@@ -1,29 +1,57 @@
 package com.enterprise.bms.enterprise_bms.service;
 
+import com.enterprise.bms.enterprise_bms.config.CacheConfig;
 import com.enterprise.bms.enterprise_bms.dto.ExVehiclesDTO;
+import com.enterprise.bms.enterprise_bms.dto.MonthlyTotal;
 import com.enterprise.bms.enterprise_bms.entity.ExVehiclesEntity;
 import com.enterprise.bms.enterprise_bms.repository.ExVehiclesRepository;
+import com.enterprise.bms.enterprise_bms.dto.PageResponse;
+import com.enterprise.bms.enterprise_bms.utill.PageCursor;
+import com.enterprise.bms.enterprise_bms.report.ReportDefinition;
+import com.enterprise.bms.enterprise_bms.report.ReportFormat;
+import com.enterprise.bms.enterprise_bms.report.ReportRowWriter;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import java.time.LocalDate;
 import java.time.YearMonth;
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.time.format.DateTimeFormatter;
 
 @Service
 @RequiredArgsConstructor
 public class ExVehicleService {
+    public static final ReportDefinition<ExVehiclesDTO> EX_VEHICLES_REPORT = ReportDefinition.<ExVehiclesDTO>builder("ExVehicles Records")
+            .number("ID", "id", ExVehiclesDTO::getId)
+            .text("Reg Number", "regNumber", ExVehiclesDTO::getRegNumber)
+            .text("Owner Name", "ownerName", ExVehiclesDTO::getOwnerName)
+            .text("Owner Contact", "ownerContact", ExVehiclesDTO::getOwnerContact)
+            .number("Hire Rate", "hireRate", ExVehiclesDTO::getHireRate)
+            .number("Vehicle Usage", "vehicleUsage", ExVehiclesDTO::getVehicleUsage)
+            .number("Advance Paid", "advancePaid", ExVehiclesDTO::getAdvancePaid)
+            .number("Total Paid", "totalPaid", ExVehiclesDTO::getTotalPaid)
+            .number("Balance", "balance", ExVehiclesDTO::getBalance)
+            .text("Payment Status", "paymentStatus", dto -> paymentStatusLabel(dto.getPaymentStatus()))
+            .date("Date", "date", ExVehiclesDTO::getDate)
+            .dateTime("Created At", "createdAt", ExVehiclesDTO::getCreatedAt)
+            .dateTime("Updated At", "updatedAt", ExVehiclesDTO::getUpdatedAt)
+            .build();
+
     private final ExVehiclesRepository exVehiclesRepository;
+    private final MonthlyFinancialService monthlyFinancialService;
+    private final EntityManager entityManager;
 
     // CREATE
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.EX_VEHICLES, allEntries = true)
     public ExVehiclesDTO saveExVehicle(ExVehiclesDTO dto) {
         validateExVehicleDTO(dto);
         ExVehiclesEntity entity = toEntity(dto);
@@ -38,10 +66,13 @@ public class ExVehicleService {
         }
 
         entity = exVehiclesRepository.save(entity);
+        monthlyFinancialService.recordChange(MonthlyFinancialService.EX_VEHICLE,
+                null, null, entity.getDate(), entity.getHireRate());
         return toDTO(entity);
     }
 
-    // READ
+    // READ (cached list and single records; evicted by every write below)
+    @Cacheable(CacheConfig.EX_VEHICLES)
     public List<ExVehiclesDTO> getAllExVehicles() {
         return exVehiclesRepository.findAllActive()
                 .stream()
@@ -49,6 +80,7 @@ public class ExVehicleService {
                 .collect(Collectors.toList());
     }
 
+    @Cacheable(CacheConfig.EX_VEHICLES)
     public ExVehiclesDTO getExVehicleById(Long id) {
         ExVehiclesEntity entity = exVehiclesRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("External vehicle not found"));
@@ -75,7 +107,30 @@ public class ExVehicleService {
         return entities.stream().map(this::toDTO).collect(Collectors.toList());
     }
 
+    // FILTERED READ - paged, keyset on (date, id)
+    public PageResponse<ExVehiclesDTO> getExVehiclePage(String regNumber, String month, Integer size, String cursor) {
+        LocalDate startDate = null;
+        LocalDate endDate = null;
+        if (month != null && !month.isEmpty()) {
+            try {
+                YearMonth yearMonth = YearMonth.parse(month);
+                startDate = yearMonth.atDay(1);
+                endDate = yearMonth.atEndOfMonth();
+            } catch (Exception e) {
+                throw new RuntimeException("Invalid month format. Use YYYY-MM");
+            }
+        }
+        int pageSize = PageCursor.pageSize(size);
+        PageCursor after = PageCursor.decode(cursor);
+        List<ExVehiclesEntity> entities = exVehiclesRepository.findFilteredPage(regNumber, startDate, endDate,
+                after != null ? after.dateKey() : null, after != null ? after.getId() : null,
+                PageCursor.limit(pageSize));
+        return PageCursor.toPage(entities, pageSize, this::toDTO, e -> PageCursor.encode(e.getDate(), e.getId()));
+    }
+
     // UPDATE VEHICLE DETAILS
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.EX_VEHICLES, allEntries = true)
     public ExVehiclesDTO updateExVehicle(Long id, ExVehiclesDTO dto) {
         ExVehiclesEntity entity = exVehiclesRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("External vehicle not found"));
@@ -83,6 +138,8 @@ public class ExVehicleService {
         if (Boolean.TRUE.equals(entity.getIsDelete())) {
             throw new RuntimeException("Cannot update deleted vehicle");
         }
+        LocalDate oldDate = entity.getDate();
+        BigDecimal oldHireRate = entity.getHireRate();
 
         // Update basic details
         if (dto.getRegNumber() != null) entity.setRegNumber(dto.getRegNumber().trim());
@@ -98,10 +155,13 @@ public class ExVehicleService {
         }
 
         entity = exVehiclesRepository.save(entity);
+        monthlyFinancialService.recordChange(MonthlyFinancialService.EX_VEHICLE,
+                oldDate, oldHireRate, entity.getDate(), entity.getHireRate());
         return toDTO(entity);
     }
 
     // MAKE PAYMENT
+    @CacheEvict(cacheNames = CacheConfig.EX_VEHICLES, allEntries = true)
     public ExVehiclesDTO makePayment(Long id, BigDecimal paymentAmount) {
         ExVehiclesEntity entity = exVehiclesRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("External vehicle not found"));
@@ -128,9 +188,16 @@ public class ExVehicleService {
     }
 
     // DELETE (Soft)
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.EX_VEHICLES, allEntries = true)
     public void deleteExVehicle(Long id) {
         ExVehiclesEntity entity = exVehiclesRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("External vehicle not found"));
+        // Only an active record still counts towards the rollup
+        if (!Boolean.TRUE.equals(entity.getIsDelete())) {
+            monthlyFinancialService.recordChange(MonthlyFinancialService.EX_VEHICLE,
+                    entity.getDate(), entity.getHireRate(), null, null);
+        }
         entity.setIsDelete(true);
         exVehiclesRepository.save(entity);
     }
@@ -184,64 +251,48 @@ public class ExVehicleService {
                 .build();
     }
 
-    public ByteArrayInputStream generateExVehiclesExcelReport(String regNumber, String month) {
-        List<ExVehiclesDTO> records = getFilteredExVehicles(regNumber, month);
-        try (Workbook workbook = new XSSFWorkbook()) {
-            Sheet sheet = workbook.createSheet("ExVehicles Records");
-            Row headerRow = sheet.createRow(0);
-            String[] columns = {"ID", "Reg Number", "Owner Name", "Owner Contact", "Hire Rate", "Vehicle Usage", "Advance Paid", "Total Paid", "Balance", "Payment Status", "Date", "Created At", "Updated At"};
-
-            CellStyle headerStyle = workbook.createCellStyle();
-            Font headerFont = workbook.createFont();
-            headerFont.setBold(true);
-            headerStyle.setFont(headerFont);
-
-            for (int i = 0; i < columns.length; i++) {
-                Cell cell = headerRow.createCell(i);
-                cell.setCellValue(columns[i]);
-                cell.setCellStyle(headerStyle);
-            }
-
-            int rowNum = 1;
-            DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-
-            for (ExVehiclesDTO dto : records) {
-                Row row = sheet.createRow(rowNum++);
-                row.createCell(0).setCellValue(dto.getId() != null ? dto.getId() : 0);
-                row.createCell(1).setCellValue(dto.getRegNumber() != null ? dto.getRegNumber() : "");
-                row.createCell(2).setCellValue(dto.getOwnerName() != null ? dto.getOwnerName() : "");
-                row.createCell(3).setCellValue(dto.getOwnerContact() != null ? dto.getOwnerContact() : "");
-                row.createCell(4).setCellValue(dto.getHireRate() != null ? dto.getHireRate().doubleValue() : 0.0);
-                row.createCell(5).setCellValue(dto.getVehicleUsage() != null ? dto.getVehicleUsage().doubleValue() : 0.0);
-                row.createCell(6).setCellValue(dto.getAdvancePaid() != null ? dto.getAdvancePaid().doubleValue() : 0.0);
-                row.createCell(7).setCellValue(dto.getTotalPaid() != null ? dto.getTotalPaid().doubleValue() : 0.0);
-                row.createCell(8).setCellValue(dto.getBalance() != null ? dto.getBalance().doubleValue() : 0.0);
-
-                String statusLabel = "";
-                if (dto.getPaymentStatus() == 1) statusLabel = "Pending";
-                else if (dto.getPaymentStatus() == 2) statusLabel = "Partial Paid";
-                else if (dto.getPaymentStatus() == 3) statusLabel = "Fully Paid";
-                row.createCell(9).setCellValue(statusLabel);
-
-                row.createCell(10).setCellValue(dto.getDate() != null ? dto.getDate().format(dateFormatter) : "");
-                row.createCell(11).setCellValue(dto.getCreatedAt() != null ? dto.getCreatedAt().toString() : "");
-                row.createCell(12).setCellValue(dto.getUpdatedAt() != null ? dto.getUpdatedAt().toString() : "");
-            }
+    // Report export (XLSX, CSV or NDJSON), columns in EX_VEHICLES_REPORT
+    @Transactional(readOnly = true)
+    public void writeExVehiclesReport(String regNumber, String month, ReportFormat format, OutputStream out) throws IOException {
+        try (ReportRowWriter<ExVehiclesDTO> writer = format.open(EX_VEHICLES_REPORT, out)) {
+            exportExVehiclesRows(regNumber, month, writer);
+            writer.finish();
+        }
+    }
 
-            for (int i = 0; i < columns.length; i++) {
-                sheet.autoSizeColumn(i);
+    // Report rows for the filters, written to the caller's writer (single report or monthly pack)
+    @Transactional(readOnly = true)
+    public void exportExVehiclesRows(String regNumber, String month, ReportRowWriter<ExVehiclesDTO> writer) throws IOException {
+        LocalDate startDate = null;
+        LocalDate endDate = null;
+        if (month != null && !month.isEmpty()) {
+            try {
+                YearMonth yearMonth = YearMonth.parse(month);
+                startDate = yearMonth.atDay(1);
+                endDate = yearMonth.atEndOfMonth();
+            } catch (Exception e) {
+                throw new RuntimeException("Invalid month format. Use YYYY-MM");
             }
-
-            ByteArrayOutputStream out = new ByteArrayOutputStream();
-            workbook.write(out);
-            return new ByteArrayInputStream(out.toByteArray());
-        } catch (IOException e) {
-            throw new RuntimeException("Error generating Excel report", e);
+        }
+        try (Stream<ExVehiclesEntity> entities = exVehiclesRepository.streamFiltered(regNumber, startDate, endDate)) {
+            writer.writeEntities(entities, this::toDTO, entityManager::detach);
         }
     }
 
+    private static String paymentStatusLabel(Integer paymentStatus) {
+        if (paymentStatus == null) return "";
+        if (paymentStatus == 1) return "Pending";
+        if (paymentStatus == 2) return "Partial Paid";
+        if (paymentStatus == 3) return "Fully Paid";
+        return "";
+    }
+
     //for dashboard
     public BigDecimal getTotalHireCostForPeriod(LocalDate start, LocalDate end) {
         return exVehiclesRepository.getTotalHireCostForPeriod(start, end);
     }
-}
\ No newline at end of file
+
+    public List<MonthlyTotal> getMonthlyHireCostForPeriod(LocalDate start, LocalDate end) {
+        return exVehiclesRepository.getMonthlyHireCostForPeriod(start, end);
+    }
+}
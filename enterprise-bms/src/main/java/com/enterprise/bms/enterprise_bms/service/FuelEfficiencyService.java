@@ -0,0 +1,201 @@
+package com.enterprise.bms.enterprise_bms.service;
+
+import com.enterprise.bms.enterprise_bms.dto.FuelEfficiencyDTO;
+import com.enterprise.bms.enterprise_bms.entity.BackfillMarkerEntity;
+import com.enterprise.bms.enterprise_bms.entity.FuelEntity;
+import com.enterprise.bms.enterprise_bms.repository.BackfillMarkerRepository;
+import com.enterprise.bms.enterprise_bms.repository.FuelRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+
+// Distance, km/L and cost/km of each fill, measured from the previous fill of the same vehicle
+// (full-to-full: a fill's litres cover the distance driven since the previous fill).
+// The values are stored on FuelEntity; a change to one fill recomputes only that fill and the
+// fills directly after its old and new positions.
+@Service
+@RequiredArgsConstructor
+public class FuelEfficiencyService {
+    public static final String EFFICIENCY_DROP = "EFFICIENCY_DROP";
+    public static final String ODOMETER_NOT_INCREASING = "ODOMETER_NOT_INCREASING";
+
+    // Baseline: average km/L of up to BASELINE_FILLS preceding fills, once there are MIN_BASELINE_FILLS
+    private static final int BASELINE_FILLS = 5;
+    private static final int MIN_BASELINE_FILLS = 3;
+    // A fill below this share of the baseline is flagged as a drop
+    private static final BigDecimal DROP_THRESHOLD = new BigDecimal("0.80");
+    static final String BACKFILL_MARKER = "fuel-efficiency";
+
+    private final FuelRepository fuelRepository;
+    private final BackfillMarkerRepository backfillMarkerRepository;
+    private final EntityManager entityManager;
+
+    // The fill whose values depend on this one; look it up before changing or deleting the fill
+    public FuelEntity findNextFill(FuelEntity fill) {
+        if (fill.getOdometerReading() == null || fill.getVehicle() == null) {
+            return null;
+        }
+        List<FuelEntity> next = fuelRepository.findNextFills(fill.getVehicle().getId(), fill.getFuelDate(),
+                fill.getOdometerReading(), fill.getId(), PageRequest.of(0, 1));
+        return next.isEmpty() ? null : next.get(0);
+    }
+
+    // After a fill is saved or soft-deleted. previousNext is findNextFill before the change (null on create).
+    @Transactional
+    public void recordChange(FuelEntity fill, FuelEntity previousNext) {
+        recompute(fill);
+        FuelEntity next = findNextFill(fill);
+        if (next != null) {
+            recompute(next);
+        }
+        if (previousNext != null && (next == null || !previousNext.getId().equals(next.getId()))) {
+            recompute(previousNext);
+        }
+    }
+
+    private void recompute(FuelEntity fill) {
+        FuelEntity previous = null;
+        if (!Boolean.TRUE.equals(fill.getIsDelete()) && fill.getOdometerReading() != null) {
+            List<FuelEntity> previousFills = fuelRepository.findPreviousFills(fill.getVehicle().getId(), fill.getFuelDate(),
+                    fill.getOdometerReading(), fill.getId(), PageRequest.of(0, 1));
+            previous = previousFills.isEmpty() ? null : previousFills.get(0);
+        }
+        apply(fill, previous);
+    }
+
+    private void apply(FuelEntity fill, FuelEntity previous) {
+        if (previous == null) {
+            fill.setDistanceKm(null);
+            fill.setKmPerLitre(null);
+            fill.setCostPerKm(null);
+            return;
+        }
+        BigDecimal distance = fill.getOdometerReading().subtract(previous.getOdometerReading());
+        fill.setDistanceKm(distance);
+        // An odometer that did not move forward gives no efficiency
+        boolean measurable = distance.signum() > 0;
+        fill.setKmPerLitre(measurable && fill.getFuelQuantity() != null && fill.getFuelQuantity().signum() > 0
+                ? distance.divide(fill.getFuelQuantity(), 2, RoundingMode.HALF_UP) : null);
+        fill.setCostPerKm(measurable && fill.getTotalCost() != null
+                ? fill.getTotalCost().divide(distance, 2, RoundingMode.HALF_UP) : null);
+    }
+
+    // Stored series of one vehicle with anomaly flags; reads only the fills in range plus the
+    // few before it that form the first baseline
+    @Transactional(readOnly = true)
+    public List<FuelEfficiencyDTO> getSeries(Long vehicleId, String from, String to) {
+        LocalDate start = null;
+        LocalDate end = null;
+        try {
+            if (from != null && !from.isEmpty()) {
+                start = YearMonth.parse(from).atDay(1);
+            }
+            if (to != null && !to.isEmpty()) {
+                end = YearMonth.parse(to).atEndOfMonth();
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("Invalid month format. Use YYYY-MM");
+        }
+
+        Deque<BigDecimal> window = new ArrayDeque<>();
+        if (start != null) {
+            List<BigDecimal> earlier = new ArrayList<>(
+                    fuelRepository.findKmPerLitreBefore(vehicleId, start, PageRequest.of(0, BASELINE_FILLS)));
+            Collections.reverse(earlier);
+            window.addAll(earlier);
+        }
+
+        List<FuelEfficiencyDTO> series = new ArrayList<>();
+        for (FuelEntity fill : fuelRepository.findEfficiencySeries(vehicleId, start, end)) {
+            BigDecimal baseline = window.size() >= MIN_BASELINE_FILLS ? average(window) : null;
+            String anomaly = null;
+            if (fill.getDistanceKm() != null && fill.getDistanceKm().signum() <= 0) {
+                anomaly = ODOMETER_NOT_INCREASING;
+            } else if (baseline != null && fill.getKmPerLitre() != null
+                    && fill.getKmPerLitre().compareTo(baseline.multiply(DROP_THRESHOLD)) < 0) {
+                anomaly = EFFICIENCY_DROP;
+            }
+            series.add(FuelEfficiencyDTO.builder()
+                    .fuelId(fill.getId())
+                    .fuelDate(fill.getFuelDate())
+                    .odometerReading(fill.getOdometerReading())
+                    .fuelQuantity(fill.getFuelQuantity())
+                    .totalCost(fill.getTotalCost())
+                    .distanceKm(fill.getDistanceKm())
+                    .kmPerLitre(fill.getKmPerLitre())
+                    .costPerKm(fill.getCostPerKm())
+                    .baselineKmPerLitre(baseline)
+                    .anomaly(anomaly)
+                    .build());
+            if (fill.getKmPerLitre() != null) {
+                window.addLast(fill.getKmPerLitre());
+                if (window.size() > BASELINE_FILLS) {
+                    window.removeFirst();
+                }
+            }
+        }
+        return series;
+    }
+
+    // Recomputes every fill from the odometer readings, one vehicle at a time
+    @Transactional
+    public int rebuild() {
+        return rebuild(fuelRepository.findVehicleIdsWithFills());
+    }
+
+    // Same for the given vehicles only (after a bulk import of their fills)
+    @Transactional
+    public int rebuild(Collection<Long> vehicleIds) {
+        int fills = 0;
+        for (Long vehicleId : vehicleIds) {
+            FuelEntity previous = null;
+            for (FuelEntity fill : fuelRepository.findEfficiencySeries(vehicleId, null, null)) {
+                apply(fill, previous);
+                previous = fill;
+                fills++;
+            }
+            entityManager.flush();
+            entityManager.clear();
+        }
+        return fills;
+    }
+
+    // First start after the columns are introduced: fill them in once, then record that it ran. The
+    // data cannot tell: a fleet whose fills have no usable odometer pairs never gets a distance.
+    // A database already backfilled before the marker existed only gets the marker.
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillOnce() {
+        if (backfillMarkerRepository.existsById(BACKFILL_MARKER)) {
+            return;
+        }
+        if (fuelRepository.countWithDistance() == 0) {
+            rebuild();
+        }
+        backfillMarkerRepository.save(new BackfillMarkerEntity(BACKFILL_MARKER, LocalDateTime.now()));
+    }
+
+    private BigDecimal average(Deque<BigDecimal> values) {
+        BigDecimal sum = BigDecimal.ZERO;
+        for (BigDecimal value : values) {
+            sum = sum.add(value);
+        }
+        return sum.divide(BigDecimal.valueOf(values.size()), 2, RoundingMode.HALF_UP);
+    }
+}
@@ -1,44 +1,109 @@
 package com.enterprise.bms.enterprise_bms.service;
 
 import com.enterprise.bms.enterprise_bms.dto.FuelDTO;
+import com.enterprise.bms.enterprise_bms.dto.ImportResultDTO;
+import com.enterprise.bms.enterprise_bms.dto.MonthlyTotal;
 import com.enterprise.bms.enterprise_bms.entity.FuelEntity;
 import com.enterprise.bms.enterprise_bms.entity.OwnVehiclesEntity;
 import com.enterprise.bms.enterprise_bms.entity.TransportEntity;
 import com.enterprise.bms.enterprise_bms.repository.FuelRepository;
 import com.enterprise.bms.enterprise_bms.repository.OwnVehiclesRepository;
 import com.enterprise.bms.enterprise_bms.repository.TransportRepository;
+import com.enterprise.bms.enterprise_bms.dto.PageResponse;
+import com.enterprise.bms.enterprise_bms.utill.PageCursor;
+import com.enterprise.bms.enterprise_bms.report.ReportDefinition;
+import com.enterprise.bms.enterprise_bms.report.ReportFormat;
+import com.enterprise.bms.enterprise_bms.report.ReportRow;
+import com.enterprise.bms.enterprise_bms.report.ReportRowWriter;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.YearMonth;
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class FuelService {
 
+    public static final ReportDefinition<FuelDTO> FUEL_REPORT = ReportDefinition.<FuelDTO>builder("Fuel Records")
+            .number("ID", "id", FuelDTO::getId)
+            .date("Date", "fuelDate", FuelDTO::getFuelDate)
+            .text("Vehicle Reg No", "vehicleRegNumber", FuelDTO::getVehicleRegNumber)
+            .text("Client/Trip", "clientOrTrip", dto -> dto.getClientName() != null ? dto.getClientName() : dto.getTripDescription())
+            .number("Odometer Reading", "odometerReading", FuelDTO::getOdometerReading)
+            .number("Fuel Quantity (L)", "fuelQuantity", FuelDTO::getFuelQuantity)
+            .number("Total Cost (LKR)", "totalCost", FuelDTO::getTotalCost)
+            .text("Notes", "notes", FuelDTO::getNotes)
+            .dateTime("Created At", "createdAt", FuelDTO::getCreatedAt)
+            .build();
+
     private final FuelRepository fuelRepository;
     private final OwnVehiclesRepository ownVehiclesRepository;
     private final TransportRepository transportRepository;
+    private final MonthlyFinancialService monthlyFinancialService;
+    private final FuelEfficiencyService fuelEfficiencyService;
+    private final EntityManager entityManager;
 
     // CREATE - Save new fuel record
+    @Transactional
     public FuelDTO saveFuel(FuelDTO dto) {
         validateFuelDTO(dto);
 
         FuelEntity entity = toEntity(dto);
         entity = fuelRepository.save(entity);
+        monthlyFinancialService.recordChange(MonthlyFinancialService.FUEL,
+                null, null, entity.getFuelDate(), entity.getTotalCost());
+        fuelEfficiencyService.recordChange(entity, null);
         return toDTO(entity);
     }
 
+    // History import (see ImportJobService): one batch of FUEL_REPORT rows, validated like saveFuel
+    // and inserted with one JDBC batch. The import job rebuilds the vehicles' fuel efficiency at the end.
+    @Transactional
+    public int importFuelBatch(List<ReportRow> rows, Function<ReportRow, OwnVehiclesEntity> vehicleOf,
+                               List<ImportResultDTO.RowError> errors) {
+        List<FuelEntity> valid = new ArrayList<>(rows.size());
+        for (ReportRow row : rows) {
+            try {
+                OwnVehiclesEntity vehicle = vehicleOf.apply(row);
+                FuelDTO dto = FuelDTO.builder()
+                        .fuelDate(row.getDate("fuelDate"))
+                        .vehicleId(vehicle.getId())
+                        .odometerReading(row.getDecimal("odometerReading"))
+                        .fuelQuantity(row.getDecimal("fuelQuantity"))
+                        .totalCost(row.getDecimal("totalCost"))
+                        .notes(row.getText("notes"))
+                        .build();
+                validateFuelDTO(dto);
+                valid.add(FuelEntity.builder()
+                        .fuelDate(dto.getFuelDate())
+                        .vehicle(vehicle)
+                        .odometerReading(dto.getOdometerReading())
+                        .fuelQuantity(dto.getFuelQuantity())
+                        .totalCost(dto.getTotalCost())
+                        .notes(dto.getNotes())
+                        .isDelete(false)
+                        .build());
+            } catch (RuntimeException e) {
+                errors.add(new ImportResultDTO.RowError(row.getRowNumber(), e.getMessage()));
+            }
+        }
+        fuelRepository.batchInsert(valid);
+        monthlyFinancialService.recordAdded(MonthlyFinancialService.FUEL, valid,
+                FuelEntity::getFuelDate, FuelEntity::getTotalCost);
+        return valid.size();
+    }
+
     // READ - Get filtered fuel records
     public List<FuelDTO> getFilteredFuels(Long vehicleId, String month) {
         LocalDate startDate = null;
@@ -58,6 +123,29 @@ public class FuelService {
         return entities.stream().map(this::toDTO).collect(Collectors.toList());
     }
 
+    // READ - Paged fuel records, keyset on (fuelDate, id)
+    public PageResponse<FuelDTO> getFuelPage(Long vehicleId, String month, Integer size, String cursor) {
+        LocalDate startDate = null;
+        LocalDate endDate = null;
+
+        if (month != null && !month.isEmpty()) {
+            try {
+                YearMonth yearMonth = YearMonth.parse(month);
+                startDate = yearMonth.atDay(1);
+                endDate = yearMonth.atEndOfMonth();
+            } catch (Exception e) {
+                throw new RuntimeException("Invalid month format. Use YYYY-MM");
+            }
+        }
+
+        int pageSize = PageCursor.pageSize(size);
+        PageCursor after = PageCursor.decode(cursor);
+        List<FuelEntity> entities = fuelRepository.findFilteredPage(vehicleId, startDate, endDate,
+                after != null ? after.dateKey() : null, after != null ? after.getId() : null,
+                PageCursor.limit(pageSize));
+        return PageCursor.toPage(entities, pageSize, this::toDTO, e -> PageCursor.encode(e.getFuelDate(), e.getId()));
+    }
+
     // READ - Get fuel by registration number and month
     public List<FuelDTO> getFuelsByRegNumberAndMonth(String regNumber, String month) {
         LocalDate startDate = null;
@@ -85,9 +173,13 @@ public class FuelService {
     }
 
     // UPDATE - Update fuel record
+    @Transactional
     public FuelDTO updateFuel(Long fuelId, FuelDTO dto) {
         FuelEntity existing = fuelRepository.findByIdAndIsDeleteFalse(fuelId)
                 .orElseThrow(() -> new RuntimeException("Fuel record not found with ID: " + fuelId));
+        LocalDate oldDate = existing.getFuelDate();
+        BigDecimal oldCost = existing.getTotalCost();
+        FuelEntity oldNextFill = fuelEfficiencyService.findNextFill(existing);
 
         // Update fields if provided
         if (dto.getFuelDate() != null) {
@@ -123,16 +215,24 @@ public class FuelService {
         }
 
         existing = fuelRepository.save(existing);
+        monthlyFinancialService.recordChange(MonthlyFinancialService.FUEL,
+                oldDate, oldCost, existing.getFuelDate(), existing.getTotalCost());
+        fuelEfficiencyService.recordChange(existing, oldNextFill);
         return toDTO(existing);
     }
 
     // DELETE - Soft delete
+    @Transactional
     public void deleteFuel(Long fuelId) {
         FuelEntity fuel = fuelRepository.findByIdAndIsDeleteFalse(fuelId)
                 .orElseThrow(() -> new RuntimeException("Fuel record not found with ID: " + fuelId));
+        monthlyFinancialService.recordChange(MonthlyFinancialService.FUEL,
+                fuel.getFuelDate(), fuel.getTotalCost(), null, null);
+        FuelEntity nextFill = fuelEfficiencyService.findNextFill(fuel);
 
         fuel.setIsDelete(true);
         fuelRepository.save(fuel);
+        fuelEfficiencyService.recordChange(fuel, nextFill);
     }
 
     // Get total fuel cost for a vehicle in a specific month
@@ -145,90 +245,43 @@ public class FuelService {
         return total != null ? total : BigDecimal.ZERO;
     }
 
-    // Generate Excel report
-    public ByteArrayInputStream generateFuelExcelReport(String regNumber, String month) {
-        List<FuelDTO> records;
-
-        if (regNumber != null && !regNumber.isEmpty()) {
-            records = getFuelsByRegNumberAndMonth(regNumber, month);
-        } else {
-            records = getFilteredFuels(null, month);
+    // Report export (XLSX, CSV or NDJSON), columns in FUEL_REPORT
+    @Transactional(readOnly = true)
+    public void writeFuelReport(String regNumber, String month, ReportFormat format, OutputStream out) throws IOException {
+        try (ReportRowWriter<FuelDTO> writer = format.open(FUEL_REPORT, out)) {
+            exportFuelRows(regNumber, month, writer);
+            writer.finish();
         }
+    }
 
-        try (Workbook workbook = new XSSFWorkbook()) {
-            Sheet sheet = workbook.createSheet("Fuel Records");
-
-            // Create header row
-            Row headerRow = sheet.createRow(0);
-            String[] columns = {
-                    "ID", "Date", "Vehicle Reg No", "Client/Trip", "Odometer Reading",
-                    "Fuel Quantity (L)", "Total Cost (LKR)", "Notes", "Created At"
-            };
-
-            CellStyle headerStyle = workbook.createCellStyle();
-            Font headerFont = workbook.createFont();
-            headerFont.setBold(true);
-            headerStyle.setFont(headerFont);
-
-            for (int i = 0; i < columns.length; i++) {
-                Cell cell = headerRow.createCell(i);
-                cell.setCellValue(columns[i]);
-                cell.setCellStyle(headerStyle);
-            }
+    // Report rows for the filters, written to the caller's writer (single report or monthly pack)
+    @Transactional(readOnly = true)
+    public void exportFuelRows(String regNumber, String month, ReportRowWriter<FuelDTO> writer) throws IOException {
+        LocalDate startDate = null;
+        LocalDate endDate = null;
 
-            // Populate data rows
-            int rowNum = 1;
-            DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-            DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
-
-            for (FuelDTO dto : records) {
-                Row row = sheet.createRow(rowNum++);
-
-                row.createCell(0).setCellValue(dto.getId() != null ? dto.getId().toString() : "");
-                row.createCell(1).setCellValue(dto.getFuelDate() != null ? dto.getFuelDate().format(dateFormatter) : "");
-                row.createCell(2).setCellValue(dto.getVehicleRegNumber() != null ? dto.getVehicleRegNumber() : "");
-                row.createCell(3).setCellValue(dto.getClientName() != null ? dto.getClientName() : (dto.getTripDescription() != null ? dto.getTripDescription() : ""));
-                row.createCell(4).setCellValue(dto.getOdometerReading() != null ? dto.getOdometerReading().doubleValue() : 0.0);
-                row.createCell(5).setCellValue(dto.getFuelQuantity() != null ? dto.getFuelQuantity().doubleValue() : 0.0);
-                row.createCell(6).setCellValue(dto.getTotalCost() != null ? dto.getTotalCost().doubleValue() : 0.0);
-                row.createCell(7).setCellValue(dto.getNotes() != null ? dto.getNotes() : "");
-                row.createCell(8).setCellValue(dto.getCreatedAt() != null ? dto.getCreatedAt().format(dateTimeFormatter) : "");
+        if (month != null && !month.isEmpty()) {
+            try {
+                YearMonth yearMonth = YearMonth.parse(month);
+                startDate = yearMonth.atDay(1);
+                endDate = yearMonth.atEndOfMonth();
+            } catch (Exception e) {
+                throw new RuntimeException("Invalid month format. Use YYYY-MM");
             }
+        }
 
-            // Auto-size columns
-            for (int i = 0; i < columns.length; i++) {
-                sheet.autoSizeColumn(i);
-            }
+        Stream<FuelEntity> entities = regNumber != null && !regNumber.isEmpty()
+                ? fuelRepository.streamByRegNumberAndDateRange(regNumber, startDate, endDate)
+                : fuelRepository.streamFiltered(null, startDate, endDate);
+        try (entities) {
+            BigDecimal[] totalCost = {BigDecimal.ZERO};
+            long written = writer.writeEntities(entities, this::toDTO, entityManager::detach,
+                    dto -> totalCost[0] = totalCost[0].add(dto.getTotalCost() != null ? dto.getTotalCost() : BigDecimal.ZERO));
 
             // Add summary row if there are records
-            if (!records.isEmpty()) {
-                int lastRow = sheet.getLastRowNum();
-                Row summaryRow = sheet.createRow(lastRow + 2);
-
-                Cell labelCell = summaryRow.createCell(5);
-                labelCell.setCellValue("Total Fuel Cost:");
-                labelCell.setCellStyle(headerStyle);
-
-                Cell totalCell = summaryRow.createCell(6);
-                BigDecimal totalCost = records.stream()
-                        .map(dto -> dto.getTotalCost() != null ? dto.getTotalCost() : BigDecimal.ZERO)
-                        .reduce(BigDecimal.ZERO, BigDecimal::add);
-                totalCell.setCellValue(totalCost.doubleValue());
-
-                CellStyle totalStyle = workbook.createCellStyle();
-                Font totalFont = workbook.createFont();
-                totalFont.setBold(true);
-                totalStyle.setFont(totalFont);
-                totalCell.setCellStyle(totalStyle);
+            if (written > 0) {
+                writer.writeTotal(5, "Total Fuel Cost:", totalCost[0]);
             }
-
-            // Write to ByteArrayOutputStream
-            ByteArrayOutputStream out = new ByteArrayOutputStream();
-            workbook.write(out);
-            return new ByteArrayInputStream(out.toByteArray());
-
-        } catch (IOException e) {
-            throw new RuntimeException("Error generating fuel Excel report", e);
         }
     }
 
@@ -284,6 +337,9 @@ public class FuelService {
                 .fuelQuantity(entity.getFuelQuantity())
                 .totalCost(entity.getTotalCost())
                 .notes(entity.getNotes())
+                .distanceKm(entity.getDistanceKm())
+                .kmPerLitre(entity.getKmPerLitre())
+                .costPerKm(entity.getCostPerKm())
                 .isDelete(entity.getIsDelete())
                 .createdAt(entity.getCreatedAt())
                 .updatedAt(entity.getUpdatedAt())
@@ -297,4 +353,8 @@ public class FuelService {
     public BigDecimal getTotalFuelCostForPeriod(LocalDate start, LocalDate end) {
         return fuelRepository.getTotalFuelCostForPeriod(start, end);
     }
-}
\ No newline at end of file
+
+    public List<MonthlyTotal> getMonthlyFuelCostForPeriod(LocalDate start, LocalDate end) {
+        return fuelRepository.getMonthlyFuelCostForPeriod(start, end);
+    }
+}
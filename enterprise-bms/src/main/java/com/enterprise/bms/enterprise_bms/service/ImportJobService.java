@@ -0,0 +1,414 @@
+package com.enterprise.bms.enterprise_bms.service;
+
+import com.enterprise.bms.enterprise_bms.dto.ImportJobDTO;
+import com.enterprise.bms.enterprise_bms.dto.ImportResultDTO;
+import com.enterprise.bms.enterprise_bms.entity.ImportJobEntity;
+import com.enterprise.bms.enterprise_bms.entity.ImportJobErrorEntity;
+import com.enterprise.bms.enterprise_bms.entity.OwnVehiclesEntity;
+import com.enterprise.bms.enterprise_bms.report.ReportDefinition;
+import com.enterprise.bms.enterprise_bms.report.ReportFormat;
+import com.enterprise.bms.enterprise_bms.report.ReportRow;
+import com.enterprise.bms.enterprise_bms.report.ReportRowReader;
+import com.enterprise.bms.enterprise_bms.repository.ImportJobErrorRepository;
+import com.enterprise.bms.enterprise_bms.repository.ImportJobRepository;
+import com.enterprise.bms.enterprise_bms.repository.OwnVehiclesRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Imports historical fuel, maintenance and tire records from an uploaded .xlsx or .csv laid out
+// like the matching report. The upload is kept under import.jobs.dir and read as a stream on
+// importJobExecutor; every BATCH_SIZE rows are inserted, added to the monthly rollup and
+// checkpointed in one transaction, so a failed or interrupted job resumes after its last batch.
+@Service
+@RequiredArgsConstructor
+public class ImportJobService {
+    public static final String FUEL = "fuel";
+    public static final String MAINTENANCE = "maintenance";
+    public static final String TIRE_MAINTENANCE = "tire-maintenance";
+
+    private static final Set<String> RECORD_TYPES = Set.of(FUEL, MAINTENANCE, TIRE_MAINTENANCE);
+    private static final int BATCH_SIZE = 500;
+    private static final int MAX_LISTED_JOBS = 50;
+    private static final int MAX_LISTED_ERRORS = 1000;
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final ImportJobRepository importJobRepository;
+    private final ImportJobErrorRepository importJobErrorRepository;
+    private final OwnVehiclesRepository ownVehiclesRepository;
+    private final FuelService fuelService;
+    private final FuelEfficiencyService fuelEfficiencyService;
+    private final MaintenanceService maintenanceService;
+    private final TireMaintenanceService tireMaintenanceService;
+    private final PlatformTransactionManager transactionManager;
+    private final ThreadPoolTaskExecutor importJobExecutor;
+
+    @Value("${import.jobs.dir}")
+    private String jobsDir;
+
+    @Value("${import.jobs.retention-hours}")
+    private long retentionHours;
+
+    // Jobs still queued or running when the application stopped keep their checkpoint
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void recoverUnfinishedJobs() throws IOException {
+        Files.createDirectories(Paths.get(jobsDir));
+        importJobRepository.failUnfinished(List.of("QUEUED", "RUNNING"),
+                "Interrupted by an application restart; resume to continue after the last checkpoint", LocalDateTime.now());
+    }
+
+    public ImportJobDTO submitJob(String recordType, MultipartFile file) throws IOException {
+        if (recordType == null || !RECORD_TYPES.contains(recordType)) {
+            throw new RuntimeException("Invalid record type. Use one of " + String.join(", ", RECORD_TYPES));
+        }
+        if (file == null || file.isEmpty()) {
+            throw new RuntimeException("Upload an .xlsx or .csv file");
+        }
+        ReportFormat format = ReportFormat.fromFileName(file.getOriginalFilename());
+        if (format == ReportFormat.NDJSON) {
+            throw new RuntimeException("Upload an .xlsx or .csv file");
+        }
+
+        ImportJobEntity job = importJobRepository.save(ImportJobEntity.builder()
+                .recordType(recordType)
+                .format(format.getExtension())
+                .fileName(file.getOriginalFilename())
+                .status("QUEUED")
+                .rowsRead(0L)
+                .rowsImported(0L)
+                .rowsFailed(0L)
+                .requestedBy(currentUser())
+                .build());
+        try {
+            file.transferTo(uploadPath(job));
+        } catch (IOException e) {
+            importJobRepository.delete(job);
+            throw e;
+        }
+        queue(job);
+        return toDTO(job);
+    }
+
+    // Continues a failed job after its last committed batch
+    public ImportJobDTO resumeJob(Long id) {
+        ImportJobEntity job = findOwnJob(id);
+        if (!"FAILED".equals(job.getStatus())) {
+            throw new RuntimeException("Only a failed import job can be resumed");
+        }
+        if (!Files.exists(uploadPath(job))) {
+            throw new RuntimeException("The uploaded file is no longer available");
+        }
+        job.setStatus("QUEUED");
+        job = importJobRepository.save(job);
+        queue(job);
+        return toDTO(job);
+    }
+
+    public List<ImportJobDTO> getMyJobs() {
+        return importJobRepository.findRecentByRequestedBy(currentUser(), PageRequest.of(0, MAX_LISTED_JOBS))
+                .stream()
+                .map(this::toDTO)
+                .toList();
+    }
+
+    public ImportJobDTO getJob(Long id) {
+        return toDTO(findOwnJob(id));
+    }
+
+    // Rejected rows in file order (first MAX_LISTED_ERRORS)
+    public List<ImportResultDTO.RowError> getErrors(Long id) {
+        ImportJobEntity job = findOwnJob(id);
+        return importJobErrorRepository.findByJobId(job.getId(), PageRequest.of(0, MAX_LISTED_ERRORS))
+                .stream()
+                .map(error -> new ImportResultDTO.RowError(error.getRowNumber(), error.getMessage()))
+                .toList();
+    }
+
+    @Transactional
+    public void deleteJob(Long id) {
+        ImportJobEntity job = findOwnJob(id);
+        if ("QUEUED".equals(job.getStatus()) || "RUNNING".equals(job.getStatus())) {
+            throw new RuntimeException("Import job is still running");
+        }
+        delete(job);
+    }
+
+    @Scheduled(fixedDelay = 60 * 60 * 1000)
+    @Transactional
+    public void purgeExpiredJobs() {
+        for (ImportJobEntity job : importJobRepository.findFinishedBefore(LocalDateTime.now().minusHours(retentionHours))) {
+            delete(job);
+        }
+    }
+
+    private void queue(ImportJobEntity job) {
+        Long jobId = job.getId();
+        try {
+            importJobExecutor.execute(() -> runJob(jobId));
+        } catch (TaskRejectedException e) {
+            job.setStatus("FAILED");
+            job.setErrorMessage("Too many import jobs are queued; resume it later");
+            job.setCompletedAt(LocalDateTime.now());
+            importJobRepository.save(job);
+            throw new RuntimeException("Too many import jobs are queued. Try again later");
+        }
+    }
+
+    private void runJob(Long jobId) {
+        ImportJobEntity job = importJobRepository.findById(jobId).orElse(null);
+        if (job == null) {
+            return;
+        }
+        try {
+            job.setStatus("RUNNING");
+            job.setErrorMessage(null);
+            job.setStartedAt(LocalDateTime.now());
+            job.setCompletedAt(null);
+            job = importJobRepository.save(job);
+
+            Path file = uploadPath(job);
+            VehicleLookup vehicles = new VehicleLookup(ownVehiclesRepository.findAll());
+            Integer checkpoint = job.getCheckpointRow();
+            try (ReportRowReader reader = ReportFormat.fromParam(job.getFormat()).openReader(definitionOf(job), file)) {
+                List<ReportRow> batch = new ArrayList<>(BATCH_SIZE);
+                ReportRow row;
+                while ((row = reader.readRow()) != null) {
+                    if (checkpoint != null && row.getRowNumber() <= checkpoint) {
+                        // Committed by an earlier run; only its vehicle is noted for the efficiency rebuild
+                        vehicles.note(row);
+                        continue;
+                    }
+                    batch.add(row);
+                    if (batch.size() == BATCH_SIZE) {
+                        job = writeBatch(job, batch, vehicles);
+                        batch.clear();
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    job = writeBatch(job, batch, vehicles);
+                }
+            }
+            if (FUEL.equals(job.getRecordType())) {
+                // The inserted fills bypassed the per-fill update; recompute each affected vehicle once
+                fuelEfficiencyService.rebuild(vehicles.resolvedIds());
+            }
+            job.setStatus("COMPLETED");
+            deleteQuietly(file);
+        } catch (Exception e) {
+            // job still holds the last committed checkpoint
+            String message = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            job.setErrorMessage(message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message);
+            job.setStatus("FAILED");
+        } finally {
+            job.setCompletedAt(LocalDateTime.now());
+            importJobRepository.save(job);
+        }
+    }
+
+    // A row the database refuses (text longer than its column, a number beyond the column's
+    // precision) rolls back its whole batch. The batch is then written again one row per
+    // transaction, so only that row is rejected and the checkpoint moves past it; otherwise a
+    // resume would fail on the same batch every time.
+    private ImportJobEntity writeBatch(ImportJobEntity job, List<ReportRow> batch, VehicleLookup vehicles) {
+        try {
+            return writeRows(job, batch, vehicles);
+        } catch (DataIntegrityViolationException e) {
+            ImportJobEntity current = job;
+            for (ReportRow row : batch) {
+                try {
+                    current = writeRows(current, List.of(row), vehicles);
+                } catch (DataIntegrityViolationException rowError) {
+                    current = rejectRow(current, row, rowError);
+                }
+            }
+            return current;
+        }
+    }
+
+    // One transaction: the batch's rows, its rollup change, its rejected rows and the new checkpoint
+    private ImportJobEntity writeRows(ImportJobEntity job, List<ReportRow> batch, VehicleLookup vehicles) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            List<ImportResultDTO.RowError> errors = new ArrayList<>();
+            int imported = switch (job.getRecordType()) {
+                case FUEL -> fuelService.importFuelBatch(batch, vehicles::resolve, errors);
+                case MAINTENANCE -> maintenanceService.importMaintenanceBatch(batch, vehicles::resolve, errors);
+                case TIRE_MAINTENANCE -> tireMaintenanceService.importTireMaintenanceBatch(batch, vehicles::resolve, errors);
+                default -> throw new RuntimeException("Invalid record type: " + job.getRecordType());
+            };
+            importJobErrorRepository.saveAll(errors.stream()
+                    .map(error -> ImportJobErrorEntity.builder()
+                            .jobId(job.getId())
+                            .rowNumber(error.getRow())
+                            .message(truncate(error.getMessage()))
+                            .build())
+                    .toList());
+            ImportJobEntity current = importJobRepository.findById(job.getId()).orElseThrow();
+            current.setCheckpointRow(batch.get(batch.size() - 1).getRowNumber());
+            current.setRowsRead(current.getRowsRead() + batch.size());
+            current.setRowsImported(current.getRowsImported() + imported);
+            current.setRowsFailed(current.getRowsFailed() + errors.size());
+            return current;
+        });
+    }
+
+    // One transaction: the refused row as a row error, and the checkpoint moved past it
+    private ImportJobEntity rejectRow(ImportJobEntity job, ReportRow row, DataIntegrityViolationException e) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            importJobErrorRepository.save(ImportJobErrorEntity.builder()
+                    .jobId(job.getId())
+                    .rowNumber(row.getRowNumber())
+                    .message(truncate("Rejected by the database: " + e.getMostSpecificCause().getMessage()))
+                    .build());
+            ImportJobEntity current = importJobRepository.findById(job.getId()).orElseThrow();
+            current.setCheckpointRow(row.getRowNumber());
+            current.setRowsRead(current.getRowsRead() + 1);
+            current.setRowsFailed(current.getRowsFailed() + 1);
+            return current;
+        });
+    }
+
+    private ReportDefinition<?> definitionOf(ImportJobEntity job) {
+        return switch (job.getRecordType()) {
+            case FUEL -> FuelService.FUEL_REPORT;
+            case MAINTENANCE -> MaintenanceService.MAINTENANCE_REPORT;
+            case TIRE_MAINTENANCE -> TireMaintenanceService.TIRE_MAINTENANCE_REPORT;
+            default -> throw new RuntimeException("Invalid record type: " + job.getRecordType());
+        };
+    }
+
+    private void delete(ImportJobEntity job) {
+        deleteQuietly(uploadPath(job));
+        importJobErrorRepository.deleteByJobId(job.getId());
+        importJobRepository.delete(job);
+    }
+
+    private ImportJobEntity findOwnJob(Long id) {
+        return importJobRepository.findById(id)
+                .filter(job -> job.getRequestedBy().equals(currentUser()))
+                .orElseThrow(() -> new RuntimeException("Import job not found with ID: " + id));
+    }
+
+    private String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication.getName() == null) {
+            throw new RuntimeException("User not authenticated");
+        }
+        return authentication.getName();
+    }
+
+    private Path uploadPath(ImportJobEntity job) {
+        return Paths.get(jobsDir, job.getId() + "." + job.getFormat());
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+            // Left for the next purge
+        }
+    }
+
+    private String truncate(String message) {
+        return message != null && message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+
+    private ImportJobDTO toDTO(ImportJobEntity entity) {
+        return ImportJobDTO.builder()
+                .id(entity.getId())
+                .recordType(entity.getRecordType())
+                .format(entity.getFormat())
+                .fileName(entity.getFileName())
+                .status(entity.getStatus())
+                .rowsRead(entity.getRowsRead())
+                .rowsImported(entity.getRowsImported())
+                .rowsFailed(entity.getRowsFailed())
+                .checkpointRow(entity.getCheckpointRow())
+                .errorMessage(entity.getErrorMessage())
+                .createdAt(entity.getCreatedAt())
+                .startedAt(entity.getStartedAt())
+                .completedAt(entity.getCompletedAt())
+                .build();
+    }
+
+    // Vehicles of a job, loaded once: by reg number (case and surrounding spaces ignored, an active
+    // vehicle wins over a deleted one with the same number) or, without one, by the Vehicle ID column
+    private static class VehicleLookup {
+        private final Map<String, OwnVehiclesEntity> byRegNumber = new HashMap<>();
+        private final Map<Long, OwnVehiclesEntity> byId = new HashMap<>();
+        private final Set<Long> resolvedIds = new HashSet<>();
+
+        VehicleLookup(List<OwnVehiclesEntity> vehicles) {
+            for (OwnVehiclesEntity vehicle : vehicles) {
+                byId.put(vehicle.getId(), vehicle);
+                if (vehicle.getRegNumber() != null) {
+                    byRegNumber.merge(regKey(vehicle.getRegNumber()), vehicle,
+                            (current, other) -> Boolean.TRUE.equals(current.getIsDelete()) ? other : current);
+                }
+            }
+        }
+
+        OwnVehiclesEntity resolve(ReportRow row) {
+            String regNumber = row.getText("vehicleRegNumber");
+            OwnVehiclesEntity vehicle;
+            if (regNumber != null) {
+                vehicle = byRegNumber.get(regKey(regNumber));
+                if (vehicle == null) {
+                    throw new RuntimeException("Vehicle not found with reg number: " + regNumber);
+                }
+            } else {
+                Long vehicleId = row.getLong("vehicleId");
+                if (vehicleId == null) {
+                    throw new RuntimeException("Vehicle reg number is required!");
+                }
+                vehicle = byId.get(vehicleId);
+                if (vehicle == null) {
+                    throw new RuntimeException("Vehicle not found with ID: " + vehicleId);
+                }
+            }
+            resolvedIds.add(vehicle.getId());
+            return vehicle;
+        }
+
+        void note(ReportRow row) {
+            try {
+                resolve(row);
+            } catch (RuntimeException ignored) {
+                // Rejected in the earlier run
+            }
+        }
+
+        Set<Long> resolvedIds() {
+            return resolvedIds;
+        }
+
+        private static String regKey(String regNumber) {
+            return regNumber.trim().toUpperCase();
+        }
+    }
+}
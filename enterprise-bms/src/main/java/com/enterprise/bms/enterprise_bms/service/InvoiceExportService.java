@@ -0,0 +1,145 @@
+package com.enterprise.bms.enterprise_bms.service;
+
+import com.enterprise.bms.enterprise_bms.entity.InvoiceEntity;
+import com.enterprise.bms.enterprise_bms.entity.InvoiceItemEntity;
+import com.enterprise.bms.enterprise_bms.repository.InvoiceItemRepository;
+import com.enterprise.bms.enterprise_bms.repository.InvoiceRepository;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.utils.PdfMerger;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+// Bulk invoice PDF export. Invoices are rendered in parallel on the bounded pdfRenderExecutor
+// but written to the response in order; at most a small window of rendered PDFs is held in
+// memory at any time, so the archive is never built in heap.
+@Service
+@RequiredArgsConstructor
+public class InvoiceExportService {
+    // Invoices whose items are loaded with one query
+    private static final int ITEM_BATCH_SIZE = 50;
+
+    private final InvoiceRepository invoiceRepository;
+    private final InvoiceItemRepository invoiceItemRepository;
+    private final InvoicePdfRenderer invoicePdfRenderer;
+    private final ThreadPoolTaskExecutor pdfRenderExecutor;
+
+    // Invoices selected by id list, or else by client and generation date range (all optional)
+    public List<InvoiceEntity> findInvoices(List<Long> ids, String clientName, LocalDate from, LocalDate to) {
+        List<InvoiceEntity> invoices = ids != null && !ids.isEmpty()
+                ? invoiceRepository.findActiveByIdIn(ids)
+                : invoiceRepository.findForExport(clientName, from, to);
+        if (invoices.isEmpty()) {
+            throw new RuntimeException("No invoices found for export");
+        }
+        return invoices;
+    }
+
+    // One PDF per invoice in a ZIP archive, named by invoice number
+    public StreamingResponseBody streamZip(List<InvoiceEntity> invoices) {
+        return out -> {
+            ZipOutputStream zip = new ZipOutputStream(out);
+            renderInOrder(invoices, (invoice, pdf) -> {
+                zip.putNextEntry(new ZipEntry(invoice.getInvoiceNo() + ".pdf"));
+                zip.write(pdf);
+                zip.closeEntry();
+            });
+            // Writes the central directory; the response stream is closed by the container
+            zip.finish();
+        };
+    }
+
+    // All invoices merged into one PDF. Smart mode writes the shared letterhead and logo once,
+    // and each invoice's pages are flushed to the response as soon as they are copied.
+    public StreamingResponseBody streamMergedPdf(List<InvoiceEntity> invoices) {
+        return out -> {
+            PdfWriter writer = new PdfWriter(out);
+            writer.setCloseStream(false);
+            writer.setSmartMode(true);
+            try (PdfDocument merged = new PdfDocument(writer)) {
+                PdfMerger merger = new PdfMerger(merged);
+                renderInOrder(invoices, (invoice, pdf) -> {
+                    try (PdfDocument source = new PdfDocument(new PdfReader(new ByteArrayInputStream(pdf)))) {
+                        int firstPage = merged.getNumberOfPages() + 1;
+                        merger.merge(source, 1, source.getNumberOfPages());
+                        for (int page = firstPage; page <= merged.getNumberOfPages(); page++) {
+                            merged.getPage(page).flush(true);
+                        }
+                    }
+                });
+            }
+        };
+    }
+
+    private void renderInOrder(List<InvoiceEntity> invoices, RenderedPdfConsumer consumer) throws IOException {
+        // Enough in flight to keep every render thread busy while the response is written
+        int window = pdfRenderExecutor.getMaxPoolSize() * 2;
+        Deque<InvoiceEntity> pendingInvoices = new ArrayDeque<>();
+        Deque<Future<byte[]>> pendingPdfs = new ArrayDeque<>();
+        try {
+            for (int start = 0; start < invoices.size(); start += ITEM_BATCH_SIZE) {
+                List<InvoiceEntity> batch = invoices.subList(start, Math.min(start + ITEM_BATCH_SIZE, invoices.size()));
+                Map<Long, List<InvoiceItemEntity>> itemsByInvoice = loadItems(batch);
+                for (InvoiceEntity invoice : batch) {
+                    List<InvoiceItemEntity> items = itemsByInvoice.getOrDefault(invoice.getId(), List.of());
+                    pendingInvoices.add(invoice);
+                    pendingPdfs.add(pdfRenderExecutor.submit(() -> render(invoice, items)));
+                    if (pendingPdfs.size() >= window) {
+                        consumer.accept(pendingInvoices.poll(), await(pendingPdfs.poll()));
+                    }
+                }
+            }
+            while (!pendingPdfs.isEmpty()) {
+                consumer.accept(pendingInvoices.poll(), await(pendingPdfs.poll()));
+            }
+        } finally {
+            // Client went away or a render failed: drop the work that is still queued
+            pendingPdfs.forEach(pdf -> pdf.cancel(true));
+        }
+    }
+
+    private Map<Long, List<InvoiceItemEntity>> loadItems(List<InvoiceEntity> invoices) {
+        List<Long> invoiceIds = invoices.stream().map(InvoiceEntity::getId).collect(Collectors.toList());
+        return invoiceItemRepository.findByInvoiceIdIn(invoiceIds).stream()
+                .collect(Collectors.groupingBy(item -> item.getInvoice().getId()));
+    }
+
+    private byte[] render(InvoiceEntity invoice, List<InvoiceItemEntity> items) throws IOException {
+        ByteArrayOutputStream pdf = new ByteArrayOutputStream();
+        invoicePdfRenderer.render(invoice, items, pdf);
+        return pdf.toByteArray();
+    }
+
+    private byte[] await(Future<byte[]> pdf) throws IOException {
+        try {
+            return pdf.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Invoice export interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to render invoice PDF", e.getCause());
+        }
+    }
+
+    @FunctionalInterface
+    private interface RenderedPdfConsumer {
+        void accept(InvoiceEntity invoice, byte[] pdf) throws IOException;
+    }
+}
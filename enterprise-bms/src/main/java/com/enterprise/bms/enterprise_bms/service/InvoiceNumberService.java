@@ -0,0 +1,50 @@
+package com.enterprise.bms.enterprise_bms.service;
+
+import com.enterprise.bms.enterprise_bms.entity.InvoiceSequenceEntity;
+import com.enterprise.bms.enterprise_bms.repository.InvoiceRepository;
+import com.enterprise.bms.enterprise_bms.repository.InvoiceSequenceRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@RequiredArgsConstructor
+public class InvoiceNumberService {
+    private final InvoiceSequenceRepository invoiceSequenceRepository;
+    private final InvoiceRepository invoiceRepository;
+
+    // Creates the year's counter row, continuing after any numbers already issued, in its own short
+    // transaction before the invoice's starts. Locking a row that does not exist yet (FOR UPDATE) takes
+    // a gap lock, and two first-of-the-year invoices inserting into the same locked gap deadlock.
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void prepareYear(int year) {
+        if (!invoiceSequenceRepository.existsById(year)) {
+            invoiceSequenceRepository.insertIfAbsent(year, highestIssued(year) + 1);
+        }
+    }
+
+    // Allocates the next INV-YYYY-NNN number (prepareYear must have run). Must run inside the invoice's
+    // transaction: the counter row stays locked until it commits, and a rollback returns the number.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public String nextInvoiceNo(int year) {
+        InvoiceSequenceEntity sequence = invoiceSequenceRepository.findByYearForUpdate(year)
+                .orElseThrow(() -> new RuntimeException("Invoice sequence not available for " + year));
+        int value = sequence.getNextValue();
+        sequence.setNextValue(value + 1);
+        return "INV-" + year + "-" + String.format("%03d", value);
+    }
+
+    // Numbers are compared numerically (INV-2025-1000 sorts before INV-2025-999 as text)
+    private int highestIssued(int year) {
+        int max = 0;
+        for (String invoiceNo : invoiceRepository.findInvoiceNosForYear(String.valueOf(year))) {
+            try {
+                max = Math.max(max, Integer.parseInt(invoiceNo.substring(invoiceNo.lastIndexOf('-') + 1)));
+            } catch (NumberFormatException e) {
+                // ignore numbers not in INV-YYYY-NNN form
+            }
+        }
+        return max;
+    }
+}
@@ -0,0 +1,239 @@
+package com.enterprise.bms.enterprise_bms.service;
+
+import com.enterprise.bms.enterprise_bms.entity.InvoiceEntity;
+import com.enterprise.bms.enterprise_bms.entity.InvoiceItemEntity;
+import com.itextpdf.io.font.FontProgram;
+import com.itextpdf.io.font.FontProgramFactory;
+import com.itextpdf.io.font.PdfEncodings;
+import com.itextpdf.io.font.constants.StandardFonts;
+import com.itextpdf.io.image.ImageData;
+import com.itextpdf.io.image.ImageDataFactory;
+import com.itextpdf.kernel.colors.ColorConstants;
+import com.itextpdf.kernel.colors.DeviceRgb;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.font.PdfFontFactory;
+import com.itextpdf.kernel.geom.PageSize;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.xobject.PdfFormXObject;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.borders.Border;
+import com.itextpdf.layout.borders.SolidBorder;
+import com.itextpdf.layout.element.Cell;
+import com.itextpdf.layout.element.Image;
+import com.itextpdf.layout.element.Paragraph;
+import com.itextpdf.layout.element.Table;
+import com.itextpdf.layout.properties.HorizontalAlignment;
+import com.itextpdf.layout.properties.TextAlignment;
+import com.itextpdf.layout.properties.UnitValue;
+import com.itextpdf.layout.properties.VerticalAlignment;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+// Renders invoice PDFs. The logo, font programs and the letterhead (logo, name, contact lines and rule)
+// are prepared once at startup; each invoice copies the letterhead in as a form XObject from the
+// template document, which is parsed once and kept open.
+@Component
+public class InvoicePdfRenderer {
+    private static final float[] COLUMN_WIDTHS = {10, 15, 30, 15, 15, 15, 15};
+    private static final String[] HEADERS = {"Date", "Vehicle No.", "Particulars", "Rate", "Held Up", "Advance", "Amount"};
+    private static final TextAlignment[] ALIGNMENTS = {
+            TextAlignment.CENTER, TextAlignment.CENTER, TextAlignment.LEFT,
+            TextAlignment.RIGHT, TextAlignment.RIGHT, TextAlignment.RIGHT, TextAlignment.RIGHT
+    };
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    // Document default margins (36pt) on A4
+    private static final float CONTENT_WIDTH = PageSize.A4.getWidth() - 72;
+
+    private FontProgram boldFontProgram;
+    private FontProgram regularFontProgram;
+    // One-page PDF whose page is exactly the letterhead, opened for reading. Copies out of it are
+    // serialized: a PdfDocument is not safe for concurrent use.
+    private PdfDocument letterhead;
+
+    @PostConstruct
+    public void init() throws IOException {
+        boldFontProgram = FontProgramFactory.createFont(StandardFonts.HELVETICA_BOLD);
+        regularFontProgram = FontProgramFactory.createFont(StandardFonts.HELVETICA);
+        ImageData logoData;
+        try (InputStream logo = getClass().getClassLoader().getResourceAsStream("logo.jpeg")) {
+            if (logo == null) {
+                throw new IllegalStateException("logo.jpeg not found on the classpath");
+            }
+            logoData = ImageDataFactory.create(logo.readAllBytes());
+        }
+        // First pass measures the letterhead height, second pass writes it on a page of exactly that size
+        float height = writeLetterhead(logoData, new PageSize(CONTENT_WIDTH, PageSize.A4.getHeight()), new ByteArrayOutputStream());
+        ByteArrayOutputStream template = new ByteArrayOutputStream();
+        writeLetterhead(logoData, new PageSize(CONTENT_WIDTH, (float) Math.ceil(height) + 1), template);
+        letterhead = new PdfDocument(new PdfReader(new ByteArrayInputStream(template.toByteArray())));
+        if (letterhead.getNumberOfPages() != 1) {
+            throw new IllegalStateException("Invoice letterhead does not fit on one template page");
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        letterhead.close();
+    }
+
+    // Writes the invoice to out and leaves out open (the caller owns the stream)
+    public void render(InvoiceEntity invoice, List<InvoiceItemEntity> items, OutputStream out) throws IOException {
+        PdfWriter writer = new PdfWriter(out);
+        writer.setCloseStream(false);
+        try (PdfDocument pdfDoc = new PdfDocument(writer);
+             Document doc = new Document(pdfDoc)) {
+            PdfFont boldFont = PdfFontFactory.createFont(boldFontProgram, PdfEncodings.WINANSI);
+            PdfFont regularFont = PdfFontFactory.createFont(regularFontProgram, PdfEncodings.WINANSI);
+            doc.add(new Image(copyLetterhead(pdfDoc)));
+            // Title "Invoice" centered
+            doc.add(new Paragraph("Invoice")
+                    .setFont(boldFont)
+                    .setFontSize(14)
+                    .setTextAlignment(TextAlignment.CENTER)
+                    .setMarginBottom(15));
+            // Invoice No and date right-aligned
+            doc.add(new Paragraph("Invoice No: " + invoice.getInvoiceNo())
+                    .setFont(regularFont)
+                    .setTextAlignment(TextAlignment.RIGHT)
+                    .setMarginBottom(2));
+            doc.add(new Paragraph("Date: " + invoice.getGenerationDate().format(DATE_FORMAT))
+                    .setFont(regularFont)
+                    .setTextAlignment(TextAlignment.RIGHT)
+                    .setMarginBottom(15));
+            doc.add(new Paragraph("Client: " + invoice.getClientName())
+                    .setFont(regularFont)
+                    .setMarginBottom(15)
+                    .setTextAlignment(TextAlignment.LEFT));
+            doc.add(itemsTable(items, boldFont, regularFont));
+            // Total Amount row
+            Table totalTable = new Table(UnitValue.createPercentArray(COLUMN_WIDTHS));
+            totalTable.setWidth(UnitValue.createPercentValue(100));
+            totalTable.setMarginBottom(15);
+            totalTable.addCell(new Cell(1, 6)
+                    .add(new Paragraph("Total Amount").setFont(boldFont))
+                    .setBorder(new SolidBorder(1f))
+                    .setPadding(5)
+                    .setTextAlignment(TextAlignment.LEFT));
+            totalTable.addCell(new Cell()
+                    .add(new Paragraph(invoice.getTotalAmount().toString()).setFont(boldFont))
+                    .setBorder(new SolidBorder(1f))
+                    .setPadding(5)
+                    .setTextAlignment(TextAlignment.RIGHT));
+            doc.add(totalTable);
+            // Footer note
+            doc.add(new Paragraph("Please Issue Cheques In Favour of \"Kasthuri Enterprises\".")
+                    .setFont(regularFont)
+                    .setTextAlignment(TextAlignment.LEFT)
+                    .setMarginTop(10));
+        }
+    }
+
+    private PdfFormXObject copyLetterhead(PdfDocument target) throws IOException {
+        synchronized (letterhead) {
+            return letterhead.getFirstPage().copyAsFormXObject(target);
+        }
+    }
+
+    private Table itemsTable(List<InvoiceItemEntity> items, PdfFont boldFont, PdfFont regularFont) {
+        Table table = new Table(UnitValue.createPercentArray(COLUMN_WIDTHS));
+        table.setWidth(UnitValue.createPercentValue(100));
+        table.setMarginBottom(15);
+        for (int i = 0; i < HEADERS.length; i++) {
+            table.addHeaderCell(new Cell()
+                    .add(new Paragraph(HEADERS[i]).setFont(boldFont))
+                    .setTextAlignment(ALIGNMENTS[i])
+                    .setBorder(new SolidBorder(1f))
+                    .setPadding(5));
+        }
+        for (InvoiceItemEntity item : items) {
+            String[] values = {
+                    item.getDate().format(DATE_FORMAT),
+                    item.getVehicleRegNo(),
+                    item.getParticulars() != null ? item.getParticulars() : "",
+                    item.getRate().toString(),
+                    item.getHeldUp().toString(),
+                    item.getAdvance().toString(),
+                    item.getBalance().toString()
+            };
+            for (int i = 0; i < values.length; i++) {
+                table.addCell(new Cell()
+                        .add(new Paragraph(values[i]).setFont(regularFont))
+                        .setTextAlignment(ALIGNMENTS[i])
+                        .setBorder(new SolidBorder(1f))
+                        .setPadding(5));
+            }
+        }
+        // Pad to 5 rows so short invoices keep the same shape
+        int emptyRowsNeeded = Math.max(5 - items.size(), 0);
+        for (int i = 0; i < emptyRowsNeeded; i++) {
+            for (int j = 0; j < HEADERS.length; j++) {
+                table.addCell(new Cell()
+                        .setBorder(new SolidBorder(1f))
+                        .setHeight(20)
+                        .setPadding(5));
+            }
+        }
+        return table;
+    }
+
+    // Lays out the letterhead on a single zero-margin page and returns the height it used
+    private float writeLetterhead(ImageData logoData, PageSize pageSize, OutputStream out) throws IOException {
+        try (PdfDocument pdfDoc = new PdfDocument(new PdfWriter(out));
+             Document doc = new Document(pdfDoc, pageSize)) {
+            doc.setMargins(0, 0, 0, 0);
+            PdfFont boldFont = PdfFontFactory.createFont(boldFontProgram, PdfEncodings.WINANSI);
+            PdfFont regularFont = PdfFontFactory.createFont(regularFontProgram, PdfEncodings.WINANSI);
+            // Logo and business name side by side
+            Table headerTable = new Table(2);
+            headerTable.setWidth(UnitValue.createPercentValue(80));
+            headerTable.setHorizontalAlignment(HorizontalAlignment.CENTER);
+            headerTable.setMarginBottom(5);
+            headerTable.addCell(new Cell()
+                    .add(new Image(logoData).scaleAbsolute(80, 50))
+                    .setBorder(Border.NO_BORDER)
+                    .setHorizontalAlignment(HorizontalAlignment.RIGHT)
+                    .setVerticalAlignment(VerticalAlignment.MIDDLE)
+                    .setPaddingRight(5));
+            headerTable.addCell(new Cell()
+                    .add(new Paragraph("Kasthuri Enterprises")
+                            .setFont(boldFont)
+                            .setFontSize(20)
+                            .setFontColor(new DeviceRgb(0, 0, 139)))
+                    .setBorder(Border.NO_BORDER)
+                    .setHorizontalAlignment(HorizontalAlignment.LEFT)
+                    .setVerticalAlignment(VerticalAlignment.MIDDLE)
+                    .setPaddingLeft(5));
+            doc.add(headerTable);
+            // Center-aligned address, tel, email
+            doc.add(new Paragraph("Address: No: 332, Napawala, Getaheththa\n" +
+                    "Tel: 075 9084603 / 077 7065110\n" +
+                    "Email: kasthurienterprices2014@gmail.com")
+                    .setFont(regularFont)
+                    .setFontSize(10)
+                    .setTextAlignment(TextAlignment.CENTER)
+                    .setMarginBottom(5));
+            // Right-aligned B.R. NO
+            doc.add(new Paragraph("B.R. NO: EHE/DS/ADM/07/02329")
+                    .setFont(regularFont)
+                    .setFontSize(10)
+                    .setTextAlignment(TextAlignment.RIGHT)
+                    .setMarginBottom(10));
+            // Horizontal black line
+            doc.add(new Paragraph()
+                    .setBorderBottom(new SolidBorder(ColorConstants.BLACK, 1f))
+                    .setMarginBottom(15));
+            return pageSize.getHeight() - doc.getRenderer().getCurrentArea().getBBox().getHeight();
+        }
+    }
+}
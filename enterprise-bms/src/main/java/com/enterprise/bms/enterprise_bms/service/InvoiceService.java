@@ -11,38 +11,20 @@ import com.enterprise.bms.enterprise_bms.repository.InvoiceItemRepository;
 import com.enterprise.bms.enterprise_bms.repository.InvoiceRepository;
 import com.enterprise.bms.enterprise_bms.repository.TransportRepository;
 import com.enterprise.bms.enterprise_bms.repository.UserRepository;
-import com.itextpdf.io.font.PdfEncodings;
-import com.itextpdf.io.font.constants.StandardFonts;
-import com.itextpdf.io.image.ImageData;
-import com.itextpdf.io.image.ImageDataFactory;
-import com.itextpdf.kernel.colors.ColorConstants;
-import com.itextpdf.kernel.colors.DeviceRgb;
-import com.itextpdf.kernel.font.PdfFont;
-import com.itextpdf.kernel.font.PdfFontFactory;
-import com.itextpdf.kernel.pdf.PdfDocument;
-import com.itextpdf.kernel.pdf.PdfWriter;
-import com.itextpdf.layout.Document;
-import com.itextpdf.layout.borders.Border;
-import com.itextpdf.layout.borders.SolidBorder;
-import com.itextpdf.layout.element.Cell;
-import com.itextpdf.layout.element.Image;
-import com.itextpdf.layout.element.Paragraph;
-import com.itextpdf.layout.element.Table;
-import com.itextpdf.layout.properties.HorizontalAlignment;
-import com.itextpdf.layout.properties.TextAlignment;
-import com.itextpdf.layout.properties.UnitValue;
-import com.itextpdf.layout.properties.VerticalAlignment;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.Year;
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -53,25 +35,49 @@ public class InvoiceService {
     private final InvoiceItemRepository invoiceItemRepository;
     private final TransportRepository transportRepository;
     private final UserRepository userRepository;
+    private final InvoiceNumberService invoiceNumberService;
+    private final InvoicePdfRenderer invoicePdfRenderer;
+    private final PlatformTransactionManager transactionManager;
 
     // Get all active invoices with items
     public List<InvoiceDTO> getAllInvoices() {
+        return getAllInvoices(true);
+    }
+
+    // includeItems = false returns the invoice headers only (summary for the grid)
+    public List<InvoiceDTO> getAllInvoices(boolean includeItems) {
         List<InvoiceEntity> invoices = invoiceRepository.findAllActive();
+        if (!includeItems || invoices.isEmpty()) {
+            return invoices.stream().map(this::toDTO).collect(Collectors.toList());
+        }
+        // Load the items of all invoices in one query and group them in memory
+        List<Long> invoiceIds = invoices.stream().map(InvoiceEntity::getId).collect(Collectors.toList());
+        Map<Long, List<InvoiceItemDTO>> itemsByInvoice = invoiceItemRepository.findByInvoiceIdIn(invoiceIds).stream()
+                .map(this::toItemDTO)
+                .collect(Collectors.groupingBy(InvoiceItemDTO::getInvoiceId));
         return invoices.stream().map(invoice -> {
             InvoiceDTO dto = toDTO(invoice);
-            List<InvoiceItemEntity> items = invoiceItemRepository.findByInvoiceId(invoice.getId());
-            dto.setItems(items.stream().map(this::toItemDTO).collect(Collectors.toList()));
+            dto.setItems(itemsByInvoice.getOrDefault(invoice.getId(), new ArrayList<>()));
             return dto;
         }).collect(Collectors.toList());
     }
 
-    // Create invoice from list of transport IDs
+    // Create invoice from list of transport IDs (one transaction: invoice, items and transport links).
+    // The year's number counter is created beforehand in its own transaction, so the invoice
+    // transaction only ever locks a counter row that already exists.
     public InvoiceDTO createInvoice(List<Long> transportIds, Long createdByUserId) {
         if (transportIds == null || transportIds.isEmpty()) {
             throw new RuntimeException("At least one transport ID is required");
         }
-        // Fetch transports
-        List<TransportEntity> transports = transportRepository.findAllById(transportIds);
+        int year = Year.now().getValue();
+        invoiceNumberService.prepareYear(year);
+        return new TransactionTemplate(transactionManager)
+                .execute(status -> createInvoice(transportIds, createdByUserId, year));
+    }
+
+    private InvoiceDTO createInvoice(List<Long> transportIds, Long createdByUserId, int year) {
+        // Fetch transports (with vehicles, used for the item reg numbers)
+        List<TransportEntity> transports = transportRepository.findAllByIdWithVehicles(transportIds);
         if (transports.size() != transportIds.size()) {
             throw new RuntimeException("Some transports not found");
         }
@@ -92,11 +98,8 @@ public class InvoiceService {
         // Fetch user
         UserEntity createdBy = userRepository.findById(createdByUserId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
-        // Generate invoice_no
-        String year = Year.now().toString();
-        String maxNo = invoiceRepository.findMaxInvoiceNoForYear(year);
-        int seq = (maxNo == null) ? 1 : Integer.parseInt(maxNo.split("-")[2]) + 1;
-        String invoiceNo = "INV-" + year + "-" + String.format("%03d", seq);
+        // Generate invoice_no from the per-year counter (row-locked until this transaction ends)
+        String invoiceNo = invoiceNumberService.nextInvoiceNo(year);
         // Calculate totals first
         BigDecimal subtotal = BigDecimal.ZERO;
         BigDecimal totalAdvance = BigDecimal.ZERO;
@@ -124,13 +127,14 @@ public class InvoiceService {
                 .isDeleted(false)
                 .build();
         invoice = invoiceRepository.save(invoice);
-        // Create items
+        // Create items (single JDBC batch)
+        List<InvoiceItemEntity> items = new ArrayList<>(transports.size());
         for (TransportEntity t : transports) {
             String regNo = (t.getOwnVehicle() != null) ? t.getOwnVehicle().getRegNumber() :
                     (t.getExternalVehicle() != null) ? t.getExternalVehicle().getRegNumber() : "N/A";
             LocalDate itemDate = (t.getUnloadingDate() != null) ? t.getUnloadingDate() : t.getLoadingDate();
             BigDecimal balance = t.getAgreedAmount().subtract(t.getAdvanceReceived()).subtract(t.getHeldUp());
-            InvoiceItemEntity item = InvoiceItemEntity.builder()
+            items.add(InvoiceItemEntity.builder()
                     .invoice(invoice)
                     .transport(t)
                     .date(itemDate)
@@ -140,14 +144,13 @@ public class InvoiceService {
                     .advance(t.getAdvanceReceived())
                     .heldUp(t.getHeldUp())
                     .balance(balance)
-                    .build();
-            invoiceItemRepository.save(item);
+                    .build());
         }
-        // Update transports
-        for (TransportEntity t : transports) {
-            t.setInvoiceId(invoice.getId());
-            t.setInvoiceStatus("Invoiced");
-            transportRepository.save(t);
+        invoiceItemRepository.batchInsert(items);
+        // Update transports with one bulk UPDATE; a lower count means another invoice took some of them meanwhile
+        int linked = transportRepository.markInvoiced(transportIds, invoice.getId(), LocalDateTime.now());
+        if (linked != transports.size()) {
+            throw new RuntimeException("Some transports were invoiced by another request, please retry");
         }
         return toDTO(invoice);
     }
@@ -163,6 +166,7 @@ public class InvoiceService {
     }
 
     // New: Update invoice status
+    @Transactional
     public InvoiceDTO updateInvoiceStatus(Long id, String status) {
         InvoiceEntity invoice = invoiceRepository.findByIdAndIsDeletedFalse(id)
                 .orElseThrow(() -> new RuntimeException("Invoice not found"));
@@ -172,190 +176,23 @@ public class InvoiceService {
     }
 
     // New: Soft delete invoice
+    @Transactional
     public void deleteInvoice(Long id) {
         InvoiceEntity invoice = invoiceRepository.findByIdAndIsDeletedFalse(id)
                 .orElseThrow(() -> new RuntimeException("Invoice not found"));
         invoice.setIsDeleted(true);
         invoiceRepository.save(invoice);
-        // Update associated transports
-        List<InvoiceItemEntity> items = invoiceItemRepository.findByInvoiceId(id);
-        for (InvoiceItemEntity item : items) {
-            TransportEntity transport = item.getTransport();
-            transport.setInvoiceId(null);
-            transport.setInvoiceStatus("Not Invoiced");
-            transportRepository.save(transport);
-        }
+        // Release associated transports with one bulk UPDATE
+        transportRepository.clearInvoice(id, LocalDateTime.now());
     }
 
-    // Generate PDF with updated structure
-    public ByteArrayInputStream generateInvoicePdf(Long invoiceId) {
+    // PDF download: the invoice and items are loaded now, so a missing invoice fails before the
+    // response starts; the document is rendered straight into the response stream when it is written
+    public StreamingResponseBody streamInvoicePdf(Long invoiceId) {
         InvoiceEntity invoice = invoiceRepository.findByIdAndIsDeletedFalse(invoiceId)
                 .orElseThrow(() -> new RuntimeException("Invoice not found"));
         List<InvoiceItemEntity> items = invoiceItemRepository.findByInvoiceId(invoiceId);
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
-        try (PdfDocument pdfDoc = new PdfDocument(new PdfWriter(out));
-             Document doc = new Document(pdfDoc)) {
-            PdfFont boldFont = PdfFontFactory.createFont(StandardFonts.HELVETICA_BOLD);
-            PdfFont regularFont = PdfFontFactory.createFont(StandardFonts.HELVETICA);
-            // Load logo from classpath
-            byte[] logoBytes = getClass().getClassLoader().getResourceAsStream("logo.jpeg").readAllBytes();
-            ImageData logoData = ImageDataFactory.create(logoBytes);
-            Image logo = new Image(logoData).scaleAbsolute(80, 50);
-            // Create a table for logo and business name side by side with reduced gap
-            Table headerTable = new Table(2);
-            headerTable.setWidth(UnitValue.createPercentValue(80)); // Reduced width for closer spacing
-            headerTable.setHorizontalAlignment(HorizontalAlignment.CENTER);
-            headerTable.setMarginBottom(5); // Reduced margin
-            // Logo cell with minimal padding
-            Cell logoCell = new Cell()
-                    .add(logo)
-                    .setBorder(Border.NO_BORDER)
-                    .setHorizontalAlignment(HorizontalAlignment.RIGHT)
-                    .setVerticalAlignment(VerticalAlignment.MIDDLE)
-                    .setPaddingRight(5); // Reduced padding between logo and name
-            // Business name cell with minimal padding
-            Cell nameCell = new Cell()
-                    .add(new Paragraph("Kasthuri Enterprises")
-                            .setFont(boldFont)
-                            .setFontSize(20)
-                            .setFontColor(new DeviceRgb(0, 0, 139)))
-                    .setBorder(Border.NO_BORDER)
-                    .setHorizontalAlignment(HorizontalAlignment.LEFT)
-                    .setVerticalAlignment(VerticalAlignment.MIDDLE)
-                    .setPaddingLeft(5); // Reduced padding
-            headerTable.addCell(logoCell);
-            headerTable.addCell(nameCell);
-            doc.add(headerTable);
-            // Center-aligned address, tel, email
-            Paragraph contactInfo = new Paragraph("Address: No: 332, Napawala, Getaheththa\n" +
-                    "Tel: 075 9084603 / 077 7065110\n" +
-                    "Email: kasthurienterprices2014@gmail.com")
-                    .setFont(regularFont)
-                    .setFontSize(10)
-                    .setTextAlignment(TextAlignment.CENTER)
-                    .setMarginBottom(5);
-            doc.add(contactInfo);
-            // Right-aligned B.R. NO
-            Paragraph brNo = new Paragraph("B.R. NO: EHE/DS/ADM/07/02329")
-                    .setFont(regularFont)
-                    .setFontSize(10)
-                    .setTextAlignment(TextAlignment.RIGHT)
-                    .setMarginBottom(10);
-            doc.add(brNo);
-            // Horizontal black line
-            doc.add(new Paragraph()
-                    .setBorderBottom(new SolidBorder(ColorConstants.BLACK, 1f))
-                    .setMarginBottom(15));
-            // Title "Invoice" centered
-            doc.add(new Paragraph("Invoice")
-                    .setFont(boldFont)
-                    .setFontSize(14)
-                    .setTextAlignment(TextAlignment.CENTER)
-                    .setMarginBottom(15));
-            // Invoice No right-aligned
-            Paragraph invoiceNoPara = new Paragraph("Invoice No: " + invoice.getInvoiceNo())
-                    .setFont(regularFont)
-                    .setTextAlignment(TextAlignment.RIGHT)
-                    .setMarginBottom(2);
-            doc.add(invoiceNoPara);
-            // Date right-aligned
-            Paragraph datePara = new Paragraph("Date: " + invoice.getGenerationDate()
-                    .format(DateTimeFormatter.ofPattern("dd/MM/yyyy")))
-                    .setFont(regularFont)
-                    .setTextAlignment(TextAlignment.RIGHT)
-                    .setMarginBottom(15);
-            doc.add(datePara);
-            // Client information without "M/S:" and without underline
-            Paragraph clientPara = new Paragraph("Client: " + invoice.getClientName())
-                    .setFont(regularFont)
-                    .setMarginBottom(15)
-                    .setTextAlignment(TextAlignment.LEFT);
-            doc.add(clientPara);
-            // Items table with borders on all sides
-            float[] columnWidths = {10, 15, 30, 15, 15, 15, 15};
-            Table table = new Table(UnitValue.createPercentArray(columnWidths));
-            table.setWidth(UnitValue.createPercentValue(100));
-            table.setMarginBottom(15);
-            // Header row with borders
-            String[] headers = {"Date", "Vehicle No.", "Particulars", "Rate", "Held Up", "Advance", "Amount"};
-            TextAlignment[] headerAlignments = {
-                    TextAlignment.CENTER, TextAlignment.CENTER, TextAlignment.LEFT,
-                    TextAlignment.RIGHT, TextAlignment.RIGHT, TextAlignment.RIGHT, TextAlignment.RIGHT
-            };
-            for (int i = 0; i < headers.length; i++) {
-                Cell headerCell = new Cell()
-                        .add(new Paragraph(headers[i]).setFont(boldFont))
-                        .setTextAlignment(headerAlignments[i])
-                        .setBorder(new SolidBorder(1f))
-                        .setPadding(5);
-                table.addHeaderCell(headerCell);
-            }
-            // Data rows with borders
-            DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
-            TextAlignment[] dataAlignments = {
-                    TextAlignment.CENTER, TextAlignment.CENTER, TextAlignment.LEFT,
-                    TextAlignment.RIGHT, TextAlignment.RIGHT, TextAlignment.RIGHT, TextAlignment.RIGHT
-            };
-            for (InvoiceItemEntity item : items) {
-                Paragraph[] dataParas = {
-                        new Paragraph(item.getDate().format(dateFormatter)).setFont(regularFont),
-                        new Paragraph(item.getVehicleRegNo()).setFont(regularFont),
-                        new Paragraph(item.getParticulars() != null ? item.getParticulars() : "").setFont(regularFont),
-                        new Paragraph(item.getRate().toString()).setFont(regularFont),
-                        new Paragraph(item.getHeldUp().toString()).setFont(regularFont),
-                        new Paragraph(item.getAdvance().toString()).setFont(regularFont),
-                        new Paragraph(item.getBalance().toString()).setFont(regularFont)
-                };
-                for (int i = 0; i < dataParas.length; i++) {
-                    Cell dataCell = new Cell()
-                            .add(dataParas[i])
-                            .setTextAlignment(dataAlignments[i])
-                            .setBorder(new SolidBorder(1f))
-                            .setPadding(5);
-                    table.addCell(dataCell);
-                }
-            }
-            // Add only 5 empty rows instead of 20 to fit on one page
-            int emptyRowsNeeded = Math.max(5 - items.size(), 0);
-            for (int i = 0; i < emptyRowsNeeded; i++) {
-                for (int j = 0; j < 7; j++) {
-                    table.addCell(new Cell()
-                            .setBorder(new SolidBorder(1f))
-                            .setHeight(20)
-                            .setPadding(5));
-                }
-            }
-            doc.add(table);
-            // Total Amount row
-            Table totalTable = new Table(UnitValue.createPercentArray(columnWidths));
-            totalTable.setWidth(UnitValue.createPercentValue(100));
-            totalTable.setMarginBottom(15);
-            // Total label spanning 6 columns
-            Cell totalLabelCell = new Cell(1, 6)
-                    .add(new Paragraph("Total Amount").setFont(boldFont))
-                    .setBorder(new SolidBorder(1f))
-                    .setPadding(5)
-                    .setTextAlignment(TextAlignment.LEFT);
-            // Total amount value
-            Cell totalAmountCell = new Cell()
-                    .add(new Paragraph(invoice.getTotalAmount().toString()).setFont(boldFont))
-                    .setBorder(new SolidBorder(1f))
-                    .setPadding(5)
-                    .setTextAlignment(TextAlignment.RIGHT);
-            totalTable.addCell(totalLabelCell);
-            totalTable.addCell(totalAmountCell);
-            doc.add(totalTable);
-            // Footer note
-            doc.add(new Paragraph("Please Issue Cheques In Favour of \"Kasthuri Enterprises\".")
-                    .setFont(regularFont)
-                    .setTextAlignment(TextAlignment.LEFT)
-                    .setMarginTop(10));
-        } catch (IOException e) {
-            throw new RuntimeException("Error creating font or loading image for PDF", e);
-        } catch (Exception e) {
-            throw new RuntimeException("Error generating PDF", e);
-        }
-        return new ByteArrayInputStream(out.toByteArray());
+        return out -> invoicePdfRenderer.render(invoice, items, out);
     }
 
     // DTO converters
@@ -1,29 +1,53 @@
 // Updated MaintenanceService.java
 package com.enterprise.bms.enterprise_bms.service;
+import com.enterprise.bms.enterprise_bms.dto.ImportResultDTO;
 import com.enterprise.bms.enterprise_bms.dto.MaintenanceDTO;
+import com.enterprise.bms.enterprise_bms.dto.MonthlyTotal;
 import com.enterprise.bms.enterprise_bms.entity.MaintenanceEntity;
 import com.enterprise.bms.enterprise_bms.entity.OwnVehiclesEntity;
 import com.enterprise.bms.enterprise_bms.repository.MaintenanceRepository;
 import com.enterprise.bms.enterprise_bms.repository.OwnVehiclesRepository;
-import jakarta.transaction.Transactional;
+import com.enterprise.bms.enterprise_bms.dto.PageResponse;
+import com.enterprise.bms.enterprise_bms.utill.PageCursor;
+import com.enterprise.bms.enterprise_bms.report.ReportDefinition;
+import com.enterprise.bms.enterprise_bms.report.ReportFormat;
+import com.enterprise.bms.enterprise_bms.report.ReportRow;
+import com.enterprise.bms.enterprise_bms.report.ReportRowWriter;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.springframework.stereotype.Service;
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
+import org.springframework.transaction.annotation.Transactional;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 @Service
 @RequiredArgsConstructor
 public class MaintenanceService {
+    public static final ReportDefinition<MaintenanceDTO> MAINTENANCE_REPORT = ReportDefinition.<MaintenanceDTO>builder("Maintenance Records")
+            .number("ID", "id", MaintenanceDTO::getId)
+            .text("Vehicle Reg Number", "vehicleRegNumber", MaintenanceDTO::getVehicleRegNumber)
+            .number("Vehicle ID", "vehicleId", MaintenanceDTO::getVehicleId)
+            .date("Date", "date", MaintenanceDTO::getDate)
+            .text("Description", "description", MaintenanceDTO::getDescription)
+            .number("Mileage", "mileage", MaintenanceDTO::getMileage)
+            .number("Quantity", "quantity", MaintenanceDTO::getQuantity)
+            .number("Unit Price", "unitPrice", MaintenanceDTO::getUnitPrice)
+            .number("Total Price", "totalPrice", MaintenanceDTO::getTotalPrice)
+            .dateTime("Created At", "createdAt", MaintenanceDTO::getCreatedAt)
+            .dateTime("Updated At", "updatedAt", MaintenanceDTO::getUpdatedAt)
+            .build();
+
     private final MaintenanceRepository maintenanceRepository;
     private final OwnVehiclesRepository ownVehiclesRepository;
+    private final MonthlyFinancialService monthlyFinancialService;
+    private final EntityManager entityManager;
     // Filtered records
     public List<MaintenanceDTO> getFilteredMaintenanceRecords(Long vehicleId, String month) {
         LocalDate startDate = null;
@@ -39,6 +63,25 @@ public class MaintenanceService {
         List<MaintenanceEntity> entities = maintenanceRepository.findFiltered(vehicleId, startDate, endDate);
         return entities.stream().map(this::toDTO).collect(Collectors.toList());
     }
+    // Paged variant, keyset on (date, id)
+    public PageResponse<MaintenanceDTO> getMaintenancePage(Long vehicleId, String month, Integer size, String cursor) {
+        LocalDate startDate = null;
+        LocalDate endDate = null;
+        if (month != null && !month.isEmpty()) {
+            try {
+                startDate = LocalDate.parse(month + "-01");
+                endDate = startDate.withDayOfMonth(startDate.lengthOfMonth());
+            } catch (Exception e) {
+                throw new RuntimeException("Invalid month format. Use YYYY-MM");
+            }
+        }
+        int pageSize = PageCursor.pageSize(size);
+        PageCursor after = PageCursor.decode(cursor);
+        List<MaintenanceEntity> entities = maintenanceRepository.findFilteredPage(vehicleId, startDate, endDate,
+                after != null ? after.dateKey() : null, after != null ? after.getId() : null,
+                PageCursor.limit(pageSize));
+        return PageCursor.toPage(entities, pageSize, this::toDTO, e -> PageCursor.encode(e.getDate(), e.getId()));
+    }
     // GET ALL (Now uses filtered with nulls)
     public List<MaintenanceDTO> getAllMaintenanceRecords() {
         return getFilteredMaintenanceRecords(null, null);
@@ -51,17 +94,41 @@ public class MaintenanceService {
     @Transactional
     public MaintenanceDTO createMaintenance(MaintenanceDTO dto) {
         OwnVehiclesEntity vehicle = validateVehicle(dto.getVehicleId());
-        MaintenanceEntity entity = new MaintenanceEntity();
-        entity.setOwnVehicle(vehicle);
-        entity.setDate(dto.getDate());
-        entity.setDescription(dto.getDescription() != null ? dto.getDescription().trim() : "");
-        entity.setMileage(dto.getMileage());
-        entity.setQuantity(dto.getQuantity() != null && dto.getQuantity() > 0 ? dto.getQuantity() : 1);
-        entity.setUnitPrice(dto.getUnitPrice() != null ? dto.getUnitPrice() : BigDecimal.ZERO);
-        calculateTotalPrice(entity);
+        MaintenanceEntity entity = toEntity(dto, vehicle);
         entity = maintenanceRepository.save(entity);
+        monthlyFinancialService.recordChange(MonthlyFinancialService.MAINTENANCE,
+                null, null, entity.getDate(), entity.getTotalPrice());
         return toDTO(entity);
     }
+    // History import (see ImportJobService): one batch of MAINTENANCE_REPORT rows, built like
+    // createMaintenance (total = quantity x unit price) and inserted with one JDBC batch
+    @Transactional
+    public int importMaintenanceBatch(List<ReportRow> rows, Function<ReportRow, OwnVehiclesEntity> vehicleOf,
+                                      List<ImportResultDTO.RowError> errors) {
+        List<MaintenanceEntity> valid = new ArrayList<>(rows.size());
+        for (ReportRow row : rows) {
+            try {
+                OwnVehiclesEntity vehicle = validateVehicle(vehicleOf.apply(row));
+                MaintenanceDTO dto = MaintenanceDTO.builder()
+                        .date(row.getDate("date"))
+                        .description(row.getText("description"))
+                        .mileage(row.getDecimal("mileage"))
+                        .quantity(row.getInteger("quantity"))
+                        .unitPrice(row.getDecimal("unitPrice"))
+                        .build();
+                if (dto.getDate() == null) {
+                    throw new RuntimeException("Date is required!");
+                }
+                valid.add(toEntity(dto, vehicle));
+            } catch (RuntimeException e) {
+                errors.add(new ImportResultDTO.RowError(row.getRowNumber(), e.getMessage()));
+            }
+        }
+        maintenanceRepository.batchInsert(valid);
+        monthlyFinancialService.recordAdded(MonthlyFinancialService.MAINTENANCE, valid,
+                MaintenanceEntity::getDate, MaintenanceEntity::getTotalPrice);
+        return valid.size();
+    }
     // GET BY ID
     public MaintenanceDTO getMaintenanceById(Long id) {
         MaintenanceEntity entity = maintenanceRepository.findByIdAndIsDeleteFalse(id)
@@ -73,6 +140,8 @@ public class MaintenanceService {
     public MaintenanceDTO updateMaintenance(Long id, MaintenanceDTO dto) {
         MaintenanceEntity existing = maintenanceRepository.findByIdAndIsDeleteFalse(id)
                 .orElseThrow(() -> new RuntimeException("Maintenance record not found"));
+        LocalDate oldDate = existing.getDate();
+        BigDecimal oldPrice = existing.getTotalPrice();
         // ONLY validate and change vehicle if vehicleId is actually provided in DTO
         if (dto.getVehicleId() != null) {
             if (!existing.getOwnVehicle().getId().equals(dto.getVehicleId())) {
@@ -92,6 +161,8 @@ public class MaintenanceService {
         if (dto.getUnitPrice() != null) existing.setUnitPrice(dto.getUnitPrice());
         calculateTotalPrice(existing);
         existing = maintenanceRepository.save(existing);
+        monthlyFinancialService.recordChange(MonthlyFinancialService.MAINTENANCE,
+                oldDate, oldPrice, existing.getDate(), existing.getTotalPrice());
         return toDTO(existing);
     }
     // DELETE (Soft)
@@ -99,64 +170,60 @@ public class MaintenanceService {
     public void deleteMaintenance(Long id) {
         MaintenanceEntity entity = maintenanceRepository.findByIdAndIsDeleteFalse(id)
                 .orElseThrow(() -> new RuntimeException("Record not found or already deleted"));
+        monthlyFinancialService.recordChange(MonthlyFinancialService.MAINTENANCE,
+                entity.getDate(), entity.getTotalPrice(), null, null);
         entity.setIsDelete(true);
         maintenanceRepository.save(entity);
     }
-    // Generate Excel
-    public ByteArrayInputStream generateMaintenanceExcelReport(Long vehicleId, String month) {
-        List<MaintenanceDTO> records = getFilteredMaintenanceRecords(vehicleId, month);
-        try (Workbook workbook = new XSSFWorkbook()) {
-            Sheet sheet = workbook.createSheet("Maintenance Records");
-            // Create header row
-            Row headerRow = sheet.createRow(0);
-            String[] columns = {"ID", "Vehicle Reg Number", "Vehicle ID", "Date", "Description", "Mileage", "Quantity", "Unit Price", "Total Price", "Created At", "Updated At"};
-            CellStyle headerStyle = workbook.createCellStyle();
-            Font headerFont = workbook.createFont();
-            headerFont.setBold(true);
-            headerStyle.setFont(headerFont);
-            for (int i = 0; i < columns.length; i++) {
-                Cell cell = headerRow.createCell(i);
-                cell.setCellValue(columns[i]);
-                cell.setCellStyle(headerStyle);
-            }
-            // Populate data rows
-            int rowNum = 1;
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-            for (MaintenanceDTO dto : records) {
-                Row row = sheet.createRow(rowNum++);
-                row.createCell(0).setCellValue(dto.getId() != null ? dto.getId().toString() : "");
-                row.createCell(1).setCellValue(dto.getVehicleRegNumber() != null ? dto.getVehicleRegNumber() : "");
-                row.createCell(2).setCellValue(dto.getVehicleId() != null ? dto.getVehicleId().toString() : "");
-                row.createCell(3).setCellValue(dto.getDate() != null ? dto.getDate().format(formatter) : "");
-                row.createCell(4).setCellValue(dto.getDescription() != null ? dto.getDescription() : "");
-                row.createCell(5).setCellValue(dto.getMileage() != null ? dto.getMileage().doubleValue() : 0.0);
-                row.createCell(6).setCellValue(dto.getQuantity() != null ? dto.getQuantity() : 0);
-                row.createCell(7).setCellValue(dto.getUnitPrice() != null ? dto.getUnitPrice().doubleValue() : 0.0);
-                row.createCell(8).setCellValue(dto.getTotalPrice() != null ? dto.getTotalPrice().doubleValue() : 0.0);
-                row.createCell(9).setCellValue(dto.getCreatedAt() != null ? dto.getCreatedAt().toString() : "");
-                row.createCell(10).setCellValue(dto.getUpdatedAt() != null ? dto.getUpdatedAt().toString() : "");
-            }
-            // Auto-size columns
-            for (int i = 0; i < columns.length; i++) {
-                sheet.autoSizeColumn(i);
+    // Report export (XLSX, CSV or NDJSON), columns in MAINTENANCE_REPORT
+    @Transactional(readOnly = true)
+    public void writeMaintenanceReport(Long vehicleId, String month, ReportFormat format, OutputStream out) throws IOException {
+        try (ReportRowWriter<MaintenanceDTO> writer = format.open(MAINTENANCE_REPORT, out)) {
+            exportMaintenanceRows(vehicleId, month, writer);
+            writer.finish();
+        }
+    }
+
+    // Report rows for the filters, written to the caller's writer (single report or monthly pack)
+    @Transactional(readOnly = true)
+    public void exportMaintenanceRows(Long vehicleId, String month, ReportRowWriter<MaintenanceDTO> writer) throws IOException {
+        LocalDate startDate = null;
+        LocalDate endDate = null;
+        if (month != null && !month.isEmpty()) {
+            try {
+                startDate = LocalDate.parse(month + "-01");
+                endDate = startDate.withDayOfMonth(startDate.lengthOfMonth());
+            } catch (Exception e) {
+                throw new RuntimeException("Invalid month format. Use YYYY-MM");
             }
-            // Write to ByteArrayOutputStream
-            ByteArrayOutputStream out = new ByteArrayOutputStream();
-            workbook.write(out);
-            return new ByteArrayInputStream(out.toByteArray());
-        } catch (IOException e) {
-            throw new RuntimeException("Error generating Excel report", e);
+        }
+        try (Stream<MaintenanceEntity> entities = maintenanceRepository.streamFiltered(vehicleId, startDate, endDate)) {
+            writer.writeEntities(entities, this::toDTO, entityManager::detach);
         }
     }
     // Helper Methods
     private OwnVehiclesEntity validateVehicle(Long vehicleId) {
         OwnVehiclesEntity vehicle = ownVehiclesRepository.findById(vehicleId)
                 .orElseThrow(() -> new RuntimeException("Vehicle not found with ID: " + vehicleId));
+        return validateVehicle(vehicle);
+    }
+    private OwnVehiclesEntity validateVehicle(OwnVehiclesEntity vehicle) {
         if (Boolean.TRUE.equals(vehicle.getIsDelete())) {
             throw new RuntimeException("Cannot add/update maintenance for deleted vehicle");
         }
         return vehicle;
     }
+    private MaintenanceEntity toEntity(MaintenanceDTO dto, OwnVehiclesEntity vehicle) {
+        MaintenanceEntity entity = new MaintenanceEntity();
+        entity.setOwnVehicle(vehicle);
+        entity.setDate(dto.getDate());
+        entity.setDescription(dto.getDescription() != null ? dto.getDescription().trim() : "");
+        entity.setMileage(dto.getMileage());
+        entity.setQuantity(dto.getQuantity() != null && dto.getQuantity() > 0 ? dto.getQuantity() : 1);
+        entity.setUnitPrice(dto.getUnitPrice() != null ? dto.getUnitPrice() : BigDecimal.ZERO);
+        calculateTotalPrice(entity);
+        return entity;
+    }
     private void calculateTotalPrice(MaintenanceEntity entity) {
         int qty = entity.getQuantity() != null ? entity.getQuantity() : 1;
         BigDecimal price = entity.getUnitPrice() != null ? entity.getUnitPrice() : BigDecimal.ZERO;
@@ -183,4 +250,8 @@ public class MaintenanceService {
     public BigDecimal getTotalMaintenanceCostForPeriod(LocalDate start, LocalDate end) {
         return maintenanceRepository.getTotalMaintenanceCostForPeriod(start, end);
     }
-}
\ No newline at end of file
+
+    public List<MonthlyTotal> getMonthlyMaintenanceCostForPeriod(LocalDate start, LocalDate end) {
+        return maintenanceRepository.getMonthlyMaintenanceCostForPeriod(start, end);
+    }
+}
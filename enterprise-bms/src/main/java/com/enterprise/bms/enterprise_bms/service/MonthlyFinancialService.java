@@ -0,0 +1,126 @@
+package com.enterprise.bms.enterprise_bms.service;
+
+import com.enterprise.bms.enterprise_bms.dto.MonthlyTotal;
+import com.enterprise.bms.enterprise_bms.entity.MonthlyFinancialEntity;
+import com.enterprise.bms.enterprise_bms.repository.*;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+@Service
+@RequiredArgsConstructor
+public class MonthlyFinancialService {
+    public static final String INCOME = "INCOME";
+    public static final String FUEL = "FUEL";
+    public static final String MAINTENANCE = "MAINTENANCE";
+    public static final String TIRE = "TIRE";
+    public static final String PAYMENT = "PAYMENT";
+    public static final String EX_VEHICLE = "EX_VEHICLE";
+
+    // Full range used when rebuilding from the source tables
+    private static final LocalDate MIN_DATE = LocalDate.of(1900, 1, 1);
+    private static final LocalDate MAX_DATE = LocalDate.of(9999, 12, 31);
+
+    private final MonthlyFinancialRepository monthlyFinancialRepository;
+    private final TransportRepository transportRepository;
+    private final FuelRepository fuelRepository;
+    private final MaintenanceRepository maintenanceRepository;
+    private final TireMaintenanceRepository tireMaintenanceRepository;
+    private final PaymentsRepository paymentsRepository;
+    private final ExVehiclesRepository exVehiclesRepository;
+
+    // Moves a record's contribution from (oldMonth, oldAmount) to (newMonth, newAmount).
+    // Pass null month/amount for the side that does not exist (create or delete).
+    // Joins the caller's transaction so the rollup commits or rolls back with the source row.
+    @Transactional
+    public void recordChange(String category, YearMonth oldMonth, BigDecimal oldAmount,
+                             YearMonth newMonth, BigDecimal newAmount) {
+        if (oldMonth != null && oldMonth.equals(newMonth)) {
+            applyDelta(category, newMonth, nullToZero(newAmount).subtract(nullToZero(oldAmount)));
+            return;
+        }
+        if (oldMonth != null) {
+            applyDelta(category, oldMonth, nullToZero(oldAmount).negate());
+        }
+        if (newMonth != null) {
+            applyDelta(category, newMonth, nullToZero(newAmount));
+        }
+    }
+
+    @Transactional
+    public void recordChange(String category, LocalDate oldDate, BigDecimal oldAmount,
+                             LocalDate newDate, BigDecimal newAmount) {
+        recordChange(category,
+                oldDate != null ? YearMonth.from(oldDate) : null, oldAmount,
+                newDate != null ? YearMonth.from(newDate) : null, newAmount);
+    }
+
+    // Bulk inserts: each month's total is added once instead of one update per record
+    @Transactional
+    public <T> void recordAdded(String category, List<T> records,
+                                Function<T, LocalDate> date, Function<T, BigDecimal> amount) {
+        Map<YearMonth, BigDecimal> totals = new TreeMap<>();
+        for (T record : records) {
+            totals.merge(YearMonth.from(date.apply(record)), nullToZero(amount.apply(record)), BigDecimal::add);
+        }
+        totals.forEach((month, total) -> applyDelta(category, month, total));
+    }
+
+    private void applyDelta(String category, YearMonth month, BigDecimal delta) {
+        if (delta.signum() == 0) {
+            return;
+        }
+        monthlyFinancialRepository.addToAmount(month.getYear(), month.getMonthValue(), category, delta);
+    }
+
+    // Rollup rows for a month range (at most 6 per month)
+    public List<MonthlyFinancialEntity> getForPeriod(YearMonth from, YearMonth to) {
+        return monthlyFinancialRepository.findForPeriod(
+                from.getYear() * 100 + from.getMonthValue(),
+                to.getYear() * 100 + to.getMonthValue());
+    }
+
+    // Recomputes every row from the source tables (one GROUP BY-month query per table)
+    @Transactional
+    public int rebuild() {
+        monthlyFinancialRepository.deleteAllInBatch();
+        int rows = 0;
+        rows += insertTotals(INCOME, transportRepository.getMonthlySumAgreedAmountCompleted(MIN_DATE, MAX_DATE));
+        rows += insertTotals(FUEL, fuelRepository.getMonthlyFuelCostForPeriod(MIN_DATE, MAX_DATE));
+        rows += insertTotals(MAINTENANCE, maintenanceRepository.getMonthlyMaintenanceCostForPeriod(MIN_DATE, MAX_DATE));
+        rows += insertTotals(TIRE, tireMaintenanceRepository.getMonthlyTireMaintenanceCostForPeriod(MIN_DATE, MAX_DATE));
+        rows += insertTotals(PAYMENT, paymentsRepository.getMonthlyPaymentsForPeriod(190001, 999912));
+        rows += insertTotals(EX_VEHICLE, exVehiclesRepository.getMonthlyHireCostForPeriod(MIN_DATE, MAX_DATE));
+        return rows;
+    }
+
+    // First start after the table is introduced: backfill it once
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillIfEmpty() {
+        if (monthlyFinancialRepository.count() == 0) {
+            rebuild();
+        }
+    }
+
+    private int insertTotals(String category, List<MonthlyTotal> totals) {
+        for (MonthlyTotal total : totals) {
+            monthlyFinancialRepository.addToAmount(total.getYear(), total.getMonth(), category, nullToZero(total.getAmount()));
+        }
+        return totals.size();
+    }
+
+    private BigDecimal nullToZero(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+}
@@ -0,0 +1,231 @@
+package com.enterprise.bms.enterprise_bms.service;
+
+import com.enterprise.bms.enterprise_bms.entity.MonthlyFinancialEntity;
+import com.enterprise.bms.enterprise_bms.report.ExcelSheetWriter;
+import com.enterprise.bms.enterprise_bms.report.ExcelWorkbookWriter;
+import com.enterprise.bms.enterprise_bms.report.ReportDefinition;
+import com.enterprise.bms.enterprise_bms.report.ReportRowWriter;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Month-end workbook: a P&L summary sheet followed by one sheet per module.
+// The module queries run concurrently on monthlyPackExecutor and hand their rows over a bounded
+// queue to the calling thread, which is the only one touching the (not thread-safe) workbook.
+@Service
+@RequiredArgsConstructor
+public class MonthlyPackService {
+    // Module sheets per pack, each one query on monthlyPackExecutor
+    public static final int MODULE_SHEETS = 8;
+    // Packs prepared at the same time. monthlyPackExecutor queues every query of this many packs,
+    // so an admitted pack is never rejected halfway through submitting its queries.
+    public static final int MAX_CONCURRENT_PACKS = 2;
+    private static final String BUSY = "Monthly packs are already being prepared. Try again later";
+
+    // Rows waiting to be written; producers block when the workbook falls behind
+    private static final int QUEUE_CAPACITY = 1000;
+
+    private static final ReportDefinition<ProfitAndLossLine> PROFIT_AND_LOSS_REPORT = ReportDefinition.<ProfitAndLossLine>builder("P&L Summary")
+            .text("Category", "category", ProfitAndLossLine::getCategory)
+            .number("Amount (LKR)", "amount", ProfitAndLossLine::getAmount)
+            .build();
+
+    // Marks the end of one module's rows
+    private static final SheetTask END_OF_SHEET = () -> {
+    };
+
+    private final MonthlyFinancialService monthlyFinancialService;
+    private final TransportService transportService;
+    private final FuelService fuelService;
+    private final MaintenanceService maintenanceService;
+    private final TireMaintenanceService tireMaintenanceService;
+    private final ExVehicleService exVehicleService;
+    private final PaymentService paymentService;
+    private final AdvanceService advanceService;
+    private final AttendanceService attendanceService;
+    private final ThreadPoolTaskExecutor monthlyPackExecutor;
+    private final AtomicInteger runningPacks = new AtomicInteger();
+
+    // Validates the month and turns the request away while MAX_CONCURRENT_PACKS are running, before
+    // the response starts. writeMonthlyPack checks again when the pack actually starts.
+    public StreamingResponseBody streamMonthlyPack(String month) {
+        YearMonth yearMonth;
+        try {
+            yearMonth = YearMonth.parse(month);
+        } catch (Exception e) {
+            throw new RuntimeException("Invalid month format. Use YYYY-MM");
+        }
+        if (runningPacks.get() >= MAX_CONCURRENT_PACKS) {
+            throw new RuntimeException(BUSY);
+        }
+        return out -> writeMonthlyPack(yearMonth, out);
+    }
+
+    public void writeMonthlyPack(YearMonth yearMonth, OutputStream out) throws IOException {
+        // Admission comes before any query is submitted
+        if (runningPacks.incrementAndGet() > MAX_CONCURRENT_PACKS) {
+            runningPacks.decrementAndGet();
+            throw new RuntimeException(BUSY);
+        }
+        try {
+            writeWorkbook(yearMonth, out);
+        } finally {
+            runningPacks.decrementAndGet();
+        }
+    }
+
+    private void writeWorkbook(YearMonth yearMonth, OutputStream out) throws IOException {
+        String month = yearMonth.toString();
+        try (ExcelWorkbookWriter workbook = new ExcelWorkbookWriter()) {
+            writeProfitAndLoss(workbook.addSheet(PROFIT_AND_LOSS_REPORT), yearMonth);
+
+            BlockingQueue<SheetTask> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+            List<Future<?>> queries = new ArrayList<>();
+            try {
+                queries.add(submit(queue, workbook.addSheet(TransportService.TRANSPORT_REPORT),
+                        writer -> transportService.exportTransportRows(null, month, writer)));
+                queries.add(submit(queue, workbook.addSheet(FuelService.FUEL_REPORT),
+                        writer -> fuelService.exportFuelRows(null, month, writer)));
+                queries.add(submit(queue, workbook.addSheet(MaintenanceService.MAINTENANCE_REPORT),
+                        writer -> maintenanceService.exportMaintenanceRows(null, month, writer)));
+                queries.add(submit(queue, workbook.addSheet(TireMaintenanceService.TIRE_MAINTENANCE_REPORT),
+                        writer -> tireMaintenanceService.exportTireMaintenanceRows(null, month, writer)));
+                queries.add(submit(queue, workbook.addSheet(ExVehicleService.EX_VEHICLES_REPORT),
+                        writer -> exVehicleService.exportExVehiclesRows(null, month, writer)));
+                queries.add(submit(queue, workbook.addSheet(PaymentService.PAYMENTS_REPORT),
+                        writer -> paymentService.exportPaymentsRows(null, null, month, writer)));
+                queries.add(submit(queue, workbook.addSheet(AdvanceService.ADVANCES_REPORT),
+                        writer -> advanceService.exportAdvancesRows(null, null, month, writer)));
+                queries.add(submit(queue, workbook.addSheet(AttendanceService.ATTENDANCE_REPORT),
+                        writer -> attendanceService.exportAttendanceRows(null, null, month, writer)));
+
+                drain(queue, queries.size());
+                for (Future<?> query : queries) {
+                    query.get();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Monthly pack export interrupted", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                throw new IOException("Monthly pack export failed", e.getCause());
+            } finally {
+                // Stops queries still blocked on the queue if writing failed
+                for (Future<?> query : queries) {
+                    query.cancel(true);
+                }
+            }
+
+            workbook.write(out);
+        }
+    }
+
+    // Same figures as the dashboard: the monthly rollup for the month
+    private void writeProfitAndLoss(ExcelSheetWriter<ProfitAndLossLine> sheet, YearMonth yearMonth) throws IOException {
+        Map<String, BigDecimal> amounts = new HashMap<>();
+        for (MonthlyFinancialEntity row : monthlyFinancialService.getForPeriod(yearMonth, yearMonth)) {
+            amounts.merge(row.getCategory(), row.getAmount() != null ? row.getAmount() : BigDecimal.ZERO, BigDecimal::add);
+        }
+        BigDecimal income = amounts.getOrDefault(MonthlyFinancialService.INCOME, BigDecimal.ZERO);
+        BigDecimal fuel = amounts.getOrDefault(MonthlyFinancialService.FUEL, BigDecimal.ZERO);
+        BigDecimal maintenance = amounts.getOrDefault(MonthlyFinancialService.MAINTENANCE, BigDecimal.ZERO);
+        BigDecimal tire = amounts.getOrDefault(MonthlyFinancialService.TIRE, BigDecimal.ZERO);
+        BigDecimal payments = amounts.getOrDefault(MonthlyFinancialService.PAYMENT, BigDecimal.ZERO);
+        BigDecimal exVehicles = amounts.getOrDefault(MonthlyFinancialService.EX_VEHICLE, BigDecimal.ZERO);
+        BigDecimal totalExpense = fuel.add(maintenance).add(tire).add(payments).add(exVehicles);
+
+        sheet.writeRow(new ProfitAndLossLine("Income (completed transports)", income));
+        sheet.writeRow(new ProfitAndLossLine("Fuel", fuel));
+        sheet.writeRow(new ProfitAndLossLine("Maintenance", maintenance));
+        sheet.writeRow(new ProfitAndLossLine("Tire Maintenance", tire));
+        sheet.writeRow(new ProfitAndLossLine("Payments", payments));
+        sheet.writeRow(new ProfitAndLossLine("External Vehicle Hire", exVehicles));
+        sheet.writeRow(new ProfitAndLossLine("Total Expenses", totalExpense));
+        sheet.writeTotal(0, "Net Profit", income.subtract(totalExpense));
+    }
+
+    // Runs one module query on the executor; each row becomes a task that writes it to the sheet
+    private <T> Future<?> submit(BlockingQueue<SheetTask> queue, ExcelSheetWriter<T> sheet, RowExport<T> export) {
+        ReportRowWriter<T> queueWriter = new ReportRowWriter<>() {
+            @Override
+            public void writeRow(T row) throws IOException {
+                put(queue, () -> sheet.writeRow(row));
+            }
+
+            @Override
+            public void writeTotal(int labelColumn, String label, Number total) throws IOException {
+                put(queue, () -> sheet.writeTotal(labelColumn, label, total));
+            }
+
+            @Override
+            public void finish() {
+            }
+        };
+        return monthlyPackExecutor.submit(() -> {
+            try {
+                export.run(queueWriter);
+                return null;
+            } finally {
+                queue.put(END_OF_SHEET);
+            }
+        });
+    }
+
+    // Writes rows as they arrive until every module has finished
+    private void drain(BlockingQueue<SheetTask> queue, int modules) throws InterruptedException, IOException {
+        int running = modules;
+        while (running > 0) {
+            SheetTask task = queue.take();
+            if (task == END_OF_SHEET) {
+                running--;
+            } else {
+                task.run();
+            }
+        }
+    }
+
+    private static void put(BlockingQueue<SheetTask> queue, SheetTask task) throws IOException {
+        try {
+            queue.put(task);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Monthly pack export cancelled", e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface SheetTask {
+        void run() throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface RowExport<T> {
+        void run(ReportRowWriter<T> writer) throws IOException;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class ProfitAndLossLine {
+        private String category;
+        private BigDecimal amount;
+    }
+}
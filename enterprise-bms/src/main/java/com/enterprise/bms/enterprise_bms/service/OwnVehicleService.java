@@ -1,11 +1,14 @@
 package com.enterprise.bms.enterprise_bms.service;
 
+import com.enterprise.bms.enterprise_bms.config.CacheConfig;
 import com.enterprise.bms.enterprise_bms.dto.OwnVehiclesDTO;
 import com.enterprise.bms.enterprise_bms.entity.DriversEntity;
 import com.enterprise.bms.enterprise_bms.entity.OwnVehiclesEntity;
 import com.enterprise.bms.enterprise_bms.repository.DriversRepository;
 import com.enterprise.bms.enterprise_bms.repository.OwnVehiclesRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
@@ -20,6 +23,7 @@ public class OwnVehicleService {
     private final DriversRepository driversRepository;
 
     // CREATE - Save new own vehicle
+    @CacheEvict(cacheNames = CacheConfig.OWN_VEHICLES, allEntries = true)
     public OwnVehiclesDTO saveOwnVehicle(OwnVehiclesDTO dto) {
         if (dto.getRegNumber() == null || dto.getRegNumber().trim().isEmpty()) {
             throw new RuntimeException("Registration number is required!");
@@ -34,7 +38,8 @@ public class OwnVehicleService {
         return toDTO(entity);
     }
 
-    // READ - Get all active vehicles
+    // READ - Get all active vehicles (cached; evicted by every write below)
+    @Cacheable(CacheConfig.OWN_VEHICLES)
     public List<OwnVehiclesDTO> getAllOwnVehicles() {
         return ownVehiclesRepository.findAllActive()
                 .stream()
@@ -43,6 +48,7 @@ public class OwnVehicleService {
     }
 
     // UPDATE - Partial update (Safe: doesn't overwrite missing fields)
+    @CacheEvict(cacheNames = CacheConfig.OWN_VEHICLES, allEntries = true)
     public OwnVehiclesDTO updateOwnVehicle(Long vehicleId, OwnVehiclesDTO dto) {
         OwnVehiclesEntity existing = ownVehiclesRepository.findById(vehicleId)
                 .orElseThrow(() -> new RuntimeException("Vehicle not found with ID: " + vehicleId));
@@ -91,6 +97,7 @@ public class OwnVehicleService {
     }
 
     // DELETE - Soft delete
+    @CacheEvict(cacheNames = CacheConfig.OWN_VEHICLES, allEntries = true)
     public void deleteOwnVehicle(Long vehicleId) {
         OwnVehiclesEntity vehicle = ownVehiclesRepository.findById(vehicleId)
                 .orElseThrow(() -> new RuntimeException("Vehicle not found with ID: " + vehicleId));
@@ -1,28 +1,55 @@
 package com.enterprise.bms.enterprise_bms.service;
 
+import com.enterprise.bms.enterprise_bms.dto.MonthlyTotal;
 import com.enterprise.bms.enterprise_bms.dto.PaymentsDTO;
 import com.enterprise.bms.enterprise_bms.entity.PaymentsEntity;
 import com.enterprise.bms.enterprise_bms.repository.PaymentsRepository;
+import com.enterprise.bms.enterprise_bms.dto.PageResponse;
+import com.enterprise.bms.enterprise_bms.utill.PageCursor;
+import com.enterprise.bms.enterprise_bms.report.ReportDefinition;
+import com.enterprise.bms.enterprise_bms.report.ReportFormat;
+import com.enterprise.bms.enterprise_bms.report.ReportRowWriter;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.time.YearMonth;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class PaymentService {
+    public static final ReportDefinition<PaymentsDTO> PAYMENTS_REPORT = ReportDefinition.<PaymentsDTO>builder("Payments Records")
+            .number("ID", "id", PaymentsDTO::getId)
+            .text("Recipient Type", "recipientType", PaymentsDTO::getRecipientType)
+            .number("Recipient ID", "recipientId", PaymentsDTO::getRecipientId)
+            .number("Period Month", "periodMonth", PaymentsDTO::getPeriodMonth)
+            .number("Period Year", "periodYear", PaymentsDTO::getPeriodYear)
+            .number("Base Amount", "baseAmount", PaymentsDTO::getBaseAmount)
+            .number("Deductions", "deductions", PaymentsDTO::getDeductions)
+            .number("Advances Deducted", "advancesDeducted", PaymentsDTO::getAdvancesDeducted)
+            .number("Net Pay", "netPay", PaymentsDTO::getNetPay)
+            .date("Payment Date", "paymentDate", PaymentsDTO::getPaymentDate)
+            .text("Status", "status", PaymentsDTO::getStatus)
+            .text("Notes", "notes", PaymentsDTO::getNotes)
+            .number("Created By", "createdBy", PaymentsDTO::getCreatedBy)
+            .dateTime("Created At", "createdAt", PaymentsDTO::getCreatedAt)
+            .dateTime("Updated At", "updatedAt", PaymentsDTO::getUpdatedAt)
+            .build();
+
     private final PaymentsRepository paymentsRepository;
     private final AdvanceService advanceService;
+    private final MonthlyFinancialService monthlyFinancialService;
+    private final EntityManager entityManager;
 
+    @Transactional
     public PaymentsDTO savePayment(PaymentsDTO dto) {
         validatePaymentsDTO(dto);
         if (paymentsRepository.existsByRecipientTypeAndRecipientIdAndPeriodMonthAndPeriodYear(
@@ -35,28 +62,48 @@ public class PaymentService {
         entity.setAdvancesDeducted(pendingAdvances);
         calculateNetPay(entity);
         entity = paymentsRepository.save(entity);
+        monthlyFinancialService.recordChange(MonthlyFinancialService.PAYMENT,
+                null, null, periodOf(entity), paymentCostOf(entity));
         advanceService.markAdvancesAsDeducted(entity.getId(), entity.getRecipientType(), entity.getRecipientId(),
                 entity.getPeriodMonth(), entity.getPeriodYear());
         return toDTO(entity);
     }
 
+    @Transactional
     public PaymentsDTO updatePayment(Long id, PaymentsDTO dto) {
         PaymentsEntity existing = paymentsRepository.findByIdAndIsDeleteFalse(id)
                 .orElseThrow(() -> new RuntimeException("Payment not found with ID: " + id));
+        YearMonth oldPeriod = periodOf(existing);
+        BigDecimal oldCost = paymentCostOf(existing);
         updateFields(existing, dto);
         calculateNetPay(existing);
         existing = paymentsRepository.save(existing);
+        monthlyFinancialService.recordChange(MonthlyFinancialService.PAYMENT,
+                oldPeriod, oldCost, periodOf(existing), paymentCostOf(existing));
         return toDTO(existing);
     }
 
+    @Transactional
     public void deletePayment(Long id) {
         PaymentsEntity entity = paymentsRepository.findByIdAndIsDeleteFalse(id)
                 .orElseThrow(() -> new RuntimeException("Payment not found with ID: " + id));
         advanceService.unmarkAdvancesForPayment(id);
+        monthlyFinancialService.recordChange(MonthlyFinancialService.PAYMENT,
+                periodOf(entity), paymentCostOf(entity), null, null);
         entity.setIsDelete(true);
         paymentsRepository.save(entity);
     }
 
+    // Expense counted in the monthly rollup: base amount less deductions
+    private BigDecimal paymentCostOf(PaymentsEntity entity) {
+        BigDecimal base = entity.getBaseAmount() != null ? entity.getBaseAmount() : BigDecimal.ZERO;
+        return entity.getDeductions() != null ? base.subtract(entity.getDeductions()) : base;
+    }
+
+    private YearMonth periodOf(PaymentsEntity entity) {
+        return YearMonth.of(entity.getPeriodYear(), entity.getPeriodMonth());
+    }
+
     public PaymentsDTO getPaymentById(Long id) {
         PaymentsEntity entity = paymentsRepository.findByIdAndIsDeleteFalse(id)
                 .orElseThrow(() -> new RuntimeException("Payment not found with ID: " + id));
@@ -79,6 +126,29 @@ public class PaymentService {
         return entities.stream().map(this::toDTO).collect(Collectors.toList());
     }
 
+    // Paged variant, keyset on (periodYear * 100 + periodMonth, id)
+    public PageResponse<PaymentsDTO> getPaymentPage(String recipientType, Long recipientId, String month,
+                                                    Integer size, String cursor) {
+        Integer periodMonth = null;
+        Integer periodYear = null;
+        if (month != null && !month.isEmpty()) {
+            try {
+                String[] parts = month.split("-");
+                periodYear = Integer.parseInt(parts[0]);
+                periodMonth = Integer.parseInt(parts[1]);
+            } catch (Exception e) {
+                throw new RuntimeException("Invalid month format. Use YYYY-MM");
+            }
+        }
+        int pageSize = PageCursor.pageSize(size);
+        PageCursor after = PageCursor.decode(cursor);
+        List<PaymentsEntity> entities = paymentsRepository.findFilteredPage(recipientType, recipientId, periodMonth, periodYear,
+                after != null ? after.intKey() : null, after != null ? after.getId() : null,
+                PageCursor.limit(pageSize));
+        return PageCursor.toPage(entities, pageSize, this::toDTO,
+                e -> PageCursor.encode(e.getPeriodYear() * 100 + e.getPeriodMonth(), e.getId()));
+    }
+
     private void validatePaymentsDTO(PaymentsDTO dto) {
         if (dto.getRecipientType() == null || (!dto.getRecipientType().equals("Driver") && !dto.getRecipientType().equals("User"))) {
             throw new RuntimeException("Invalid recipient type! Must be 'Driver' or 'User'");
@@ -156,51 +226,31 @@ public class PaymentService {
                 .build();
     }
 
-    public ByteArrayInputStream generatePaymentsExcelReport(String recipientType, Long recipientId, String month) {
-        List<PaymentsDTO> records = getFilteredPayments(recipientType, recipientId, month);
-        try (Workbook workbook = new XSSFWorkbook()) {
-            Sheet sheet = workbook.createSheet("Payments Records");
-            Row headerRow = sheet.createRow(0);
-            String[] columns = {"ID", "Recipient Type", "Recipient ID", "Period Month", "Period Year", "Base Amount",
-                    "Deductions", "Advances Deducted", "Net Pay", "Payment Date", "Status", "Notes", "Created By",
-                    "Created At", "Updated At"};
-            CellStyle headerStyle = workbook.createCellStyle();
-            Font headerFont = workbook.createFont();
-            headerFont.setBold(true);
-            headerStyle.setFont(headerFont);
-            for (int i = 0; i < columns.length; i++) {
-                Cell cell = headerRow.createCell(i);
-                cell.setCellValue(columns[i]);
-                cell.setCellStyle(headerStyle);
-            }
-            int rowNum = 1;
-            DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-            for (PaymentsDTO dto : records) {
-                Row row = sheet.createRow(rowNum++);
-                row.createCell(0).setCellValue(dto.getId() != null ? dto.getId() : 0);
-                row.createCell(1).setCellValue(dto.getRecipientType() != null ? dto.getRecipientType() : "");
-                row.createCell(2).setCellValue(dto.getRecipientId() != null ? dto.getRecipientId() : 0);
-                row.createCell(3).setCellValue(dto.getPeriodMonth() != null ? dto.getPeriodMonth() : 0);
-                row.createCell(4).setCellValue(dto.getPeriodYear() != null ? dto.getPeriodYear() : 0);
-                row.createCell(5).setCellValue(dto.getBaseAmount() != null ? dto.getBaseAmount().doubleValue() : 0.0);
-                row.createCell(6).setCellValue(dto.getDeductions() != null ? dto.getDeductions().doubleValue() : 0.0);
-                row.createCell(7).setCellValue(dto.getAdvancesDeducted() != null ? dto.getAdvancesDeducted().doubleValue() : 0.0);
-                row.createCell(8).setCellValue(dto.getNetPay() != null ? dto.getNetPay().doubleValue() : 0.0);
-                row.createCell(9).setCellValue(dto.getPaymentDate() != null ? dto.getPaymentDate().format(dateFormatter) : "");
-                row.createCell(10).setCellValue(dto.getStatus() != null ? dto.getStatus() : "");
-                row.createCell(11).setCellValue(dto.getNotes() != null ? dto.getNotes() : "");
-                row.createCell(12).setCellValue(dto.getCreatedBy() != null ? dto.getCreatedBy() : 0);
-                row.createCell(13).setCellValue(dto.getCreatedAt() != null ? dto.getCreatedAt().toString() : "");
-                row.createCell(14).setCellValue(dto.getUpdatedAt() != null ? dto.getUpdatedAt().toString() : "");
-            }
-            for (int i = 0; i < columns.length; i++) {
-                sheet.autoSizeColumn(i);
+    // Report export (XLSX, CSV or NDJSON), columns in PAYMENTS_REPORT
+    @Transactional(readOnly = true)
+    public void writePaymentsReport(String recipientType, Long recipientId, String month, ReportFormat format, OutputStream out) throws IOException {
+        try (ReportRowWriter<PaymentsDTO> writer = format.open(PAYMENTS_REPORT, out)) {
+            exportPaymentsRows(recipientType, recipientId, month, writer);
+            writer.finish();
+        }
+    }
+
+    // Report rows for the filters, written to the caller's writer (single report or monthly pack)
+    @Transactional(readOnly = true)
+    public void exportPaymentsRows(String recipientType, Long recipientId, String month, ReportRowWriter<PaymentsDTO> writer) throws IOException {
+        Integer periodMonth = null;
+        Integer periodYear = null;
+        if (month != null && !month.isEmpty()) {
+            try {
+                String[] parts = month.split("-");
+                periodYear = Integer.parseInt(parts[0]);
+                periodMonth = Integer.parseInt(parts[1]);
+            } catch (Exception e) {
+                throw new RuntimeException("Invalid month format. Use YYYY-MM");
             }
-            ByteArrayOutputStream out = new ByteArrayOutputStream();
-            workbook.write(out);
-            return new ByteArrayInputStream(out.toByteArray());
-        } catch (IOException e) {
-            throw new RuntimeException("Error generating Excel report", e);
+        }
+        try (Stream<PaymentsEntity> entities = paymentsRepository.streamFiltered(recipientType, recipientId, periodMonth, periodYear)) {
+            writer.writeEntities(entities, this::toDTO, entityManager::detach);
         }
     }
 
@@ -208,4 +258,9 @@ public class PaymentService {
     public BigDecimal getTotalPaymentsForPeriod(int year, int month) {
         return paymentsRepository.getTotalPaymentsForPeriod(year, month);
     }
-}
\ No newline at end of file
+
+    public List<MonthlyTotal> getMonthlyPaymentsForPeriod(YearMonth start, YearMonth end) {
+        return paymentsRepository.getMonthlyPaymentsForPeriod(
+                start.getYear() * 100 + start.getMonthValue(), end.getYear() * 100 + end.getMonthValue());
+    }
+}
@@ -0,0 +1,262 @@
+package com.enterprise.bms.enterprise_bms.service;
+
+import com.enterprise.bms.enterprise_bms.dto.ReportJobDTO;
+import com.enterprise.bms.enterprise_bms.entity.ReportJobEntity;
+import com.enterprise.bms.enterprise_bms.report.ReportFormat;
+import com.enterprise.bms.enterprise_bms.report.ReportProgress;
+import com.enterprise.bms.enterprise_bms.repository.ReportJobRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Runs the /excel/download reports in the background: a job is queued on reportJobExecutor,
+// written to a file under report.jobs.dir, and downloaded once it has completed.
+@Service
+@RequiredArgsConstructor
+public class ReportJobService {
+    private static final Set<String> REPORT_TYPES = Set.of(
+            "maintenance", "transport", "attendance", "payments", "advances", "ex-vehicles", "fuel", "tire-maintenance");
+    private static final int MAX_LISTED_JOBS = 50;
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final ReportJobRepository reportJobRepository;
+    private final MaintenanceService maintenanceService;
+    private final TransportService transportService;
+    private final AttendanceService attendanceService;
+    private final PaymentService paymentService;
+    private final AdvanceService advanceService;
+    private final ExVehicleService exVehicleService;
+    private final FuelService fuelService;
+    private final TireMaintenanceService tireMaintenanceService;
+    private final ThreadPoolTaskExecutor reportJobExecutor;
+
+    // Rows written so far by the jobs running in this instance
+    private final Map<Long, AtomicLong> progress = new ConcurrentHashMap<>();
+
+    @Value("${report.jobs.dir}")
+    private String jobsDir;
+
+    @Value("${report.jobs.retention-hours}")
+    private long retentionHours;
+
+    // Jobs still queued or running when the application stopped will never finish
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void recoverUnfinishedJobs() throws IOException {
+        Files.createDirectories(Paths.get(jobsDir));
+        reportJobRepository.failUnfinished(List.of("QUEUED", "RUNNING"),
+                "Interrupted by an application restart", LocalDateTime.now());
+    }
+
+    public ReportJobDTO submitJob(ReportJobDTO request) {
+        String reportType = request.getReportType();
+        if (reportType == null || !REPORT_TYPES.contains(reportType)) {
+            throw new RuntimeException("Invalid report type. Use one of " + String.join(", ", REPORT_TYPES));
+        }
+        ReportFormat format = ReportFormat.fromParam(request.getFormat());
+        if (request.getMonth() != null && !request.getMonth().isEmpty()) {
+            try {
+                YearMonth.parse(request.getMonth());
+            } catch (Exception e) {
+                throw new RuntimeException("Invalid month format. Use YYYY-MM");
+            }
+        }
+
+        ReportJobEntity job = reportJobRepository.save(ReportJobEntity.builder()
+                .reportType(reportType)
+                .format(format.getExtension())
+                .vehicleId(request.getVehicleId())
+                .regNumber(request.getRegNumber())
+                .recipientType(request.getRecipientType())
+                .recipientId(request.getRecipientId())
+                .month(request.getMonth())
+                .status("QUEUED")
+                .requestedBy(currentUser())
+                .build());
+        Long jobId = job.getId();
+        try {
+            reportJobExecutor.execute(() -> runJob(jobId));
+        } catch (TaskRejectedException e) {
+            reportJobRepository.delete(job);
+            throw new RuntimeException("Too many report jobs are queued. Try again later");
+        }
+        return toDTO(job);
+    }
+
+    public List<ReportJobDTO> getMyJobs() {
+        return reportJobRepository.findRecentByRequestedBy(currentUser(), PageRequest.of(0, MAX_LISTED_JOBS))
+                .stream()
+                .map(this::toDTO)
+                .toList();
+    }
+
+    public ReportJobDTO getJob(Long id) {
+        return toDTO(findOwnJob(id));
+    }
+
+    // Completed artifact; the caller streams it to the client
+    public Path getArtifact(Long id) {
+        ReportJobEntity job = findOwnJob(id);
+        if (!"COMPLETED".equals(job.getStatus())) {
+            throw new RuntimeException("Report job is not completed");
+        }
+        Path file = artifactPath(job);
+        if (!Files.exists(file)) {
+            throw new RuntimeException("Report file is no longer available");
+        }
+        return file;
+    }
+
+    // Attachment name, same as the synchronous download (e.g. tire_maintenance_details.csv)
+    public String getArtifactFileName(ReportJobDTO job) {
+        return job.getReportType().replace('-', '_') + "_details." + job.getFormat();
+    }
+
+    public void deleteJob(Long id) {
+        ReportJobEntity job = findOwnJob(id);
+        if ("QUEUED".equals(job.getStatus()) || "RUNNING".equals(job.getStatus())) {
+            throw new RuntimeException("Report job is still running");
+        }
+        deleteArtifact(job);
+        reportJobRepository.delete(job);
+    }
+
+    @Scheduled(fixedDelay = 60 * 60 * 1000)
+    public void purgeExpiredJobs() {
+        List<ReportJobEntity> expired = reportJobRepository.findFinishedBefore(LocalDateTime.now().minusHours(retentionHours));
+        for (ReportJobEntity job : expired) {
+            deleteArtifact(job);
+        }
+        reportJobRepository.deleteAll(expired);
+    }
+
+    private void runJob(Long jobId) {
+        ReportJobEntity job = reportJobRepository.findById(jobId).orElse(null);
+        if (job == null) {
+            return;
+        }
+        AtomicLong rowsWritten = new AtomicLong();
+        progress.put(jobId, rowsWritten);
+        // Written under a temporary name so a half-written file is never downloaded
+        Path partFile = Paths.get(jobsDir, jobId + ".part");
+        ReportProgress.bind(rowsWritten);
+        try {
+            job.setStatus("RUNNING");
+            job.setStartedAt(LocalDateTime.now());
+            job = reportJobRepository.save(job);
+
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(partFile))) {
+                writeReport(job, ReportFormat.fromParam(job.getFormat()), out);
+            }
+            Path file = artifactPath(job);
+            Files.move(partFile, file, StandardCopyOption.REPLACE_EXISTING);
+            job.setFileSize(Files.size(file));
+            job.setStatus("COMPLETED");
+        } catch (Exception e) {
+            deleteQuietly(partFile);
+            String message = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            job.setErrorMessage(message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message);
+            job.setStatus("FAILED");
+        } finally {
+            ReportProgress.clear();
+            job.setRowsWritten(rowsWritten.get());
+            job.setCompletedAt(LocalDateTime.now());
+            reportJobRepository.save(job);
+            progress.remove(jobId);
+        }
+    }
+
+    private void writeReport(ReportJobEntity job, ReportFormat format, OutputStream out) throws IOException {
+        switch (job.getReportType()) {
+            case "maintenance" -> maintenanceService.writeMaintenanceReport(job.getVehicleId(), job.getMonth(), format, out);
+            case "transport" -> transportService.writeTransportReport(job.getVehicleId(), job.getMonth(), format, out);
+            case "attendance" -> attendanceService.writeAttendanceReport(
+                    job.getRecipientType(), job.getRecipientId(), job.getMonth(), format, out);
+            case "payments" -> paymentService.writePaymentsReport(
+                    job.getRecipientType(), job.getRecipientId(), job.getMonth(), format, out);
+            case "advances" -> advanceService.writeAdvancesReport(
+                    job.getRecipientType(), job.getRecipientId(), job.getMonth(), format, out);
+            case "ex-vehicles" -> exVehicleService.writeExVehiclesReport(job.getRegNumber(), job.getMonth(), format, out);
+            case "fuel" -> fuelService.writeFuelReport(job.getRegNumber(), job.getMonth(), format, out);
+            case "tire-maintenance" -> tireMaintenanceService.writeTireMaintenanceReport(job.getVehicleId(), job.getMonth(), format, out);
+            default -> throw new RuntimeException("Invalid report type: " + job.getReportType());
+        }
+    }
+
+    private ReportJobEntity findOwnJob(Long id) {
+        return reportJobRepository.findById(id)
+                .filter(job -> job.getRequestedBy().equals(currentUser()))
+                .orElseThrow(() -> new RuntimeException("Report job not found with ID: " + id));
+    }
+
+    private String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication.getName() == null) {
+            throw new RuntimeException("User not authenticated");
+        }
+        return authentication.getName();
+    }
+
+    private Path artifactPath(ReportJobEntity job) {
+        return Paths.get(jobsDir, job.getId() + "." + job.getFormat());
+    }
+
+    private void deleteArtifact(ReportJobEntity job) {
+        if ("COMPLETED".equals(job.getStatus())) {
+            deleteQuietly(artifactPath(job));
+        }
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+            // Left for the next purge
+        }
+    }
+
+    private ReportJobDTO toDTO(ReportJobEntity entity) {
+        AtomicLong running = progress.get(entity.getId());
+        return ReportJobDTO.builder()
+                .id(entity.getId())
+                .reportType(entity.getReportType())
+                .format(entity.getFormat())
+                .vehicleId(entity.getVehicleId())
+                .regNumber(entity.getRegNumber())
+                .recipientType(entity.getRecipientType())
+                .recipientId(entity.getRecipientId())
+                .month(entity.getMonth())
+                .status(entity.getStatus())
+                .rowsWritten(running != null ? Long.valueOf(running.get()) : entity.getRowsWritten())
+                .fileSize(entity.getFileSize())
+                .errorMessage(entity.getErrorMessage())
+                .createdAt(entity.getCreatedAt())
+                .startedAt(entity.getStartedAt())
+                .completedAt(entity.getCompletedAt())
+                .build();
+    }
+}
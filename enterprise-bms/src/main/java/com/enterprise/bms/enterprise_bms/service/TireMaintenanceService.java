@@ -1,31 +1,57 @@
 package com.enterprise.bms.enterprise_bms.service;
 
+import com.enterprise.bms.enterprise_bms.dto.ImportResultDTO;
+import com.enterprise.bms.enterprise_bms.dto.MonthlyTotal;
 import com.enterprise.bms.enterprise_bms.dto.TireMaintenanceDTO;
 import com.enterprise.bms.enterprise_bms.entity.TireMaintenanceEntity;
 import com.enterprise.bms.enterprise_bms.entity.OwnVehiclesEntity;
 import com.enterprise.bms.enterprise_bms.repository.OwnVehiclesRepository;
 import com.enterprise.bms.enterprise_bms.repository.TireMaintenanceRepository;
-import jakarta.transaction.Transactional;
+import com.enterprise.bms.enterprise_bms.report.ReportDefinition;
+import com.enterprise.bms.enterprise_bms.report.ReportFormat;
+import com.enterprise.bms.enterprise_bms.report.ReportRow;
+import com.enterprise.bms.enterprise_bms.report.ReportRowWriter;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class TireMaintenanceService {
 
+    public static final ReportDefinition<TireMaintenanceDTO> TIRE_MAINTENANCE_REPORT = ReportDefinition.<TireMaintenanceDTO>builder("Tire Maintenance Records")
+            .number("ID", "id", TireMaintenanceDTO::getId)
+            .text("Vehicle Reg Number", "vehicleRegNumber", TireMaintenanceDTO::getVehicleRegNumber)
+            .number("Vehicle ID", "vehicleId", TireMaintenanceDTO::getVehicleId)
+            .text("Position", "position", TireMaintenanceDTO::getPosition)
+            .date("Date", "date", TireMaintenanceDTO::getDate)
+            .text("Tire Brand", "tireBrand", TireMaintenanceDTO::getTireBrand)
+            .text("Tire Size", "tireSize", TireMaintenanceDTO::getTireSize)
+            .text("Serial Number", "serialNumber", TireMaintenanceDTO::getSerialNumber)
+            .text("Description", "description", TireMaintenanceDTO::getDescription)
+            .number("Mileage", "mileage", TireMaintenanceDTO::getMileage)
+            .number("Quantity", "quantity", TireMaintenanceDTO::getQuantity)
+            .number("Unit Price", "unitPrice", TireMaintenanceDTO::getUnitPrice)
+            .number("Total Price", "totalPrice", TireMaintenanceDTO::getTotalPrice)
+            .dateTime("Created At", "createdAt", TireMaintenanceDTO::getCreatedAt)
+            .dateTime("Updated At", "updatedAt", TireMaintenanceDTO::getUpdatedAt)
+            .build();
+
     private final TireMaintenanceRepository tireMaintenanceRepository;
     private final OwnVehiclesRepository ownVehiclesRepository;
+    private final MonthlyFinancialService monthlyFinancialService;
+    private final EntityManager entityManager;
 
     // Filtered records
     public List<TireMaintenanceDTO> getFilteredTireMaintenanceRecords(Long vehicleId, String month) {
@@ -56,34 +82,53 @@ public class TireMaintenanceService {
     // CREATE - Manual totalPrice entry
     @Transactional
     public TireMaintenanceDTO createTireMaintenance(TireMaintenanceDTO dto) {
-        if (dto.getPosition() == null || dto.getPosition().trim().isEmpty()) {
-            throw new RuntimeException("Position is required for tire maintenance");
-        }
-        if (dto.getTotalPrice() == null || dto.getTotalPrice().compareTo(BigDecimal.ZERO) < 0) {
-            throw new RuntimeException("Total price is required and must be >= 0");
-        }
+        validateTireMaintenanceDTO(dto);
 
         OwnVehiclesEntity vehicle = validateVehicle(dto.getVehicleId());
 
-        TireMaintenanceEntity entity = new TireMaintenanceEntity();
-        entity.setOwnVehicle(vehicle);
-        entity.setPosition(dto.getPosition().trim().toUpperCase());  // Normalize position
-        entity.setDate(dto.getDate());
-        entity.setTireBrand(dto.getTireBrand());
-        entity.setTireSize(dto.getTireSize());
-        entity.setSerialNumber(dto.getSerialNumber());
-        entity.setDescription(dto.getDescription() != null ? dto.getDescription().trim() : "");
-        entity.setMileage(dto.getMileage());
-        entity.setQuantity(dto.getQuantity() != null && dto.getQuantity() > 0 ? dto.getQuantity() : 1);
-        entity.setUnitPrice(dto.getUnitPrice() != null ? dto.getUnitPrice() : BigDecimal.ZERO);
-
-        // Set total price manually from DTO (no auto-calculation)
-        entity.setTotalPrice(dto.getTotalPrice());
-
+        TireMaintenanceEntity entity = toEntity(dto, vehicle);
         entity = tireMaintenanceRepository.save(entity);
+        monthlyFinancialService.recordChange(MonthlyFinancialService.TIRE,
+                null, null, entity.getDate(), entity.getTotalPrice());
         return toDTO(entity);
     }
 
+    // History import (see ImportJobService): one batch of TIRE_MAINTENANCE_REPORT rows, validated
+    // like createTireMaintenance and inserted with one JDBC batch
+    @Transactional
+    public int importTireMaintenanceBatch(List<ReportRow> rows, Function<ReportRow, OwnVehiclesEntity> vehicleOf,
+                                          List<ImportResultDTO.RowError> errors) {
+        List<TireMaintenanceEntity> valid = new ArrayList<>(rows.size());
+        for (ReportRow row : rows) {
+            try {
+                OwnVehiclesEntity vehicle = validateVehicle(vehicleOf.apply(row));
+                TireMaintenanceDTO dto = TireMaintenanceDTO.builder()
+                        .position(row.getText("position"))
+                        .date(row.getDate("date"))
+                        .tireBrand(row.getText("tireBrand"))
+                        .tireSize(row.getText("tireSize"))
+                        .serialNumber(row.getText("serialNumber"))
+                        .description(row.getText("description"))
+                        .mileage(row.getDecimal("mileage"))
+                        .quantity(row.getInteger("quantity"))
+                        .unitPrice(row.getDecimal("unitPrice"))
+                        .totalPrice(row.getDecimal("totalPrice"))
+                        .build();
+                validateTireMaintenanceDTO(dto);
+                if (dto.getDate() == null) {
+                    throw new RuntimeException("Date is required!");
+                }
+                valid.add(toEntity(dto, vehicle));
+            } catch (RuntimeException e) {
+                errors.add(new ImportResultDTO.RowError(row.getRowNumber(), e.getMessage()));
+            }
+        }
+        tireMaintenanceRepository.batchInsert(valid);
+        monthlyFinancialService.recordAdded(MonthlyFinancialService.TIRE, valid,
+                TireMaintenanceEntity::getDate, TireMaintenanceEntity::getTotalPrice);
+        return valid.size();
+    }
+
     // GET BY ID
     public TireMaintenanceDTO getTireMaintenanceById(Long id) {
         TireMaintenanceEntity entity = tireMaintenanceRepository.findByIdAndIsDeleteFalse(id)
@@ -96,6 +141,8 @@ public class TireMaintenanceService {
     public TireMaintenanceDTO updateTireMaintenance(Long id, TireMaintenanceDTO dto) {
         TireMaintenanceEntity existing = tireMaintenanceRepository.findByIdAndIsDeleteFalse(id)
                 .orElseThrow(() -> new RuntimeException("Tire maintenance record not found"));
+        LocalDate oldDate = existing.getDate();
+        BigDecimal oldPrice = existing.getTotalPrice();
 
         // Update vehicle if provided
         if (dto.getVehicleId() != null) {
@@ -131,6 +178,8 @@ public class TireMaintenanceService {
         }
 
         existing = tireMaintenanceRepository.save(existing);
+        monthlyFinancialService.recordChange(MonthlyFinancialService.TIRE,
+                oldDate, oldPrice, existing.getDate(), existing.getTotalPrice());
         return toDTO(existing);
     }
 
@@ -139,67 +188,80 @@ public class TireMaintenanceService {
     public void deleteTireMaintenance(Long id) {
         TireMaintenanceEntity entity = tireMaintenanceRepository.findByIdAndIsDeleteFalse(id)
                 .orElseThrow(() -> new RuntimeException("Record not found or already deleted"));
+        monthlyFinancialService.recordChange(MonthlyFinancialService.TIRE,
+                entity.getDate(), entity.getTotalPrice(), null, null);
         entity.setIsDelete(true);
         tireMaintenanceRepository.save(entity);
     }
 
-    // Generate Excel Report
-    public ByteArrayInputStream generateTireMaintenanceExcelReport(Long vehicleId, String month) {
-        List<TireMaintenanceDTO> records = getFilteredTireMaintenanceRecords(vehicleId, month);
-        try (Workbook workbook = new XSSFWorkbook()) {
-            Sheet sheet = workbook.createSheet("Tire Maintenance Records");
-            Row headerRow = sheet.createRow(0);
-            String[] columns = {"ID", "Vehicle Reg Number", "Vehicle ID", "Position", "Date", "Tire Brand", "Tire Size", "Serial Number", "Description", "Mileage", "Quantity", "Unit Price", "Total Price", "Created At", "Updated At"};
-            CellStyle headerStyle = workbook.createCellStyle();
-            Font headerFont = workbook.createFont();
-            headerFont.setBold(true);
-            headerStyle.setFont(headerFont);
-            for (int i = 0; i < columns.length; i++) {
-                Cell cell = headerRow.createCell(i);
-                cell.setCellValue(columns[i]);
-                cell.setCellStyle(headerStyle);
-            }
-            int rowNum = 1;
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-            for (TireMaintenanceDTO dto : records) {
-                Row row = sheet.createRow(rowNum++);
-                row.createCell(0).setCellValue(dto.getId() != null ? dto.getId().toString() : "");
-                row.createCell(1).setCellValue(dto.getVehicleRegNumber() != null ? dto.getVehicleRegNumber() : "");
-                row.createCell(2).setCellValue(dto.getVehicleId() != null ? dto.getVehicleId().toString() : "");
-                row.createCell(3).setCellValue(dto.getPosition() != null ? dto.getPosition() : "");
-                row.createCell(4).setCellValue(dto.getDate() != null ? dto.getDate().format(formatter) : "");
-                row.createCell(5).setCellValue(dto.getTireBrand() != null ? dto.getTireBrand() : "");
-                row.createCell(6).setCellValue(dto.getTireSize() != null ? dto.getTireSize() : "");
-                row.createCell(7).setCellValue(dto.getSerialNumber() != null ? dto.getSerialNumber() : "");
-                row.createCell(8).setCellValue(dto.getDescription() != null ? dto.getDescription() : "");
-                row.createCell(9).setCellValue(dto.getMileage() != null ? dto.getMileage().doubleValue() : 0.0);
-                row.createCell(10).setCellValue(dto.getQuantity() != null ? dto.getQuantity() : 0);
-                row.createCell(11).setCellValue(dto.getUnitPrice() != null ? dto.getUnitPrice().doubleValue() : 0.0);
-                row.createCell(12).setCellValue(dto.getTotalPrice() != null ? dto.getTotalPrice().doubleValue() : 0.0);
-                row.createCell(13).setCellValue(dto.getCreatedAt() != null ? dto.getCreatedAt().toString() : "");
-                row.createCell(14).setCellValue(dto.getUpdatedAt() != null ? dto.getUpdatedAt().toString() : "");
-            }
-            for (int i = 0; i < columns.length; i++) {
-                sheet.autoSizeColumn(i);
+    // Report export (XLSX, CSV or NDJSON), columns in TIRE_MAINTENANCE_REPORT
+    @Transactional(readOnly = true)
+    public void writeTireMaintenanceReport(Long vehicleId, String month, ReportFormat format, OutputStream out) throws IOException {
+        try (ReportRowWriter<TireMaintenanceDTO> writer = format.open(TIRE_MAINTENANCE_REPORT, out)) {
+            exportTireMaintenanceRows(vehicleId, month, writer);
+            writer.finish();
+        }
+    }
+
+    // Report rows for the filters, written to the caller's writer (single report or monthly pack)
+    @Transactional(readOnly = true)
+    public void exportTireMaintenanceRows(Long vehicleId, String month, ReportRowWriter<TireMaintenanceDTO> writer) throws IOException {
+        LocalDate startDate = null;
+        LocalDate endDate = null;
+        if (month != null && !month.isEmpty()) {
+            try {
+                startDate = LocalDate.parse(month + "-01");
+                endDate = startDate.withDayOfMonth(startDate.lengthOfMonth());
+            } catch (Exception e) {
+                throw new RuntimeException("Invalid month format. Use YYYY-MM");
             }
-            ByteArrayOutputStream out = new ByteArrayOutputStream();
-            workbook.write(out);
-            return new ByteArrayInputStream(out.toByteArray());
-        } catch (IOException e) {
-            throw new RuntimeException("Error generating Excel report", e);
+        }
+        try (Stream<TireMaintenanceEntity> entities = tireMaintenanceRepository.streamFiltered(vehicleId, startDate, endDate)) {
+            writer.writeEntities(entities, this::toDTO, entityManager::detach);
         }
     }
 
     // Helper Methods
+    private void validateTireMaintenanceDTO(TireMaintenanceDTO dto) {
+        if (dto.getPosition() == null || dto.getPosition().trim().isEmpty()) {
+            throw new RuntimeException("Position is required for tire maintenance");
+        }
+        if (dto.getTotalPrice() == null || dto.getTotalPrice().compareTo(BigDecimal.ZERO) < 0) {
+            throw new RuntimeException("Total price is required and must be >= 0");
+        }
+    }
+
     private OwnVehiclesEntity validateVehicle(Long vehicleId) {
         OwnVehiclesEntity vehicle = ownVehiclesRepository.findById(vehicleId)
                 .orElseThrow(() -> new RuntimeException("Vehicle not found with ID: " + vehicleId));
+        return validateVehicle(vehicle);
+    }
+
+    private OwnVehiclesEntity validateVehicle(OwnVehiclesEntity vehicle) {
         if (Boolean.TRUE.equals(vehicle.getIsDelete())) {
             throw new RuntimeException("Cannot add/update tire maintenance for deleted vehicle");
         }
         return vehicle;
     }
 
+    private TireMaintenanceEntity toEntity(TireMaintenanceDTO dto, OwnVehiclesEntity vehicle) {
+        TireMaintenanceEntity entity = new TireMaintenanceEntity();
+        entity.setOwnVehicle(vehicle);
+        entity.setPosition(dto.getPosition().trim().toUpperCase());  // Normalize position
+        entity.setDate(dto.getDate());
+        entity.setTireBrand(dto.getTireBrand());
+        entity.setTireSize(dto.getTireSize());
+        entity.setSerialNumber(dto.getSerialNumber());
+        entity.setDescription(dto.getDescription() != null ? dto.getDescription().trim() : "");
+        entity.setMileage(dto.getMileage());
+        entity.setQuantity(dto.getQuantity() != null && dto.getQuantity() > 0 ? dto.getQuantity() : 1);
+        entity.setUnitPrice(dto.getUnitPrice() != null ? dto.getUnitPrice() : BigDecimal.ZERO);
+
+        // Set total price manually from DTO (no auto-calculation)
+        entity.setTotalPrice(dto.getTotalPrice());
+        return entity;
+    }
+
     private TireMaintenanceDTO toDTO(TireMaintenanceEntity e) {
         return TireMaintenanceDTO.builder()
                 .id(e.getId())
@@ -225,4 +287,8 @@ public class TireMaintenanceService {
     public BigDecimal getTotalTireMaintenanceCostForPeriod(LocalDate start, LocalDate end) {
         return tireMaintenanceRepository.getTotalTireMaintenanceCostForPeriod(start, end);
     }
-}
\ No newline at end of file
+
+    public List<MonthlyTotal> getMonthlyTireMaintenanceCostForPeriod(LocalDate start, LocalDate end) {
+        return tireMaintenanceRepository.getMonthlyTireMaintenanceCostForPeriod(start, end);
+    }
+}
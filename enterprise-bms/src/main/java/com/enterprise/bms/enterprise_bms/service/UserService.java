@@ -1,5 +1,6 @@
 package com.enterprise.bms.enterprise_bms.service;
 
+import com.enterprise.bms.enterprise_bms.config.CacheConfig;
 import com.enterprise.bms.enterprise_bms.dto.AuthDTO;
 import com.enterprise.bms.enterprise_bms.dto.UserDTO;
 import com.enterprise.bms.enterprise_bms.entity.UserEntity;
@@ -7,6 +8,7 @@ import com.enterprise.bms.enterprise_bms.repository.UserRepository;
 import com.enterprise.bms.enterprise_bms.utill.JwtUtil;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -18,6 +20,7 @@ import org.springframework.stereotype.Service;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -44,9 +47,12 @@ public class UserService {
         return users.stream().map(this::toDTO).collect(Collectors.toList());
     }
 
+    // Email, role, password or active flag may change: drop cached principals
+    @CacheEvict(cacheNames = CacheConfig.PRINCIPALS, allEntries = true)
     public UserDTO updateUser(UserDTO userDTO) {
         UserEntity existingUser = userRepository.findById(userDTO.getId())
                 .orElseThrow(() -> new RuntimeException("User not found"));
+        String oldEmail = existingUser.getEmail();
         existingUser.setUsername(userDTO.getUsername());
         existingUser.setEmail(userDTO.getEmail());
         existingUser.setRole(userDTO.getRole().toUpperCase());
@@ -58,14 +64,21 @@ public class UserService {
             existingUser.setPassword(passwordEncoder.encode(userDTO.getPassword()));
         }
         UserEntity updatedUser = userRepository.save(existingUser);
+        // Sessions end when the login identity, password or active flag changes
+        boolean passwordChanged = userDTO.getPassword() != null && !userDTO.getPassword().isEmpty();
+        if (passwordChanged || !Objects.equals(oldEmail, updatedUser.getEmail())
+                || Boolean.FALSE.equals(updatedUser.getIsActive())) {
+            jwtUtil.revokeTokens(oldEmail);
+        }
         return toDTO(updatedUser);
     }
 
+    @CacheEvict(cacheNames = CacheConfig.PRINCIPALS, allEntries = true)
     public void deleteUser(Long id) {
-        if (!userRepository.existsById(id)) {
-            throw new RuntimeException("User not found");
-        }
-        userRepository.deleteById(id);
+        UserEntity user = userRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        userRepository.delete(user);
+        jwtUtil.revokeTokens(user.getEmail());
     }
 
     public UserEntity toEntity(UserDTO userDTO) {
@@ -162,6 +175,7 @@ public class UserService {
         }
     }
 
+    @CacheEvict(cacheNames = CacheConfig.PRINCIPALS, allEntries = true)
     public void resetPassword(String token, String newPassword) {
         UserEntity user = userRepository.findByPasswordResetToken(token)
                 .orElseThrow(() -> new RuntimeException("Invalid or expired reset token"));
@@ -174,5 +188,6 @@ public class UserService {
         user.setPasswordResetToken(null);
         user.setPasswordResetExpiry(null);
         userRepository.save(user);
+        jwtUtil.revokeTokens(user.getEmail());
     }
 }
\ No newline at end of file
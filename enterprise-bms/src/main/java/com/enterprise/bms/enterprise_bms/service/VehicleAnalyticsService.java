@@ -0,0 +1,148 @@
+package com.enterprise.bms.enterprise_bms.service;
+
+import com.enterprise.bms.enterprise_bms.dto.VehicleAnalyticsDTO;
+import com.enterprise.bms.enterprise_bms.dto.VehicleMetricsDTO;
+import com.enterprise.bms.enterprise_bms.dto.VehicleMonthlyTotal;
+import com.enterprise.bms.enterprise_bms.entity.OwnVehiclesEntity;
+import com.enterprise.bms.enterprise_bms.repository.FuelRepository;
+import com.enterprise.bms.enterprise_bms.repository.MaintenanceRepository;
+import com.enterprise.bms.enterprise_bms.repository.OwnVehiclesRepository;
+import com.enterprise.bms.enterprise_bms.repository.TireMaintenanceRepository;
+import com.enterprise.bms.enterprise_bms.repository.TransportRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+// Profitability of each own vehicle: revenue of its completed trips against its fuel, maintenance
+// and tire costs. The whole fleet is read with one grouped query per table (plus one for fuel
+// efficiency), independent of the number of vehicles.
+@Service
+@RequiredArgsConstructor
+public class VehicleAnalyticsService {
+    private final OwnVehiclesRepository ownVehiclesRepository;
+    private final TransportRepository transportRepository;
+    private final FuelRepository fuelRepository;
+    private final MaintenanceRepository maintenanceRepository;
+    private final TireMaintenanceRepository tireMaintenanceRepository;
+
+    // Active vehicles, plus deleted ones that still have records in the range
+    @Transactional(readOnly = true)
+    public List<VehicleAnalyticsDTO> getFleetAnalytics(YearMonth from, YearMonth to) {
+        if (from.isAfter(to)) {
+            throw new RuntimeException("Start month must not be after end month");
+        }
+        Map<Long, Map<YearMonth, Totals>> byVehicle = new HashMap<>();
+        addTotals(byVehicle, transportRepository.getVehicleMonthlyRevenueForPeriod(from.atDay(1), to.atEndOfMonth()),
+                (totals, row) -> {
+                    totals.revenue = totals.revenue.add(row.getAmount());
+                    totals.distanceKm = totals.distanceKm.add(row.getQuantity());
+                });
+        addTotals(byVehicle, fuelRepository.getVehicleMonthlyFuelForPeriod(from.atDay(1), to.atEndOfMonth()),
+                (totals, row) -> {
+                    totals.fuelCost = totals.fuelCost.add(row.getAmount());
+                    totals.fuelQuantity = totals.fuelQuantity.add(row.getQuantity());
+                });
+        addTotals(byVehicle, maintenanceRepository.getVehicleMonthlyMaintenanceCostForPeriod(from.atDay(1), to.atEndOfMonth()),
+                (totals, row) -> totals.maintenanceCost = totals.maintenanceCost.add(row.getAmount()));
+        addTotals(byVehicle, tireMaintenanceRepository.getVehicleMonthlyTireCostForPeriod(from.atDay(1), to.atEndOfMonth()),
+                (totals, row) -> totals.tireCost = totals.tireCost.add(row.getAmount()));
+        // km/L of each fill is kept up to date on the fuel records themselves
+        addTotals(byVehicle, fuelRepository.getVehicleMonthlyEfficiencyForPeriod(from.atDay(1), to.atEndOfMonth()),
+                (totals, row) -> {
+                    totals.odometerKm = totals.odometerKm.add(row.getAmount());
+                    totals.odometerLitres = totals.odometerLitres.add(row.getQuantity());
+                });
+
+        List<VehicleAnalyticsDTO> result = new ArrayList<>();
+        for (OwnVehiclesEntity vehicle : ownVehiclesRepository.findAll()) {
+            Map<YearMonth, Totals> months = byVehicle.get(vehicle.getId());
+            if (months == null && Boolean.TRUE.equals(vehicle.getIsDelete())) {
+                continue;
+            }
+            result.add(toDTO(vehicle, months != null ? months : Map.of(), from, to));
+        }
+        return result;
+    }
+
+    private void addTotals(Map<Long, Map<YearMonth, Totals>> byVehicle, List<VehicleMonthlyTotal> rows,
+                           BiConsumer<Totals, VehicleMonthlyTotal> add) {
+        for (VehicleMonthlyTotal row : rows) {
+            add.accept(totalsFor(byVehicle, row.getVehicleId(), YearMonth.of(row.getYear(), row.getMonth())), row);
+        }
+    }
+
+    private Totals totalsFor(Map<Long, Map<YearMonth, Totals>> byVehicle, Long vehicleId, YearMonth month) {
+        return byVehicle.computeIfAbsent(vehicleId, k -> new HashMap<>()).computeIfAbsent(month, k -> new Totals());
+    }
+
+    private VehicleAnalyticsDTO toDTO(OwnVehiclesEntity vehicle, Map<YearMonth, Totals> months, YearMonth from, YearMonth to) {
+        Totals rangeTotals = new Totals();
+        List<VehicleMetricsDTO> monthly = new ArrayList<>();
+        for (YearMonth ym = from; !ym.isAfter(to); ym = ym.plusMonths(1)) {
+            Totals totals = months.getOrDefault(ym, new Totals());
+            rangeTotals.add(totals);
+            monthly.add(toMetrics(ym.toString(), totals));
+        }
+        return VehicleAnalyticsDTO.builder()
+                .vehicleId(vehicle.getId())
+                .regNumber(vehicle.getRegNumber())
+                .total(toMetrics(null, rangeTotals))
+                .months(monthly)
+                .build();
+    }
+
+    private VehicleMetricsDTO toMetrics(String month, Totals totals) {
+        BigDecimal totalCost = totals.fuelCost.add(totals.maintenanceCost).add(totals.tireCost);
+        BigDecimal profit = totals.revenue.subtract(totalCost);
+        return VehicleMetricsDTO.builder()
+                .month(month)
+                .revenue(totals.revenue)
+                .distanceKm(totals.distanceKm)
+                .fuelCost(totals.fuelCost)
+                .fuelQuantity(totals.fuelQuantity)
+                .maintenanceCost(totals.maintenanceCost)
+                .tireCost(totals.tireCost)
+                .totalCost(totalCost)
+                .profit(profit)
+                .marginPercent(ratio(profit.multiply(BigDecimal.valueOf(100)), totals.revenue))
+                .costPerKm(ratio(totalCost, totals.distanceKm))
+                .kmPerLitre(ratio(totals.odometerKm, totals.odometerLitres))
+                .build();
+    }
+
+    private BigDecimal ratio(BigDecimal value, BigDecimal divisor) {
+        return divisor.signum() != 0 ? value.divide(divisor, 2, RoundingMode.HALF_UP) : null;
+    }
+
+    // Running sums for one vehicle and month
+    private static class Totals {
+        private BigDecimal revenue = BigDecimal.ZERO;
+        private BigDecimal distanceKm = BigDecimal.ZERO;
+        private BigDecimal fuelCost = BigDecimal.ZERO;
+        private BigDecimal fuelQuantity = BigDecimal.ZERO;
+        private BigDecimal maintenanceCost = BigDecimal.ZERO;
+        private BigDecimal tireCost = BigDecimal.ZERO;
+        private BigDecimal odometerKm = BigDecimal.ZERO;
+        private BigDecimal odometerLitres = BigDecimal.ZERO;
+
+        private void add(Totals other) {
+            revenue = revenue.add(other.revenue);
+            distanceKm = distanceKm.add(other.distanceKm);
+            fuelCost = fuelCost.add(other.fuelCost);
+            fuelQuantity = fuelQuantity.add(other.fuelQuantity);
+            maintenanceCost = maintenanceCost.add(other.maintenanceCost);
+            tireCost = tireCost.add(other.tireCost);
+            odometerKm = odometerKm.add(other.odometerKm);
+            odometerLitres = odometerLitres.add(other.odometerLitres);
+        }
+    }
+}
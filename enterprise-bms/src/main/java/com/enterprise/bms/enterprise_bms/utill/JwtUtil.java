@@ -1,28 +1,58 @@
 package com.enterprise.bms.enterprise_bms.utill;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 @Component
 public class JwtUtil {
-    @Value("${jwt.secret}")
-    private String secretKey;
-
     private final long jwtExpiration = 1000 * 60 * 60 * 10; // 10 hours
 
-    private Key getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+    // Decoded once; JwtParser is immutable and thread-safe, so one instance serves every request
+    private final Key signingKey;
+    private final JwtParser jwtParser;
+
+    // Claims of tokens that already passed verification, keyed by the token's SHA-256. Each entry
+    // expires at the token's own exp, so a cached token is never accepted past its expiry.
+    private final Cache<String, Claims> verifiedTokens;
+    // Subject -> time (ms) before which its tokens are no longer accepted (see revokeTokens).
+    // Kept as long as a token can live; older tokens are rejected by their exp anyway.
+    private final Cache<String, Long> revokedSubjects;
+
+    public JwtUtil(@Value("${jwt.secret}") String secretKey, MeterRegistry meterRegistry) {
+        this.signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+        this.jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfter(new TokenExpiry())
+                .recordStats()
+                .build();
+        this.revokedSubjects = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(jwtExpiration))
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "verifiedTokens");
     }
 
     public String extractUsername(String token) {
@@ -30,7 +60,7 @@ public class JwtUtil {
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
+        final Claims claims = parseToken(token);
         return claimsResolver.apply(claims);
     }
 
@@ -50,30 +80,52 @@ public class JwtUtil {
                 .setSubject(email)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + jwtExpiration))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+    // Verifies the signature and expiry once; the returned claims can then be checked without
+    // parsing the token again (see isTokenValid(Claims, UserDetails))
+    public Claims parseToken(String token) {
+        String key = tokenHash(token);
+        Claims claims = verifiedTokens.getIfPresent(key);
+        if (claims == null) {
+            claims = extractAllClaims(token);
+            verifiedTokens.put(key, claims);
+        }
+        if (claims.getSubject() != null) {
+            Long revokedBefore = revokedSubjects.getIfPresent(claims.getSubject());
+            if (revokedBefore != null && claims.getIssuedAt() != null
+                    && claims.getIssuedAt().getTime() < revokedBefore) {
+                throw new RuntimeException("JWT token has been revoked");
+            }
+        }
+        return claims;
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    // Rejects every token issued to this subject before now (password change, deactivation,
+    // deletion). iat has second precision, so the cut-off is the start of the current second.
+    // Revocations are held in memory and do not survive a restart.
+    public void revokeTokens(String email) {
+        if (email == null) {
+            return;
+        }
+        revokedSubjects.put(email, System.currentTimeMillis() / 1000 * 1000);
+        verifiedTokens.asMap().values().removeIf(claims -> email.equals(claims.getSubject()));
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+        // Expiry was already enforced by the parser; this guards the subject
+        return claims.getSubject() != null && claims.getSubject().equals(userDetails.getUsername());
+    }
+
+    public boolean isTokenValid(String token, UserDetails userDetails) {
+        return isTokenValid(parseToken(token), userDetails);
     }
 
     private Claims extractAllClaims(String token) {
         try {
-            return Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
+            return jwtParser.parseClaimsJws(token).getBody();
         } catch (ExpiredJwtException e) {
             throw new RuntimeException("JWT token is expired", e);
         } catch (MalformedJwtException e) {
@@ -82,4 +134,34 @@ public class JwtUtil {
             throw new RuntimeException("JWT validation error", e);
         }
     }
+
+    private static String tokenHash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private class TokenExpiry implements Expiry<String, Claims> {
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            Date expiration = claims.getExpiration();
+            long remainingMillis = expiration != null
+                    ? expiration.getTime() - System.currentTimeMillis()
+                    : jwtExpiration;
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
 }
\ No newline at end of file
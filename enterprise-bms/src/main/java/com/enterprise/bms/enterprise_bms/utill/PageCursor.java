@@ -0,0 +1,90 @@
+package com.enterprise.bms.enterprise_bms.utill;
+
+import com.enterprise.bms.enterprise_bms.dto.PageResponse;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Keyset cursor for list endpoints: the sort key and id of the last row on the previous page,
+// sent to clients as an opaque base64url token ("<sortKey>|<id>").
+public final class PageCursor {
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+
+    private final String key;
+    private final Long id;
+
+    private PageCursor(String key, Long id) {
+        this.key = key;
+        this.id = id;
+    }
+
+    public static String encode(Object key, Long id) {
+        String raw = key + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Returns null for the first page (no cursor supplied)
+    public static PageCursor decode(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int sep = raw.lastIndexOf('|');
+            return new PageCursor(raw.substring(0, sep), Long.parseLong(raw.substring(sep + 1)));
+        } catch (Exception e) {
+            throw new RuntimeException("Invalid cursor");
+        }
+    }
+
+    public LocalDate dateKey() {
+        try {
+            return LocalDate.parse(key);
+        } catch (Exception e) {
+            throw new RuntimeException("Invalid cursor");
+        }
+    }
+
+    public Integer intKey() {
+        try {
+            return Integer.valueOf(key);
+        } catch (Exception e) {
+            throw new RuntimeException("Invalid cursor");
+        }
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public static int pageSize(Integer requested) {
+        if (requested == null || requested <= 0) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(requested, MAX_PAGE_SIZE);
+    }
+
+    // Fetch one extra row so we know whether another page exists without a COUNT query
+    public static Pageable limit(int pageSize) {
+        return PageRequest.of(0, pageSize + 1);
+    }
+
+    public static <E, D> PageResponse<D> toPage(List<E> rows, int pageSize,
+                                                 Function<E, D> mapper, Function<E, String> cursorOf) {
+        boolean hasMore = rows.size() > pageSize;
+        List<E> pageRows = hasMore ? rows.subList(0, pageSize) : rows;
+        return PageResponse.<D>builder()
+                .items(pageRows.stream().map(mapper).collect(Collectors.toList()))
+                .size(pageSize)
+                .hasMore(hasMore)
+                .nextCursor(hasMore ? cursorOf.apply(pageRows.get(pageRows.size() - 1)) : null)
+                .build();
+    }
+}
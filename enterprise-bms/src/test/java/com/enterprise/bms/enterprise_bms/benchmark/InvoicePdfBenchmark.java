@@ -0,0 +1,196 @@
+package com.enterprise.bms.enterprise_bms.benchmark;
+
+import com.enterprise.bms.enterprise_bms.entity.InvoiceEntity;
+import com.enterprise.bms.enterprise_bms.entity.InvoiceItemEntity;
+import com.enterprise.bms.enterprise_bms.service.InvoicePdfRenderer;
+import com.itextpdf.io.font.constants.StandardFonts;
+import com.itextpdf.io.image.ImageData;
+import com.itextpdf.io.image.ImageDataFactory;
+import com.itextpdf.kernel.colors.ColorConstants;
+import com.itextpdf.kernel.colors.DeviceRgb;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.font.PdfFontFactory;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.borders.Border;
+import com.itextpdf.layout.borders.SolidBorder;
+import com.itextpdf.layout.element.Cell;
+import com.itextpdf.layout.element.Image;
+import com.itextpdf.layout.element.Paragraph;
+import com.itextpdf.layout.element.Table;
+import com.itextpdf.layout.properties.HorizontalAlignment;
+import com.itextpdf.layout.properties.TextAlignment;
+import com.itextpdf.layout.properties.UnitValue;
+import com.itextpdf.layout.properties.VerticalAlignment;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Per-invoice latency of GET /invoices/{id}/pdf, before and after InvoicePdfRenderer. Run with -prof gc
+// (the benchmark profile's default) for the bytes allocated per invoice (gc.alloc.rate.norm).
+//   mvn -Pbenchmark test-compile exec:exec -Djmh.args="InvoicePdfBenchmark -prof gc"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InvoicePdfBenchmark {
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    private InvoicePdfRenderer renderer;
+    private InvoiceEntity invoice;
+    private List<InvoiceItemEntity> items;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        renderer = new InvoicePdfRenderer();
+        renderer.init();
+        invoice = InvoiceEntity.builder()
+                .invoiceNo("INV-2025-042")
+                .generationDate(LocalDate.of(2025, 3, 31))
+                .clientName("Lanka Logistics (Pvt) Ltd")
+                .totalAmount(new BigDecimal("184500.00"))
+                .build();
+        items = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            items.add(InvoiceItemEntity.builder()
+                    .date(LocalDate.of(2025, 3, 1 + i * 3))
+                    .vehicleRegNo("LB-" + (4100 + i))
+                    .particulars("Colombo - Kandy container")
+                    .rate(new BigDecimal("25000.00"))
+                    .heldUp(new BigDecimal("500.00"))
+                    .advance(new BigDecimal("1500.00"))
+                    .balance(new BigDecimal("23000.00"))
+                    .build());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        renderer.close();
+    }
+
+    // Current path: letterhead template, cached fonts and logo, written straight to the response
+    @Benchmark
+    public void renderer() throws IOException {
+        renderer.render(invoice, items, OutputStream.nullOutputStream());
+    }
+
+    // Previous InvoiceService.generateInvoicePdf: reads and decodes the logo, creates both fonts and lays
+    // out the letterhead on every call, and buffers the whole document before it is sent
+    @Benchmark
+    public byte[] perRequest() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (PdfDocument pdfDoc = new PdfDocument(new PdfWriter(out));
+             Document doc = new Document(pdfDoc)) {
+            PdfFont boldFont = PdfFontFactory.createFont(StandardFonts.HELVETICA_BOLD);
+            PdfFont regularFont = PdfFontFactory.createFont(StandardFonts.HELVETICA);
+            byte[] logoBytes;
+            try (InputStream logo = getClass().getClassLoader().getResourceAsStream("logo.jpeg")) {
+                logoBytes = logo.readAllBytes();
+            }
+            ImageData logoData = ImageDataFactory.create(logoBytes);
+            Table headerTable = new Table(2);
+            headerTable.setWidth(UnitValue.createPercentValue(80));
+            headerTable.setHorizontalAlignment(HorizontalAlignment.CENTER);
+            headerTable.setMarginBottom(5);
+            headerTable.addCell(new Cell()
+                    .add(new Image(logoData).scaleAbsolute(80, 50))
+                    .setBorder(Border.NO_BORDER)
+                    .setHorizontalAlignment(HorizontalAlignment.RIGHT)
+                    .setVerticalAlignment(VerticalAlignment.MIDDLE)
+                    .setPaddingRight(5));
+            headerTable.addCell(new Cell()
+                    .add(new Paragraph("Kasthuri Enterprises")
+                            .setFont(boldFont)
+                            .setFontSize(20)
+                            .setFontColor(new DeviceRgb(0, 0, 139)))
+                    .setBorder(Border.NO_BORDER)
+                    .setHorizontalAlignment(HorizontalAlignment.LEFT)
+                    .setVerticalAlignment(VerticalAlignment.MIDDLE)
+                    .setPaddingLeft(5));
+            doc.add(headerTable);
+            doc.add(new Paragraph("Address: No: 332, Napawala, Getaheththa\n" +
+                    "Tel: 075 9084603 / 077 7065110\n" +
+                    "Email: kasthurienterprices2014@gmail.com")
+                    .setFont(regularFont)
+                    .setFontSize(10)
+                    .setTextAlignment(TextAlignment.CENTER)
+                    .setMarginBottom(5));
+            doc.add(new Paragraph("B.R. NO: EHE/DS/ADM/07/02329")
+                    .setFont(regularFont)
+                    .setFontSize(10)
+                    .setTextAlignment(TextAlignment.RIGHT)
+                    .setMarginBottom(10));
+            doc.add(new Paragraph()
+                    .setBorderBottom(new SolidBorder(ColorConstants.BLACK, 1f))
+                    .setMarginBottom(15));
+            doc.add(new Paragraph("Invoice").setFont(boldFont).setFontSize(14)
+                    .setTextAlignment(TextAlignment.CENTER).setMarginBottom(15));
+            doc.add(new Paragraph("Invoice No: " + invoice.getInvoiceNo()).setFont(regularFont)
+                    .setTextAlignment(TextAlignment.RIGHT).setMarginBottom(2));
+            doc.add(new Paragraph("Date: " + invoice.getGenerationDate().format(DATE_FORMAT)).setFont(regularFont)
+                    .setTextAlignment(TextAlignment.RIGHT).setMarginBottom(15));
+            doc.add(new Paragraph("Client: " + invoice.getClientName()).setFont(regularFont)
+                    .setMarginBottom(15).setTextAlignment(TextAlignment.LEFT));
+            float[] columnWidths = {10, 15, 30, 15, 15, 15, 15};
+            String[] headers = {"Date", "Vehicle No.", "Particulars", "Rate", "Held Up", "Advance", "Amount"};
+            TextAlignment[] alignments = {
+                    TextAlignment.CENTER, TextAlignment.CENTER, TextAlignment.LEFT,
+                    TextAlignment.RIGHT, TextAlignment.RIGHT, TextAlignment.RIGHT, TextAlignment.RIGHT
+            };
+            Table table = new Table(UnitValue.createPercentArray(columnWidths));
+            table.setWidth(UnitValue.createPercentValue(100));
+            table.setMarginBottom(15);
+            for (int i = 0; i < headers.length; i++) {
+                table.addHeaderCell(new Cell().add(new Paragraph(headers[i]).setFont(boldFont))
+                        .setTextAlignment(alignments[i]).setBorder(new SolidBorder(1f)).setPadding(5));
+            }
+            for (InvoiceItemEntity item : items) {
+                String[] values = {
+                        item.getDate().format(DATE_FORMAT), item.getVehicleRegNo(), item.getParticulars(),
+                        item.getRate().toString(), item.getHeldUp().toString(),
+                        item.getAdvance().toString(), item.getBalance().toString()
+                };
+                for (int i = 0; i < values.length; i++) {
+                    table.addCell(new Cell().add(new Paragraph(values[i]).setFont(regularFont))
+                            .setTextAlignment(alignments[i]).setBorder(new SolidBorder(1f)).setPadding(5));
+                }
+            }
+            doc.add(table);
+            Table totalTable = new Table(UnitValue.createPercentArray(columnWidths));
+            totalTable.setWidth(UnitValue.createPercentValue(100));
+            totalTable.setMarginBottom(15);
+            totalTable.addCell(new Cell(1, 6).add(new Paragraph("Total Amount").setFont(boldFont))
+                    .setBorder(new SolidBorder(1f)).setPadding(5).setTextAlignment(TextAlignment.LEFT));
+            totalTable.addCell(new Cell().add(new Paragraph(invoice.getTotalAmount().toString()).setFont(boldFont))
+                    .setBorder(new SolidBorder(1f)).setPadding(5).setTextAlignment(TextAlignment.RIGHT));
+            doc.add(totalTable);
+            doc.add(new Paragraph("Please Issue Cheques In Favour of \"Kasthuri Enterprises\".")
+                    .setFont(regularFont).setTextAlignment(TextAlignment.LEFT).setMarginTop(10));
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,118 @@
+package com.enterprise.bms.enterprise_bms.benchmark;
+
+import com.enterprise.bms.enterprise_bms.security.JwtRequestFilter;
+import com.enterprise.bms.enterprise_bms.utill.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+// Requests per second through the JWT authentication step, before and after the single parse and the
+// verified-token cache. All three authenticate the same bearer token for the same user.
+//   mvn -Pbenchmark test-compile exec:exec -Djmh.args="JwtFilterBenchmark -prof gc"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtFilterBenchmark {
+    private static final String SECRET = "a1UOoKR9dnsBbRL889njbEKbIvmumNp2yYIcrCEIEP4=";
+    private static final String EMAIL = "clerk@example.com";
+
+    private final UserDetailsService userDetailsService =
+            email -> User.withUsername(email).password("secret").authorities("ROLE_admin").build();
+
+    private JwtRequestFilter filter;
+    private JwtParser parser;
+    private String token;
+    private MockHttpServletRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        JwtUtil jwtUtil = new JwtUtil(SECRET, new SimpleMeterRegistry());
+        filter = new JwtRequestFilter(userDetailsService, jwtUtil);
+        parser = Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET))).build();
+        token = jwtUtil.generateToken(EMAIL, "admin");
+        request = new MockHttpServletRequest("GET", "/transports");
+        request.addHeader("Authorization", "Bearer " + token);
+    }
+
+    // Current JwtRequestFilter on a token it has already seen: claims come from the verified-token cache
+    @Benchmark
+    public Authentication cachedToken() throws Exception {
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return takeAuthentication();
+    }
+
+    // First request with a token: one signature check with the shared parser
+    @Benchmark
+    public Authentication singleParse() {
+        Claims claims = parser.parseClaimsJws(bearerToken()).getBody();
+        return authenticate(claims.getSubject(), claims.getSubject());
+    }
+
+    // Previous JwtRequestFilter/JwtUtil: three full parses (subject, subject again, expiry), each decoding
+    // the key and building a new parser
+    @Benchmark
+    public Authentication legacyTripleParse() {
+        String jwt = bearerToken();
+        String email = legacyClaims(jwt).getSubject();
+        String subject = legacyClaims(jwt).getSubject();
+        if (legacyClaims(jwt).getExpiration().before(new Date())) {
+            return null;
+        }
+        return authenticate(email, subject);
+    }
+
+    private String bearerToken() {
+        return request.getHeader("Authorization").substring(7);
+    }
+
+    private Claims legacyClaims(String jwt) {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+                .build()
+                .parseClaimsJws(jwt)
+                .getBody();
+    }
+
+    private Authentication authenticate(String email, String subject) {
+        UserDetails userDetails = userDetailsService.loadUserByUsername(email);
+        if (!subject.equals(userDetails.getUsername())) {
+            return null;
+        }
+        return new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+    }
+
+    private static Authentication takeAuthentication() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+}
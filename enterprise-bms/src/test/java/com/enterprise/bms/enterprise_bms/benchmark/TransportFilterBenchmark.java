@@ -0,0 +1,196 @@
+package com.enterprise.bms.enterprise_bms.benchmark;
+
+import com.enterprise.bms.enterprise_bms.EnterpriseBmsApplication;
+import com.enterprise.bms.enterprise_bms.entity.OwnVehiclesEntity;
+import com.enterprise.bms.enterprise_bms.entity.TransportEntity;
+import com.enterprise.bms.enterprise_bms.repository.OwnVehiclesRepository;
+import com.enterprise.bms.enterprise_bms.repository.TransportRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// TransportRepository.findFiltered / findFilteredPage on 1M seeded rows in the test profile's H2 database:
+// the Specification queries against the previous "(:x IS NULL OR ...)" JPQL, for a few filter combinations.
+// Each fork seeds its own database (about a minute), so expect a few minutes per filter combination.
+//   mvn -Pbenchmark test-compile exec:exec -Djmh.args="TransportFilterBenchmark -prof gc"
+// Against MySQL instead, with the production profile's driver settings (the schema is dropped afterwards):
+//   -Djmh.args="TransportFilterBenchmark -jvmArgsAppend '-Dspring.profiles.active=production
+//       -Dspring.datasource.url=jdbc:mysql://localhost:3306/bms_bench?createDatabaseIfNotExist=true
+//       -Dspring.datasource.driver-class-name=com.mysql.cj.jdbc.Driver -Dspring.datasource.username=root'"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class TransportFilterBenchmark {
+    private static final int ROWS = 1_000_000;
+    private static final int VEHICLES = 200;
+    private static final LocalDate FIRST_DAY = LocalDate.of(2019, 1, 1);
+    private static final int DAYS = 6 * 365;
+    private static final int PAGE_SIZE = 50;
+
+    // Previous TransportRepository.findFiltered / findFilteredPage, every filter in the statement
+    private static final String LEGACY_FILTER = "SELECT t FROM TransportEntity t WHERE t.isDeleted = false " +
+            "AND (:ownVehicleId IS NULL OR t.ownVehicle.id = :ownVehicleId) " +
+            "AND (:externalVehicleId IS NULL OR t.externalVehicle.id = :externalVehicleId) " +
+            "AND (:startDate IS NULL OR t.loadingDate >= :startDate) " +
+            "AND (:endDate IS NULL OR t.loadingDate <= :endDate) " +
+            "AND (:invoiceStatus IS NULL OR " +
+            " (:invoiceStatus = 'Not Invoiced' AND (t.invoiceStatus IS NULL OR t.invoiceStatus = 'Not Invoiced')) OR " +
+            " (:invoiceStatus = 'Invoiced' AND t.invoiceStatus IN ('Invoiced', 'Paid'))) ";
+    private static final String LEGACY_FILTERED = LEGACY_FILTER + "ORDER BY t.loadingDate DESC, t.createdAt DESC";
+    private static final String LEGACY_PAGE = LEGACY_FILTER +
+            "AND (:afterDate IS NULL OR t.loadingDate < :afterDate OR (t.loadingDate = :afterDate AND t.id < :afterId)) " +
+            "ORDER BY t.loadingDate DESC, t.id DESC";
+
+    private static final String INSERT_SQL = "INSERT INTO tbl_transports " +
+            "(client_name, starting_point, destination, loading_date, own_vehicle_id, distance_km, agreed_amount, " +
+            "advance_received, balance_received, held_up, payment_status, trip_status, is_delete, invoice_status, " +
+            "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, 0, 0, ?, 1, 2, false, ?, ?, ?)";
+
+    // Active rows matched: vehicle ~4,900 (one of 200 vehicles), month ~13,400 (June 2023),
+    // vehicle+month ~70, month+invoiced ~5,400
+    @Param({"vehicle", "month", "vehicle+month", "month+invoiced"})
+    public String filters;
+
+    private ConfigurableApplicationContext context;
+    private TransportRepository transportRepository;
+    private EntityManager entityManager;
+    private TransactionTemplate readOnly;
+
+    private Long ownVehicleId;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private String invoiceStatus;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(EnterpriseBmsApplication.class)
+                .profiles("test")
+                .properties("server.port=0", "spring.jpa.properties.hibernate.generate_statistics=false")
+                .run();
+        transportRepository = context.getBean(TransportRepository.class);
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(context.getBean(EntityManagerFactory.class));
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+
+        List<Long> vehicleIds = seedVehicles(context.getBean(OwnVehiclesRepository.class));
+        seedTransports(context.getBean(JdbcTemplate.class), vehicleIds,
+                context.getEnvironment().getProperty("spring.datasource.url", "").startsWith("jdbc:h2:"));
+
+        ownVehicleId = filters.contains("vehicle") ? vehicleIds.get(VEHICLES / 2) : null;
+        startDate = filters.contains("month") ? LocalDate.of(2023, 6, 1) : null;
+        endDate = filters.contains("month") ? LocalDate.of(2023, 6, 30) : null;
+        invoiceStatus = filters.contains("invoiced") ? "Invoiced" : null;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<TransportEntity> specificationList() {
+        return readOnly.execute(status -> transportRepository.findFiltered(
+                ownVehicleId, null, startDate, endDate, invoiceStatus));
+    }
+
+    @Benchmark
+    public List<TransportEntity> legacyList() {
+        return readOnly.execute(status -> entityManager.createQuery(LEGACY_FILTERED, TransportEntity.class)
+                .setParameter("ownVehicleId", ownVehicleId)
+                .setParameter("externalVehicleId", null)
+                .setParameter("startDate", startDate)
+                .setParameter("endDate", endDate)
+                .setParameter("invoiceStatus", invoiceStatus)
+                .getResultList());
+    }
+
+    // First keyset page of 50
+    @Benchmark
+    public List<TransportEntity> specificationPage() {
+        return readOnly.execute(status -> transportRepository.findFilteredPage(
+                ownVehicleId, null, startDate, endDate, invoiceStatus, null, null, PageRequest.of(0, PAGE_SIZE)));
+    }
+
+    @Benchmark
+    public List<TransportEntity> legacyPage() {
+        return readOnly.execute(status -> entityManager.createQuery(LEGACY_PAGE, TransportEntity.class)
+                .setParameter("ownVehicleId", ownVehicleId)
+                .setParameter("externalVehicleId", null)
+                .setParameter("startDate", startDate)
+                .setParameter("endDate", endDate)
+                .setParameter("invoiceStatus", invoiceStatus)
+                .setParameter("afterDate", null)
+                .setParameter("afterId", null)
+                .setMaxResults(PAGE_SIZE)
+                .getResultList());
+    }
+
+    private static List<Long> seedVehicles(OwnVehiclesRepository ownVehiclesRepository) {
+        List<OwnVehiclesEntity> vehicles = new ArrayList<>(VEHICLES);
+        for (int i = 0; i < VEHICLES; i++) {
+            vehicles.add(OwnVehiclesEntity.builder()
+                    .regNumber("BM-" + (1000 + i))
+                    .type("Lorry")
+                    .status("Available")
+                    .currentMileage(BigDecimal.ZERO)
+                    .isDelete(false)
+                    .build());
+        }
+        return ownVehiclesRepository.saveAll(vehicles).stream().map(OwnVehiclesEntity::getId).toList();
+    }
+
+    // Loading dates spread evenly over six years; 2% soft-deleted, about a third invoiced or paid
+    private static void seedTransports(JdbcTemplate jdbcTemplate, List<Long> vehicleIds, boolean h2) {
+        Random random = new Random(42);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        String[] invoiceStatuses = {"Not Invoiced", "Not Invoiced", "Invoiced", "Paid", null};
+        List<Object[]> batch = new ArrayList<>(10_000);
+        for (int i = 0; i < ROWS; i++) {
+            BigDecimal amount = BigDecimal.valueOf(10_000 + random.nextInt(90_000));
+            batch.add(new Object[]{
+                    "Client " + random.nextInt(500), "Colombo", "Kandy",
+                    Date.valueOf(FIRST_DAY.plusDays(random.nextInt(DAYS))),
+                    vehicleIds.get(random.nextInt(vehicleIds.size())),
+                    BigDecimal.valueOf(20 + random.nextInt(400)), amount, amount,
+                    invoiceStatuses[random.nextInt(invoiceStatuses.length)], now, now});
+            if (batch.size() == 10_000) {
+                jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+                batch.clear();
+            }
+        }
+        jdbcTemplate.update("UPDATE tbl_transports SET is_delete = true WHERE MOD(id, 50) = 0");
+        jdbcTemplate.execute(h2 ? "ANALYZE" : "ANALYZE TABLE tbl_transports");
+    }
+}
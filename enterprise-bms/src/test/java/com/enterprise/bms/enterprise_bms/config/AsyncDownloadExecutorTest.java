@@ -0,0 +1,32 @@
+package com.enterprise.bms.enterprise_bms.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// StreamingResponseBody downloads must run on the bounded applicationTaskExecutor, not on
+// MVC's fallback SimpleAsyncTaskExecutor (one new thread per request)
+@SpringBootTest
+@ActiveProfiles("test")
+class AsyncDownloadExecutorTest {
+
+    @Autowired
+    private RequestMappingHandlerAdapter handlerAdapter;
+    @Autowired
+    private ThreadPoolTaskExecutor applicationTaskExecutor;
+
+    @Test
+    void streamedDownloadsUseTheBoundedExecutor() {
+        AsyncTaskExecutor mvcExecutor = (AsyncTaskExecutor) ReflectionTestUtils.getField(handlerAdapter, "taskExecutor");
+        assertThat(mvcExecutor).isSameAs(applicationTaskExecutor);
+        assertThat(applicationTaskExecutor.getMaxPoolSize()).isEqualTo(8);
+        assertThat(applicationTaskExecutor.getQueueCapacity()).isEqualTo(100);
+    }
+}
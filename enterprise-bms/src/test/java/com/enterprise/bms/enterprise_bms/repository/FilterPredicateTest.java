@@ -0,0 +1,143 @@
+package com.enterprise.bms.enterprise_bms.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Every combination of list filters must put exactly the supplied filters into the WHERE clause,
+// with no "(? IS NULL OR ...)" left for the ones that were not
+@SpringBootTest
+@ActiveProfiles("test")
+class FilterPredicateTest {
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+    private static final LocalDate END = LocalDate.of(2024, 1, 31);
+    private static final PageRequest PAGE = PageRequest.of(0, 20);
+
+    @Autowired
+    private TransportRepository transportRepository;
+    @Autowired
+    private FuelRepository fuelRepository;
+    @Autowired
+    private AdvanceRepository advanceRepository;
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+    @Autowired
+    private PaymentsRepository paymentsRepository;
+
+    @Test
+    void transportFilters() {
+        String[] predicates = {"own_vehicle_id=?", "ext_hire_id=?", "loading_date>=?", "loading_date<=?", "invoice_status"};
+        assertOnlySupplied(predicates, on -> transportRepository.findFiltered(
+                on[0] ? 1L : null, on[1] ? 2L : null, on[2] ? START : null, on[3] ? END : null,
+                on[4] ? "Invoiced" : null));
+        assertOnlySupplied(withKeyset(predicates, "loading_date<?"), on -> transportRepository.findFilteredPage(
+                on[0] ? 1L : null, on[1] ? 2L : null, on[2] ? START : null, on[3] ? END : null,
+                on[4] ? "Not Invoiced" : null, on[5] ? END : null, 100L, PAGE));
+    }
+
+    @Test
+    void fuelFilters() {
+        String[] predicates = {"vehicle_id=?", "fuel_date>=?", "fuel_date<=?"};
+        assertOnlySupplied(predicates, on -> fuelRepository.findFiltered(
+                on[0] ? 1L : null, on[1] ? START : null, on[2] ? END : null));
+        assertOnlySupplied(withKeyset(predicates, "fuel_date<?"), on -> fuelRepository.findFilteredPage(
+                on[0] ? 1L : null, on[1] ? START : null, on[2] ? END : null, on[3] ? END : null, 100L, PAGE));
+        assertOnlySupplied(new String[]{"reg_number=?", "fuel_date>=?", "fuel_date<=?"},
+                on -> fuelRepository.findByRegNumberAndDateRange(
+                        on[0] ? "LB-4100" : null, on[1] ? START : null, on[2] ? END : null));
+    }
+
+    @Test
+    void advanceFilters() {
+        String[] predicates = {"recipient_type=?", "recipient_id=?", "advance_date>=?", "advance_date<=?"};
+        assertOnlySupplied(predicates, on -> advanceRepository.findFiltered(
+                on[0] ? "Driver" : null, on[1] ? 1L : null, on[2] ? START : null, on[3] ? END : null));
+        assertOnlySupplied(withKeyset(predicates, "advance_date<?"), on -> advanceRepository.findFilteredPage(
+                on[0] ? "Driver" : null, on[1] ? 1L : null, on[2] ? START : null, on[3] ? END : null,
+                on[4] ? END : null, 100L, PAGE));
+    }
+
+    @Test
+    void attendanceFilters() {
+        String[] predicates = {"recipient_type=?", "recipient_id=?", "attendance_date>=?", "attendance_date<=?"};
+        assertOnlySupplied(predicates, on -> attendanceRepository.findFiltered(
+                on[0] ? "Driver" : null, on[1] ? 1L : null, on[2] ? START : null, on[3] ? END : null));
+        assertOnlySupplied(withKeyset(predicates, "attendance_date<?"), on -> attendanceRepository.findFilteredPage(
+                on[0] ? "Driver" : null, on[1] ? 1L : null, on[2] ? START : null, on[3] ? END : null,
+                on[4] ? END : null, 100L, PAGE));
+    }
+
+    @Test
+    void paymentsFilters() {
+        String[] predicates = {"recipient_type=?", "recipient_id=?", "period_month=?", "period_year=?"};
+        assertOnlySupplied(predicates, on -> paymentsRepository.findFiltered(
+                on[0] ? "Driver" : null, on[1] ? 1L : null, on[2] ? 1 : null, on[3] ? 2024 : null));
+        assertOnlySupplied(withKeyset(predicates, "period_year<?"), on -> paymentsRepository.findFilteredPage(
+                on[0] ? "Driver" : null, on[1] ? 1L : null, on[2] ? 1 : null, on[3] ? 2024 : null,
+                on[4] ? 202401 : null, 100L, PAGE));
+    }
+
+    private static String[] withKeyset(String[] predicates, String keyset) {
+        String[] all = Arrays.copyOf(predicates, predicates.length + 1);
+        all[predicates.length] = keyset;
+        return all;
+    }
+
+    // Runs the query once per subset of filters (on[i] = filter i supplied) and checks that the WHERE
+    // clause is is_delete plus one conjunct per supplied filter
+    private static void assertOnlySupplied(String[] predicates, Function<boolean[], List<?>> query) {
+        for (int mask = 0; mask < 1 << predicates.length; mask++) {
+            boolean[] on = new boolean[predicates.length];
+            int supplied = 0;
+            for (int i = 0; i < predicates.length; i++) {
+                on[i] = (mask & 1 << i) != 0;
+                supplied += on[i] ? 1 : 0;
+            }
+            List<String> conjuncts = conjuncts(SqlCapture.capture(() -> query.apply(on)));
+            String where = String.join(" and ", conjuncts);
+            assertThat(where).as(where).doesNotContain("? is null");
+            assertThat(conjuncts).as(where).hasSize(1 + supplied).first().isEqualTo("is_delete=?");
+            for (int i = 0; i < predicates.length; i++) {
+                String predicate = predicates[i];
+                boolean present = conjuncts.stream().anyMatch(c -> c.equals(predicate)
+                        || c.startsWith(predicate + " ") || c.startsWith("(" + predicate));
+                assertThat(present).as(predicate + " in " + where).isEqualTo(on[i]);
+            }
+        }
+    }
+
+    // Top-level AND terms of the single statement's WHERE clause, with table aliases removed
+    private static List<String> conjuncts(List<String> statements) {
+        assertThat(statements).hasSize(1);
+        String sql = statements.get(0).replaceAll("\\b\\w+_\\d+\\.", "");
+        int from = sql.indexOf(" where ") + " where ".length();
+        int to = sql.indexOf(" order by ", from);
+        String where = sql.substring(from, to < 0 ? sql.length() : to);
+        List<String> conjuncts = new ArrayList<>();
+        int depth = 0;
+        int start = 0;
+        for (int i = 0; i < where.length(); i++) {
+            char c = where.charAt(i);
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (depth == 0 && where.startsWith(" and ", i)) {
+                conjuncts.add(where.substring(start, i));
+                start = i + " and ".length();
+            }
+        }
+        conjuncts.add(where.substring(start));
+        return conjuncts;
+    }
+}
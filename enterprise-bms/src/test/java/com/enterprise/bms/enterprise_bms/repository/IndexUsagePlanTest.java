@@ -0,0 +1,161 @@
+package com.enterprise.bms.enterprise_bms.repository;
+
+import com.enterprise.bms.enterprise_bms.entity.FuelEntity;
+import com.enterprise.bms.enterprise_bms.entity.MaintenanceEntity;
+import com.enterprise.bms.enterprise_bms.entity.OwnVehiclesEntity;
+import com.enterprise.bms.enterprise_bms.entity.TransportEntity;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The list and keyset-page queries must read through the composite indexes declared on the entities,
+// not scan the table. Plans come from H2 in MySQL mode over a seeded two years of records (10% deleted).
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class IndexUsagePlanTest {
+    private static final LocalDate FIRST_DAY = LocalDate.of(2021, 1, 1);
+    private static final int DAYS = 730;
+    private static final LocalDate START = LocalDate.of(2022, 3, 1);
+    private static final LocalDate END = LocalDate.of(2022, 3, 31);
+    private static final PageRequest PAGE = PageRequest.of(0, 20);
+    private static final Pattern ACCESS_PATH = Pattern.compile("FROM \\S+ \\S+\\s+/\\* public\\.([\\w.]+)");
+
+    @Autowired
+    private OwnVehiclesRepository ownVehiclesRepository;
+    @Autowired
+    private TransportRepository transportRepository;
+    @Autowired
+    private FuelRepository fuelRepository;
+    @Autowired
+    private MaintenanceRepository maintenanceRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<OwnVehiclesEntity> vehicles = new ArrayList<>();
+
+    @BeforeAll
+    void seed() {
+        for (int v = 0; v < 20; v++) {
+            vehicles.add(ownVehiclesRepository.save(OwnVehiclesEntity.builder()
+                    .regNumber("PLAN-" + v)
+                    .type("Lorry")
+                    .status("Available")
+                    .currentMileage(BigDecimal.ZERO)
+                    .isDelete(false)
+                    .build()));
+        }
+        List<TransportEntity> trips = new ArrayList<>();
+        List<FuelEntity> fills = new ArrayList<>();
+        List<MaintenanceEntity> repairs = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            OwnVehiclesEntity vehicle = vehicles.get(i % vehicles.size());
+            LocalDate date = FIRST_DAY.plusDays(i % DAYS);
+            boolean deleted = i % 10 == 0;
+            trips.add(TransportEntity.builder()
+                    .clientName("Plan Client")
+                    .startingPoint("Colombo")
+                    .destination("Kandy")
+                    .loadingDate(date)
+                    .ownVehicle(vehicle)
+                    .distanceKm(new BigDecimal("100"))
+                    .agreedAmount(new BigDecimal("20000"))
+                    .advanceReceived(BigDecimal.ZERO)
+                    .balanceReceived(BigDecimal.ZERO)
+                    .heldUp(BigDecimal.ZERO)
+                    .paymentStatus(1)
+                    .tripStatus(2)
+                    .isDeleted(deleted)
+                    .invoiceStatus("Not Invoiced")
+                    .build());
+            fills.add(FuelEntity.builder()
+                    .fuelDate(date)
+                    .vehicle(vehicle)
+                    .fuelQuantity(new BigDecimal("50"))
+                    .totalCost(new BigDecimal("18000"))
+                    .isDelete(deleted)
+                    .build());
+            repairs.add(MaintenanceEntity.builder()
+                    .ownVehicle(vehicle)
+                    .date(date)
+                    .description("Service")
+                    .quantity(1)
+                    .totalPrice(new BigDecimal("5000"))
+                    .isDelete(deleted)
+                    .build());
+        }
+        transportRepository.saveAll(trips);
+        fuelRepository.saveAll(fills);
+        maintenanceRepository.saveAll(repairs);
+        // Row counts and selectivity for H2's cost-based index choice
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @AfterAll
+    void cleanUp() {
+        String seeded = "(SELECT id FROM tbl_own_vehicles WHERE reg_number LIKE 'PLAN-%')";
+        jdbcTemplate.update("DELETE FROM tbl_fuel WHERE vehicle_id IN " + seeded);
+        jdbcTemplate.update("DELETE FROM tbl_maintenance WHERE vehicle_id IN " + seeded);
+        jdbcTemplate.update("DELETE FROM tbl_transports WHERE own_vehicle_id IN " + seeded);
+        jdbcTemplate.update("DELETE FROM tbl_own_vehicles WHERE reg_number LIKE 'PLAN-%'");
+    }
+
+    @Test
+    void transportListsUseTheirIndexes() {
+        assertUsesIndex(() -> transportRepository.findFiltered(null, null, START, END, null),
+                "idx_transport_active_loading_date");
+        assertUsesIndex(() -> transportRepository.findFiltered(vehicleId(), null, null, null, null),
+                "idx_transport_own_vehicle_loading_date");
+        assertUsesIndex(() -> transportRepository.findFilteredPage(null, null, null, null, null,
+                        END, Long.MAX_VALUE, PAGE),
+                "idx_transport_active_loading_date");
+    }
+
+    @Test
+    void fuelListsUseTheirIndexes() {
+        assertUsesIndex(() -> fuelRepository.findFiltered(null, START, END),
+                "idx_fuel_active_fuel_date");
+        assertUsesIndex(() -> fuelRepository.findFilteredPage(null, START, END, END, Long.MAX_VALUE, PAGE),
+                "idx_fuel_active_fuel_date");
+        assertUsesIndex(() -> fuelRepository.findFilteredPage(vehicleId(), null, null, END, Long.MAX_VALUE, PAGE),
+                "idx_fuel_vehicle_fuel_date");
+    }
+
+    @Test
+    void maintenanceListsUseTheirIndexes() {
+        assertUsesIndex(() -> maintenanceRepository.findFiltered(null, START, END),
+                "idx_maintenance_active_date");
+        assertUsesIndex(() -> maintenanceRepository.findFilteredPage(null, null, null, END, Long.MAX_VALUE, PAGE),
+                "idx_maintenance_active_date");
+    }
+
+    private Long vehicleId() {
+        return vehicles.get(3).getId();
+    }
+
+    // EXPLAIN of the one statement the repository call runs; H2 names the index it reads the
+    // filtered table through in a comment under FROM ("tableScan" when it reads every row)
+    private void assertUsesIndex(Runnable query, String index) {
+        List<String> statements = SqlCapture.capture(query);
+        assertThat(statements).hasSize(1);
+        String plan = String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + statements.get(0), String.class));
+        Matcher access = ACCESS_PATH.matcher(plan);
+        assertThat(access.find()).as(plan).isTrue();
+        assertThat(access.group(1)).as(plan).isEqualTo(index);
+    }
+}
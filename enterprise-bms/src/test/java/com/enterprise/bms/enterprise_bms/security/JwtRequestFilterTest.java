@@ -0,0 +1,81 @@
+package com.enterprise.bms.enterprise_bms.security;
+
+import com.enterprise.bms.enterprise_bms.utill.JwtUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The filter verifies a token once per request, and not at all while its claims are cached
+class JwtRequestFilterTest {
+    private static final String SECRET = "a1UOoKR9dnsBbRL889njbEKbIvmumNp2yYIcrCEIEP4=";
+    private static final String EMAIL = "clerk@example.com";
+
+    private SimpleMeterRegistry meterRegistry;
+    private JwtUtil jwtUtil;
+    private JwtRequestFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        jwtUtil = new JwtUtil(SECRET, meterRegistry);
+        filter = new JwtRequestFilter(
+                email -> User.withUsername(email).password("secret").authorities("ROLE_admin").build(),
+                jwtUtil);
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void firstRequestVerifiesTheTokenOnce() throws Exception {
+        String token = jwtUtil.generateToken(EMAIL, "admin");
+
+        authenticate(token);
+
+        // One claims lookup, which missed, so the token was parsed and verified once and its claims stored
+        assertThat(gets("miss")).isEqualTo(1);
+        assertThat(gets("hit")).isZero();
+        assertThat(cachedTokens()).isEqualTo(1);
+    }
+
+    @Test
+    void laterRequestsReuseTheVerifiedClaims() throws Exception {
+        String token = jwtUtil.generateToken(EMAIL, "admin");
+
+        for (int i = 0; i < 5; i++) {
+            authenticate(token);
+            SecurityContextHolder.clearContext();
+        }
+
+        assertThat(gets("miss")).isEqualTo(1);
+        assertThat(gets("hit")).isEqualTo(4);
+        assertThat(cachedTokens()).isEqualTo(1);
+    }
+
+    private void authenticate(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/transports");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNotNull();
+        assertThat(SecurityContextHolder.getContext().getAuthentication().getName()).isEqualTo(EMAIL);
+    }
+
+    private double cachedTokens() {
+        return meterRegistry.get("cache.size").tag("cache", "verifiedTokens").gauge().value();
+    }
+
+    private double gets(String result) {
+        return meterRegistry.get("cache.gets").tag("cache", "verifiedTokens").tag("result", result)
+                .functionCounter().count();
+    }
+}
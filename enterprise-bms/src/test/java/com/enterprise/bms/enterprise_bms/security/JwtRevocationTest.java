@@ -0,0 +1,83 @@
+package com.enterprise.bms.enterprise_bms.security;
+
+import com.enterprise.bms.enterprise_bms.utill.JwtUtil;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Cached claims must not outlive a revocation or the token's own exp. Tokens are signed here with an
+// explicit iat/exp, since iat has second precision and generateToken would tie the tests to the clock.
+class JwtRevocationTest {
+    private static final String SECRET = "a1UOoKR9dnsBbRL889njbEKbIvmumNp2yYIcrCEIEP4=";
+    private static final String EMAIL = "clerk@example.com";
+
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil(SECRET, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void tokenIssuedBeforeRevocationIsRejectedEvenWhenCached() {
+        long now = System.currentTimeMillis();
+        String token = token(EMAIL, now - 5_000, now + 60_000);
+        assertThat(jwtUtil.parseToken(token).getSubject()).isEqualTo(EMAIL);
+
+        jwtUtil.revokeTokens(EMAIL);
+
+        assertThatThrownBy(() -> jwtUtil.parseToken(token)).hasMessage("JWT token has been revoked");
+    }
+
+    @Test
+    void revocationKeepsOtherSubjectsCachedAndValid() {
+        long now = System.currentTimeMillis();
+        String token = token("driver@example.com", now - 5_000, now + 60_000);
+        jwtUtil.parseToken(token);
+
+        jwtUtil.revokeTokens(EMAIL);
+
+        assertThat(jwtUtil.parseToken(token).getSubject()).isEqualTo("driver@example.com");
+    }
+
+    @Test
+    void tokenIssuedInALaterSecondIsAccepted() {
+        jwtUtil.revokeTokens(EMAIL);
+        long nextSecond = (System.currentTimeMillis() / 1000 + 1) * 1000;
+        String token = token(EMAIL, nextSecond, nextSecond + 60_000);
+
+        assertThat(jwtUtil.parseToken(token).getSubject()).isEqualTo(EMAIL);
+        // Served from the cache the second time, still accepted
+        assertThat(jwtUtil.parseToken(token).getSubject()).isEqualTo(EMAIL);
+    }
+
+    @Test
+    void cachedClaimsAreNotServedAfterExpiry() throws InterruptedException {
+        long now = System.currentTimeMillis();
+        long expiry = (now / 1000 + 2) * 1000;
+        String token = token(EMAIL, now, expiry);
+        assertThat(jwtUtil.parseToken(token).getSubject()).isEqualTo(EMAIL);
+
+        Thread.sleep(expiry - System.currentTimeMillis() + 100);
+
+        assertThatThrownBy(() -> jwtUtil.parseToken(token)).hasMessage("JWT token is expired");
+    }
+
+    private static String token(String email, long issuedAt, long expiresAt) {
+        return Jwts.builder()
+                .setSubject(email)
+                .setIssuedAt(new Date(issuedAt))
+                .setExpiration(new Date(expiresAt))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)), SignatureAlgorithm.HS256)
+                .compact();
+    }
+}
@@ -0,0 +1,66 @@
+package com.enterprise.bms.enterprise_bms.service;
+
+import com.enterprise.bms.enterprise_bms.entity.FuelEntity;
+import com.enterprise.bms.enterprise_bms.entity.OwnVehiclesEntity;
+import com.enterprise.bms.enterprise_bms.repository.BackfillMarkerRepository;
+import com.enterprise.bms.enterprise_bms.repository.FuelRepository;
+import com.enterprise.bms.enterprise_bms.repository.OwnVehiclesRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class FuelEfficiencyBackfillTest {
+
+    @Autowired
+    private FuelEfficiencyService fuelEfficiencyService;
+    @Autowired
+    private BackfillMarkerRepository backfillMarkerRepository;
+    @Autowired
+    private FuelRepository fuelRepository;
+    @Autowired
+    private OwnVehiclesRepository ownVehiclesRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    // Fills without odometer readings never get a distance; the backfill must still run only once
+    @Test
+    void backfillRunsOnceEvenWhenNoFillGetsADistance() {
+        OwnVehiclesEntity vehicle = ownVehiclesRepository.save(OwnVehiclesEntity.builder()
+                .regNumber("BF-" + System.nanoTime())
+                .status("Available")
+                .currentMileage(BigDecimal.ZERO)
+                .isDelete(false)
+                .build());
+        for (int i = 0; i < 3; i++) {
+            fuelRepository.save(FuelEntity.builder()
+                    .fuelDate(LocalDate.of(2024, 5, 1 + i))
+                    .vehicle(vehicle)
+                    .fuelQuantity(new BigDecimal("40"))
+                    .totalCost(new BigDecimal("14000"))
+                    .isDelete(false)
+                    .build());
+        }
+        backfillMarkerRepository.deleteById(FuelEfficiencyService.BACKFILL_MARKER);
+
+        fuelEfficiencyService.backfillOnce();
+        assertThat(backfillMarkerRepository.existsById(FuelEfficiencyService.BACKFILL_MARKER)).isTrue();
+        assertThat(fuelRepository.countWithDistance()).isZero();
+
+        // Next start: only the marker lookup
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        fuelEfficiencyService.backfillOnce();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,88 @@
+package com.enterprise.bms.enterprise_bms.service;
+
+import com.enterprise.bms.enterprise_bms.dto.ImportJobDTO;
+import com.enterprise.bms.enterprise_bms.dto.ImportResultDTO;
+import com.enterprise.bms.enterprise_bms.entity.OwnVehiclesEntity;
+import com.enterprise.bms.enterprise_bms.repository.OwnVehiclesRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// A row the database refuses costs that row only: the rest of its batch is imported and the job completes
+@SpringBootTest
+@ActiveProfiles("test")
+class ImportJobRowRejectionTest {
+
+    @Autowired
+    private ImportJobService importJobService;
+    @Autowired
+    private OwnVehiclesRepository ownVehiclesRepository;
+
+    private String regNumber;
+
+    @BeforeEach
+    void setUp() {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("importer@example.com", null, List.of()));
+        regNumber = "IMP-" + System.nanoTime();
+        ownVehiclesRepository.save(OwnVehiclesEntity.builder()
+                .regNumber(regNumber)
+                .type("Lorry")
+                .status("Available")
+                .currentMileage(BigDecimal.ZERO)
+                .isDelete(false)
+                .build());
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void rowsTheDatabaseRefusesBecomeRowErrors() throws Exception {
+        String csv = "Vehicle Reg Number,Date,Description,Quantity,Unit Price\n"
+                + regNumber + ",2023-05-01,Oil change,1,5000\n"
+                // description is VARCHAR(255)
+                + regNumber + ",2023-05-02," + "x".repeat(300) + ",1,5000\n"
+                + regNumber + ",2023-05-03,Brake pads,2,12000.50\n"
+                // unit_price is DECIMAL(8,2)
+                + regNumber + ",2023-05-04,Engine overhaul,1,123456789\n"
+                + regNumber + ",2023-05-05,Wheel alignment,1,3500\n";
+        ImportJobDTO job = importJobService.submitJob(ImportJobService.MAINTENANCE,
+                new MockMultipartFile("file", "maintenance.csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8)));
+
+        job = awaitFinished(job.getId());
+
+        assertThat(job.getStatus()).as(job.getErrorMessage()).isEqualTo("COMPLETED");
+        assertThat(job.getRowsRead()).isEqualTo(5);
+        assertThat(job.getRowsImported()).isEqualTo(3);
+        assertThat(job.getRowsFailed()).isEqualTo(2);
+        List<ImportResultDTO.RowError> errors = importJobService.getErrors(job.getId());
+        assertThat(errors).extracting(ImportResultDTO.RowError::getRow).containsExactly(3, 5);
+        assertThat(errors).allSatisfy(error -> assertThat(error.getMessage()).startsWith("Rejected by the database"));
+    }
+
+    private ImportJobDTO awaitFinished(Long jobId) throws InterruptedException {
+        for (int i = 0; i < 300; i++) {
+            ImportJobDTO job = importJobService.getJob(jobId);
+            if (!"QUEUED".equals(job.getStatus()) && !"RUNNING".equals(job.getStatus())) {
+                return job;
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("Import job " + jobId + " did not finish");
+    }
+}
@@ -0,0 +1,109 @@
+package com.enterprise.bms.enterprise_bms.service;
+
+import com.enterprise.bms.enterprise_bms.dto.InvoiceDTO;
+import com.enterprise.bms.enterprise_bms.entity.TransportEntity;
+import com.enterprise.bms.enterprise_bms.entity.UserEntity;
+import com.enterprise.bms.enterprise_bms.repository.InvoiceSequenceRepository;
+import com.enterprise.bms.enterprise_bms.repository.TransportRepository;
+import com.enterprise.bms.enterprise_bms.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Many clerks invoicing at once, starting with the first invoice of the year, must never share a number
+@SpringBootTest
+@ActiveProfiles("test")
+class InvoiceNumberConcurrencyTest {
+    private static final int THREADS = 16;
+    private static final int INVOICES_PER_THREAD = 5;
+
+    @Autowired
+    private InvoiceService invoiceService;
+    @Autowired
+    private TransportRepository transportRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private InvoiceSequenceRepository invoiceSequenceRepository;
+
+    @Test
+    void concurrentInvoicesGetUniqueConsecutiveNumbers() throws Exception {
+        int year = Year.now().getValue();
+        // No counter row yet: the first invoices of the year race to create it
+        invoiceSequenceRepository.deleteById(year);
+        UserEntity clerk = userRepository.save(UserEntity.builder()
+                .username("clerk")
+                .password("secret")
+                .role("admin")
+                .email("clerk-" + System.nanoTime() + "@example.com")
+                .isActive(true)
+                .build());
+        List<Long> transportIds = new ArrayList<>();
+        for (int i = 0; i < THREADS * INVOICES_PER_THREAD; i++) {
+            transportIds.add(transportRepository.save(completedTrip()).getId());
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<String>>> results = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            List<Long> mine = transportIds.subList(t * INVOICES_PER_THREAD, (t + 1) * INVOICES_PER_THREAD);
+            results.add(pool.submit(() -> {
+                start.await();
+                List<String> numbers = new ArrayList<>();
+                for (Long transportId : mine) {
+                    InvoiceDTO invoice = invoiceService.createInvoice(List.of(transportId), clerk.getId());
+                    numbers.add(invoice.getInvoiceNo());
+                }
+                return numbers;
+            }));
+        }
+        start.countDown();
+        List<Integer> issued = new ArrayList<>();
+        for (Future<List<String>> result : results) {
+            for (String invoiceNo : result.get(60, TimeUnit.SECONDS)) {
+                assertThat(invoiceNo).matches("INV-" + year + "-\\d{3,}");
+                issued.add(Integer.parseInt(invoiceNo.substring(invoiceNo.lastIndexOf('-') + 1)));
+            }
+        }
+        pool.shutdown();
+
+        // No rollbacks happened, so the numbers are one gap-free run
+        assertThat(issued).hasSize(THREADS * INVOICES_PER_THREAD).doesNotHaveDuplicates();
+        int first = issued.stream().min(Integer::compare).orElseThrow();
+        assertThat(issued.stream().max(Integer::compare).orElseThrow()).isEqualTo(first + issued.size() - 1);
+    }
+
+    private TransportEntity completedTrip() {
+        return TransportEntity.builder()
+                .clientName("Concurrent Client")
+                .description("Container")
+                .startingPoint("Colombo")
+                .destination("Galle")
+                .loadingDate(LocalDate.now())
+                .distanceKm(new BigDecimal("120"))
+                .agreedAmount(new BigDecimal("30000"))
+                .advanceReceived(BigDecimal.ZERO)
+                .balanceReceived(BigDecimal.ZERO)
+                .heldUp(BigDecimal.ZERO)
+                .paymentStatus(1)
+                .tripStatus(2)
+                .isDeleted(false)
+                .invoiceStatus("Not Invoiced")
+                .build();
+    }
+}
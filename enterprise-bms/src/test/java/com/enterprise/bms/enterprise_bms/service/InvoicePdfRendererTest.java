@@ -0,0 +1,85 @@
+package com.enterprise.bms.enterprise_bms.service;
+
+import com.enterprise.bms.enterprise_bms.entity.InvoiceEntity;
+import com.enterprise.bms.enterprise_bms.entity.InvoiceItemEntity;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfName;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.canvas.parser.PdfTextExtractor;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InvoicePdfRendererTest {
+    private static InvoicePdfRenderer renderer;
+
+    @BeforeAll
+    static void init() throws Exception {
+        renderer = new InvoicePdfRenderer();
+        renderer.init();
+    }
+
+    @AfterAll
+    static void close() {
+        renderer.close();
+    }
+
+    // Invoices rendered at the same time all copy the letterhead out of the one parsed template
+    @Test
+    void concurrentRendersEachCarryTheLetterhead() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<byte[]>> pdfs = new ArrayList<>();
+        for (int i = 0; i < 32; i++) {
+            InvoiceEntity invoice = invoice("INV-2025-" + (100 + i));
+            pdfs.add(pool.submit(() -> {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                renderer.render(invoice, List.of(item()), out);
+                return out.toByteArray();
+            }));
+        }
+        for (int i = 0; i < pdfs.size(); i++) {
+            byte[] pdf = pdfs.get(i).get(60, TimeUnit.SECONDS);
+            try (PdfDocument doc = new PdfDocument(new PdfReader(new ByteArrayInputStream(pdf)))) {
+                assertThat(doc.getNumberOfPages()).isEqualTo(1);
+                assertThat(doc.getFirstPage().getResources().getResourceNames(PdfName.XObject)).isNotEmpty();
+                String text = PdfTextExtractor.getTextFromPage(doc.getFirstPage());
+                assertThat(text).contains("Kasthuri Enterprises", "INV-2025-" + (100 + i), "LB-4100");
+            }
+        }
+        pool.shutdown();
+    }
+
+    private static InvoiceEntity invoice(String invoiceNo) {
+        return InvoiceEntity.builder()
+                .invoiceNo(invoiceNo)
+                .generationDate(LocalDate.of(2025, 3, 31))
+                .clientName("Lanka Logistics")
+                .totalAmount(new BigDecimal("23000.00"))
+                .build();
+    }
+
+    private static InvoiceItemEntity item() {
+        return InvoiceItemEntity.builder()
+                .date(LocalDate.of(2025, 3, 4))
+                .vehicleRegNo("LB-4100")
+                .particulars("Colombo - Kandy")
+                .rate(new BigDecimal("25000.00"))
+                .heldUp(new BigDecimal("500.00"))
+                .advance(new BigDecimal("1500.00"))
+                .balance(new BigDecimal("23000.00"))
+                .build();
+    }
+}
@@ -0,0 +1,198 @@
+package com.enterprise.bms.enterprise_bms.service;
+
+import com.enterprise.bms.enterprise_bms.dto.TransportDTO;
+import com.enterprise.bms.enterprise_bms.entity.FuelEntity;
+import com.enterprise.bms.enterprise_bms.entity.MaintenanceEntity;
+import com.enterprise.bms.enterprise_bms.entity.OwnVehiclesEntity;
+import com.enterprise.bms.enterprise_bms.entity.TireMaintenanceEntity;
+import com.enterprise.bms.enterprise_bms.entity.TransportEntity;
+import com.enterprise.bms.enterprise_bms.report.ReportRowWriter;
+import com.enterprise.bms.enterprise_bms.repository.FuelRepository;
+import com.enterprise.bms.enterprise_bms.repository.MaintenanceRepository;
+import com.enterprise.bms.enterprise_bms.repository.OwnVehiclesRepository;
+import com.enterprise.bms.enterprise_bms.repository.TireMaintenanceRepository;
+import com.enterprise.bms.enterprise_bms.repository.TransportRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Listing N records must cost one SQL statement, not 1 + N per association toDTO reads
+@SpringBootTest
+@ActiveProfiles("test")
+class ListQueryStatementCountTest {
+    private static final int ROWS = 5;
+    private static final String MONTH = "2024-03";
+
+    @Autowired
+    private FuelService fuelService;
+    @Autowired
+    private MaintenanceService maintenanceService;
+    @Autowired
+    private TireMaintenanceService tireMaintenanceService;
+    @Autowired
+    private TransportService transportService;
+    @Autowired
+    private OwnVehiclesRepository ownVehiclesRepository;
+    @Autowired
+    private TransportRepository transportRepository;
+    @Autowired
+    private FuelRepository fuelRepository;
+    @Autowired
+    private MaintenanceRepository maintenanceRepository;
+    @Autowired
+    private TireMaintenanceRepository tireMaintenanceRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private OwnVehiclesEntity vehicle;
+
+    @BeforeEach
+    void seed() {
+        vehicle = ownVehiclesRepository.save(vehicle("LST-"));
+        LocalDate date = LocalDate.parse(MONTH + "-01");
+        for (int i = 0; i < ROWS; i++) {
+            // A separate trip per fill, so every fill has its own transport proxy to resolve
+            TransportEntity trip = transportRepository.save(trip(vehicle, date.plusDays(i), i));
+            fuelRepository.save(FuelEntity.builder()
+                    .fuelDate(date.plusDays(i))
+                    .vehicle(vehicle)
+                    .transport(trip)
+                    .fuelQuantity(new BigDecimal("40"))
+                    .totalCost(new BigDecimal("14000"))
+                    .isDelete(false)
+                    .build());
+            maintenanceRepository.save(MaintenanceEntity.builder()
+                    .ownVehicle(vehicle)
+                    .date(date.plusDays(i))
+                    .description("Oil change")
+                    .quantity(1)
+                    .unitPrice(new BigDecimal("9000"))
+                    .totalPrice(new BigDecimal("9000"))
+                    .isDelete(false)
+                    .build());
+            tireMaintenanceRepository.save(TireMaintenanceEntity.builder()
+                    .ownVehicle(vehicle)
+                    .position("FRONT LEFT")
+                    .date(date.plusDays(i))
+                    .quantity(1)
+                    .unitPrice(new BigDecimal("32000"))
+                    .totalPrice(new BigDecimal("32000"))
+                    .isDelete(false)
+                    .build());
+        }
+    }
+
+    @Test
+    void filteredFuelListIsOneStatement() {
+        assertOneStatement(() -> fuelService.getFilteredFuels(vehicle.getId(), MONTH));
+    }
+
+    @Test
+    void fuelPageIsOneStatement() {
+        assertOneStatement(() -> fuelService.getFuelPage(vehicle.getId(), MONTH, ROWS + 1, null).getItems());
+    }
+
+    @Test
+    void fuelByRegNumberIsOneStatement() {
+        assertOneStatement(() -> fuelService.getFuelsByRegNumberAndMonth(vehicle.getRegNumber(), MONTH));
+    }
+
+    @Test
+    void filteredMaintenanceListIsOneStatement() {
+        assertOneStatement(() -> maintenanceService.getFilteredMaintenanceRecords(vehicle.getId(), MONTH));
+    }
+
+    @Test
+    void maintenancePageIsOneStatement() {
+        assertOneStatement(() -> maintenanceService.getMaintenancePage(vehicle.getId(), MONTH, ROWS + 1, null).getItems());
+    }
+
+    @Test
+    void filteredTireMaintenanceListIsOneStatement() {
+        assertOneStatement(() -> tireMaintenanceService.getFilteredTireMaintenanceRecords(vehicle.getId(), MONTH));
+    }
+
+    @Test
+    void filteredTransportListIsOneStatement() {
+        assertOneStatement(() -> transportService.getFilteredTransports(vehicle.getId(), null, MONTH, null));
+    }
+
+    // The report export filters on the vehicle like the list does; another vehicle's trip that
+    // month stays out
+    @Test
+    void transportExportKeepsToTheVehicle() throws IOException {
+        OwnVehiclesEntity other = ownVehiclesRepository.save(vehicle("OTH-"));
+        transportRepository.save(trip(other, LocalDate.parse(MONTH + "-15"), ROWS));
+        List<TransportDTO> rows = new ArrayList<>();
+        transportService.exportTransportRows(vehicle.getId(), MONTH, new ReportRowWriter<>() {
+            @Override
+            public void writeRow(TransportDTO row) {
+                rows.add(row);
+            }
+
+            @Override
+            public void finish() {
+            }
+        });
+        assertThat(rows).hasSize(ROWS).extracting(TransportDTO::getOwnVehicleId).containsOnly(vehicle.getId());
+    }
+
+    // Runs the call in a read-only transaction (as open-in-view gives a web request), so a lazy
+    // association read by toDTO would load instead of failing, and shows up in the count
+    private void assertOneStatement(Supplier<List<?>> listCall) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        statistics.clear();
+        List<?> rows = readOnly.execute(status -> listCall.get());
+        assertThat(rows).hasSize(ROWS);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    private static OwnVehiclesEntity vehicle(String regPrefix) {
+        return OwnVehiclesEntity.builder()
+                .regNumber(regPrefix + System.nanoTime())
+                .type("Lorry")
+                .status("Available")
+                .currentMileage(BigDecimal.ZERO)
+                .isDelete(false)
+                .build();
+    }
+
+    private static TransportEntity trip(OwnVehiclesEntity vehicle, LocalDate loadingDate, int client) {
+        return TransportEntity.builder()
+                .clientName("Client " + client)
+                .startingPoint("Colombo")
+                .destination("Kandy")
+                .loadingDate(loadingDate)
+                .ownVehicle(vehicle)
+                .distanceKm(new BigDecimal("115"))
+                .agreedAmount(new BigDecimal("25000"))
+                .advanceReceived(BigDecimal.ZERO)
+                .balanceReceived(BigDecimal.ZERO)
+                .heldUp(BigDecimal.ZERO)
+                .paymentStatus(1)
+                .tripStatus(1)
+                .isDeleted(false)
+                .invoiceStatus("Not Invoiced")
+                .build();
+    }
+}
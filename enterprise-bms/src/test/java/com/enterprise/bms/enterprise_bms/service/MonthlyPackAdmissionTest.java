@@ -0,0 +1,100 @@
+package com.enterprise.bms.enterprise_bms.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// A pack beyond MAX_CONCURRENT_PACKS is turned away before any of its queries reach the executor
+@SpringBootTest
+@ActiveProfiles("test")
+class MonthlyPackAdmissionTest {
+    private static final YearMonth MONTH = YearMonth.of(2024, 3);
+
+    @Autowired
+    private MonthlyPackService monthlyPackService;
+    @Autowired
+    private ThreadPoolTaskExecutor monthlyPackExecutor;
+
+    @Test
+    void packBeyondTheLimitIsRejectedUpFront() throws Exception {
+        CountDownLatch writing = new CountDownLatch(MonthlyPackService.MAX_CONCURRENT_PACKS);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService downloads = Executors.newFixedThreadPool(MonthlyPackService.MAX_CONCURRENT_PACKS);
+        List<Future<?>> packs = new ArrayList<>();
+        for (int i = 0; i < MonthlyPackService.MAX_CONCURRENT_PACKS; i++) {
+            packs.add(downloads.submit(() -> {
+                monthlyPackService.writeMonthlyPack(MONTH, new SlowClient(writing, release));
+                return null;
+            }));
+        }
+        // Both packs have run their queries and are held while sending the workbook
+        assertThat(writing.await(60, TimeUnit.SECONDS)).isTrue();
+        long submittedQueries = monthlyPackExecutor.getThreadPoolExecutor().getTaskCount();
+
+        assertThatThrownBy(() -> monthlyPackService.streamMonthlyPack(MONTH.toString()))
+                .hasMessageContaining("Try again later");
+        assertThatThrownBy(() -> monthlyPackService.writeMonthlyPack(MONTH, new ByteArrayOutputStream()))
+                .hasMessageContaining("Try again later");
+        assertThat(monthlyPackExecutor.getThreadPoolExecutor().getTaskCount()).isEqualTo(submittedQueries);
+
+        release.countDown();
+        for (Future<?> pack : packs) {
+            pack.get(60, TimeUnit.SECONDS);
+        }
+        downloads.shutdown();
+
+        // Slots are free again once the packs are sent
+        ByteArrayOutputStream workbook = new ByteArrayOutputStream();
+        monthlyPackService.streamMonthlyPack(MONTH.toString()).writeTo(workbook);
+        assertThat(workbook.size()).isPositive();
+    }
+
+    // Blocks on its first write until released, like a client reading the download slowly
+    private static class SlowClient extends OutputStream {
+        private final CountDownLatch writing;
+        private final CountDownLatch release;
+        private boolean started;
+
+        SlowClient(CountDownLatch writing, CountDownLatch release) {
+            this.writing = writing;
+            this.release = release;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (!started) {
+                started = true;
+                writing.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.enterprise.bms.enterprise_bms.service;
+
+import com.enterprise.bms.enterprise_bms.dto.ImportResultDTO;
+import com.enterprise.bms.enterprise_bms.dto.TransportDTO;
+import com.enterprise.bms.enterprise_bms.entity.OwnVehiclesEntity;
+import com.enterprise.bms.enterprise_bms.repository.OwnVehiclesRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Rows the database would refuse, and null array elements, become row errors; the other rows are imported
+@SpringBootTest
+@ActiveProfiles("test")
+class TransportImportRowRejectionTest {
+
+    @Autowired
+    private TransportService transportService;
+    @Autowired
+    private OwnVehiclesRepository ownVehiclesRepository;
+
+    private OwnVehiclesEntity vehicle;
+
+    @BeforeEach
+    void setUp() {
+        vehicle = ownVehiclesRepository.save(OwnVehiclesEntity.builder()
+                .regNumber("TIM-" + System.nanoTime())
+                .type("Lorry")
+                .status("Available")
+                .currentMileage(BigDecimal.ZERO)
+                .isDelete(false)
+                .build());
+    }
+
+    @Test
+    void rowsOverTheColumnLimitsBecomeRowErrors() {
+        TransportDTO longClient = trip("25000");
+        longClient.setClientName("x".repeat(151));
+        TransportDTO longDestination = trip("25000");
+        longDestination.setDestination("x".repeat(201));
+        TransportDTO longDescription = trip("25000");
+        longDescription.setDescription("x".repeat(256));
+        List<TransportDTO> rows = Arrays.asList(
+                trip("25000"),
+                null,
+                longClient,
+                longDestination,
+                longDescription,
+                // agreed_amount is DECIMAL(12,2)
+                trip("12345678901"),
+                trip("9999999999.99"));
+
+        ImportResultDTO result = transportService.importTransports(rows);
+
+        assertThat(result.getTotalRows()).isEqualTo(7);
+        assertThat(result.getImportedRows()).isEqualTo(2);
+        assertThat(result.getErrors()).extracting(ImportResultDTO.RowError::getRow).containsExactly(2, 3, 4, 5, 6);
+        assertThat(result.getErrors()).extracting(ImportResultDTO.RowError::getMessage).containsExactly(
+                "Row is empty",
+                "Client name cannot be longer than 150 characters!",
+                "Destination cannot be longer than 200 characters!",
+                "Description cannot be longer than 255 characters!",
+                "Agreed amount cannot have more than 10 digits before the decimal point!");
+        assertThat(transportService.getFilteredTransports(vehicle.getId(), null, "2024-06", null))
+                .extracting(TransportDTO::getAgreedAmount)
+                .containsExactlyInAnyOrder(new BigDecimal("25000.00"), new BigDecimal("9999999999.99"));
+    }
+
+    private TransportDTO trip(String agreedAmount) {
+        return TransportDTO.builder()
+                .clientName("Client")
+                .startingPoint("Colombo")
+                .destination("Kandy")
+                .loadingDate(LocalDate.of(2024, 6, 3))
+                .ownVehicleId(vehicle.getId())
+                .distanceKm(new BigDecimal("115"))
+                .agreedAmount(new BigDecimal(agreedAmount))
+                .build();
+    }
+}
@@ -0,0 +1,109 @@
+package com.enterprise.bms.enterprise_bms.service;
+
+import com.enterprise.bms.enterprise_bms.dto.UserDTO;
+import com.enterprise.bms.enterprise_bms.entity.UserEntity;
+import com.enterprise.bms.enterprise_bms.repository.UserRepository;
+import com.enterprise.bms.enterprise_bms.utill.JwtUtil;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Deactivating a user, changing their password or resetting it ends the sessions they already hold;
+// other profile edits leave them alone
+@SpringBootTest
+@ActiveProfiles("test")
+class UserTokenRevocationTest {
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JwtUtil jwtUtil;
+    @Value("${jwt.secret}")
+    private String secret;
+
+    private UserDTO user;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        user = userService.registerUser(UserDTO.builder()
+                .username("clerk")
+                .password("old-secret")
+                .role("admin")
+                .email("clerk-" + System.nanoTime() + "@example.com")
+                .build());
+        // Issued in an earlier second than any revocation below (iat has second precision)
+        long now = System.currentTimeMillis();
+        token = Jwts.builder()
+                .setSubject(user.getEmail())
+                .setIssuedAt(new Date(now - 5_000))
+                .setExpiration(new Date(now + 60_000))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret)), SignatureAlgorithm.HS256)
+                .compact();
+        assertThat(jwtUtil.parseToken(token).getSubject()).isEqualTo(user.getEmail());
+    }
+
+    @AfterEach
+    void removeUser() {
+        userRepository.deleteById(user.getId());
+    }
+
+    @Test
+    void deactivationRevokesTokens() {
+        user.setIsActive(false);
+        userService.updateUser(user);
+
+        assertRevoked();
+    }
+
+    @Test
+    void passwordChangeRevokesTokens() {
+        user.setIsActive(true);
+        user.setPassword("new-secret");
+        userService.updateUser(user);
+
+        assertRevoked();
+    }
+
+    @Test
+    void profileEditKeepsTokens() {
+        user.setIsActive(true);
+        user.setPassword(null);
+        user.setUsername("senior clerk");
+        userService.updateUser(user);
+
+        assertThat(jwtUtil.parseToken(token).getSubject()).isEqualTo(user.getEmail());
+    }
+
+    @Test
+    void passwordResetRevokesTokens() {
+        UserEntity entity = userRepository.findById(user.getId()).orElseThrow();
+        entity.setPasswordResetToken("reset-" + System.nanoTime());
+        entity.setPasswordResetExpiry(LocalDateTime.now().plusHours(1));
+        userRepository.save(entity);
+
+        userService.resetPassword(entity.getPasswordResetToken(), "new-secret");
+
+        assertRevoked();
+    }
+
+    private void assertRevoked() {
+        assertThatThrownBy(() -> jwtUtil.parseToken(token)).hasMessage("JWT token has been revoked");
+    }
+}